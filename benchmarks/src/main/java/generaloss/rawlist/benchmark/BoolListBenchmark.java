@@ -0,0 +1,77 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.BoolList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoolListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private boolean[] values;
+    private boolean[] chunk;
+    private BoolList list;
+
+    @Setup
+    public void setup() {
+        values = new boolean[size];
+        chunk = new boolean[]{true, true, true, true, true, true, true, true};
+        list = new BoolList(values.clone());
+    }
+
+
+    @Benchmark
+    public BoolList add() {
+        final BoolList list = new BoolList();
+        for(boolean value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public BoolList addPresized() {
+        final BoolList list = new BoolList(size);
+        for(boolean value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public BoolList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(true);
+    }
+
+    @Benchmark
+    public int iterateGet() {
+        int count = 0;
+        for(int i = 0; i < list.size(); i++)
+            if(list.get(i))
+                count++;
+        return count;
+    }
+
+    @Benchmark
+    public int iterateForEach() {
+        int count = 0;
+        for(boolean value: list)
+            if(value)
+                count++;
+        return count;
+    }
+
+}
@@ -0,0 +1,88 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.ByteList;
+import generaloss.rawlist.function.ByteConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private byte[] values;
+    private byte[] chunk;
+    private ByteList list;
+
+    private long sum;
+    private final ByteConsumer summator = (value) -> sum += value;
+
+    @Setup
+    public void setup() {
+        values = new byte[size];
+        for(int i = 0; i < size; i++)
+            values[i] = (byte) (i & 0x3F);
+        chunk = new byte[]{-1, -2, -3, -4, -5, -6, -7, -8};
+        list = new ByteList(values.clone());
+    }
+
+
+    @Benchmark
+    public ByteList add() {
+        final ByteList list = new ByteList();
+        for(byte value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ByteList addPresized() {
+        final ByteList list = new ByteList(size);
+        for(byte value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ByteList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf((byte) -1);
+    }
+
+    @Benchmark
+    public long iterateGet() {
+        long sum = 0;
+        for(int i = 0; i < list.size(); i++)
+            sum += list.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateForEach() {
+        long sum = 0;
+        for(byte value: list)
+            sum += value;
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateConsumer() {
+        sum = 0;
+        list.forEach(summator);
+        return sum;
+    }
+
+}
@@ -0,0 +1,88 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.CharList;
+import generaloss.rawlist.function.CharConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private char[] values;
+    private char[] chunk;
+    private CharList list;
+
+    private long sum;
+    private final CharConsumer summator = (value) -> sum += value;
+
+    @Setup
+    public void setup() {
+        values = new char[size];
+        for(int i = 0; i < size; i++)
+            values[i] = (char) ('a' + (i % 26));
+        chunk = new char[]{'0', '1', '2', '3', '4', '5', '6', '7'};
+        list = new CharList(values.clone());
+    }
+
+
+    @Benchmark
+    public CharList add() {
+        final CharList list = new CharList();
+        for(char value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public CharList addPresized() {
+        final CharList list = new CharList(size);
+        for(char value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public CharList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf('#');
+    }
+
+    @Benchmark
+    public long iterateGet() {
+        long sum = 0;
+        for(int i = 0; i < list.size(); i++)
+            sum += list.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateForEach() {
+        long sum = 0;
+        for(char value: list)
+            sum += value;
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateConsumer() {
+        sum = 0;
+        list.forEach(summator);
+        return sum;
+    }
+
+}
@@ -0,0 +1,88 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.DoubleList;
+import generaloss.rawlist.function.DoubleValueConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoubleListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private double[] values;
+    private double[] chunk;
+    private DoubleList list;
+
+    private double sum;
+    private final DoubleValueConsumer summator = (value) -> sum += value;
+
+    @Setup
+    public void setup() {
+        values = new double[size];
+        for(int i = 0; i < size; i++)
+            values[i] = i * 0.5D;
+        chunk = new double[]{-1, -2, -3, -4, -5, -6, -7, -8};
+        list = new DoubleList(values.clone());
+    }
+
+
+    @Benchmark
+    public DoubleList add() {
+        final DoubleList list = new DoubleList();
+        for(double value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public DoubleList addPresized() {
+        final DoubleList list = new DoubleList(size);
+        for(double value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public DoubleList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(-1D);
+    }
+
+    @Benchmark
+    public double iterateGet() {
+        double sum = 0;
+        for(int i = 0; i < list.size(); i++)
+            sum += list.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public double iterateForEach() {
+        double sum = 0;
+        for(double value: list)
+            sum += value;
+        return sum;
+    }
+
+    @Benchmark
+    public double iterateConsumer() {
+        sum = 0;
+        list.forEach(summator);
+        return sum;
+    }
+
+}
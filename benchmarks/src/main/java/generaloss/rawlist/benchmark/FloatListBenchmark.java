@@ -0,0 +1,146 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.FloatList;
+import generaloss.rawlist.function.FloatConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloatListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private float[] values;
+    private float[] chunk;
+    private FloatList list;
+
+    private double sum;
+    private final FloatConsumer summator = (value) -> sum += value;
+
+    private List<Float> boxedChunk;
+    private ArrayList<Float> boxedList;
+
+    @Setup
+    public void setup() {
+        values = new float[size];
+        for(int i = 0; i < size; i++)
+            values[i] = i * 0.5F;
+        chunk = new float[]{-1, -2, -3, -4, -5, -6, -7, -8};
+        list = new FloatList(values.clone());
+
+        boxedChunk = new ArrayList<>();
+        for(float value: chunk)
+            boxedChunk.add(value);
+        boxedList = new ArrayList<>(size);
+        for(float value: values)
+            boxedList.add(value);
+    }
+
+
+    @Benchmark
+    public FloatList add() {
+        final FloatList list = new FloatList();
+        for(float value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public FloatList addPresized() {
+        final FloatList list = new FloatList(size);
+        for(float value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public FloatList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(-1F);
+    }
+
+    @Benchmark
+    public double iterateGet() {
+        double sum = 0;
+        for(int i = 0; i < list.size(); i++)
+            sum += list.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public double iterateForEach() {
+        double sum = 0;
+        for(float value: list)
+            sum += value;
+        return sum;
+    }
+
+    @Benchmark
+    public double iterateConsumer() {
+        sum = 0;
+        list.forEach(summator);
+        return sum;
+    }
+
+
+    @Benchmark
+    public ArrayList<Float> boxed_add() {
+        final ArrayList<Float> list = new ArrayList<>();
+        for(float value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ArrayList<Float> boxed_addPresized() {
+        final ArrayList<Float> list = new ArrayList<>(size);
+        for(float value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ArrayList<Float> boxed_insertRemove() {
+        final int middle = (size >> 1);
+        boxedList.addAll(middle, boxedChunk);
+        boxedList.subList(middle, middle + boxedChunk.size()).clear();
+        return boxedList;
+    }
+
+    @Benchmark
+    public int boxed_indexOf() {
+        return boxedList.indexOf(-1F);
+    }
+
+    @Benchmark
+    public double boxed_iterateGet() {
+        double sum = 0;
+        for(int i = 0; i < boxedList.size(); i++)
+            sum += boxedList.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public double boxed_iterateForEach() {
+        double sum = 0;
+        for(float value: boxedList)
+            sum += value;
+        return sum;
+    }
+
+}
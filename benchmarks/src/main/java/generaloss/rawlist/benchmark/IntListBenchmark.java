@@ -0,0 +1,146 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.IntList;
+import generaloss.rawlist.function.IntValueConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private int[] values;
+    private int[] chunk;
+    private IntList list;
+
+    private long sum;
+    private final IntValueConsumer summator = (value) -> sum += value;
+
+    private List<Integer> boxedChunk;
+    private ArrayList<Integer> boxedList;
+
+    @Setup
+    public void setup() {
+        values = new int[size];
+        for(int i = 0; i < size; i++)
+            values[i] = i;
+        chunk = new int[]{-1, -2, -3, -4, -5, -6, -7, -8};
+        list = new IntList(values.clone());
+
+        boxedChunk = new ArrayList<>();
+        for(int value: chunk)
+            boxedChunk.add(value);
+        boxedList = new ArrayList<>(size);
+        for(int value: values)
+            boxedList.add(value);
+    }
+
+
+    @Benchmark
+    public IntList add() {
+        final IntList list = new IntList();
+        for(int value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public IntList addPresized() {
+        final IntList list = new IntList(size);
+        for(int value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public IntList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(-1);
+    }
+
+    @Benchmark
+    public long iterateGet() {
+        long sum = 0;
+        for(int i = 0; i < list.size(); i++)
+            sum += list.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateForEach() {
+        long sum = 0;
+        for(int value: list)
+            sum += value;
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateConsumer() {
+        sum = 0;
+        list.forEach(summator);
+        return sum;
+    }
+
+
+    @Benchmark
+    public ArrayList<Integer> boxed_add() {
+        final ArrayList<Integer> list = new ArrayList<>();
+        for(int value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> boxed_addPresized() {
+        final ArrayList<Integer> list = new ArrayList<>(size);
+        for(int value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> boxed_insertRemove() {
+        final int middle = (size >> 1);
+        boxedList.addAll(middle, boxedChunk);
+        boxedList.subList(middle, middle + boxedChunk.size()).clear();
+        return boxedList;
+    }
+
+    @Benchmark
+    public int boxed_indexOf() {
+        return boxedList.indexOf(-1);
+    }
+
+    @Benchmark
+    public long boxed_iterateGet() {
+        long sum = 0;
+        for(int i = 0; i < boxedList.size(); i++)
+            sum += boxedList.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long boxed_iterateForEach() {
+        long sum = 0;
+        for(int value: boxedList)
+            sum += value;
+        return sum;
+    }
+
+}
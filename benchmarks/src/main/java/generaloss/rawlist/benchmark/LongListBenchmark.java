@@ -0,0 +1,110 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.LongList;
+import generaloss.rawlist.function.LongValueConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private long[] values;
+    private long[] chunk;
+    private long[] shuffled;
+    private LongList list;
+
+    private long sum;
+    private final LongValueConsumer summator = (value) -> sum += value;
+
+    @Setup
+    public void setup() {
+        values = new long[size];
+        for(int i = 0; i < size; i++)
+            values[i] = i;
+        chunk = new long[]{-1, -2, -3, -4, -5, -6, -7, -8};
+        list = new LongList(values.clone());
+
+        final Random random = new Random(size);
+        shuffled = new long[size];
+        for(int i = 0; i < size; i++)
+            shuffled[i] = random.nextLong();
+    }
+
+
+    @Benchmark
+    public LongList add() {
+        final LongList list = new LongList();
+        for(long value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public LongList addPresized() {
+        final LongList list = new LongList(size);
+        for(long value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public LongList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(-1L);
+    }
+
+    @Benchmark
+    public long iterateGet() {
+        long sum = 0;
+        for(int i = 0; i < list.size(); i++)
+            sum += list.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateForEach() {
+        long sum = 0;
+        for(long value: list)
+            sum += value;
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateConsumer() {
+        sum = 0;
+        list.forEach(summator);
+        return sum;
+    }
+
+    @Benchmark
+    public LongList sort() {
+        return new LongList(shuffled.clone()).sort();
+    }
+
+    @Benchmark
+    public LongList parallelSort() {
+        return new LongList(shuffled.clone()).parallelSort();
+    }
+
+    @Benchmark
+    public LongList radixSort() {
+        return new LongList(shuffled.clone()).radixSort();
+    }
+
+}
@@ -0,0 +1,88 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.ShortList;
+import generaloss.rawlist.function.ShortConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private short[] values;
+    private short[] chunk;
+    private ShortList list;
+
+    private long sum;
+    private final ShortConsumer summator = (value) -> sum += value;
+
+    @Setup
+    public void setup() {
+        values = new short[size];
+        for(int i = 0; i < size; i++)
+            values[i] = (short) (i & 0x3FFF);
+        chunk = new short[]{-1, -2, -3, -4, -5, -6, -7, -8};
+        list = new ShortList(values.clone());
+    }
+
+
+    @Benchmark
+    public ShortList add() {
+        final ShortList list = new ShortList();
+        for(short value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ShortList addPresized() {
+        final ShortList list = new ShortList(size);
+        for(short value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public ShortList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf((short) -1);
+    }
+
+    @Benchmark
+    public long iterateGet() {
+        long sum = 0;
+        for(int i = 0; i < list.size(); i++)
+            sum += list.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateForEach() {
+        long sum = 0;
+        for(short value: list)
+            sum += value;
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateConsumer() {
+        sum = 0;
+        list.forEach(summator);
+        return sum;
+    }
+
+}
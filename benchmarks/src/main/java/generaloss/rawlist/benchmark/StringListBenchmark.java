@@ -0,0 +1,77 @@
+package generaloss.rawlist.benchmark;
+
+import generaloss.rawlist.StringList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private String[] values;
+    private String[] chunk;
+    private StringList list;
+
+    @Setup
+    public void setup() {
+        values = new String[size];
+        for(int i = 0; i < size; i++)
+            values[i] = ("s" + i);
+        chunk = new String[]{"a", "b", "c", "d", "e", "f", "g", "h"};
+        list = new StringList(values.clone());
+    }
+
+
+    @Benchmark
+    public StringList add() {
+        final StringList list = new StringList();
+        for(String value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public StringList addPresized() {
+        final StringList list = new StringList(size);
+        for(String value: values)
+            list.add(value);
+        return list;
+    }
+
+    @Benchmark
+    public StringList insertRemove() {
+        final int middle = (size >> 1);
+        list.add(middle, chunk);
+        return list.remove(middle, chunk.length);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf("absent");
+    }
+
+    @Benchmark
+    public int iterateGet() {
+        int length = 0;
+        for(int i = 0; i < list.size(); i++)
+            length += list.get(i).length();
+        return length;
+    }
+
+    @Benchmark
+    public int iterateForEach() {
+        int length = 0;
+        for(String value: list)
+            length += value.length();
+        return length;
+    }
+
+}
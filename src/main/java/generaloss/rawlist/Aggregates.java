@@ -0,0 +1,637 @@
+package generaloss.rawlist;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+public class Aggregates {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = (1 << 17);
+    private static final int MIN_TASK_LENGTH = (1 << 13);
+
+    private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    // ranges of this length and longer are split across the common fork/join pool
+    public static void setParallelThreshold(int threshold) {
+        if(threshold < 1)
+            throw new IllegalArgumentException();
+        parallelThreshold = threshold;
+    }
+
+    private static boolean isParallel(int from, int to) {
+        return (to - from >= parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+
+    public static long sum(byte[] array, int from, int to) {
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> sumRange(array, start, end), Long::sum);
+        return sumRange(array, from, to);
+    }
+
+    private static long sumRange(byte[] array, int from, int to) {
+        long sum = 0L;
+        for(int i = from; i < to; i++)
+            sum += array[i];
+        return sum;
+    }
+
+    public static int argMin(byte[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMinRange(array, start, end), (left, right) -> (array[right] < array[left] ? right : left));
+        return argMinRange(array, from, to);
+    }
+
+    private static int argMinRange(byte[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] < array[index])
+                index = i;
+        return index;
+    }
+
+    public static int argMax(byte[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMaxRange(array, start, end), (left, right) -> (array[right] > array[left] ? right : left));
+        return argMaxRange(array, from, to);
+    }
+
+    private static int argMaxRange(byte[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] > array[index])
+                index = i;
+        return index;
+    }
+
+    public static byte min(byte[] array, int from, int to) {
+        final int index = argMin(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static byte max(byte[] array, int from, int to) {
+        final int index = argMax(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static double mean(byte[] array, int from, int to) {
+        if(from >= to)
+            throw new NoSuchElementException();
+        return (double) sum(array, from, to) / (to - from);
+    }
+
+    // population variance, two-pass with a compensated sum of squared deviations
+    public static double variance(byte[] array, int from, int to) {
+        final double mean = mean(array, from, to);
+        return compensatedReduce(from, to, (start, end) -> squaredDeviationsRange(array, start, end, mean)) / (to - from);
+    }
+
+    private static double[] squaredDeviationsRange(byte[] array, int from, int to, double mean) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double deviation = (array[i] - mean);
+            final double value = (deviation * deviation);
+            final double total = (sum + value);
+            compensation += (sum >= value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+
+    public static long sum(short[] array, int from, int to) {
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> sumRange(array, start, end), Long::sum);
+        return sumRange(array, from, to);
+    }
+
+    private static long sumRange(short[] array, int from, int to) {
+        long sum = 0L;
+        for(int i = from; i < to; i++)
+            sum += array[i];
+        return sum;
+    }
+
+    public static int argMin(short[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMinRange(array, start, end), (left, right) -> (array[right] < array[left] ? right : left));
+        return argMinRange(array, from, to);
+    }
+
+    private static int argMinRange(short[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] < array[index])
+                index = i;
+        return index;
+    }
+
+    public static int argMax(short[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMaxRange(array, start, end), (left, right) -> (array[right] > array[left] ? right : left));
+        return argMaxRange(array, from, to);
+    }
+
+    private static int argMaxRange(short[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] > array[index])
+                index = i;
+        return index;
+    }
+
+    public static short min(short[] array, int from, int to) {
+        final int index = argMin(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static short max(short[] array, int from, int to) {
+        final int index = argMax(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static double mean(short[] array, int from, int to) {
+        if(from >= to)
+            throw new NoSuchElementException();
+        return (double) sum(array, from, to) / (to - from);
+    }
+
+    // population variance, two-pass with a compensated sum of squared deviations
+    public static double variance(short[] array, int from, int to) {
+        final double mean = mean(array, from, to);
+        return compensatedReduce(from, to, (start, end) -> squaredDeviationsRange(array, start, end, mean)) / (to - from);
+    }
+
+    private static double[] squaredDeviationsRange(short[] array, int from, int to, double mean) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double deviation = (array[i] - mean);
+            final double value = (deviation * deviation);
+            final double total = (sum + value);
+            compensation += (sum >= value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+
+    public static long sum(int[] array, int from, int to) {
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> sumRange(array, start, end), Long::sum);
+        return sumRange(array, from, to);
+    }
+
+    private static long sumRange(int[] array, int from, int to) {
+        long sum = 0L;
+        for(int i = from; i < to; i++)
+            sum += array[i];
+        return sum;
+    }
+
+    public static int argMin(int[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMinRange(array, start, end), (left, right) -> (array[right] < array[left] ? right : left));
+        return argMinRange(array, from, to);
+    }
+
+    private static int argMinRange(int[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] < array[index])
+                index = i;
+        return index;
+    }
+
+    public static int argMax(int[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMaxRange(array, start, end), (left, right) -> (array[right] > array[left] ? right : left));
+        return argMaxRange(array, from, to);
+    }
+
+    private static int argMaxRange(int[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] > array[index])
+                index = i;
+        return index;
+    }
+
+    public static int min(int[] array, int from, int to) {
+        final int index = argMin(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static int max(int[] array, int from, int to) {
+        final int index = argMax(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static double mean(int[] array, int from, int to) {
+        if(from >= to)
+            throw new NoSuchElementException();
+        return (double) sum(array, from, to) / (to - from);
+    }
+
+    // population variance, two-pass with a compensated sum of squared deviations
+    public static double variance(int[] array, int from, int to) {
+        final double mean = mean(array, from, to);
+        return compensatedReduce(from, to, (start, end) -> squaredDeviationsRange(array, start, end, mean)) / (to - from);
+    }
+
+    private static double[] squaredDeviationsRange(int[] array, int from, int to, double mean) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double deviation = (array[i] - mean);
+            final double value = (deviation * deviation);
+            final double total = (sum + value);
+            compensation += (sum >= value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+
+    // throws ArithmeticException instead of silently wrapping
+    public static long sum(long[] array, int from, int to) {
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> sumRange(array, start, end), Math::addExact);
+        return sumRange(array, from, to);
+    }
+
+    private static long sumRange(long[] array, int from, int to) {
+        long sum = 0L;
+        for(int i = from; i < to; i++)
+            sum = Math.addExact(sum, array[i]);
+        return sum;
+    }
+
+    private static double compensatedSum(long[] array, int from, int to) {
+        return compensatedReduce(from, to, (start, end) -> compensatedSumRange(array, start, end));
+    }
+
+    // Neumaier summation
+    private static double[] compensatedSumRange(long[] array, int from, int to) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double value = array[i];
+            final double total = (sum + value);
+            if(Math.abs(sum) >= Math.abs(value)){
+                compensation += (sum - total) + value;
+            }else{
+                compensation += (value - total) + sum;
+            }
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+    public static int argMin(long[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMinRange(array, start, end), (left, right) -> (array[right] < array[left] ? right : left));
+        return argMinRange(array, from, to);
+    }
+
+    private static int argMinRange(long[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] < array[index])
+                index = i;
+        return index;
+    }
+
+    public static int argMax(long[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMaxRange(array, start, end), (left, right) -> (array[right] > array[left] ? right : left));
+        return argMaxRange(array, from, to);
+    }
+
+    private static int argMaxRange(long[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(array[i] > array[index])
+                index = i;
+        return index;
+    }
+
+    public static long min(long[] array, int from, int to) {
+        final int index = argMin(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static long max(long[] array, int from, int to) {
+        final int index = argMax(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static double mean(long[] array, int from, int to) {
+        if(from >= to)
+            throw new NoSuchElementException();
+        return compensatedSum(array, from, to) / (to - from);
+    }
+
+    // population variance, two-pass with a compensated sum of squared deviations
+    public static double variance(long[] array, int from, int to) {
+        final double mean = mean(array, from, to);
+        return compensatedReduce(from, to, (start, end) -> squaredDeviationsRange(array, start, end, mean)) / (to - from);
+    }
+
+    private static double[] squaredDeviationsRange(long[] array, int from, int to, double mean) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double deviation = (array[i] - mean);
+            final double value = (deviation * deviation);
+            final double total = (sum + value);
+            compensation += (sum >= value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+
+    public static double sum(float[] array, int from, int to) {
+        return compensatedReduce(from, to, (start, end) -> compensatedSumRange(array, start, end));
+    }
+
+    // Neumaier summation
+    private static double[] compensatedSumRange(float[] array, int from, int to) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double value = array[i];
+            final double total = (sum + value);
+            if(Math.abs(sum) >= Math.abs(value)){
+                compensation += (sum - total) + value;
+            }else{
+                compensation += (value - total) + sum;
+            }
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+    public static int argMin(float[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMinRange(array, start, end), (left, right) -> (Float.compare(array[right], array[left]) < 0 ? right : left));
+        return argMinRange(array, from, to);
+    }
+
+    private static int argMinRange(float[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(Float.compare(array[i], array[index]) < 0)
+                index = i;
+        return index;
+    }
+
+    public static int argMax(float[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMaxRange(array, start, end), (left, right) -> (Float.compare(array[right], array[left]) > 0 ? right : left));
+        return argMaxRange(array, from, to);
+    }
+
+    private static int argMaxRange(float[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(Float.compare(array[i], array[index]) > 0)
+                index = i;
+        return index;
+    }
+
+    public static float min(float[] array, int from, int to) {
+        final int index = argMin(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static float max(float[] array, int from, int to) {
+        final int index = argMax(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static double mean(float[] array, int from, int to) {
+        if(from >= to)
+            throw new NoSuchElementException();
+        return sum(array, from, to) / (to - from);
+    }
+
+    // population variance, two-pass with a compensated sum of squared deviations
+    public static double variance(float[] array, int from, int to) {
+        final double mean = mean(array, from, to);
+        return compensatedReduce(from, to, (start, end) -> squaredDeviationsRange(array, start, end, mean)) / (to - from);
+    }
+
+    private static double[] squaredDeviationsRange(float[] array, int from, int to, double mean) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double deviation = (array[i] - mean);
+            final double value = (deviation * deviation);
+            final double total = (sum + value);
+            compensation += (sum >= value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+
+    public static double sum(double[] array, int from, int to) {
+        return compensatedReduce(from, to, (start, end) -> compensatedSumRange(array, start, end));
+    }
+
+    // Neumaier summation
+    private static double[] compensatedSumRange(double[] array, int from, int to) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double value = array[i];
+            final double total = (sum + value);
+            if(Math.abs(sum) >= Math.abs(value)){
+                compensation += (sum - total) + value;
+            }else{
+                compensation += (value - total) + sum;
+            }
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+    public static int argMin(double[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMinRange(array, start, end), (left, right) -> (Double.compare(array[right], array[left]) < 0 ? right : left));
+        return argMinRange(array, from, to);
+    }
+
+    private static int argMinRange(double[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(Double.compare(array[i], array[index]) < 0)
+                index = i;
+        return index;
+    }
+
+    public static int argMax(double[] array, int from, int to) {
+        if(from >= to)
+            return -1;
+        if(isParallel(from, to))
+            return reduce(from, to, (start, end) -> argMaxRange(array, start, end), (left, right) -> (Double.compare(array[right], array[left]) > 0 ? right : left));
+        return argMaxRange(array, from, to);
+    }
+
+    private static int argMaxRange(double[] array, int from, int to) {
+        int index = from;
+        for(int i = from + 1; i < to; i++)
+            if(Double.compare(array[i], array[index]) > 0)
+                index = i;
+        return index;
+    }
+
+    public static double min(double[] array, int from, int to) {
+        final int index = argMin(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static double max(double[] array, int from, int to) {
+        final int index = argMax(array, from, to);
+        if(index == -1)
+            throw new NoSuchElementException();
+        return array[index];
+    }
+
+    public static double mean(double[] array, int from, int to) {
+        if(from >= to)
+            throw new NoSuchElementException();
+        return sum(array, from, to) / (to - from);
+    }
+
+    // population variance, two-pass with a compensated sum of squared deviations
+    public static double variance(double[] array, int from, int to) {
+        final double mean = mean(array, from, to);
+        return compensatedReduce(from, to, (start, end) -> squaredDeviationsRange(array, start, end, mean)) / (to - from);
+    }
+
+    private static double[] squaredDeviationsRange(double[] array, int from, int to, double mean) {
+        double sum = 0D;
+        double compensation = 0D;
+        for(int i = from; i < to; i++){
+            final double deviation = (array[i] - mean);
+            final double value = (deviation * deviation);
+            final double total = (sum + value);
+            compensation += (sum >= value) ? (sum - total) + value : (value - total) + sum;
+            sum = total;
+        }
+        return new double[]{ sum, compensation };
+    }
+
+    // partial sums are reduced as { sum, compensation } pairs and merged with Neumaier summation
+    private static double compensatedReduce(int from, int to, RangeFunction<double[]> function) {
+        final double[] partial = (isParallel(from, to) ? reduce(from, to, function, Aggregates::mergePartials) : function.apply(from, to));
+        return (partial[0] + partial[1]);
+    }
+
+    private static double[] mergePartials(double[] left, double[] right) {
+        final double sum = left[0];
+        final double value = right[0];
+        final double total = (sum + value);
+        double compensation = (left[1] + right[1]);
+        if(Math.abs(sum) >= Math.abs(value)){
+            compensation += (sum - total) + value;
+        }else{
+            compensation += (value - total) + sum;
+        }
+        return new double[]{ total, compensation };
+    }
+
+    private interface RangeFunction<R> {
+        R apply(int from, int to);
+    }
+
+    private static <R> R reduce(int from, int to, RangeFunction<R> function, BinaryOperator<R> combiner) {
+        final int taskLength = Math.max(MIN_TASK_LENGTH, (to - from) / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        return ForkJoinPool.commonPool().invoke(new ReduceTask<>(from, to, taskLength, function, combiner));
+    }
+
+    private static class ReduceTask<R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, taskLength;
+        private final RangeFunction<R> function;
+        private final BinaryOperator<R> combiner;
+
+        public ReduceTask(int from, int to, int taskLength, RangeFunction<R> function, BinaryOperator<R> combiner) {
+            this.from = from;
+            this.to = to;
+            this.taskLength = taskLength;
+            this.function = function;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if(to - from <= taskLength)
+                return function.apply(from, to);
+
+            final int middle = ((from + to) >>> 1);
+            final ReduceTask<R> left = new ReduceTask<>(from, middle, taskLength, function, combiner);
+            final ReduceTask<R> right = new ReduceTask<>(middle, to, taskLength, function, combiner);
+            left.fork();
+            final R rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+
+    }
+
+}
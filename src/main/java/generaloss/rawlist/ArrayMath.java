@@ -0,0 +1,477 @@
+package generaloss.rawlist;
+
+public class ArrayMath {
+
+    public static void add(byte[] array, int from, int to, byte value) {
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    public static void sub(byte[] array, int from, int to, byte value) {
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    public static void mul(byte[] array, int from, int to, byte value) {
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    public static void div(byte[] array, int from, int to, byte value) {
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    public static void add(byte[] array, int offset, byte[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    public static void sub(byte[] array, int offset, byte[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    public static void mul(byte[] array, int offset, byte[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    public static void div(byte[] array, int offset, byte[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    public static void fma(byte[] array, int from, int to, byte multiplier, byte addend) {
+        for(int i = from; i < to; i++)
+            array[i] = (byte) (array[i] * multiplier + addend);
+    }
+
+    public static void clamp(byte[] array, int from, int to, byte min, byte max) {
+        for(int i = from; i < to; i++)
+            array[i] = (byte) Math.max(min, Math.min(max, array[i]));
+    }
+
+
+    public static void add(short[] array, int from, int to, short value) {
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    public static void sub(short[] array, int from, int to, short value) {
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    public static void mul(short[] array, int from, int to, short value) {
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    public static void div(short[] array, int from, int to, short value) {
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    public static void add(short[] array, int offset, short[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    public static void sub(short[] array, int offset, short[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    public static void mul(short[] array, int offset, short[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    public static void div(short[] array, int offset, short[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    public static void fma(short[] array, int from, int to, short multiplier, short addend) {
+        for(int i = from; i < to; i++)
+            array[i] = (short) (array[i] * multiplier + addend);
+    }
+
+    public static void clamp(short[] array, int from, int to, short min, short max) {
+        for(int i = from; i < to; i++)
+            array[i] = (short) Math.max(min, Math.min(max, array[i]));
+    }
+
+
+    public static void add(int[] array, int from, int to, int value) {
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    public static void sub(int[] array, int from, int to, int value) {
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    public static void mul(int[] array, int from, int to, int value) {
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    public static void div(int[] array, int from, int to, int value) {
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    public static void add(int[] array, int offset, int[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    public static void sub(int[] array, int offset, int[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    public static void mul(int[] array, int offset, int[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    public static void div(int[] array, int offset, int[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    public static void fma(int[] array, int from, int to, int multiplier, int addend) {
+        for(int i = from; i < to; i++)
+            array[i] = (array[i] * multiplier + addend);
+    }
+
+    public static void clamp(int[] array, int from, int to, int min, int max) {
+        for(int i = from; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+
+    public static void add(long[] array, int from, int to, long value) {
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    public static void sub(long[] array, int from, int to, long value) {
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    public static void mul(long[] array, int from, int to, long value) {
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    public static void div(long[] array, int from, int to, long value) {
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    public static void add(long[] array, int offset, long[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    public static void sub(long[] array, int offset, long[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    public static void mul(long[] array, int offset, long[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    public static void div(long[] array, int offset, long[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    public static void fma(long[] array, int from, int to, long multiplier, long addend) {
+        for(int i = from; i < to; i++)
+            array[i] = (array[i] * multiplier + addend);
+    }
+
+    public static void clamp(long[] array, int from, int to, long min, long max) {
+        for(int i = from; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+
+    public static void add(float[] array, int from, int to, float value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.add(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    public static void sub(float[] array, int from, int to, float value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.sub(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    public static void mul(float[] array, int from, int to, float value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.mul(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    public static void div(float[] array, int from, int to, float value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.div(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    public static void add(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.add(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    public static void sub(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.sub(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    public static void mul(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.mul(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    public static void div(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.div(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    public static void fma(float[] array, int from, int to, float multiplier, float addend) {
+        if(Simd.isEnabled(to - from)){
+            Simd.fma(array, from, to, multiplier, addend);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] = Math.fma(array[i], multiplier, addend);
+    }
+
+    public static void clamp(float[] array, int from, int to, float min, float max) {
+        if(Simd.isEnabled(to - from)){
+            Simd.clamp(array, from, to, min, max);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+    public static void lerp(float[] array, int from, int to, float target, float t) {
+        if(Simd.isEnabled(to - from)){
+            Simd.lerp(array, from, to, target, t);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] += (target - array[i]) * t;
+    }
+
+    public static void lerp(float[] array, int offset, float[] targets, int targetsOffset, int length, float t) {
+        if(Simd.isEnabled(length)){
+            Simd.lerp(array, offset, targets, targetsOffset, length, t);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] += (targets[targetsOffset + i] - array[offset + i]) * t;
+    }
+
+
+    public static void add(double[] array, int from, int to, double value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.add(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    public static void sub(double[] array, int from, int to, double value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.sub(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    public static void mul(double[] array, int from, int to, double value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.mul(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    public static void div(double[] array, int from, int to, double value) {
+        if(Simd.isEnabled(to - from)){
+            Simd.div(array, from, to, value);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    public static void add(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.add(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    public static void sub(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.sub(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    public static void mul(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.mul(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    public static void div(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        if(Simd.isEnabled(length)){
+            Simd.div(array, offset, values, valuesOffset, length);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    public static void fma(double[] array, int from, int to, double multiplier, double addend) {
+        if(Simd.isEnabled(to - from)){
+            Simd.fma(array, from, to, multiplier, addend);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] = Math.fma(array[i], multiplier, addend);
+    }
+
+    public static void clamp(double[] array, int from, int to, double min, double max) {
+        if(Simd.isEnabled(to - from)){
+            Simd.clamp(array, from, to, min, max);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+    public static void lerp(double[] array, int from, int to, double target, double t) {
+        if(Simd.isEnabled(to - from)){
+            Simd.lerp(array, from, to, target, t);
+            return;
+        }
+        for(int i = from; i < to; i++)
+            array[i] += (target - array[i]) * t;
+    }
+
+    public static void lerp(double[] array, int offset, double[] targets, int targetsOffset, int length, double t) {
+        if(Simd.isEnabled(length)){
+            Simd.lerp(array, offset, targets, targetsOffset, length, t);
+            return;
+        }
+        for(int i = 0; i < length; i++)
+            array[offset + i] += (targets[targetsOffset + i] - array[offset + i]) * t;
+    }
+
+
+    public static void add(char[] array, int from, int to, char value) {
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    public static void sub(char[] array, int from, int to, char value) {
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    public static void mul(char[] array, int from, int to, char value) {
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    public static void div(char[] array, int from, int to, char value) {
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    public static void add(char[] array, int offset, char[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    public static void sub(char[] array, int offset, char[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    public static void mul(char[] array, int offset, char[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    public static void div(char[] array, int offset, char[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    public static void fma(char[] array, int from, int to, char multiplier, char addend) {
+        for(int i = from; i < to; i++)
+            array[i] = (char) (array[i] * multiplier + addend);
+    }
+
+    public static void clamp(char[] array, int from, int to, char min, char max) {
+        for(int i = from; i < to; i++)
+            array[i] = (char) Math.max(min, Math.min(max, array[i]));
+    }
+
+}
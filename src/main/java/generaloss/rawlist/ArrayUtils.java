@@ -18,53 +18,159 @@ public class ArrayUtils {
     }
 
 
+    public static int indexOf(byte[] array, byte target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.indexOf(array, target, start, end);
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int lastIndexOf(byte[] array, byte target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.lastIndexOf(array, target, start, end);
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int indexOf(short[] array, short target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.indexOf(array, target, start, end);
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int lastIndexOf(short[] array, short target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.lastIndexOf(array, target, start, end);
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int indexOf(int[] array, int target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.indexOf(array, target, start, end);
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int lastIndexOf(int[] array, int target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.lastIndexOf(array, target, start, end);
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int indexOf(long[] array, long target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.indexOf(array, target, start, end);
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int lastIndexOf(long[] array, long target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.lastIndexOf(array, target, start, end);
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int indexOf(float[] array, float target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.indexOf(array, target, start, end);
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int lastIndexOf(float[] array, float target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.lastIndexOf(array, target, start, end);
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int indexOf(double[] array, double target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.indexOf(array, target, start, end);
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int lastIndexOf(double[] array, double target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.lastIndexOf(array, target, start, end);
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int indexOf(char[] array, char target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.indexOf(array, target, start, end);
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    public static int lastIndexOf(char[] array, char target, int start, int end) {
+        if(Simd.isEnabled(end - start))
+            return Simd.lastIndexOf(array, target, start, end);
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+
     public static boolean contains(byte[] array, byte target) {
-        for(byte element: array)
-            if(element == target)
-                return true;
-        return false;
+        return (indexOf(array, target, 0, array.length) != -1);
     }
 
     public static boolean contains(short[] array, short target) {
-        for(short element: array)
-            if(element == target)
-                return true;
-        return false;
+        return (indexOf(array, target, 0, array.length) != -1);
     }
 
     public static boolean contains(int[] array, int target) {
-        for(int element: array)
-            if(element == target)
-                return true;
-        return false;
+        return (indexOf(array, target, 0, array.length) != -1);
     }
 
     public static boolean contains(long[] array, long target) {
-        for(long element: array)
-            if(element == target)
-                return true;
-        return false;
+        return (indexOf(array, target, 0, array.length) != -1);
     }
 
     public static boolean contains(float[] array, float target) {
-        for(float element: array)
-            if(element == target)
-                return true;
-        return false;
+        return (indexOf(array, target, 0, array.length) != -1);
     }
 
     public static boolean contains(double[] array, double target) {
-        for(double element: array)
-            if(element == target)
-                return true;
-        return false;
+        return (indexOf(array, target, 0, array.length) != -1);
     }
 
     public static boolean contains(char[] array, char target) {
-        for(char element: array)
-            if(element == target)
-                return true;
-        return false;
+        return (indexOf(array, target, 0, array.length) != -1);
     }
 
     public static boolean contains(boolean[] array, boolean target) {
@@ -0,0 +1,436 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class BigFloatList implements Iterable<Float> {
+
+    public static final int DEFAULT_CAPACITY = 10;
+    // every segment but the last one is full sized
+    public static final int SEGMENT_SHIFT = 20;
+    public static final int SEGMENT_SIZE = (1 << SEGMENT_SHIFT);
+    public static final int SEGMENT_MASK = (SEGMENT_SIZE - 1);
+    public static final long MAX_CAPACITY = ((long) (Integer.MAX_VALUE - 8) << SEGMENT_SHIFT);
+
+    private float[][] segments;
+    private long capacity;
+    private long size;
+
+    public BigFloatList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BigFloatList(long capacity) {
+        if(capacity < 0 || capacity > MAX_CAPACITY)
+           throw new IllegalArgumentException();
+        this.segments = new float[1][];
+        this.ensureCapacity(capacity);
+    }
+
+    public BigFloatList(FloatList list) {
+        this(list.size());
+        this.add(list);
+    }
+
+    public BigFloatList(BigFloatList list) {
+        this(list.size);
+        this.add(list);
+    }
+
+
+    public long size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long lastIndex() {
+        return Math.max(0L, (size - 1L));
+    }
+
+    public boolean isEmpty() {
+        return (size == 0L);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0L);
+    }
+
+
+    private void ensureCapacity(long minCapacity) {
+        if(minCapacity <= capacity)
+            return;
+        if(minCapacity > MAX_CAPACITY)
+            throw new OutOfMemoryError("Required capacity " + minCapacity + " exceeds " + MAX_CAPACITY);
+        
+        final int last = (int) ((minCapacity - 1) >>> SEGMENT_SHIFT);
+        if(last >= segments.length)
+            segments = Arrays.copyOf(segments, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(last + 1L, segments.length + (segments.length >> 1) + 1L)));
+        
+        // only the old last segment and the new ones can be short
+        for(int i = (capacity == 0 ? 0 : (int) ((capacity - 1) >>> SEGMENT_SHIFT)); i <= last; i++){
+            final float[] segment = segments[i];
+            final int length = (segment == null ? 0 : segment.length);
+            final int required = (i < last ? SEGMENT_SIZE : (int) (minCapacity - ((long) i << SEGMENT_SHIFT)));
+            if(length >= required)
+                continue;
+        
+            final int newLength = (i < last ? SEGMENT_SIZE : Math.min(SEGMENT_SIZE, Math.max(Math.max(required, DEFAULT_CAPACITY), length + (length >> 1))));
+            segments[i] = (segment == null ? new float[newLength] : Arrays.copyOf(segment, newLength));
+        }
+        capacity = (((long) last << SEGMENT_SHIFT) + segments[last].length);
+    }
+
+    private void checkIndex(long i) {
+        if(i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+    }
+
+    private void checkRange(long from, long to) {
+        if(from < 0 || from > to || to > size)
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + size);
+    }
+
+    private float[] segment(long i) {
+        return segments[(int) (i >>> SEGMENT_SHIFT)];
+    }
+
+    // handles overlapping ranges when both lists are the same
+    private static void move(BigFloatList src, long srcIndex, BigFloatList dst, long dstIndex, long length) {
+        if(src == dst && dstIndex > srcIndex){
+            long remaining = length;
+            while(remaining > 0){
+                final long srcEnd = (srcIndex + remaining);
+                final long dstEnd = (dstIndex + remaining);
+                final int srcLength = ((int) (srcEnd - 1) & SEGMENT_MASK) + 1;
+                final int dstLength = ((int) (dstEnd - 1) & SEGMENT_MASK) + 1;
+                final int count = (int) Math.min(remaining, Math.min(srcLength, dstLength));
+                System.arraycopy(src.segment(srcEnd - 1), srcLength - count, dst.segment(dstEnd - 1), dstLength - count, count);
+                remaining -= count;
+            }
+        }else{
+            long copied = 0;
+            while(copied < length){
+                final int srcOffset = ((int) (srcIndex + copied) & SEGMENT_MASK);
+                final int dstOffset = ((int) (dstIndex + copied) & SEGMENT_MASK);
+                final int count = (int) Math.min(length - copied, SEGMENT_SIZE - Math.max(srcOffset, dstOffset));
+                System.arraycopy(src.segment(srcIndex + copied), srcOffset, dst.segment(dstIndex + copied), dstOffset, count);
+                copied += count;
+            }
+        }
+    }
+
+
+    public BigFloatList add(float element) {
+        if(size == capacity)
+            this.ensureCapacity(size + 1);
+        
+        this.segment(size)[(int) size & SEGMENT_MASK] = element;
+        size++;
+        return this;
+    }
+
+    public BigFloatList add(float[] elements, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, elements.length);
+        this.ensureCapacity(size + length);
+        this.copyIn(size, elements, offset, length);
+        size += length;
+        return this;
+    }
+
+    public BigFloatList add(float... elements) {
+        return this.add(elements, 0, elements.length);
+    }
+
+    public BigFloatList add(FloatList list) {
+        return this.add(list.array(), 0, list.size());
+    }
+
+    public BigFloatList add(BigFloatList list) {
+        final long length = list.size;
+        this.ensureCapacity(size + length);
+        size += length;
+        move(list, 0, this, size - length, length);
+        return this;
+    }
+
+    public BigFloatList add(long i, float... elements) {
+        if(i < 0 || i > size)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        this.ensureCapacity(size + elements.length);
+        move(this, i, this, i + elements.length, size - i);
+        size += elements.length;
+        return this.set(i, elements, 0, elements.length);
+    }
+
+
+    public BigFloatList remove(long i, long len) {
+        len = Math.min(len, size - i);
+        if(len <= 0)
+            return this;
+        
+        move(this, i + len, this, i, size - i - len);
+        size -= len;
+        return this;
+    }
+
+    public float remove(long i) {
+        final float value = this.get(i);
+        this.remove(i, 1);
+        return value;
+    }
+
+    public float removeLast() {
+        final float value = this.get(size - 1);
+        size--;
+        return value;
+    }
+
+    public BigFloatList clear() {
+        size = 0;
+        return this;
+    }
+
+    // drops unused segments and shrinks the last one
+    public BigFloatList trim() {
+        if(size == capacity)
+            return this;
+        
+        final int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        segments = Arrays.copyOf(segments, Math.max(1, count));
+        if(count == 0){
+            segments[0] = null;
+            capacity = 0;
+        }else{
+            final int lastLength = ((int) (size - 1) & SEGMENT_MASK) + 1;
+            segments[count - 1] = Arrays.copyOf(segments[count - 1], lastLength);
+            capacity = size;
+        }
+        return this;
+    }
+
+
+    public float get(long i) {
+        this.checkIndex(i);
+        return this.segment(i)[(int) i & SEGMENT_MASK];
+    }
+
+    public float getFirst() {
+        return this.get(0);
+    }
+
+    public float getLast() {
+        return this.get(this.lastIndex());
+    }
+
+    public BigFloatList set(long i, float newValue) {
+        this.checkIndex(i);
+        this.segment(i)[(int) i & SEGMENT_MASK] = newValue;
+        return this;
+    }
+
+    public BigFloatList set(long i, float[] values, int offset, int length) {
+        this.checkRange(i, i + length);
+        this.copyIn(i, values, offset, length);
+        return this;
+    }
+
+    private void copyIn(long i, float[] values, int offset, int length) {
+        int copied = 0;
+        while(copied < length){
+            final long index = (i + copied);
+            final int segmentOffset = ((int) index & SEGMENT_MASK);
+            final int count = Math.min(length - copied, SEGMENT_SIZE - segmentOffset);
+            System.arraycopy(values, offset + copied, this.segment(index), segmentOffset, count);
+            copied += count;
+        }
+    }
+
+
+    public BigFloatList fill(long from, long to, float value) {
+        this.checkRange(from, to);
+        while(from < to){
+            final int segmentOffset = ((int) from & SEGMENT_MASK);
+            final int count = (int) Math.min(to - from, SEGMENT_SIZE - segmentOffset);
+            Arrays.fill(this.segment(from), segmentOffset, segmentOffset + count, value);
+            from += count;
+        }
+        return this;
+    }
+
+    public BigFloatList fill(float value) {
+        return this.fill(0, size, value);
+    }
+
+
+    public boolean contains(float element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public long indexOf(float element) {
+        return this.indexOfRange(element, 0, size);
+    }
+
+    public long lastIndexOf(float element) {
+        return this.lastIndexOfRange(element, 0, size);
+    }
+
+    public long indexOfRange(float element, long start, long end) {
+        this.checkRange(start, end);
+        while(start < end){
+            final int segmentOffset = ((int) start & SEGMENT_MASK);
+            final int count = (int) Math.min(end - start, SEGMENT_SIZE - segmentOffset);
+            final int found = ArrayUtils.indexOf(this.segment(start), element, segmentOffset, segmentOffset + count);
+            if(found != -1)
+                return (start - segmentOffset + found);
+            start += count;
+        }
+        return -1;
+    }
+
+    public long lastIndexOfRange(float element, long start, long end) {
+        this.checkRange(start, end);
+        while(end > start){
+            final int segmentEnd = ((int) (end - 1) & SEGMENT_MASK) + 1;
+            final int count = (int) Math.min(end - start, segmentEnd);
+            final int found = ArrayUtils.lastIndexOf(this.segment(end - 1), element, segmentEnd - count, segmentEnd);
+            if(found != -1)
+                return (end - segmentEnd + found);
+            end -= count;
+        }
+        return -1;
+    }
+
+    // same contract as Arrays.binarySearch, the range has to be sorted
+    public long binarySearch(long from, long to, float key) {
+        this.checkRange(from, to);
+        long low = from;
+        long high = (to - 1);
+        while(low <= high){
+            final long middle = ((low + high) >>> 1);
+            final int compare = Float.compare(this.segment(middle)[(int) middle & SEGMENT_MASK], key);
+            if(compare < 0){
+                low = (middle + 1);
+            }else if(compare > 0){
+                high = (middle - 1);
+            }else{
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    public long binarySearch(float key) {
+        return this.binarySearch(0, size, key);
+    }
+
+
+    public BigFloatList copyTo(long from, float[] dst, int offset, int length) {
+        this.checkRange(from, from + length);
+        int copied = 0;
+        while(copied < length){
+            final long index = (from + copied);
+            final int segmentOffset = ((int) index & SEGMENT_MASK);
+            final int count = Math.min(length - copied, SEGMENT_SIZE - segmentOffset);
+            System.arraycopy(this.segment(index), segmentOffset, dst, offset + copied, count);
+            copied += count;
+        }
+        return this;
+    }
+
+    // dst grows when the copy runs past its size
+    public BigFloatList copyTo(long from, BigFloatList dst, long dstIndex, long length) {
+        this.checkRange(from, from + length);
+        if(dstIndex < 0 || dstIndex > dst.size)
+            throw new IndexOutOfBoundsException("Index " + dstIndex + " out of bounds for size " + dst.size);
+        dst.ensureCapacity(dstIndex + length);
+        dst.size = Math.max(dst.size, dstIndex + length);
+        move(this, from, dst, dstIndex, length);
+        return this;
+    }
+
+    public float[] copyOf(long from, int length) {
+        final float[] array = new float[length];
+        this.copyTo(from, array, 0, length);
+        return array;
+    }
+
+    public FloatList toList(long from, int length) {
+        return new FloatList(this.copyOf(from, length));
+    }
+
+    public BigFloatList copy() {
+        return new BigFloatList(this);
+    }
+
+
+    public void forEach(FloatConsumer action) {
+        for(long i = 0; i < size; i += SEGMENT_SIZE){
+            final float[] segment = this.segment(i);
+            final int length = (int) Math.min(SEGMENT_SIZE, size - i);
+            for(int j = 0; j < length; j++)
+                action.accept(segment[j]);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        if(size == 0)
+            return "[]";
+        
+        final StringBuilder builder = new StringBuilder("[");
+        for(long i = 0; i < size; i++){
+            if(i != 0)
+                builder.append(", ");
+            builder.append(this.segment(i)[(int) i & SEGMENT_MASK]);
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final BigFloatList list = (BigFloatList) object;
+        if(size != list.size)
+            return false;
+        for(long i = 0; i < size; i += SEGMENT_SIZE){
+            final int length = (int) Math.min(SEGMENT_SIZE, size - i);
+            if(!Arrays.equals(this.segment(i), 0, length, list.segment(i), 0, length))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(long i = 0; i < size; i++)
+            hash = 31 * hash + Float.hashCode(this.segment(i)[(int) i & SEGMENT_MASK]);
+        return hash;
+    }
+
+    @Override
+    public FloatIterator iterator() {
+        return new FloatIterator() {
+            private long index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public float nextFloat() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                final long i = index++;
+                return segment(i)[(int) i & SEGMENT_MASK];
+            }
+        };
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,532 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
+import java.util.*;
+
+// bits past size are always zero, which keeps cardinality and the word-wise ops branch free
+public class BitList implements Iterable<Boolean> {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private long[] words;
+    private int size;
+
+    public BitList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BitList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        this.words = new long[wordsFor(capacity)];
+    }
+
+    public BitList(boolean... items) {
+        this(items.length);
+        this.add(items);
+    }
+
+    public BitList(BitList list) {
+        this.size = list.size;
+        this.words = Arrays.copyOf(list.words, wordsFor(list.size));
+    }
+
+    public BitList(BoolList list) {
+        this(list.size());
+        for(int i = 0; i < list.size(); i++)
+            this.add(list.get(i));
+    }
+
+    public BitList(Iterable<Boolean> iterable) {
+        this();
+        this.addAll(iterable);
+    }
+
+
+    public long[] words() {
+        return words;
+    }
+
+    public long[] wordsTrimmed() {
+        return Arrays.copyOf(words, wordsFor(size));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return (words.length << 6);
+    }
+
+    public int lastIndex() {
+        return Math.max(0, (size - 1));
+    }
+
+
+    private static int wordsFor(int bits) {
+        return ((bits + 63) >>> 6);
+    }
+
+    private void grow(int minCapacity) {
+        final int oldLength = words.length;
+        final int minLength = wordsFor(minCapacity);
+        if(oldLength == 0){
+            words = new long[Math.max(minLength, wordsFor(DEFAULT_CAPACITY))];
+        }else{
+            final int newLength = ArrayUtils.newLength(oldLength, minLength - oldLength, oldLength >> 1);
+            words = Arrays.copyOf(words, newLength);
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if(minCapacity > this.capacity())
+            this.grow(minCapacity);
+    }
+
+    // 64 bits starting at index, low bit first
+    private static long readBits(long[] words, int index) {
+        final int wordIndex = (index >>> 6);
+        final int shift = (index & 63);
+        long bits = (words[wordIndex] >>> shift);
+        if(shift != 0 && wordIndex + 1 < words.length)
+            bits |= (words[wordIndex + 1] << (64 - shift));
+        return bits;
+    }
+
+    // writes the low count bits (1..64) at index
+    private static void writeBits(long[] words, int index, long bits, int count) {
+        final int wordIndex = (index >>> 6);
+        final int shift = (index & 63);
+        final long mask = (count == 64 ? -1L : (1L << count) - 1L);
+        bits &= mask;
+        words[wordIndex] = (words[wordIndex] & ~(mask << shift)) | (bits << shift);
+
+        final int spill = (shift + count - 64);
+        if(spill > 0){
+            final long spillMask = ((1L << spill) - 1L);
+            words[wordIndex + 1] = (words[wordIndex + 1] & ~spillMask) | (bits >>> (64 - shift));
+        }
+    }
+
+    private static void moveBits(long[] src, int srcIndex, long[] dst, int dstIndex, int length) {
+        if(src == dst && dstIndex > srcIndex){
+            // overlapping shift towards the end, copy from the back
+            for(int remaining = length; remaining > 0; ){
+                final int count = Math.min(64, remaining);
+                remaining -= count;
+                writeBits(dst, dstIndex + remaining, readBits(src, srcIndex + remaining), count);
+            }
+        }else{
+            for(int offset = 0; offset < length; offset += 64){
+                final int count = Math.min(64, length - offset);
+                writeBits(dst, dstIndex + offset, readBits(src, srcIndex + offset), count);
+            }
+        }
+    }
+
+    private void fillRange(int from, int to, boolean value) {
+        if(from >= to)
+            return;
+        final int fromWord = (from >>> 6);
+        final int toWord = ((to - 1) >>> 6);
+        final long fromMask = (-1L << from);
+        final long toMask = (-1L >>> -to);
+        if(fromWord == toWord){
+            final long mask = (fromMask & toMask);
+            words[fromWord] = (value ? words[fromWord] | mask : words[fromWord] & ~mask);
+            return;
+        }
+        words[fromWord] = (value ? words[fromWord] | fromMask : words[fromWord] & ~fromMask);
+        Arrays.fill(words, fromWord + 1, toWord, (value ? -1L : 0L));
+        words[toWord] = (value ? words[toWord] | toMask : words[toWord] & ~toMask);
+    }
+
+    private void clearTail() {
+        final int wordIndex = (size >>> 6);
+        if(wordIndex < words.length)
+            words[wordIndex] &= ~(-1L << size);
+        if(wordIndex + 1 < words.length)
+            Arrays.fill(words, wordIndex + 1, words.length, 0L);
+    }
+
+
+    public BitList add(boolean element) {
+        if(size == this.capacity())
+           this.grow(size + 1);
+
+        if(element)
+            words[size >>> 6] |= (1L << size);
+        size++;
+        return this;
+    }
+
+    public BitList add(boolean... elements) {
+        this.ensureCapacity(size + elements.length);
+
+        for(boolean element: elements){
+            if(element)
+                words[size >>> 6] |= (1L << size);
+            size++;
+        }
+        return this;
+    }
+
+    public BitList add(BitList list) {
+        this.ensureCapacity(size + list.size);
+
+        moveBits(list.words, 0, words, size, list.size);
+        size += list.size;
+        return this;
+    }
+
+    public BitList add(int i, boolean element) {
+        final int minCapacity = Math.max(size, i) + 1;
+        this.ensureCapacity(minCapacity);
+
+        if(size > i)
+            moveBits(words, i, words, i + 1, size - i);
+        size = minCapacity;
+        return this.set(i, element);
+    }
+
+    public BitList add(int i, boolean... elements) {
+        if(elements.length == 0)
+            return this;
+
+        final int minCapacity = (Math.max(size, i) + elements.length);
+        this.ensureCapacity(minCapacity);
+
+        if(size > i)
+            moveBits(words, i, words, i + elements.length, size - i);
+        size = minCapacity;
+        for(int j = 0; j < elements.length; j++)
+            this.set(i + j, elements[j]);
+        return this;
+    }
+
+    public BitList addFirst(boolean element) {
+        return this.add(0, element);
+    }
+
+    public BitList addFirst(boolean... elements) {
+        return this.add(0, elements);
+    }
+
+    public BitList addAll(Iterable<Boolean> iterable) {
+        if(iterable instanceof BitList)
+            return this.add((BitList) iterable);
+
+        for(Boolean item: iterable)
+            this.add(item);
+        return this;
+    }
+
+
+    public BitList remove(int i, int len) {
+        len = Math.min(len, size - i);
+        if(len <= 0)
+            return this;
+
+        final int j = (i + len);
+        moveBits(words, j, words, i, (size - j));
+
+        this.fillRange(size - len, size, false);
+        size -= len;
+        return this;
+    }
+
+    public boolean remove(int i) {
+        final boolean val = this.get(i);
+        this.remove(i, 1);
+        return val;
+    }
+
+    public boolean removeFirst() {
+        return this.remove(0);
+    }
+
+    public boolean removeLast() {
+        return this.remove(this.lastIndex());
+    }
+
+
+    public boolean contains(boolean element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(boolean element) {
+        return this.indexOfRange(element, 0, size);
+    }
+
+    public int lastIndexOf(boolean element) {
+        return this.lastIndexOfRange(element, 0, size);
+    }
+
+    public int indexOfRange(boolean element, int start, int end) {
+        end = Math.min(end, size);
+        if(start >= end)
+            return -1;
+
+        int wordIndex = (start >>> 6);
+        long word = (element ? words[wordIndex] : ~words[wordIndex]) & (-1L << start);
+        while(true){
+            if(word != 0){
+                final int index = ((wordIndex << 6) + Long.numberOfTrailingZeros(word));
+                return (index < end ? index : -1);
+            }
+            if(++wordIndex << 6 >= end)
+                return -1;
+            word = (element ? words[wordIndex] : ~words[wordIndex]);
+        }
+    }
+
+    public int lastIndexOfRange(boolean element, int start, int end) {
+        end = Math.min(end, size);
+        if(start >= end)
+            return -1;
+
+        int wordIndex = ((end - 1) >>> 6);
+        long word = (element ? words[wordIndex] : ~words[wordIndex]) & (-1L >>> -end);
+        while(true){
+            if(word != 0){
+                final int index = ((wordIndex << 6) + 63 - Long.numberOfLeadingZeros(word));
+                return (index >= start ? index : -1);
+            }
+            if(--wordIndex < 0 || (wordIndex << 6) + 63 < start)
+                return -1;
+            word = (element ? words[wordIndex] : ~words[wordIndex]);
+        }
+    }
+
+    public int nextSetBit(int from) {
+        return this.indexOfRange(true, from, size);
+    }
+
+    public int nextClearBit(int from) {
+        return this.indexOfRange(false, from, size);
+    }
+
+    public int previousSetBit(int from) {
+        return this.lastIndexOfRange(true, 0, from + 1);
+    }
+
+    public int previousClearBit(int from) {
+        return this.lastIndexOfRange(false, 0, from + 1);
+    }
+
+    public int cardinality() {
+        int count = 0;
+        final int length = wordsFor(size);
+        for(int i = 0; i < length; i++)
+            count += Long.bitCount(words[i]);
+        return count;
+    }
+
+
+    public BitList and(BitList list) {
+        final int length = wordsFor(size);
+        final int common = Math.min(length, list.words.length);
+        for(int i = 0; i < common; i++)
+            words[i] &= list.words[i];
+        Arrays.fill(words, common, length, 0L);
+        return this;
+    }
+
+    public BitList or(BitList list) {
+        final int length = wordsFor(Math.min(size, list.size));
+        for(int i = 0; i < length; i++)
+            words[i] |= list.words[i];
+        this.clearTail();
+        return this;
+    }
+
+    public BitList xor(BitList list) {
+        final int length = wordsFor(Math.min(size, list.size));
+        for(int i = 0; i < length; i++)
+            words[i] ^= list.words[i];
+        this.clearTail();
+        return this;
+    }
+
+    public BitList andNot(BitList list) {
+        final int length = wordsFor(Math.min(size, list.size));
+        for(int i = 0; i < length; i++)
+            words[i] &= ~list.words[i];
+        return this;
+    }
+
+    public BitList not() {
+        final int length = wordsFor(size);
+        for(int i = 0; i < length; i++)
+            words[i] = ~words[i];
+        this.clearTail();
+        return this;
+    }
+
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    public BitList clear() {
+        Arrays.fill(words, 0, wordsFor(size), 0L);
+        size = 0;
+        return this;
+    }
+
+    public BitList fill(boolean value) {
+        this.fillRange(0, size, value);
+        return this;
+    }
+
+    public BitList fill(int from, int to, boolean value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.fillRange(from, to, value);
+        return this;
+    }
+
+
+    public BitList trim() {
+        final int length = wordsFor(size);
+        if(words.length == length)
+            return this;
+        words = Arrays.copyOf(words, length);
+        return this;
+    }
+
+    public BitList capacity(int newCapacity) {
+        words = Arrays.copyOf(words, wordsFor(newCapacity));
+        size = Math.min(size, newCapacity);
+        this.clearTail();
+        return this;
+    }
+
+
+    public boolean get(int i) {
+        Objects.checkIndex(i, size);
+        return ((words[i >>> 6] & (1L << i)) != 0);
+    }
+
+    public boolean getFirst() {
+        return this.get(0);
+    }
+
+    public boolean getLast() {
+        return this.get(this.lastIndex());
+    }
+
+    public BitList set(int i, boolean newValue) {
+        Objects.checkIndex(i, size);
+        if(newValue){
+            words[i >>> 6] |= (1L << i);
+        }else{
+            words[i >>> 6] &= ~(1L << i);
+        }
+        return this;
+    }
+
+    public BitList setFirst(boolean newValue) {
+        return this.set(0, newValue);
+    }
+
+    public BitList setLast(boolean newValue) {
+        return this.set(this.lastIndex(), newValue);
+    }
+
+    public BitList flip(int i) {
+        Objects.checkIndex(i, size);
+        words[i >>> 6] ^= (1L << i);
+        return this;
+    }
+
+
+    public BoolList toBoolList() {
+        final BoolList list = new BoolList(size);
+        for(int i = 0; i < size; i++)
+            list.add((words[i >>> 6] & (1L << i)) != 0);
+        return list;
+    }
+
+    public BitList copy() {
+        return new BitList(this);
+    }
+
+
+    public void forEach(BoolConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept((words[i >>> 6] & (1L << i)) != 0);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Boolean> action) {
+        if(action instanceof BoolConsumer){
+            this.forEach((BoolConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept((words[i >>> 6] & (1L << i)) != 0);
+        }
+    }
+
+    public void forEachIndexed(BoolIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, (words[i >>> 6] & (1L << i)) != 0);
+    }
+
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for(int i = 0; i < size; i++){
+            if(i != 0)
+                builder.append(", ");
+            builder.append((words[i >>> 6] & (1L << i)) != 0);
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final BitList list = (BitList) object;
+        final int length = wordsFor(size);
+        return (size == list.size && Arrays.equals(words, 0, length, list.words, 0, length));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        final int length = wordsFor(size);
+        for(int i = 0; i < length; i++)
+            hash = 31 * hash + Long.hashCode(words[i]);
+        return hash;
+    }
+
+    @Override
+    public BoolIterator iterator() {
+        return new BoolIterator() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public boolean nextBool() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                final int i = index++;
+                return ((words[i >>> 6] & (1L << i)) != 0);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,31 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.BoolConsumer;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface BoolIterator extends Iterator<Boolean> {
+
+    boolean nextBool();
+
+    @Override
+    default Boolean next() {
+        return this.nextBool();
+    }
+
+    default void forEachRemaining(BoolConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextBool());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Boolean> action) {
+        if(action instanceof BoolConsumer){
+            this.forEachRemaining((BoolConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextBool());
+        }
+    }
+
+}
\ No newline at end of file
@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class BoolList implements Iterable<Boolean> {
 
@@ -10,6 +16,10 @@ public class BoolList implements Iterable<Boolean> {
 
     private boolean[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
 
     public BoolList() {
         this(DEFAULT_CAPACITY);
@@ -32,7 +42,7 @@ public class BoolList implements Iterable<Boolean> {
     }
 
     public BoolList(ByteBuffer buffer) {
-        this.array = new boolean[buffer.limit()];
+        this.array = new boolean[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -63,6 +73,22 @@ public class BoolList implements Iterable<Boolean> {
         this.addAll(array, func);
     }
 
+    public <O> BoolList(Iterable<O> iterable, ToBoolFunction<O> func) {
+        this.array = new boolean[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> BoolList(Collection<O> collection, ToBoolFunction<O> func) {
+        this.array = new boolean[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> BoolList(O[] array, ToBoolFunction<O> func) {
+        this.array = new boolean[array.length];
+        this.addAll(array, func);
+    }
+
 
     public boolean[] array() {
         return array;
@@ -103,6 +129,7 @@ public class BoolList implements Iterable<Boolean> {
 
 
     public BoolList add(boolean element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -112,6 +139,7 @@ public class BoolList implements Iterable<Boolean> {
     }
 
     public BoolList add(boolean... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -121,15 +149,17 @@ public class BoolList implements Iterable<Boolean> {
     }
 
     public BoolList add(BoolList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public BoolList add(int i, boolean element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -148,6 +178,7 @@ public class BoolList implements Iterable<Boolean> {
     public BoolList add(int i, boolean... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -173,20 +204,34 @@ public class BoolList implements Iterable<Boolean> {
 
 
     public BoolList addAll(ByteBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i) == 1);
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        for(int i = 0; i < length; i++)
+            array[size + i] = (buffer.get(position + i) == 1);
+        size += length;
         return this;
     }
 
     public BoolList addAll(Iterable<Boolean> iterable) {
+        if(iterable instanceof BoolList)
+            return this.add((BoolList) iterable);
+        
         for(Boolean item: iterable)
             this.add(item);
         return this;
     }
 
     public BoolList addAll(Collection<Boolean> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Boolean item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -208,11 +253,38 @@ public class BoolList implements Iterable<Boolean> {
         return this;
     }
 
+    public <O> BoolList addAll(Iterable<O> iterable, ToBoolFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsBool(object));
+        return this;
+    }
+
+    public <O> BoolList addAll(Collection<O> collection, ToBoolFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsBool(object);
+        return this;
+    }
+
+    public <O> BoolList addAll(O[] array, ToBoolFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsBool(object);
+        return this;
+    }
+
 
     public BoolList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -249,6 +321,22 @@ public class BoolList implements Iterable<Boolean> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(boolean value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(boolean value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(boolean element) {
         return (this.indexOf(element) != -1);
@@ -287,18 +375,21 @@ public class BoolList implements Iterable<Boolean> {
 
 
     public BoolList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, false);
         size = 0;
         return this;
     }
 
     public BoolList fill(boolean value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public BoolList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -306,6 +397,7 @@ public class BoolList implements Iterable<Boolean> {
     }
 
     public BoolList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new boolean[0];
         }else{
@@ -316,6 +408,42 @@ public class BoolList implements Iterable<Boolean> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public BoolList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final BoolList snapshot = new BoolList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public BoolList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("BoolList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+    }
+
+
     public boolean get(int i) {
         return array[i];
     }
@@ -329,6 +457,7 @@ public class BoolList implements Iterable<Boolean> {
     }
 
     public BoolList set(int i, boolean newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -379,6 +508,91 @@ public class BoolList implements Iterable<Boolean> {
     }
 
 
+    public BoolList writeTo(ByteBuffer buffer) {
+        for(int i = 0; i < size; i++)
+            buffer.put((byte) (array[i] ? 1 : 0));
+        return this;
+    }
+
+    public ByteBuffer toDirectBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        this.writeTo(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
+    public void forEach(BoolConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Boolean> action) {
+        if(action instanceof BoolConsumer){
+            this.forEach((BoolConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(BoolIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public BoolList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'Z', size);
+        final ByteBuffer buffer = ListIO.chunk(size, ByteOrder.nativeOrder());
+        try{
+            for(int i = 0; i < size; i += buffer.capacity()){
+                final int length = Math.min(buffer.capacity(), size - i);
+                buffer.clear();
+                for(int j = 0; j < length; j++)
+                    buffer.put((byte) (array[i + j] ? 1 : 0));
+                buffer.flip();
+                ListIO.writeFully(channel, buffer);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        return this;
+    }
+
+    public BoolList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static BoolList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'Z');
+        final int size = ListIO.size(header);
+        final BoolList list = new BoolList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        final ByteBuffer buffer = ListIO.chunk(size, ListIO.order(header));
+        try{
+            for(int i = 0; i < size; i += buffer.capacity()){
+                final int length = Math.min(buffer.capacity(), size - i);
+                buffer.clear().limit(length);
+                ListIO.readFully(channel, buffer);
+                if(i + length > list.array.length)
+                    list.grow(i + length);
+                for(int j = 0; j < length; j++)
+                    list.array[i + j] = (buffer.get(j) == 1);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static BoolList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -391,24 +605,34 @@ public class BoolList implements Iterable<Boolean> {
         if(object == null || getClass() != object.getClass())
             return false;
         final BoolList list = (BoolList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Boolean.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Boolean> iterator() {
-        return new Iterator<>() {
+    public BoolIterator iterator() {
+        return new BoolIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Boolean next() {
+            public boolean nextBool() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
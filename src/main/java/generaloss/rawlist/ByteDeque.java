@@ -0,0 +1,282 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+import java.nio.ByteBuffer;
+
+public class ByteDeque implements Iterable<Byte> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final int MAX_CAPACITY = (1 << 30);
+
+    // ring buffer, the capacity is always a power of two so wrapping is a mask
+    private byte[] array;
+    private int head;
+    private int size;
+
+    public ByteDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ByteDeque(int capacity) {
+        if(capacity < 0 || capacity > MAX_CAPACITY)
+           throw new IllegalArgumentException();
+        this.array = new byte[capacityFor(capacity)];
+    }
+
+    public ByteDeque(byte... items) {
+        this(items.length);
+        this.addLast(items);
+    }
+
+    public ByteDeque(ByteList list) {
+        this(list.size());
+        this.addLast(list);
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return array.length;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    private static int capacityFor(int capacity) {
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+    }
+
+    private void grow(int minCapacity) {
+        if(minCapacity < 0 || minCapacity > MAX_CAPACITY)
+            throw new OutOfMemoryError("Required capacity " + minCapacity + " exceeds " + MAX_CAPACITY);
+        
+        final byte[] newArray = new byte[capacityFor(minCapacity)];
+        this.copyTo(newArray, 0);
+        array = newArray;
+        head = 0;
+    }
+
+    private int index(int i) {
+        return ((head + i) & (array.length - 1));
+    }
+
+
+    public ByteDeque addFirst(byte element) {
+        if(size == array.length)
+            this.grow(size + 1);
+        
+        head = ((head - 1) & (array.length - 1));
+        array[head] = element;
+        size++;
+        return this;
+    }
+
+    public ByteDeque addLast(byte element) {
+        if(size == array.length)
+            this.grow(size + 1);
+        
+        array[this.index(size)] = element;
+        size++;
+        return this;
+    }
+
+    public ByteDeque add(byte element) {
+        return this.addLast(element);
+    }
+
+    public ByteDeque addLast(byte[] elements, int offset, int length) {
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        final int start = this.index(size);
+        final int first = Math.min(length, array.length - start);
+        System.arraycopy(elements, offset, array, start, first);
+        System.arraycopy(elements, offset + first, array, 0, length - first);
+        size += length;
+        return this;
+    }
+
+    public ByteDeque addLast(byte... elements) {
+        return this.addLast(elements, 0, elements.length);
+    }
+
+    public ByteDeque addLast(ByteList list) {
+        return this.addLast(list.array(), 0, list.size());
+    }
+
+
+    public byte removeFirst() {
+        if(size == 0)
+            throw new NoSuchElementException();
+        
+        final byte value = array[head];
+        head = ((head + 1) & (array.length - 1));
+        size--;
+        return value;
+    }
+
+    public byte removeLast() {
+        if(size == 0)
+            throw new NoSuchElementException();
+        
+        size--;
+        return array[this.index(size)];
+    }
+
+    public ByteDeque removeFirst(int length) {
+        length = Math.min(Math.max(0, length), size);
+        head = this.index(length);
+        size -= length;
+        return this;
+    }
+
+    public ByteDeque removeLast(int length) {
+        size -= Math.min(Math.max(0, length), size);
+        return this;
+    }
+
+    public ByteDeque clear() {
+        head = 0;
+        size = 0;
+        return this;
+    }
+
+
+    public byte get(int i) {
+        Objects.checkIndex(i, size);
+        return array[this.index(i)];
+    }
+
+    public byte getFirst() {
+        if(size == 0)
+            throw new NoSuchElementException();
+        return array[head];
+    }
+
+    public byte getLast() {
+        if(size == 0)
+            throw new NoSuchElementException();
+        return array[this.index(size - 1)];
+    }
+
+    public ByteDeque set(int i, byte newValue) {
+        Objects.checkIndex(i, size);
+        array[this.index(i)] = newValue;
+        return this;
+    }
+
+
+    public boolean contains(byte element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(byte element) {
+        final int first = Math.min(size, array.length - head);
+        final int index = ArrayUtils.indexOf(array, element, head, head + first);
+        if(index != -1)
+            return (index - head);
+        final int wrapped = ArrayUtils.indexOf(array, element, 0, size - first);
+        return (wrapped == -1 ? -1 : first + wrapped);
+    }
+
+
+    // moves up to length elements from the front onto the end of the list
+    public int drainTo(ByteList list, int length) {
+        length = Math.min(Math.max(0, length), size);
+        final int first = Math.min(length, array.length - head);
+        list.addAll(ByteBuffer.wrap(array, head, first));
+        if(first < length)
+            list.addAll(ByteBuffer.wrap(array, 0, length - first));
+        this.removeFirst(length);
+        return length;
+    }
+
+    public int drainTo(ByteList list) {
+        return this.drainTo(list, size);
+    }
+
+    public ByteDeque copyTo(byte[] dst, int offset) {
+        final int first = Math.min(size, array.length - head);
+        System.arraycopy(array, head, dst, offset, first);
+        System.arraycopy(array, 0, dst, offset + first, size - first);
+        return this;
+    }
+
+    public byte[] copyOf() {
+        final byte[] copy = new byte[size];
+        this.copyTo(copy, 0);
+        return copy;
+    }
+
+    public ByteList toList() {
+        return new ByteList(this.copyOf());
+    }
+
+
+    public void forEach(ByteConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[this.index(i)]);
+    }
+
+    public void forEachIndexed(ByteIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[this.index(i)]);
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final ByteDeque deque = (ByteDeque) object;
+        if(size != deque.size)
+            return false;
+        for(int i = 0; i < size; i++)
+            if(Byte.compare(array[this.index(i)], deque.array[deque.index(i)]) != 0)
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Byte.hashCode(array[this.index(i)]);
+        return hash;
+    }
+
+    @Override
+    public ByteIterator iterator() {
+        return new ByteIterator() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public byte nextByte() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                return array[index(index++)];
+            }
+        };
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.ByteConsumer;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface ByteIterator extends Iterator<Byte> {
+
+    byte nextByte();
+
+    @Override
+    default Byte next() {
+        return this.nextByte();
+    }
+
+    default void forEachRemaining(ByteConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextByte());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Byte> action) {
+        if(action instanceof ByteConsumer){
+            this.forEachRemaining((ByteConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextByte());
+        }
+    }
+
+}
\ No newline at end of file
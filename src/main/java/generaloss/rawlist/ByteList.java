@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class ByteList implements Iterable<Byte> {
 
@@ -10,6 +16,10 @@ public class ByteList implements Iterable<Byte> {
 
     private byte[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
 
     public ByteList() {
         this(DEFAULT_CAPACITY);
@@ -32,7 +42,7 @@ public class ByteList implements Iterable<Byte> {
     }
 
     public ByteList(ByteBuffer buffer) {
-        this.array = new byte[buffer.limit()];
+        this.array = new byte[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -63,6 +73,22 @@ public class ByteList implements Iterable<Byte> {
         this.addAll(array, func);
     }
 
+    public <O> ByteList(Iterable<O> iterable, ToByteFunction<O> func) {
+        this.array = new byte[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> ByteList(Collection<O> collection, ToByteFunction<O> func) {
+        this.array = new byte[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> ByteList(O[] array, ToByteFunction<O> func) {
+        this.array = new byte[array.length];
+        this.addAll(array, func);
+    }
+
 
     public byte[] array() {
         return array;
@@ -103,6 +129,7 @@ public class ByteList implements Iterable<Byte> {
 
 
     public ByteList add(byte element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -112,6 +139,7 @@ public class ByteList implements Iterable<Byte> {
     }
 
     public ByteList add(byte... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -121,15 +149,17 @@ public class ByteList implements Iterable<Byte> {
     }
 
     public ByteList add(ByteList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public ByteList add(int i, byte element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -148,6 +178,7 @@ public class ByteList implements Iterable<Byte> {
     public ByteList add(int i, byte... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -173,20 +204,34 @@ public class ByteList implements Iterable<Byte> {
 
 
     public ByteList addAll(ByteBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i));
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        buffer.get(array, size, length);
+        buffer.position(position);
+        size += length;
         return this;
     }
 
     public ByteList addAll(Iterable<Byte> iterable) {
+        if(iterable instanceof ByteList)
+            return this.add((ByteList) iterable);
+        
         for(Byte item: iterable)
             this.add(item);
         return this;
     }
 
     public ByteList addAll(Collection<Byte> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Byte item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -208,11 +253,38 @@ public class ByteList implements Iterable<Byte> {
         return this;
     }
 
+    public <O> ByteList addAll(Iterable<O> iterable, ToByteFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsByte(object));
+        return this;
+    }
+
+    public <O> ByteList addAll(Collection<O> collection, ToByteFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsByte(object);
+        return this;
+    }
+
+    public <O> ByteList addAll(O[] array, ToByteFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsByte(object);
+        return this;
+    }
+
 
     public ByteList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -249,6 +321,22 @@ public class ByteList implements Iterable<Byte> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(byte value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(byte value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(byte element) {
         return (this.indexOf(element) != -1);
@@ -263,17 +351,11 @@ public class ByteList implements Iterable<Byte> {
     }
 
     public int indexOfRange(byte element, int start, int end) {
-        for(int i = start; i < end; i++)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.indexOf(array, element, start, end);
     }
 
     public int lastIndexOfRange(byte element, int start, int end) {
-        for(int i = end - 1; i >= start; i--)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.lastIndexOf(array, element, start, end);
     }
 
 
@@ -287,18 +369,21 @@ public class ByteList implements Iterable<Byte> {
 
 
     public ByteList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, (byte) 0);
         size = 0;
         return this;
     }
 
     public ByteList fill(byte value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public ByteList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -306,6 +391,7 @@ public class ByteList implements Iterable<Byte> {
     }
 
     public ByteList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new byte[0];
         }else{
@@ -316,6 +402,42 @@ public class ByteList implements Iterable<Byte> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public ByteList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final ByteList snapshot = new ByteList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public ByteList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("ByteList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+    }
+
+
     public byte get(int i) {
         return array[i];
     }
@@ -329,6 +451,7 @@ public class ByteList implements Iterable<Byte> {
     }
 
     public ByteList set(int i, byte newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -343,25 +466,242 @@ public class ByteList implements Iterable<Byte> {
 
 
     public ByteList elementAdd(int i, byte value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public ByteList elementSub(int i, byte value) {
+        this.beforeWrite();
         array[i] -= value;
         return this;
     }
 
     public ByteList elementMul(int i, byte value) {
+        this.beforeWrite();
         array[i] *= value;
         return this;
     }
 
     public ByteList elementDiv(int i, byte value) {
+        this.beforeWrite();
         array[i] /= value;
         return this;
     }
 
+    public ByteList elementAddAll(int from, int to, byte value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.add(array, from, to, value);
+        return this;
+    }
+
+    public ByteList elementAddAll(byte value) {
+        return this.elementAddAll(0, size, value);
+    }
+
+    public ByteList elementAddAll(int offset, ByteList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.add(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ByteList elementAddAll(ByteList list) {
+        return this.elementAddAll(0, list);
+    }
+
+    public ByteList elementSubAll(int from, int to, byte value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.sub(array, from, to, value);
+        return this;
+    }
+
+    public ByteList elementSubAll(byte value) {
+        return this.elementSubAll(0, size, value);
+    }
+
+    public ByteList elementSubAll(int offset, ByteList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.sub(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ByteList elementSubAll(ByteList list) {
+        return this.elementSubAll(0, list);
+    }
+
+    public ByteList elementMulAll(int from, int to, byte value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.mul(array, from, to, value);
+        return this;
+    }
+
+    public ByteList elementMulAll(byte value) {
+        return this.elementMulAll(0, size, value);
+    }
+
+    public ByteList elementMulAll(int offset, ByteList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.mul(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ByteList elementMulAll(ByteList list) {
+        return this.elementMulAll(0, list);
+    }
+
+    public ByteList elementDivAll(int from, int to, byte value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.div(array, from, to, value);
+        return this;
+    }
+
+    public ByteList elementDivAll(byte value) {
+        return this.elementDivAll(0, size, value);
+    }
+
+    public ByteList elementDivAll(int offset, ByteList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.div(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ByteList elementDivAll(ByteList list) {
+        return this.elementDivAll(0, list);
+    }
+
+    public ByteList elementFmaAll(int from, int to, byte multiplier, byte addend) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.fma(array, from, to, multiplier, addend);
+        return this;
+    }
+
+    public ByteList elementFmaAll(byte multiplier, byte addend) {
+        return this.elementFmaAll(0, size, multiplier, addend);
+    }
+
+    public ByteList elementClampAll(int from, int to, byte min, byte max) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.clamp(array, from, to, min, max);
+        return this;
+    }
+
+    public ByteList elementClampAll(byte min, byte max) {
+        return this.elementClampAll(0, size, min, max);
+    }
+
+    private void checkElementRange(int offset, int length) {
+        if(offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for size " + size);
+    }
+
+
+    public ByteList sort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.sort(array, from, to);
+        return this;
+    }
+
+    public ByteList sort() {
+        return this.sort(0, size);
+    }
+
+    public ByteList parallelSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.parallelSort(array, from, to);
+        return this;
+    }
+
+    public ByteList parallelSort() {
+        return this.parallelSort(0, size);
+    }
+
+    public ByteList radixSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        RadixSort.sort(array, from, to);
+        return this;
+    }
+
+    public ByteList radixSort() {
+        return this.radixSort(0, size);
+    }
+
+
+    public long sum(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.sum(array, from, to);
+    }
+
+    public long sum() {
+        return this.sum(0, size);
+    }
+
+    public byte min(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.min(array, from, to);
+    }
+
+    public byte min() {
+        return this.min(0, size);
+    }
+
+    public byte max(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.max(array, from, to);
+    }
+
+    public byte max() {
+        return this.max(0, size);
+    }
+
+    public int argMin(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMin(array, from, to);
+    }
+
+    public int argMin() {
+        return this.argMin(0, size);
+    }
+
+    public int argMax(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMax(array, from, to);
+    }
+
+    public int argMax() {
+        return this.argMax(0, size);
+    }
+
+    public double mean(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.mean(array, from, to);
+    }
+
+    public double mean() {
+        return this.mean(0, size);
+    }
+
+    public double variance(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.variance(array, from, to);
+    }
+
+    public double variance() {
+        return this.variance(0, size);
+    }
+
 
     public byte[] copyOf(int offset, int newLength) {
         final byte[] slice = new byte[newLength];
@@ -399,6 +739,71 @@ public class ByteList implements Iterable<Byte> {
     }
 
 
+    public ByteList writeTo(ByteBuffer buffer) {
+        buffer.put(array, 0, size);
+        return this;
+    }
+
+    public ByteBuffer toDirectBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(size * Byte.BYTES)
+            .order(ByteOrder.nativeOrder());
+        buffer.put(array, 0, size);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
+    public void forEach(ByteConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Byte> action) {
+        if(action instanceof ByteConsumer){
+            this.forEach((ByteConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(ByteIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public ByteList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'B', size);
+        ListIO.writeFully(channel, ByteBuffer.wrap(array, 0, size));
+        return this;
+    }
+
+    public ByteList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static ByteList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'B');
+        final int size = ListIO.size(header);
+        final ByteList list = new ByteList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        for(int i = 0; i < size; i += ListIO.CHUNK_BYTES){
+            final int length = Math.min(ListIO.CHUNK_BYTES, size - i);
+            if(i + length > list.array.length)
+                list.grow(i + length);
+            ListIO.readFully(channel, ByteBuffer.wrap(list.array, i, length));
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static ByteList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -411,24 +816,34 @@ public class ByteList implements Iterable<Byte> {
         if(object == null || getClass() != object.getClass())
             return false;
         final ByteList list = (ByteList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Byte.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Byte> iterator() {
-        return new Iterator<>() {
+    public ByteIterator iterator() {
+        return new ByteIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Byte next() {
+            public byte nextByte() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
@@ -0,0 +1,31 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.CharConsumer;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface CharIterator extends Iterator<Character> {
+
+    char nextChar();
+
+    @Override
+    default Character next() {
+        return this.nextChar();
+    }
+
+    default void forEachRemaining(CharConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextChar());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Character> action) {
+        if(action instanceof CharConsumer){
+            this.forEachRemaining((CharConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextChar());
+        }
+    }
+
+}
\ No newline at end of file
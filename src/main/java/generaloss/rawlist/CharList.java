@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class CharList implements Iterable<Character> {
 
@@ -10,6 +16,10 @@ public class CharList implements Iterable<Character> {
 
     private char[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
 
     public CharList() {
         this(DEFAULT_CAPACITY);
@@ -36,7 +46,7 @@ public class CharList implements Iterable<Character> {
     }
 
     public CharList(CharBuffer buffer) {
-        this.array = new char[buffer.limit()];
+        this.array = new char[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -67,6 +77,22 @@ public class CharList implements Iterable<Character> {
         this.addAll(array, func);
     }
 
+    public <O> CharList(Iterable<O> iterable, ToCharFunction<O> func) {
+        this.array = new char[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> CharList(Collection<O> collection, ToCharFunction<O> func) {
+        this.array = new char[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> CharList(O[] array, ToCharFunction<O> func) {
+        this.array = new char[array.length];
+        this.addAll(array, func);
+    }
+
 
     public char[] array() {
         return array;
@@ -107,6 +133,7 @@ public class CharList implements Iterable<Character> {
 
 
     public CharList add(char element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -116,6 +143,7 @@ public class CharList implements Iterable<Character> {
     }
 
     public CharList add(char... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -131,15 +159,17 @@ public class CharList implements Iterable<Character> {
     }
 
     public CharList add(CharList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public CharList add(int i, char element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -158,6 +188,7 @@ public class CharList implements Iterable<Character> {
     public CharList add(int i, char... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -189,20 +220,34 @@ public class CharList implements Iterable<Character> {
 
 
     public CharList addAll(CharBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i));
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        buffer.get(array, size, length);
+        buffer.position(position);
+        size += length;
         return this;
     }
 
     public CharList addAll(Iterable<Character> iterable) {
+        if(iterable instanceof CharList)
+            return this.add((CharList) iterable);
+        
         for(Character item: iterable)
             this.add(item);
         return this;
     }
 
     public CharList addAll(Collection<Character> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Character item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -224,11 +269,38 @@ public class CharList implements Iterable<Character> {
         return this;
     }
 
+    public <O> CharList addAll(Iterable<O> iterable, ToCharFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsChar(object));
+        return this;
+    }
+
+    public <O> CharList addAll(Collection<O> collection, ToCharFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsChar(object);
+        return this;
+    }
+
+    public <O> CharList addAll(O[] array, ToCharFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsChar(object);
+        return this;
+    }
+
 
     public CharList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -265,6 +337,22 @@ public class CharList implements Iterable<Character> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(char value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(char value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(char element) {
         return (this.indexOf(element) != -1);
@@ -279,17 +367,11 @@ public class CharList implements Iterable<Character> {
     }
 
     public int indexOfRange(char element, int start, int end) {
-        for(int i = start; i < end; i++)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.indexOf(array, element, start, end);
     }
 
     public int lastIndexOfRange(char element, int start, int end) {
-        for(int i = end - 1; i >= start; i--)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.lastIndexOf(array, element, start, end);
     }
 
 
@@ -303,18 +385,21 @@ public class CharList implements Iterable<Character> {
 
 
     public CharList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, (char) 0);
         size = 0;
         return this;
     }
 
     public CharList fill(char value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public CharList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -322,6 +407,7 @@ public class CharList implements Iterable<Character> {
     }
 
     public CharList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new char[0];
         }else{
@@ -332,6 +418,42 @@ public class CharList implements Iterable<Character> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public CharList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final CharList snapshot = new CharList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public CharList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("CharList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+    }
+
+
     public char get(int i) {
         return array[i];
     }
@@ -345,6 +467,7 @@ public class CharList implements Iterable<Character> {
     }
 
     public CharList set(int i, char newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -359,25 +482,178 @@ public class CharList implements Iterable<Character> {
 
 
     public CharList elementAdd(int i, char value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public CharList elementSub(int i, char value) {
+        this.beforeWrite();
         array[i] -= value;
         return this;
     }
 
     public CharList elementMul(int i, char value) {
+        this.beforeWrite();
         array[i] *= value;
         return this;
     }
 
     public CharList elementDiv(int i, char value) {
+        this.beforeWrite();
         array[i] /= value;
         return this;
     }
 
+    public CharList elementAddAll(int from, int to, char value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.add(array, from, to, value);
+        return this;
+    }
+
+    public CharList elementAddAll(char value) {
+        return this.elementAddAll(0, size, value);
+    }
+
+    public CharList elementAddAll(int offset, CharList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.add(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public CharList elementAddAll(CharList list) {
+        return this.elementAddAll(0, list);
+    }
+
+    public CharList elementSubAll(int from, int to, char value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.sub(array, from, to, value);
+        return this;
+    }
+
+    public CharList elementSubAll(char value) {
+        return this.elementSubAll(0, size, value);
+    }
+
+    public CharList elementSubAll(int offset, CharList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.sub(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public CharList elementSubAll(CharList list) {
+        return this.elementSubAll(0, list);
+    }
+
+    public CharList elementMulAll(int from, int to, char value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.mul(array, from, to, value);
+        return this;
+    }
+
+    public CharList elementMulAll(char value) {
+        return this.elementMulAll(0, size, value);
+    }
+
+    public CharList elementMulAll(int offset, CharList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.mul(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public CharList elementMulAll(CharList list) {
+        return this.elementMulAll(0, list);
+    }
+
+    public CharList elementDivAll(int from, int to, char value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.div(array, from, to, value);
+        return this;
+    }
+
+    public CharList elementDivAll(char value) {
+        return this.elementDivAll(0, size, value);
+    }
+
+    public CharList elementDivAll(int offset, CharList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.div(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public CharList elementDivAll(CharList list) {
+        return this.elementDivAll(0, list);
+    }
+
+    public CharList elementFmaAll(int from, int to, char multiplier, char addend) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.fma(array, from, to, multiplier, addend);
+        return this;
+    }
+
+    public CharList elementFmaAll(char multiplier, char addend) {
+        return this.elementFmaAll(0, size, multiplier, addend);
+    }
+
+    public CharList elementClampAll(int from, int to, char min, char max) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.clamp(array, from, to, min, max);
+        return this;
+    }
+
+    public CharList elementClampAll(char min, char max) {
+        return this.elementClampAll(0, size, min, max);
+    }
+
+    private void checkElementRange(int offset, int length) {
+        if(offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for size " + size);
+    }
+
+
+    public CharList sort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.sort(array, from, to);
+        return this;
+    }
+
+    public CharList sort() {
+        return this.sort(0, size);
+    }
+
+    public CharList parallelSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.parallelSort(array, from, to);
+        return this;
+    }
+
+    public CharList parallelSort() {
+        return this.parallelSort(0, size);
+    }
+
+    public CharList radixSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        RadixSort.sort(array, from, to);
+        return this;
+    }
+
+    public CharList radixSort() {
+        return this.radixSort(0, size);
+    }
+
 
     public char[] copyOf(int offset, int newLength) {
         final char[] slice = new char[newLength];
@@ -415,6 +691,21 @@ public class CharList implements Iterable<Character> {
     }
 
 
+    public CharList writeTo(CharBuffer buffer) {
+        buffer.put(array, 0, size);
+        return this;
+    }
+
+    public CharBuffer toDirectBuffer() {
+        final CharBuffer buffer = ByteBuffer.allocateDirect(size * Character.BYTES)
+            .order(ByteOrder.nativeOrder()).asCharBuffer();
+        buffer.put(array, 0, size);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
     public String getStringOf() {
         return new String(array);
     }
@@ -430,6 +721,77 @@ public class CharList implements Iterable<Character> {
     }
 
 
+    public void forEach(CharConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Character> action) {
+        if(action instanceof CharConsumer){
+            this.forEach((CharConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(CharIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public CharList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'C', size);
+        final ByteBuffer buffer = ListIO.chunk((long) size * Character.BYTES, ByteOrder.nativeOrder());
+        try{
+            final CharBuffer view = buffer.asCharBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                view.clear();
+                view.put(array, i, length);
+                buffer.clear().limit(length * Character.BYTES);
+                ListIO.writeFully(channel, buffer);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        return this;
+    }
+
+    public CharList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static CharList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'C');
+        final int size = ListIO.size(header);
+        final CharList list = new CharList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        final ByteBuffer buffer = ListIO.chunk((long) size * Character.BYTES, ListIO.order(header));
+        try{
+            final CharBuffer view = buffer.asCharBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                buffer.clear().limit(length * Character.BYTES);
+                ListIO.readFully(channel, buffer);
+                if(i + length > list.array.length)
+                    list.grow(i + length);
+                view.clear();
+                view.get(list.array, i, length);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static CharList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -442,24 +804,34 @@ public class CharList implements Iterable<Character> {
         if(object == null || getClass() != object.getClass())
             return false;
         final CharList list = (CharList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Character.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Character> iterator() {
-        return new Iterator<>() {
+    public CharIterator iterator() {
+        return new CharIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Character next() {
+            public char nextChar() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
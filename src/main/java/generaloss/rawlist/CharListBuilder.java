@@ -0,0 +1,93 @@
+package generaloss.rawlist;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+public class CharListBuilder {
+
+    public static final int PARALLEL_THRESHOLD = (1 << 16);
+
+    private final ThreadLocal<CharList> local;
+    private final ConcurrentLinkedQueue<CharList> shards;
+
+    public CharListBuilder() {
+        this(CharList.DEFAULT_CAPACITY);
+    }
+
+    public CharListBuilder(int shardCapacity) {
+        if(shardCapacity < 0)
+           throw new IllegalArgumentException();
+        this.shards = new ConcurrentLinkedQueue<>();
+        this.local = ThreadLocal.withInitial(() -> {
+            final CharList shard = new CharList(shardCapacity);
+            shards.add(shard);
+            return shard;
+        });
+    }
+
+
+    // the calling thread's shard, safe to fill without synchronization
+    public CharList shard() {
+        return local.get();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int size() {
+        int size = 0;
+        for(CharList shard: shards)
+            size += shard.size();
+        return size;
+    }
+
+
+    public CharListBuilder add(char element) {
+        local.get().add(element);
+        return this;
+    }
+
+    public CharListBuilder add(char... elements) {
+        local.get().add(elements);
+        return this;
+    }
+
+    public CharListBuilder add(CharList list) {
+        local.get().add(list);
+        return this;
+    }
+
+
+    // shards are concatenated in the order their threads first touched the builder.
+    // Call once every producer is done (after join / executor shutdown)
+    public CharList build() {
+        final CharList[] parts = shards.toArray(new CharList[0]);
+        final int[] offsets = new int[parts.length];
+        long total = 0;
+        for(int i = 0; i < parts.length; i++){
+            offsets[i] = (int) total;
+            total += parts[i].size();
+        }
+        if(total > Integer.MAX_VALUE - 8)
+            throw new OutOfMemoryError("Required array length " + total + " is too large");
+        
+        final char[] array = new char[(int) total];
+        if(total >= PARALLEL_THRESHOLD && parts.length > 1){
+            IntStream.range(0, parts.length).parallel().forEach(i ->
+                System.arraycopy(parts[i].array(), 0, array, offsets[i], parts[i].size())
+            );
+        }else{
+            for(int i = 0; i < parts.length; i++)
+                System.arraycopy(parts[i].array(), 0, array, offsets[i], parts[i].size());
+        }
+        return new CharList(array);
+    }
+
+    public CharListBuilder clear() {
+        for(CharList shard: shards)
+            shard.clear();
+        return this;
+    }
+
+}
\ No newline at end of file
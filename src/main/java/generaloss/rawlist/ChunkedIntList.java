@@ -0,0 +1,289 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class ChunkedIntList implements Iterable<Integer> {
+
+    // growing allocates one more chunk, existing elements are never copied
+    public static final int CHUNK_SHIFT = 12;
+    public static final int CHUNK_SIZE = (1 << CHUNK_SHIFT);
+    public static final int CHUNK_MASK = (CHUNK_SIZE - 1);
+
+    private int[][] chunks;
+    private int chunkCount;
+    private int size;
+
+    public ChunkedIntList() {
+        this(CHUNK_SIZE);
+    }
+
+    public ChunkedIntList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        this.chunks = new int[Math.max(1, chunksFor(capacity))][];
+        this.ensureCapacity(capacity);
+    }
+
+    public ChunkedIntList(IntList list) {
+        this(list.size());
+        this.add(list);
+    }
+
+    public ChunkedIntList(ChunkedIntList list) {
+        this(list.size);
+        this.add(list);
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return (chunkCount << CHUNK_SHIFT);
+    }
+
+    public int chunkCount() {
+        return chunkCount;
+    }
+
+    public int lastIndex() {
+        return Math.max(0, (size - 1));
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    private static int chunksFor(int capacity) {
+        return (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if(minCapacity < 0)
+            throw new OutOfMemoryError("Required capacity exceeds " + Integer.MAX_VALUE);
+        
+        final int required = chunksFor(minCapacity);
+        if(required <= chunkCount)
+            return;
+        if(required > chunks.length)
+            chunks = Arrays.copyOf(chunks, Math.max(required, chunks.length + (chunks.length >> 1) + 1));
+        for(int i = chunkCount; i < required; i++)
+            if(chunks[i] == null)
+                chunks[i] = new int[CHUNK_SIZE];
+        chunkCount = required;
+    }
+
+
+    public ChunkedIntList add(int element) {
+        if(size == (chunkCount << CHUNK_SHIFT))
+            this.ensureCapacity(size + 1);
+        
+        chunks[size >>> CHUNK_SHIFT][size & CHUNK_MASK] = element;
+        size++;
+        return this;
+    }
+
+    public ChunkedIntList add(int[] elements, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, elements.length);
+        this.ensureCapacity(size + length);
+        
+        int copied = 0;
+        while(copied < length){
+            final int index = (size + copied);
+            final int count = Math.min(length - copied, CHUNK_SIZE - (index & CHUNK_MASK));
+            System.arraycopy(elements, offset + copied, chunks[index >>> CHUNK_SHIFT], index & CHUNK_MASK, count);
+            copied += count;
+        }
+        size += length;
+        return this;
+    }
+
+    public ChunkedIntList add(int... elements) {
+        return this.add(elements, 0, elements.length);
+    }
+
+    public ChunkedIntList add(IntList list) {
+        return this.add(list.array(), 0, list.size());
+    }
+
+    public ChunkedIntList add(ChunkedIntList list) {
+        final int length = list.size;
+        this.ensureCapacity(size + length);
+        for(int i = 0; i < length; i += CHUNK_SIZE)
+            this.add(list.chunks[i >>> CHUNK_SHIFT], 0, Math.min(CHUNK_SIZE, length - i));
+        return this;
+    }
+
+
+    public int removeLast() {
+        final int value = this.get(size - 1);
+        size--;
+        return value;
+    }
+
+    public ChunkedIntList removeLast(int length) {
+        size -= Math.min(Math.max(0, length), size);
+        return this;
+    }
+
+    public ChunkedIntList clear() {
+        size = 0;
+        return this;
+    }
+
+    // releases chunks past the last used one
+    public ChunkedIntList trim() {
+        final int required = chunksFor(size);
+        for(int i = required; i < chunks.length; i++)
+            chunks[i] = null;
+        chunkCount = required;
+        return this;
+    }
+
+    public ChunkedIntList fill(int value) {
+        for(int i = 0; i < size; i += CHUNK_SIZE)
+            Arrays.fill(chunks[i >>> CHUNK_SHIFT], 0, Math.min(CHUNK_SIZE, size - i), value);
+        return this;
+    }
+
+
+    public int get(int i) {
+        Objects.checkIndex(i, size);
+        return chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK];
+    }
+
+    public int getFirst() {
+        return this.get(0);
+    }
+
+    public int getLast() {
+        return this.get(this.lastIndex());
+    }
+
+    public ChunkedIntList set(int i, int newValue) {
+        Objects.checkIndex(i, size);
+        chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK] = newValue;
+        return this;
+    }
+
+
+    public boolean contains(int element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(int element) {
+        for(int i = 0; i < size; i += CHUNK_SIZE){
+            final int found = ArrayUtils.indexOf(chunks[i >>> CHUNK_SHIFT], element, 0, Math.min(CHUNK_SIZE, size - i));
+            if(found != -1)
+                return (i + found);
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(int element) {
+        for(int i = ((size - 1) & ~CHUNK_MASK); i >= 0; i -= CHUNK_SIZE){
+            final int found = ArrayUtils.lastIndexOf(chunks[i >>> CHUNK_SHIFT], element, 0, Math.min(CHUNK_SIZE, size - i));
+            if(found != -1)
+                return (i + found);
+        }
+        return -1;
+    }
+
+
+    public ChunkedIntList copyTo(int[] dst, int offset) {
+        for(int i = 0; i < size; i += CHUNK_SIZE)
+            System.arraycopy(chunks[i >>> CHUNK_SHIFT], 0, dst, offset + i, Math.min(CHUNK_SIZE, size - i));
+        return this;
+    }
+
+    public int[] copyOf() {
+        final int[] array = new int[size];
+        this.copyTo(array, 0);
+        return array;
+    }
+
+    // flattens into a single exactly sized array
+    public IntList compact() {
+        return new IntList(this.copyOf());
+    }
+
+    public ChunkedIntList copy() {
+        return new ChunkedIntList(this);
+    }
+
+
+    public void forEach(IntValueConsumer action) {
+        for(int i = 0; i < size; i += CHUNK_SIZE){
+            final int[] chunk = chunks[i >>> CHUNK_SHIFT];
+            final int length = Math.min(CHUNK_SIZE, size - i);
+            for(int j = 0; j < length; j++)
+                action.accept(chunk[j]);
+        }
+    }
+
+    public void forEachIndexed(IntIndexedConsumer action) {
+        for(int i = 0; i < size; i += CHUNK_SIZE){
+            final int[] chunk = chunks[i >>> CHUNK_SHIFT];
+            final int length = Math.min(CHUNK_SIZE, size - i);
+            for(int j = 0; j < length; j++)
+                action.accept(i + j, chunk[j]);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final ChunkedIntList list = (ChunkedIntList) object;
+        if(size != list.size)
+            return false;
+        for(int i = 0; i < size; i += CHUNK_SIZE){
+            final int length = Math.min(CHUNK_SIZE, size - i);
+            if(!Arrays.equals(chunks[i >>> CHUNK_SHIFT], 0, length, list.chunks[i >>> CHUNK_SHIFT], 0, length))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Integer.hashCode(chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK]);
+        return hash;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        return new IntIterator() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public int nextInt() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                final int i = index++;
+                return chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK];
+            }
+        };
+    }
+
+}
\ No newline at end of file
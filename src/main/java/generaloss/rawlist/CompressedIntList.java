@@ -0,0 +1,276 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class CompressedIntList implements Iterable<Integer> {
+
+    // elements are stored in blocks: the first value of a block, then the deltas to the previous value,
+    // each zigzag encoded as a varint. The directory holds the byte offset of every block
+    public static final int BLOCK_SHIFT = 7;
+    public static final int BLOCK_SIZE = (1 << BLOCK_SHIFT);
+    private static final int BLOCK_MASK = (BLOCK_SIZE - 1);
+    // decoded blocks, direct-mapped by block index
+    private static final int CACHE_SIZE = 8;
+
+    private byte[] data;
+    private int dataSize;
+    private int[] blockOffsets;
+    private int size;
+    private int last;
+
+    private final int[][] cache = new int[CACHE_SIZE][];
+    private final int[] cacheBlocks = new int[CACHE_SIZE];
+
+    public CompressedIntList() {
+        this.data = new byte[64];
+        this.blockOffsets = new int[4];
+        Arrays.fill(cacheBlocks, -1);
+    }
+
+    public CompressedIntList(int... items) {
+        this();
+        this.add(items);
+    }
+
+    public CompressedIntList(IntList list) {
+        this();
+        this.add(list);
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+    public int blockCount() {
+        return ((size + BLOCK_MASK) >>> BLOCK_SHIFT);
+    }
+
+    // encoded bytes plus the block directory
+    public long compressedBytes() {
+        return (dataSize + (long) this.blockCount() * Integer.BYTES);
+    }
+
+
+    public CompressedIntList add(int element) {
+        final int indexInBlock = (size & BLOCK_MASK);
+        final int block = (size >>> BLOCK_SHIFT);
+        if(indexInBlock == 0){
+            if(block == blockOffsets.length)
+                blockOffsets = Arrays.copyOf(blockOffsets, ArrayUtils.newLength(block, 1, block));
+            blockOffsets[block] = dataSize;
+            last = 0;
+        }
+        if(dataSize + 5 > data.length)
+            data = Arrays.copyOf(data, ArrayUtils.newLength(data.length, 5, data.length >> 1));
+        
+        int value = ((element - last) << 1) ^ ((element - last) >> 31);
+        while((value & ~0x7F) != 0){
+            data[dataSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[dataSize++] = (byte) value;
+        
+        last = element;
+        size++;
+        if(cacheBlocks[block & (CACHE_SIZE - 1)] == block)
+            cacheBlocks[block & (CACHE_SIZE - 1)] = -1;
+        return this;
+    }
+
+    public CompressedIntList add(int[] elements, int offset, int length) {
+        for(int i = 0; i < length; i++)
+            this.add(elements[offset + i]);
+        return this;
+    }
+
+    public CompressedIntList add(int... elements) {
+        return this.add(elements, 0, elements.length);
+    }
+
+    public CompressedIntList add(IntList list) {
+        return this.add(list.array(), 0, list.size());
+    }
+
+
+    public CompressedIntList clear() {
+        dataSize = 0;
+        size = 0;
+        Arrays.fill(cacheBlocks, -1);
+        return this;
+    }
+
+    public CompressedIntList trim() {
+        data = Arrays.copyOf(data, dataSize);
+        blockOffsets = Arrays.copyOf(blockOffsets, this.blockCount());
+        return this;
+    }
+
+
+    // decodes count values of a block into dst
+    private void decodeBlock(int block, int[] dst, int count) {
+        int position = blockOffsets[block];
+        int value = 0;
+        for(int k = 0; k < count; k++){
+            int raw = 0;
+            int shift = 0;
+            byte b;
+            do{
+                b = data[position++];
+                raw |= ((b & 0x7F) << shift);
+                shift += 7;
+            }while(b < 0);
+            value += ((raw >>> 1) ^ -(raw & 1));
+            dst[k] = value;
+        }
+    }
+
+    private int blockLength(int block) {
+        return Math.min(BLOCK_SIZE, size - (block << BLOCK_SHIFT));
+    }
+
+    // the cache makes reads mutate state, concurrent readers need external synchronization
+    private int[] cachedBlock(int block) {
+        final int slot = (block & (CACHE_SIZE - 1));
+        if(cacheBlocks[slot] != block){
+            if(cache[slot] == null)
+                cache[slot] = new int[BLOCK_SIZE];
+            this.decodeBlock(block, cache[slot], this.blockLength(block));
+            cacheBlocks[slot] = block;
+        }
+        return cache[slot];
+    }
+
+
+    public int get(int i) {
+        Objects.checkIndex(i, size);
+        return this.cachedBlock(i >>> BLOCK_SHIFT)[i & BLOCK_MASK];
+    }
+
+    public int getFirst() {
+        return this.get(0);
+    }
+
+    public int getLast() {
+        Objects.checkIndex(0, size);
+        return last;
+    }
+
+
+    public boolean contains(int element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(int element) {
+        final int[] values = new int[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            final int index = ArrayUtils.indexOf(values, element, 0, length);
+            if(index != -1)
+                return ((block << BLOCK_SHIFT) + index);
+        }
+        return -1;
+    }
+
+
+    public CompressedIntList copyTo(int[] dst, int offset) {
+        final int[] values = new int[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            System.arraycopy(values, 0, dst, offset + (block << BLOCK_SHIFT), length);
+        }
+        return this;
+    }
+
+    public int[] copyOf() {
+        final int[] array = new int[size];
+        this.copyTo(array, 0);
+        return array;
+    }
+
+    public IntList toList() {
+        return new IntList(this.copyOf());
+    }
+
+
+    public void forEach(IntValueConsumer action) {
+        final int[] values = new int[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            for(int i = 0; i < length; i++)
+                action.accept(values[i]);
+        }
+    }
+
+    public void forEachIndexed(IntIndexedConsumer action) {
+        final int[] values = new int[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            for(int i = 0; i < length; i++)
+                action.accept((block << BLOCK_SHIFT) + i, values[i]);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    // the encoding is deterministic, equal contents give equal bytes
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final CompressedIntList list = (CompressedIntList) object;
+        return (size == list.size && Arrays.equals(data, 0, dataSize, list.data, 0, list.dataSize));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for(int i = 0; i < dataSize; i++)
+            hash = 31 * hash + data[i];
+        return hash;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        return new IntIterator() {
+            private final int[] values = new int[BLOCK_SIZE];
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public int nextInt() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                if((index & BLOCK_MASK) == 0)
+                    decodeBlock(index >>> BLOCK_SHIFT, values, blockLength(index >>> BLOCK_SHIFT));
+                return values[index++ & BLOCK_MASK];
+            }
+        };
+    }
+
+}
\ No newline at end of file
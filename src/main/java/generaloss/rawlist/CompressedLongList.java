@@ -0,0 +1,276 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class CompressedLongList implements Iterable<Long> {
+
+    // elements are stored in blocks: the first value of a block, then the deltas to the previous value,
+    // each zigzag encoded as a varint. The directory holds the byte offset of every block
+    public static final int BLOCK_SHIFT = 7;
+    public static final int BLOCK_SIZE = (1 << BLOCK_SHIFT);
+    private static final int BLOCK_MASK = (BLOCK_SIZE - 1);
+    // decoded blocks, direct-mapped by block index
+    private static final int CACHE_SIZE = 8;
+
+    private byte[] data;
+    private int dataSize;
+    private int[] blockOffsets;
+    private int size;
+    private long last;
+
+    private final long[][] cache = new long[CACHE_SIZE][];
+    private final int[] cacheBlocks = new int[CACHE_SIZE];
+
+    public CompressedLongList() {
+        this.data = new byte[64];
+        this.blockOffsets = new int[4];
+        Arrays.fill(cacheBlocks, -1);
+    }
+
+    public CompressedLongList(long... items) {
+        this();
+        this.add(items);
+    }
+
+    public CompressedLongList(LongList list) {
+        this();
+        this.add(list);
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+    public int blockCount() {
+        return ((size + BLOCK_MASK) >>> BLOCK_SHIFT);
+    }
+
+    // encoded bytes plus the block directory
+    public long compressedBytes() {
+        return (dataSize + (long) this.blockCount() * Integer.BYTES);
+    }
+
+
+    public CompressedLongList add(long element) {
+        final int indexInBlock = (size & BLOCK_MASK);
+        final int block = (size >>> BLOCK_SHIFT);
+        if(indexInBlock == 0){
+            if(block == blockOffsets.length)
+                blockOffsets = Arrays.copyOf(blockOffsets, ArrayUtils.newLength(block, 1, block));
+            blockOffsets[block] = dataSize;
+            last = 0;
+        }
+        if(dataSize + 10 > data.length)
+            data = Arrays.copyOf(data, ArrayUtils.newLength(data.length, 10, data.length >> 1));
+        
+        long value = ((element - last) << 1) ^ ((element - last) >> 63);
+        while((value & ~0x7F) != 0){
+            data[dataSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[dataSize++] = (byte) value;
+        
+        last = element;
+        size++;
+        if(cacheBlocks[block & (CACHE_SIZE - 1)] == block)
+            cacheBlocks[block & (CACHE_SIZE - 1)] = -1;
+        return this;
+    }
+
+    public CompressedLongList add(long[] elements, int offset, int length) {
+        for(int i = 0; i < length; i++)
+            this.add(elements[offset + i]);
+        return this;
+    }
+
+    public CompressedLongList add(long... elements) {
+        return this.add(elements, 0, elements.length);
+    }
+
+    public CompressedLongList add(LongList list) {
+        return this.add(list.array(), 0, list.size());
+    }
+
+
+    public CompressedLongList clear() {
+        dataSize = 0;
+        size = 0;
+        Arrays.fill(cacheBlocks, -1);
+        return this;
+    }
+
+    public CompressedLongList trim() {
+        data = Arrays.copyOf(data, dataSize);
+        blockOffsets = Arrays.copyOf(blockOffsets, this.blockCount());
+        return this;
+    }
+
+
+    // decodes count values of a block into dst
+    private void decodeBlock(int block, long[] dst, int count) {
+        int position = blockOffsets[block];
+        long value = 0;
+        for(int k = 0; k < count; k++){
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do{
+                b = data[position++];
+                raw |= ((long) (b & 0x7F) << shift);
+                shift += 7;
+            }while(b < 0);
+            value += ((raw >>> 1) ^ -(raw & 1));
+            dst[k] = value;
+        }
+    }
+
+    private int blockLength(int block) {
+        return Math.min(BLOCK_SIZE, size - (block << BLOCK_SHIFT));
+    }
+
+    // the cache makes reads mutate state, concurrent readers need external synchronization
+    private long[] cachedBlock(int block) {
+        final int slot = (block & (CACHE_SIZE - 1));
+        if(cacheBlocks[slot] != block){
+            if(cache[slot] == null)
+                cache[slot] = new long[BLOCK_SIZE];
+            this.decodeBlock(block, cache[slot], this.blockLength(block));
+            cacheBlocks[slot] = block;
+        }
+        return cache[slot];
+    }
+
+
+    public long get(int i) {
+        Objects.checkIndex(i, size);
+        return this.cachedBlock(i >>> BLOCK_SHIFT)[i & BLOCK_MASK];
+    }
+
+    public long getFirst() {
+        return this.get(0);
+    }
+
+    public long getLast() {
+        Objects.checkIndex(0, size);
+        return last;
+    }
+
+
+    public boolean contains(long element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(long element) {
+        final long[] values = new long[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            final int index = ArrayUtils.indexOf(values, element, 0, length);
+            if(index != -1)
+                return ((block << BLOCK_SHIFT) + index);
+        }
+        return -1;
+    }
+
+
+    public CompressedLongList copyTo(long[] dst, int offset) {
+        final long[] values = new long[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            System.arraycopy(values, 0, dst, offset + (block << BLOCK_SHIFT), length);
+        }
+        return this;
+    }
+
+    public long[] copyOf() {
+        final long[] array = new long[size];
+        this.copyTo(array, 0);
+        return array;
+    }
+
+    public LongList toList() {
+        return new LongList(this.copyOf());
+    }
+
+
+    public void forEach(LongValueConsumer action) {
+        final long[] values = new long[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            for(int i = 0; i < length; i++)
+                action.accept(values[i]);
+        }
+    }
+
+    public void forEachIndexed(LongIndexedConsumer action) {
+        final long[] values = new long[BLOCK_SIZE];
+        final int blockCount = this.blockCount();
+        for(int block = 0; block < blockCount; block++){
+            final int length = this.blockLength(block);
+            this.decodeBlock(block, values, length);
+            for(int i = 0; i < length; i++)
+                action.accept((block << BLOCK_SHIFT) + i, values[i]);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    // the encoding is deterministic, equal contents give equal bytes
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final CompressedLongList list = (CompressedLongList) object;
+        return (size == list.size && Arrays.equals(data, 0, dataSize, list.data, 0, list.dataSize));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for(int i = 0; i < dataSize; i++)
+            hash = 31 * hash + data[i];
+        return hash;
+    }
+
+    @Override
+    public LongIterator iterator() {
+        return new LongIterator() {
+            private final long[] values = new long[BLOCK_SIZE];
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public long nextLong() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                if((index & BLOCK_MASK) == 0)
+                    decodeBlock(index >>> BLOCK_SHIFT, values, blockLength(index >>> BLOCK_SHIFT));
+                return values[index++ & BLOCK_MASK];
+            }
+        };
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,294 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ConcurrentLongList implements Iterable<Long> {
+
+    // bucket b holds (FIRST_BUCKET_SIZE << b) elements, buckets are never copied
+    private static final int FIRST_BUCKET_SHIFT = 6;
+    private static final int FIRST_BUCKET_SIZE = (1 << FIRST_BUCKET_SHIFT);
+    private static final int BUCKETS = (32 - FIRST_BUCKET_SHIFT);
+    public static final int MAX_CAPACITY = (Integer.MAX_VALUE - FIRST_BUCKET_SIZE);
+
+    private static final VarHandle READY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final AtomicReferenceArray<long[]> buckets;
+    private final AtomicReferenceArray<long[]> readyBits;
+    // slots handed out to writers
+    private final AtomicInteger reserved;
+    // every slot below this index is written and visible to readers
+    private final AtomicInteger published;
+
+    public ConcurrentLongList() {
+        this(FIRST_BUCKET_SIZE);
+    }
+
+    public ConcurrentLongList(int capacity) {
+        if(capacity < 0 || capacity > MAX_CAPACITY)
+           throw new IllegalArgumentException();
+        this.buckets = new AtomicReferenceArray<>(BUCKETS);
+        this.readyBits = new AtomicReferenceArray<>(BUCKETS);
+        this.reserved = new AtomicInteger();
+        this.published = new AtomicInteger();
+        
+        // presize so that producers do not race on bucket allocation
+        if(capacity > 0){
+            final int lastBucket = bucketOf(capacity - 1 + FIRST_BUCKET_SIZE);
+            for(int i = 0; i <= lastBucket; i++)
+                this.bucket(i);
+        }
+    }
+
+    public ConcurrentLongList(long... items) {
+        this(items.length);
+        this.add(items);
+    }
+
+    public ConcurrentLongList(LongList list) {
+        this(list.size());
+        this.add(list);
+    }
+
+
+    public int size() {
+        return published.get();
+    }
+
+    public boolean isEmpty() {
+        return (this.size() == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (this.size() != 0);
+    }
+
+
+    private static int bucketOf(int position) {
+        return (31 - Integer.numberOfLeadingZeros(position) - FIRST_BUCKET_SHIFT);
+    }
+
+    private static int offsetOf(int position, int bucket) {
+        return (position - (FIRST_BUCKET_SIZE << bucket));
+    }
+
+    private long[] bucket(int bucket) {
+        final long[] values = buckets.get(bucket);
+        if(values != null)
+            return values;
+        
+        final int length = (FIRST_BUCKET_SIZE << bucket);
+        readyBits.compareAndSet(bucket, null, new long[length >>> 6]);
+        buckets.compareAndSet(bucket, null, new long[length]);
+        return buckets.get(bucket);
+    }
+
+    private int reserve(int count) {
+        while(true){
+            final int index = reserved.get();
+            if(count > MAX_CAPACITY - index)
+                throw new OutOfMemoryError("Required capacity " + ((long) index + count) + " exceeds " + MAX_CAPACITY);
+            if(reserved.compareAndSet(index, index + count))
+                return index;
+        }
+    }
+
+    private void markReady(int from, int to) {
+        while(from < to){
+            final int position = (from + FIRST_BUCKET_SIZE);
+            final int bucket = bucketOf(position);
+            final int offset = offsetOf(position, bucket);
+            final int count = Math.min(to - from, Math.min(64 - (offset & 63), (FIRST_BUCKET_SIZE << bucket) - offset));
+            final long mask = ((count == 64 ? -1L : (1L << count) - 1L) << offset);
+            READY.getAndBitwiseOr(readyBits.get(bucket), offset >>> 6, mask);
+            from += count;
+        }
+    }
+
+    private int readyFrom(int index) {
+        while(true){
+            final int position = (index + FIRST_BUCKET_SIZE);
+            final int bucket = bucketOf(position);
+            final long[] ready = readyBits.get(bucket);
+            if(ready == null)
+                return index;
+        
+            final int offset = offsetOf(position, bucket);
+            final long word = (long) READY.getVolatile(ready, offset >>> 6);
+            final long notReady = (~word & (-1L << offset));
+            if(notReady != 0)
+                return (index + Long.numberOfTrailingZeros(notReady) - (offset & 63));
+            index += (64 - (offset & 63));
+        }
+    }
+
+    // advances the published prefix over every contiguous ready slot. A writer that stops at a slot
+    // still being written leaves the rest to that slot's writer, which is guaranteed to see our bits
+    private void publish() {
+        int index = published.get();
+        while(true){
+            final int ready = this.readyFrom(index);
+            if(ready == index)
+                return;
+            if(published.compareAndSet(index, ready)){
+                index = ready;
+            }else{
+                index = published.get();
+            }
+        }
+    }
+
+
+    public ConcurrentLongList add(long element) {
+        final int index = this.reserve(1);
+        final int position = (index + FIRST_BUCKET_SIZE);
+        final int bucket = bucketOf(position);
+        final int offset = offsetOf(position, bucket);
+        this.bucket(bucket)[offset] = element;
+        READY.getAndBitwiseOr(readyBits.get(bucket), offset >>> 6, 1L << offset);
+        this.publish();
+        return this;
+    }
+
+    public ConcurrentLongList add(long... elements) {
+        return this.add(elements, 0, elements.length);
+    }
+
+    // arguments are checked before reserving, a reserved slot that is never marked ready blocks publishing
+    public ConcurrentLongList add(long[] elements, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, elements.length);
+        if(length == 0)
+            return this;
+        
+        final int index = this.reserve(length);
+        int copied = 0;
+        while(copied < length){
+            final int position = (index + copied + FIRST_BUCKET_SIZE);
+            final int bucket = bucketOf(position);
+            final int bucketOffset = offsetOf(position, bucket);
+            final int count = Math.min(length - copied, (FIRST_BUCKET_SIZE << bucket) - bucketOffset);
+            System.arraycopy(elements, offset + copied, this.bucket(bucket), bucketOffset, count);
+            copied += count;
+        }
+        this.markReady(index, index + length);
+        this.publish();
+        return this;
+    }
+
+    public ConcurrentLongList add(LongList list) {
+        return this.add(list.array(), 0, list.size());
+    }
+
+
+    public long get(int i) {
+        Objects.checkIndex(i, published.get());
+        final int position = (i + FIRST_BUCKET_SIZE);
+        final int bucket = bucketOf(position);
+        return buckets.get(bucket)[offsetOf(position, bucket)];
+    }
+
+    public long getLast() {
+        return this.get(this.size() - 1);
+    }
+
+
+    public boolean contains(long element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(long element) {
+        final int size = published.get();
+        int index = 0;
+        for(int bucket = 0; index < size; bucket++){
+            final long[] values = buckets.get(bucket);
+            final int length = Math.min(values.length, size - index);
+            final int found = ArrayUtils.indexOf(values, element, 0, length);
+            if(found != -1)
+                return (index + found);
+            index += length;
+        }
+        return -1;
+    }
+
+
+    // copies the first length published elements
+    private void copyTo(long[] dst, int length) {
+        int copied = 0;
+        for(int bucket = 0; copied < length; bucket++){
+            final long[] values = buckets.get(bucket);
+            final int count = Math.min(values.length, length - copied);
+            System.arraycopy(values, 0, dst, copied, count);
+            copied += count;
+        }
+    }
+
+    public long[] copyOf() {
+        final long[] array = new long[published.get()];
+        this.copyTo(array, array.length);
+        return array;
+    }
+
+    public LongList toList() {
+        return new LongList(this.copyOf());
+    }
+
+
+    public void forEach(LongValueConsumer action) {
+        final int size = published.get();
+        int index = 0;
+        for(int bucket = 0; index < size; bucket++){
+            final long[] values = buckets.get(bucket);
+            final int length = Math.min(values.length, size - index);
+            for(int i = 0; i < length; i++)
+                action.accept(values[i]);
+            index += length;
+        }
+    }
+
+    public void forEachIndexed(LongIndexedConsumer action) {
+        final int size = published.get();
+        int index = 0;
+        for(int bucket = 0; index < size; bucket++){
+            final long[] values = buckets.get(bucket);
+            final int length = Math.min(values.length, size - index);
+            for(int i = 0; i < length; i++)
+                action.accept(index + i, values[i]);
+            index += length;
+        }
+    }
+
+    @Override
+    public LongIterator iterator() {
+        final int size = published.get();
+        return new LongIterator() {
+            private int index, bucket, offset;
+            private long[] values = (size == 0 ? null : buckets.get(0));
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public long nextLong() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                if(offset == values.length){
+                    values = buckets.get(++bucket);
+                    offset = 0;
+                }
+                index++;
+                return values[offset++];
+            }
+        };
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package generaloss.rawlist;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+class DirectBuffers {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try{
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        }catch(ReflectiveOperationException | RuntimeException ignored){
+            // no explicit release, memory is freed when the buffer is collected
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    static void free(ByteBuffer buffer) {
+        if(INVOKE_CLEANER == null || !buffer.isDirect() || buffer.capacity() == 0)
+            return;
+        try{
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        }catch(ReflectiveOperationException ignored){ }
+    }
+
+}
@@ -0,0 +1,24 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.DoubleValueConsumer;
+import java.util.PrimitiveIterator;
+import java.util.function.Consumer;
+
+public interface DoubleIterator extends PrimitiveIterator.OfDouble {
+
+    default void forEachRemaining(DoubleValueConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextDouble());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Double> action) {
+        if(action instanceof DoubleValueConsumer){
+            this.forEachRemaining((DoubleValueConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextDouble());
+        }
+    }
+
+}
\ No newline at end of file
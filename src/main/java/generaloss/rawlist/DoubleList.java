@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class DoubleList implements Iterable<Double> {
 
@@ -10,6 +16,10 @@ public class DoubleList implements Iterable<Double> {
 
     private double[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
 
     public DoubleList() {
         this(DEFAULT_CAPACITY);
@@ -32,7 +42,7 @@ public class DoubleList implements Iterable<Double> {
     }
 
     public DoubleList(DoubleBuffer buffer) {
-        this.array = new double[buffer.limit()];
+        this.array = new double[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -63,6 +73,22 @@ public class DoubleList implements Iterable<Double> {
         this.addAll(array, func);
     }
 
+    public <O> DoubleList(Iterable<O> iterable, ToDoubleValueFunction<O> func) {
+        this.array = new double[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> DoubleList(Collection<O> collection, ToDoubleValueFunction<O> func) {
+        this.array = new double[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> DoubleList(O[] array, ToDoubleValueFunction<O> func) {
+        this.array = new double[array.length];
+        this.addAll(array, func);
+    }
+
 
     public double[] array() {
         return array;
@@ -103,6 +129,7 @@ public class DoubleList implements Iterable<Double> {
 
 
     public DoubleList add(double element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -112,6 +139,7 @@ public class DoubleList implements Iterable<Double> {
     }
 
     public DoubleList add(double... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -121,15 +149,17 @@ public class DoubleList implements Iterable<Double> {
     }
 
     public DoubleList add(DoubleList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public DoubleList add(int i, double element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -148,6 +178,7 @@ public class DoubleList implements Iterable<Double> {
     public DoubleList add(int i, double... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -173,20 +204,34 @@ public class DoubleList implements Iterable<Double> {
 
 
     public DoubleList addAll(DoubleBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i));
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        buffer.get(array, size, length);
+        buffer.position(position);
+        size += length;
         return this;
     }
 
     public DoubleList addAll(Iterable<Double> iterable) {
+        if(iterable instanceof DoubleList)
+            return this.add((DoubleList) iterable);
+        
         for(Double item: iterable)
             this.add(item);
         return this;
     }
 
     public DoubleList addAll(Collection<Double> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Double item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -208,11 +253,38 @@ public class DoubleList implements Iterable<Double> {
         return this;
     }
 
+    public <O> DoubleList addAll(Iterable<O> iterable, ToDoubleValueFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsDouble(object));
+        return this;
+    }
+
+    public <O> DoubleList addAll(Collection<O> collection, ToDoubleValueFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsDouble(object);
+        return this;
+    }
+
+    public <O> DoubleList addAll(O[] array, ToDoubleValueFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsDouble(object);
+        return this;
+    }
+
 
     public DoubleList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -249,6 +321,22 @@ public class DoubleList implements Iterable<Double> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(double value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(double value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(double element) {
         return (this.indexOf(element) != -1);
@@ -263,17 +351,11 @@ public class DoubleList implements Iterable<Double> {
     }
 
     public int indexOfRange(double element, int start, int end) {
-        for(int i = start; i < end; i++)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.indexOf(array, element, start, end);
     }
 
     public int lastIndexOfRange(double element, int start, int end) {
-        for(int i = end - 1; i >= start; i--)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.lastIndexOf(array, element, start, end);
     }
 
 
@@ -287,18 +369,21 @@ public class DoubleList implements Iterable<Double> {
 
 
     public DoubleList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, 0D);
         size = 0;
         return this;
     }
 
     public DoubleList fill(double value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public DoubleList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -306,6 +391,7 @@ public class DoubleList implements Iterable<Double> {
     }
 
     public DoubleList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new double[0];
         }else{
@@ -316,6 +402,42 @@ public class DoubleList implements Iterable<Double> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public DoubleList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final DoubleList snapshot = new DoubleList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public DoubleList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("DoubleList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+    }
+
+
     public double get(int i) {
         return array[i];
     }
@@ -329,6 +451,7 @@ public class DoubleList implements Iterable<Double> {
     }
 
     public DoubleList set(int i, double newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -343,25 +466,264 @@ public class DoubleList implements Iterable<Double> {
 
 
     public DoubleList elementAdd(int i, double value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public DoubleList elementSub(int i, double value) {
+        this.beforeWrite();
         array[i] -= value;
         return this;
     }
 
     public DoubleList elementMul(int i, double value) {
+        this.beforeWrite();
         array[i] *= value;
         return this;
     }
 
     public DoubleList elementDiv(int i, double value) {
+        this.beforeWrite();
         array[i] /= value;
         return this;
     }
 
+    public DoubleList elementAddAll(int from, int to, double value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.add(array, from, to, value);
+        return this;
+    }
+
+    public DoubleList elementAddAll(double value) {
+        return this.elementAddAll(0, size, value);
+    }
+
+    public DoubleList elementAddAll(int offset, DoubleList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.add(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public DoubleList elementAddAll(DoubleList list) {
+        return this.elementAddAll(0, list);
+    }
+
+    public DoubleList elementSubAll(int from, int to, double value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.sub(array, from, to, value);
+        return this;
+    }
+
+    public DoubleList elementSubAll(double value) {
+        return this.elementSubAll(0, size, value);
+    }
+
+    public DoubleList elementSubAll(int offset, DoubleList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.sub(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public DoubleList elementSubAll(DoubleList list) {
+        return this.elementSubAll(0, list);
+    }
+
+    public DoubleList elementMulAll(int from, int to, double value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.mul(array, from, to, value);
+        return this;
+    }
+
+    public DoubleList elementMulAll(double value) {
+        return this.elementMulAll(0, size, value);
+    }
+
+    public DoubleList elementMulAll(int offset, DoubleList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.mul(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public DoubleList elementMulAll(DoubleList list) {
+        return this.elementMulAll(0, list);
+    }
+
+    public DoubleList elementDivAll(int from, int to, double value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.div(array, from, to, value);
+        return this;
+    }
+
+    public DoubleList elementDivAll(double value) {
+        return this.elementDivAll(0, size, value);
+    }
+
+    public DoubleList elementDivAll(int offset, DoubleList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.div(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public DoubleList elementDivAll(DoubleList list) {
+        return this.elementDivAll(0, list);
+    }
+
+    public DoubleList elementFmaAll(int from, int to, double multiplier, double addend) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.fma(array, from, to, multiplier, addend);
+        return this;
+    }
+
+    public DoubleList elementFmaAll(double multiplier, double addend) {
+        return this.elementFmaAll(0, size, multiplier, addend);
+    }
+
+    public DoubleList elementClampAll(int from, int to, double min, double max) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.clamp(array, from, to, min, max);
+        return this;
+    }
+
+    public DoubleList elementClampAll(double min, double max) {
+        return this.elementClampAll(0, size, min, max);
+    }
+
+    public DoubleList elementLerpAll(int from, int to, double target, double t) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.lerp(array, from, to, target, t);
+        return this;
+    }
+
+    public DoubleList elementLerpAll(double target, double t) {
+        return this.elementLerpAll(0, size, target, t);
+    }
+
+    public DoubleList elementLerpAll(int offset, DoubleList targets, double t) {
+        this.checkElementRange(offset, targets.size);
+        this.beforeWrite();
+        ArrayMath.lerp(array, offset, targets.array, 0, targets.size, t);
+        return this;
+    }
+
+    public DoubleList elementLerpAll(DoubleList targets, double t) {
+        return this.elementLerpAll(0, targets, t);
+    }
+
+    private void checkElementRange(int offset, int length) {
+        if(offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for size " + size);
+    }
+
+
+    public DoubleList sort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.sort(array, from, to);
+        return this;
+    }
+
+    public DoubleList sort() {
+        return this.sort(0, size);
+    }
+
+    public DoubleList parallelSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.parallelSort(array, from, to);
+        return this;
+    }
+
+    public DoubleList parallelSort() {
+        return this.parallelSort(0, size);
+    }
+
+    public DoubleList radixSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        RadixSort.sort(array, from, to);
+        return this;
+    }
+
+    public DoubleList radixSort() {
+        return this.radixSort(0, size);
+    }
+
+
+    public double sum(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.sum(array, from, to);
+    }
+
+    public double sum() {
+        return this.sum(0, size);
+    }
+
+    public double min(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.min(array, from, to);
+    }
+
+    public double min() {
+        return this.min(0, size);
+    }
+
+    public double max(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.max(array, from, to);
+    }
+
+    public double max() {
+        return this.max(0, size);
+    }
+
+    public int argMin(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMin(array, from, to);
+    }
+
+    public int argMin() {
+        return this.argMin(0, size);
+    }
+
+    public int argMax(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMax(array, from, to);
+    }
+
+    public int argMax() {
+        return this.argMax(0, size);
+    }
+
+    public double mean(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.mean(array, from, to);
+    }
+
+    public double mean() {
+        return this.mean(0, size);
+    }
+
+    public double variance(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.variance(array, from, to);
+    }
+
+    public double variance() {
+        return this.variance(0, size);
+    }
+
 
     public double[] copyOf(int offset, int newLength) {
         final double[] slice = new double[newLength];
@@ -399,6 +761,92 @@ public class DoubleList implements Iterable<Double> {
     }
 
 
+    public DoubleList writeTo(DoubleBuffer buffer) {
+        buffer.put(array, 0, size);
+        return this;
+    }
+
+    public DoubleBuffer toDirectBuffer() {
+        final DoubleBuffer buffer = ByteBuffer.allocateDirect(size * Double.BYTES)
+            .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        buffer.put(array, 0, size);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
+    public void forEach(DoubleValueConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Double> action) {
+        if(action instanceof DoubleValueConsumer){
+            this.forEach((DoubleValueConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(DoubleIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public DoubleList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'D', size);
+        final ByteBuffer buffer = ListIO.chunk((long) size * Double.BYTES, ByteOrder.nativeOrder());
+        try{
+            final DoubleBuffer view = buffer.asDoubleBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                view.clear();
+                view.put(array, i, length);
+                buffer.clear().limit(length * Double.BYTES);
+                ListIO.writeFully(channel, buffer);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        return this;
+    }
+
+    public DoubleList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static DoubleList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'D');
+        final int size = ListIO.size(header);
+        final DoubleList list = new DoubleList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        final ByteBuffer buffer = ListIO.chunk((long) size * Double.BYTES, ListIO.order(header));
+        try{
+            final DoubleBuffer view = buffer.asDoubleBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                buffer.clear().limit(length * Double.BYTES);
+                ListIO.readFully(channel, buffer);
+                if(i + length > list.array.length)
+                    list.grow(i + length);
+                view.clear();
+                view.get(list.array, i, length);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static DoubleList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -411,24 +859,34 @@ public class DoubleList implements Iterable<Double> {
         if(object == null || getClass() != object.getClass())
             return false;
         final DoubleList list = (DoubleList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Double.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Double> iterator() {
-        return new Iterator<>() {
+    public DoubleIterator iterator() {
+        return new DoubleIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Double next() {
+            public double nextDouble() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
@@ -0,0 +1,31 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.FloatConsumer;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface FloatIterator extends Iterator<Float> {
+
+    float nextFloat();
+
+    @Override
+    default Float next() {
+        return this.nextFloat();
+    }
+
+    default void forEachRemaining(FloatConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextFloat());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Float> action) {
+        if(action instanceof FloatConsumer){
+            this.forEachRemaining((FloatConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextFloat());
+        }
+    }
+
+}
\ No newline at end of file
@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class FloatList implements Iterable<Float> {
 
@@ -10,6 +16,10 @@ public class FloatList implements Iterable<Float> {
 
     private float[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
 
     public FloatList() {
         this(DEFAULT_CAPACITY);
@@ -32,7 +42,7 @@ public class FloatList implements Iterable<Float> {
     }
 
     public FloatList(FloatBuffer buffer) {
-        this.array = new float[buffer.limit()];
+        this.array = new float[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -63,6 +73,22 @@ public class FloatList implements Iterable<Float> {
         this.addAll(array, func);
     }
 
+    public <O> FloatList(Iterable<O> iterable, ToFloatFunction<O> func) {
+        this.array = new float[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> FloatList(Collection<O> collection, ToFloatFunction<O> func) {
+        this.array = new float[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> FloatList(O[] array, ToFloatFunction<O> func) {
+        this.array = new float[array.length];
+        this.addAll(array, func);
+    }
+
 
     public float[] array() {
         return array;
@@ -103,6 +129,7 @@ public class FloatList implements Iterable<Float> {
 
 
     public FloatList add(float element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -112,6 +139,7 @@ public class FloatList implements Iterable<Float> {
     }
 
     public FloatList add(float... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -121,15 +149,17 @@ public class FloatList implements Iterable<Float> {
     }
 
     public FloatList add(FloatList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public FloatList add(int i, float element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -148,6 +178,7 @@ public class FloatList implements Iterable<Float> {
     public FloatList add(int i, float... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -173,20 +204,34 @@ public class FloatList implements Iterable<Float> {
 
 
     public FloatList addAll(FloatBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i));
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        buffer.get(array, size, length);
+        buffer.position(position);
+        size += length;
         return this;
     }
 
     public FloatList addAll(Iterable<Float> iterable) {
+        if(iterable instanceof FloatList)
+            return this.add((FloatList) iterable);
+        
         for(Float item: iterable)
             this.add(item);
         return this;
     }
 
     public FloatList addAll(Collection<Float> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Float item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -208,11 +253,38 @@ public class FloatList implements Iterable<Float> {
         return this;
     }
 
+    public <O> FloatList addAll(Iterable<O> iterable, ToFloatFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsFloat(object));
+        return this;
+    }
+
+    public <O> FloatList addAll(Collection<O> collection, ToFloatFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsFloat(object);
+        return this;
+    }
+
+    public <O> FloatList addAll(O[] array, ToFloatFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsFloat(object);
+        return this;
+    }
+
 
     public FloatList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -249,6 +321,22 @@ public class FloatList implements Iterable<Float> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(float value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(float value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(float element) {
         return (this.indexOf(element) != -1);
@@ -263,17 +351,11 @@ public class FloatList implements Iterable<Float> {
     }
 
     public int indexOfRange(float element, int start, int end) {
-        for(int i = start; i < end; i++)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.indexOf(array, element, start, end);
     }
 
     public int lastIndexOfRange(float element, int start, int end) {
-        for(int i = end - 1; i >= start; i--)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.lastIndexOf(array, element, start, end);
     }
 
 
@@ -287,18 +369,21 @@ public class FloatList implements Iterable<Float> {
 
 
     public FloatList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, 0F);
         size = 0;
         return this;
     }
 
     public FloatList fill(float value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public FloatList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -306,6 +391,7 @@ public class FloatList implements Iterable<Float> {
     }
 
     public FloatList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new float[0];
         }else{
@@ -316,6 +402,42 @@ public class FloatList implements Iterable<Float> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public FloatList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final FloatList snapshot = new FloatList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public FloatList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("FloatList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+    }
+
+
     public float get(int i) {
         return array[i];
     }
@@ -329,6 +451,7 @@ public class FloatList implements Iterable<Float> {
     }
 
     public FloatList set(int i, float newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -343,25 +466,264 @@ public class FloatList implements Iterable<Float> {
 
 
     public FloatList elementAdd(int i, float value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public FloatList elementSub(int i, float value) {
+        this.beforeWrite();
         array[i] -= value;
         return this;
     }
 
     public FloatList elementMul(int i, float value) {
+        this.beforeWrite();
         array[i] *= value;
         return this;
     }
 
     public FloatList elementDiv(int i, float value) {
+        this.beforeWrite();
         array[i] /= value;
         return this;
     }
 
+    public FloatList elementAddAll(int from, int to, float value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.add(array, from, to, value);
+        return this;
+    }
+
+    public FloatList elementAddAll(float value) {
+        return this.elementAddAll(0, size, value);
+    }
+
+    public FloatList elementAddAll(int offset, FloatList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.add(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public FloatList elementAddAll(FloatList list) {
+        return this.elementAddAll(0, list);
+    }
+
+    public FloatList elementSubAll(int from, int to, float value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.sub(array, from, to, value);
+        return this;
+    }
+
+    public FloatList elementSubAll(float value) {
+        return this.elementSubAll(0, size, value);
+    }
+
+    public FloatList elementSubAll(int offset, FloatList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.sub(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public FloatList elementSubAll(FloatList list) {
+        return this.elementSubAll(0, list);
+    }
+
+    public FloatList elementMulAll(int from, int to, float value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.mul(array, from, to, value);
+        return this;
+    }
+
+    public FloatList elementMulAll(float value) {
+        return this.elementMulAll(0, size, value);
+    }
+
+    public FloatList elementMulAll(int offset, FloatList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.mul(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public FloatList elementMulAll(FloatList list) {
+        return this.elementMulAll(0, list);
+    }
+
+    public FloatList elementDivAll(int from, int to, float value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.div(array, from, to, value);
+        return this;
+    }
+
+    public FloatList elementDivAll(float value) {
+        return this.elementDivAll(0, size, value);
+    }
+
+    public FloatList elementDivAll(int offset, FloatList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.div(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public FloatList elementDivAll(FloatList list) {
+        return this.elementDivAll(0, list);
+    }
+
+    public FloatList elementFmaAll(int from, int to, float multiplier, float addend) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.fma(array, from, to, multiplier, addend);
+        return this;
+    }
+
+    public FloatList elementFmaAll(float multiplier, float addend) {
+        return this.elementFmaAll(0, size, multiplier, addend);
+    }
+
+    public FloatList elementClampAll(int from, int to, float min, float max) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.clamp(array, from, to, min, max);
+        return this;
+    }
+
+    public FloatList elementClampAll(float min, float max) {
+        return this.elementClampAll(0, size, min, max);
+    }
+
+    public FloatList elementLerpAll(int from, int to, float target, float t) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.lerp(array, from, to, target, t);
+        return this;
+    }
+
+    public FloatList elementLerpAll(float target, float t) {
+        return this.elementLerpAll(0, size, target, t);
+    }
+
+    public FloatList elementLerpAll(int offset, FloatList targets, float t) {
+        this.checkElementRange(offset, targets.size);
+        this.beforeWrite();
+        ArrayMath.lerp(array, offset, targets.array, 0, targets.size, t);
+        return this;
+    }
+
+    public FloatList elementLerpAll(FloatList targets, float t) {
+        return this.elementLerpAll(0, targets, t);
+    }
+
+    private void checkElementRange(int offset, int length) {
+        if(offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for size " + size);
+    }
+
+
+    public FloatList sort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.sort(array, from, to);
+        return this;
+    }
+
+    public FloatList sort() {
+        return this.sort(0, size);
+    }
+
+    public FloatList parallelSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.parallelSort(array, from, to);
+        return this;
+    }
+
+    public FloatList parallelSort() {
+        return this.parallelSort(0, size);
+    }
+
+    public FloatList radixSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        RadixSort.sort(array, from, to);
+        return this;
+    }
+
+    public FloatList radixSort() {
+        return this.radixSort(0, size);
+    }
+
+
+    public double sum(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.sum(array, from, to);
+    }
+
+    public double sum() {
+        return this.sum(0, size);
+    }
+
+    public float min(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.min(array, from, to);
+    }
+
+    public float min() {
+        return this.min(0, size);
+    }
+
+    public float max(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.max(array, from, to);
+    }
+
+    public float max() {
+        return this.max(0, size);
+    }
+
+    public int argMin(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMin(array, from, to);
+    }
+
+    public int argMin() {
+        return this.argMin(0, size);
+    }
+
+    public int argMax(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMax(array, from, to);
+    }
+
+    public int argMax() {
+        return this.argMax(0, size);
+    }
+
+    public double mean(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.mean(array, from, to);
+    }
+
+    public double mean() {
+        return this.mean(0, size);
+    }
+
+    public double variance(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.variance(array, from, to);
+    }
+
+    public double variance() {
+        return this.variance(0, size);
+    }
+
 
     public float[] copyOf(int offset, int newLength) {
         final float[] slice = new float[newLength];
@@ -399,6 +761,92 @@ public class FloatList implements Iterable<Float> {
     }
 
 
+    public FloatList writeTo(FloatBuffer buffer) {
+        buffer.put(array, 0, size);
+        return this;
+    }
+
+    public FloatBuffer toDirectBuffer() {
+        final FloatBuffer buffer = ByteBuffer.allocateDirect(size * Float.BYTES)
+            .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        buffer.put(array, 0, size);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
+    public void forEach(FloatConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Float> action) {
+        if(action instanceof FloatConsumer){
+            this.forEach((FloatConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(FloatIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public FloatList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'F', size);
+        final ByteBuffer buffer = ListIO.chunk((long) size * Float.BYTES, ByteOrder.nativeOrder());
+        try{
+            final FloatBuffer view = buffer.asFloatBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                view.clear();
+                view.put(array, i, length);
+                buffer.clear().limit(length * Float.BYTES);
+                ListIO.writeFully(channel, buffer);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        return this;
+    }
+
+    public FloatList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static FloatList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'F');
+        final int size = ListIO.size(header);
+        final FloatList list = new FloatList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        final ByteBuffer buffer = ListIO.chunk((long) size * Float.BYTES, ListIO.order(header));
+        try{
+            final FloatBuffer view = buffer.asFloatBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                buffer.clear().limit(length * Float.BYTES);
+                ListIO.readFully(channel, buffer);
+                if(i + length > list.array.length)
+                    list.grow(i + length);
+                view.clear();
+                view.get(list.array, i, length);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static FloatList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -411,24 +859,34 @@ public class FloatList implements Iterable<Float> {
         if(object == null || getClass() != object.getClass())
             return false;
         final FloatList list = (FloatList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Float.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Float> iterator() {
-        return new Iterator<>() {
+    public FloatIterator iterator() {
+        return new FloatIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Float next() {
+            public float nextFloat() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
@@ -0,0 +1,424 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
+import java.util.*;
+
+// text buffer with a movable gap at the last edit position: [0, gapStart) text, [gapStart, gapEnd) gap, [gapEnd, length) text.
+// Edits next to the previous one only move the characters between them
+public class GapCharList implements CharSequence, Iterable<Character> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private char[] array;
+    private int gapStart, gapEnd;
+
+    public GapCharList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GapCharList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        this.array = new char[capacity];
+        this.gapEnd = capacity;
+    }
+
+    public GapCharList(CharSequence text) {
+        this(text.length());
+        this.add(text);
+    }
+
+    public GapCharList(CharList list) {
+        this(list.size());
+        this.add(list.array(), 0, list.size());
+    }
+
+
+    public int size() {
+        return (array.length - (gapEnd - gapStart));
+    }
+
+    @Override
+    public int length() {
+        return this.size();
+    }
+
+    public int capacity() {
+        return array.length;
+    }
+
+    public int gapPosition() {
+        return gapStart;
+    }
+
+    public boolean isEmpty() {
+        return (gapStart == 0 && gapEnd == array.length);
+    }
+
+    public boolean isNotEmpty() {
+        return !this.isEmpty();
+    }
+
+
+    private void moveGap(int position) {
+        if(position < gapStart){
+            final int count = (gapStart - position);
+            System.arraycopy(array, position, array, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        }else if(position > gapStart){
+            final int count = (position - gapStart);
+            System.arraycopy(array, gapEnd, array, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    private void ensureGap(int length) {
+        final int gap = (gapEnd - gapStart);
+        if(gap >= length)
+            return;
+
+        final int oldCapacity = array.length;
+        final int newCapacity = ArrayUtils.newLength(oldCapacity, length - gap, Math.max(DEFAULT_CAPACITY, oldCapacity >> 1));
+        final char[] newArray = new char[newCapacity];
+        final int tail = (oldCapacity - gapEnd);
+        System.arraycopy(array, 0, newArray, 0, gapStart);
+        System.arraycopy(array, gapEnd, newArray, newCapacity - tail, tail);
+        array = newArray;
+        gapEnd = (newCapacity - tail);
+    }
+
+    private int toArrayIndex(int i) {
+        return (i < gapStart ? i : i + (gapEnd - gapStart));
+    }
+
+
+    public GapCharList add(int i, char element) {
+        Objects.checkIndex(i, this.size() + 1);
+        this.moveGap(i);
+        this.ensureGap(1);
+        array[gapStart++] = element;
+        return this;
+    }
+
+    public GapCharList add(int i, char[] elements, int offset, int length) {
+        Objects.checkIndex(i, this.size() + 1);
+        this.moveGap(i);
+        this.ensureGap(length);
+        System.arraycopy(elements, offset, array, gapStart, length);
+        gapStart += length;
+        return this;
+    }
+
+    public GapCharList add(int i, char... elements) {
+        return this.add(i, elements, 0, elements.length);
+    }
+
+    public GapCharList add(int i, CharSequence text) {
+        Objects.checkIndex(i, this.size() + 1);
+        final int length = text.length();
+        this.moveGap(i);
+        this.ensureGap(length);
+        if(text instanceof String){
+            ((String) text).getChars(0, length, array, gapStart);
+        }else{
+            for(int j = 0; j < length; j++)
+                array[gapStart + j] = text.charAt(j);
+        }
+        gapStart += length;
+        return this;
+    }
+
+    public GapCharList add(char element) {
+        return this.add(this.size(), element);
+    }
+
+    public GapCharList add(char[] elements, int offset, int length) {
+        return this.add(this.size(), elements, offset, length);
+    }
+
+    public GapCharList add(char... elements) {
+        return this.add(this.size(), elements);
+    }
+
+    public GapCharList add(CharSequence text) {
+        return this.add(this.size(), text);
+    }
+
+    public GapCharList addFirst(char element) {
+        return this.add(0, element);
+    }
+
+    public GapCharList addFirst(CharSequence text) {
+        return this.add(0, text);
+    }
+
+
+    public GapCharList remove(int i, int len) {
+        len = Math.min(len, this.size() - i);
+        if(len <= 0)
+            return this;
+
+        if(i + len == gapStart){
+            // backspace at the gap
+            gapStart = i;
+        }else{
+            this.moveGap(i);
+            gapEnd += len;
+        }
+        return this;
+    }
+
+    public char remove(int i) {
+        final char value = this.get(i);
+        this.remove(i, 1);
+        return value;
+    }
+
+    public char removeFirst() {
+        return this.remove(0);
+    }
+
+    public char removeLast() {
+        return this.remove(this.size() - 1);
+    }
+
+    public GapCharList replace(int i, int len, CharSequence text) {
+        return this.remove(i, len).add(i, text);
+    }
+
+
+    public boolean contains(char element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(char element) {
+        return this.indexOf(element, 0);
+    }
+
+    public int indexOf(char element, int from) {
+        from = Math.max(0, from);
+        if(from < gapStart){
+            final int index = ArrayUtils.indexOf(array, element, from, gapStart);
+            if(index != -1)
+                return index;
+            from = gapStart;
+        }
+        final int gap = (gapEnd - gapStart);
+        final int index = ArrayUtils.indexOf(array, element, from + gap, array.length);
+        return (index == -1 ? -1 : index - gap);
+    }
+
+    public int lastIndexOf(char element) {
+        return this.lastIndexOf(element, this.size() - 1);
+    }
+
+    public int lastIndexOf(char element, int from) {
+        from = Math.min(from, this.size() - 1);
+        final int gap = (gapEnd - gapStart);
+        if(from >= gapStart){
+            final int index = ArrayUtils.lastIndexOf(array, element, gapEnd, from + gap + 1);
+            if(index != -1)
+                return (index - gap);
+            from = (gapStart - 1);
+        }
+        return ArrayUtils.lastIndexOf(array, element, 0, from + 1);
+    }
+
+    public int indexOf(CharSequence target) {
+        return this.indexOf(target, 0);
+    }
+
+    public int indexOf(CharSequence target, int from) {
+        final int length = target.length();
+        if(length == 0)
+            return Math.min(Math.max(0, from), this.size());
+
+        final char first = target.charAt(0);
+        final int last = (this.size() - length);
+        for(int i = this.indexOf(first, from); i != -1 && i <= last; i = this.indexOf(first, i + 1))
+            if(this.regionMatches(i, target))
+                return i;
+        return -1;
+    }
+
+    private boolean regionMatches(int offset, CharSequence target) {
+        for(int j = 1; j < target.length(); j++)
+            if(array[this.toArrayIndex(offset + j)] != target.charAt(j))
+                return false;
+        return true;
+    }
+
+
+    public GapCharList clear() {
+        gapStart = 0;
+        gapEnd = array.length;
+        return this;
+    }
+
+    public GapCharList trim() {
+        final int size = this.size();
+        if(array.length == size)
+            return this;
+        this.moveGap(size);
+        array = Arrays.copyOf(array, size);
+        gapEnd = size;
+        return this;
+    }
+
+
+    public char get(int i) {
+        Objects.checkIndex(i, this.size());
+        return array[this.toArrayIndex(i)];
+    }
+
+    @Override
+    public char charAt(int index) {
+        return this.get(index);
+    }
+
+    public GapCharList set(int i, char newValue) {
+        Objects.checkIndex(i, this.size());
+        array[this.toArrayIndex(i)] = newValue;
+        return this;
+    }
+
+
+    public GapCharList copyTo(int from, int to, char[] dst, int offset) {
+        Objects.checkFromToIndex(from, to, this.size());
+        if(from < gapStart){
+            final int count = (Math.min(to, gapStart) - from);
+            System.arraycopy(array, from, dst, offset, count);
+            offset += count;
+            from += count;
+        }
+        if(from < to)
+            System.arraycopy(array, this.toArrayIndex(from), dst, offset, to - from);
+        return this;
+    }
+
+    public char[] copyOfRange(int from, int to) {
+        final char[] chars = new char[to - from];
+        this.copyTo(from, to, chars, 0);
+        return chars;
+    }
+
+    public char[] copyOf() {
+        return this.copyOfRange(0, this.size());
+    }
+
+    public CharList toCharList() {
+        return new CharList(this.copyOf());
+    }
+
+    public GapCharList copy() {
+        final int size = this.size();
+        final GapCharList list = new GapCharList(size);
+        this.copyTo(0, size, list.array, 0);
+        list.gapStart = size;
+        return list;
+    }
+
+
+    public String getStringOf() {
+        return this.getStringOfRange(0, this.size());
+    }
+
+    public String getStringOf(int offset, int length) {
+        return this.getStringOfRange(offset, offset + length);
+    }
+
+    public String getStringOfRange(int from, int to) {
+        Objects.checkFromToIndex(from, to, this.size());
+        if(to <= gapStart)
+            return new String(array, from, to - from);
+        if(from >= gapStart)
+            return new String(array, this.toArrayIndex(from), to - from);
+        return new String(this.copyOfRange(from, to));
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return this.getStringOfRange(start, end);
+    }
+
+
+    public void forEach(CharConsumer action) {
+        for(int i = 0; i < gapStart; i++)
+            action.accept(array[i]);
+        for(int i = gapEnd; i < array.length; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Character> action) {
+        if(action instanceof CharConsumer){
+            this.forEach((CharConsumer) action);
+        }else{
+            for(int i = 0; i < gapStart; i++)
+                action.accept(array[i]);
+            for(int i = gapEnd; i < array.length; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(CharIndexedConsumer action) {
+        for(int i = 0; i < gapStart; i++)
+            action.accept(i, array[i]);
+        final int gap = (gapEnd - gapStart);
+        for(int i = gapEnd; i < array.length; i++)
+            action.accept(i - gap, array[i]);
+    }
+
+
+    @Override
+    public String toString() {
+        return this.getStringOf();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final GapCharList list = (GapCharList) object;
+        final int size = this.size();
+        if(size != list.size())
+            return false;
+        for(int i = 0; i < size; i++)
+            if(array[this.toArrayIndex(i)] != list.array[list.toArrayIndex(i)])
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < gapStart; i++)
+            hash = 31 * hash + array[i];
+        for(int i = gapEnd; i < array.length; i++)
+            hash = 31 * hash + array[i];
+        return hash;
+    }
+
+    @Override
+    public CharIterator iterator() {
+        return new CharIterator() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size());
+            }
+            @Override
+            public char nextChar() {
+                if(index >= size())
+                    throw new NoSuchElementException();
+                return array[toArrayIndex(index++)];
+            }
+        };
+    }
+
+}
@@ -0,0 +1,285 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class IntHashSet implements Iterable<Integer> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final int MAX_CAPACITY = (1 << 30);
+
+    // linear probing over a flat array, 0 marks a free slot so the 0 element is stored aside
+    private int[] keys;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZero;
+
+    public IntHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntHashSet(int expectedSize) {
+        if(expectedSize < 0)
+           throw new IllegalArgumentException();
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    public IntHashSet(int... items) {
+        this(items.length);
+        this.addAll(items);
+    }
+
+    public IntHashSet(IntList list) {
+        this(list.size());
+        this.addAll(list);
+    }
+
+    public IntHashSet(IntHashSet set) {
+        this.keys = set.keys.clone();
+        this.mask = set.mask;
+        this.threshold = set.threshold;
+        this.size = set.size;
+        this.hasZero = set.hasZero;
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    // power of two with a load factor of 3/4
+    private static int capacityFor(int expectedSize) {
+        final long minCapacity = Math.max(4L, (expectedSize * 4L + 2) / 3);
+        if(minCapacity > MAX_CAPACITY)
+            throw new OutOfMemoryError("Required capacity exceeds " + MAX_CAPACITY);
+        return (Integer.highestOneBit((int) minCapacity - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = (capacity - 1);
+        threshold = ((capacity >>> 2) * 3);
+    }
+
+    private int slot(int key) {
+        final int h = (key * 0x9E3779B9);
+        return ((h ^ (h >>> 16)) & mask);
+    }
+
+    private void rehash(int newCapacity) {
+        final int[] oldKeys = keys;
+        this.allocate(newCapacity);
+        for(int key: oldKeys){
+            if(key == 0)
+                continue;
+            int slot = this.slot(key);
+            while(keys[slot] != 0)
+                slot = ((slot + 1) & mask);
+            keys[slot] = key;
+        }
+    }
+
+    public IntHashSet ensureCapacity(int expectedSize) {
+        final int capacity = capacityFor(expectedSize);
+        if(capacity > keys.length)
+            this.rehash(capacity);
+        return this;
+    }
+
+    // slot of the key, or -1
+    private int find(int key) {
+        int slot = this.slot(key);
+        while(keys[slot] != 0){
+            if(keys[slot] == key)
+                return slot;
+            slot = ((slot + 1) & mask);
+        }
+        return -1;
+    }
+
+
+    // returns false if the element was already present
+    public boolean add(int element) {
+        if(element == 0){
+            if(hasZero)
+                return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        
+        int slot = this.slot(element);
+        while(keys[slot] != 0){
+            if(keys[slot] == element)
+                return false;
+            slot = ((slot + 1) & mask);
+        }
+        keys[slot] = element;
+        if(++size > threshold)
+            this.rehash(keys.length << 1);
+        return true;
+    }
+
+    public IntHashSet addAll(int... elements) {
+        for(int element: elements)
+            this.add(element);
+        return this;
+    }
+
+    public IntHashSet addAll(IntList list) {
+        final int[] array = list.array();
+        for(int i = 0; i < list.size(); i++)
+            this.add(array[i]);
+        return this;
+    }
+
+    public IntHashSet addAll(IntHashSet set) {
+        if(set.hasZero)
+            this.add(0);
+        for(int key: set.keys)
+            if(key != 0)
+                this.add(key);
+        return this;
+    }
+
+
+    public boolean contains(int element) {
+        return (element == 0 ? hasZero : this.find(element) != -1);
+    }
+
+
+    // returns false if the element was absent
+    public boolean remove(int element) {
+        if(element == 0){
+            if(!hasZero)
+                return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+        
+        final int slot = this.find(element);
+        if(slot == -1)
+            return false;
+        this.shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    // backward shift deletion: entries after the hole move into it unless that would put them before their home slot
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while(true){
+            slot = ((slot + 1) & mask);
+            final int key = keys[slot];
+            if(key == 0)
+                break;
+            final int home = this.slot(key);
+            if(hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot))
+                continue;
+            keys[hole] = key;
+            hole = slot;
+        }
+        keys[hole] = 0;
+    }
+
+    public IntHashSet clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+        return this;
+    }
+
+
+    public IntList toList() {
+        final IntList list = new IntList(size);
+        if(hasZero)
+            list.add(0);
+        for(int key: keys)
+            if(key != 0)
+                list.add(key);
+        return list;
+    }
+
+    public int[] copyOf() {
+        return this.toList().array();
+    }
+
+    public void forEach(IntValueConsumer action) {
+        if(hasZero)
+            action.accept(0);
+        for(int key: keys)
+            if(key != 0)
+                action.accept(key);
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final IntHashSet set = (IntHashSet) object;
+        if(size != set.size || hasZero != set.hasZero)
+            return false;
+        for(int key: keys)
+            if(key != 0 && set.find(key) == -1)
+                return false;
+        return true;
+    }
+
+    // same as java.util.Set: sum of the element hashes
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for(int key: keys)
+            hash += Integer.hashCode(key);
+        return hash;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        return new IntIterator() {
+            // -1 stands for the zero element
+            private int slot = (hasZero ? -1 : advance(0));
+            private int advance(int from) {
+                while(from < keys.length && keys[from] == 0)
+                    from++;
+                return from;
+            }
+            @Override
+            public boolean hasNext() {
+                return (slot < keys.length);
+            }
+            @Override
+            public int nextInt() {
+                if(slot >= keys.length)
+                    throw new NoSuchElementException();
+                final int key = (slot == -1 ? 0 : keys[slot]);
+                slot = advance(slot + 1);
+                return key;
+            }
+        };
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.IntValueConsumer;
+import java.util.PrimitiveIterator;
+import java.util.function.Consumer;
+
+public interface IntIterator extends PrimitiveIterator.OfInt {
+
+    default void forEachRemaining(IntValueConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextInt());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Integer> action) {
+        if(action instanceof IntValueConsumer){
+            this.forEachRemaining((IntValueConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextInt());
+        }
+    }
+
+}
\ No newline at end of file
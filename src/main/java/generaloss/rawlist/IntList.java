@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class IntList implements Iterable<Integer> {
 
@@ -10,6 +16,19 @@ public class IntList implements Iterable<Integer> {
 
     private int[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
+    
+    // opt-in value -> position index: slots hold (first position + 1) and last position, 0 marks a free slot.
+    // Appends are indexed lazily on the next lookup, other mutations drop the index
+    private boolean indexed;
+    private int[] indexFirst;
+    private int[] indexLast;
+    private int indexMask;
+    private int indexCount;
+    private int indexedSize;
 
     public IntList() {
         this(DEFAULT_CAPACITY);
@@ -32,7 +51,7 @@ public class IntList implements Iterable<Integer> {
     }
 
     public IntList(IntBuffer buffer) {
-        this.array = new int[buffer.limit()];
+        this.array = new int[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -63,6 +82,22 @@ public class IntList implements Iterable<Integer> {
         this.addAll(array, func);
     }
 
+    public <O> IntList(Iterable<O> iterable, ToIntValueFunction<O> func) {
+        this.array = new int[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> IntList(Collection<O> collection, ToIntValueFunction<O> func) {
+        this.array = new int[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> IntList(O[] array, ToIntValueFunction<O> func) {
+        this.array = new int[array.length];
+        this.addAll(array, func);
+    }
+
 
     public int[] array() {
         return array;
@@ -103,6 +138,7 @@ public class IntList implements Iterable<Integer> {
 
 
     public IntList add(int element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -112,6 +148,7 @@ public class IntList implements Iterable<Integer> {
     }
 
     public IntList add(int... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -121,15 +158,17 @@ public class IntList implements Iterable<Integer> {
     }
 
     public IntList add(IntList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public IntList add(int i, int element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -148,6 +187,7 @@ public class IntList implements Iterable<Integer> {
     public IntList add(int i, int... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -173,20 +213,34 @@ public class IntList implements Iterable<Integer> {
 
 
     public IntList addAll(IntBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i));
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        buffer.get(array, size, length);
+        buffer.position(position);
+        size += length;
         return this;
     }
 
     public IntList addAll(Iterable<Integer> iterable) {
+        if(iterable instanceof IntList)
+            return this.add((IntList) iterable);
+        
         for(Integer item: iterable)
             this.add(item);
         return this;
     }
 
     public IntList addAll(Collection<Integer> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Integer item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -208,11 +262,38 @@ public class IntList implements Iterable<Integer> {
         return this;
     }
 
+    public <O> IntList addAll(Iterable<O> iterable, ToIntValueFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsInt(object));
+        return this;
+    }
+
+    public <O> IntList addAll(Collection<O> collection, ToIntValueFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsInt(object);
+        return this;
+    }
+
+    public <O> IntList addAll(O[] array, ToIntValueFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsInt(object);
+        return this;
+    }
+
 
     public IntList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -249,33 +330,133 @@ public class IntList implements Iterable<Integer> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(int value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(int value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(int element) {
         return (this.indexOf(element) != -1);
     }
 
     public int indexOf(int element) {
+        if(indexed)
+            return this.indexLookup(element, false);
         return this.indexOfRange(element, 0, size);
     }
 
     public int lastIndexOf(int element) {
+        if(indexed)
+            return this.indexLookup(element, true);
         return this.lastIndexOfRange(element, 0, size);
     }
 
     public int indexOfRange(int element, int start, int end) {
-        for(int i = start; i < end; i++)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.indexOf(array, element, start, end);
     }
 
     public int lastIndexOfRange(int element, int start, int end) {
-        for(int i = end - 1; i >= start; i--)
-            if(array[i] == element)
-                return i;
+        return ArrayUtils.lastIndexOf(array, element, start, end);
+    }
+
+
+    public IntList indexed(boolean indexed) {
+        this.indexed = indexed;
+        if(!indexed)
+            this.invalidateIndex();
+        return this;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    private void invalidateIndex() {
+        indexFirst = null;
+        indexLast = null;
+    }
+
+    private static int indexHash(int element) {
+        final int h = (element * 0x9E3779B9);
+        return (h ^ (h >>> 16));
+    }
+
+    private int indexLookup(int element, boolean last) {
+        this.updateIndex();
+        int slot = (indexHash(element) & indexMask);
+        int first;
+        while((first = indexFirst[slot]) != 0){
+            if(array[first - 1] == element)
+                return (last ? indexLast[slot] : first - 1);
+            slot = ((slot + 1) & indexMask);
+        }
         return -1;
     }
 
+    // builds the index on first use, then catches up with the elements appended since
+    private void updateIndex() {
+        if(indexFirst == null){
+            int capacity = 16;
+            while(capacity < (1 << 30) && capacity * 3L < size * 4L)
+                capacity <<= 1;
+            this.allocateIndex(capacity);
+            indexCount = 0;
+            indexedSize = 0;
+        }
+        for(; indexedSize < size; indexedSize++)
+            this.indexAppend(indexedSize);
+    }
+
+    private void allocateIndex(int capacity) {
+        indexFirst = new int[capacity];
+        indexLast = new int[capacity];
+        indexMask = (capacity - 1);
+    }
+
+    private void indexAppend(int position) {
+        final int element = array[position];
+        int slot = (indexHash(element) & indexMask);
+        int first;
+        while((first = indexFirst[slot]) != 0){
+            if(array[first - 1] == element){
+                indexLast[slot] = position;
+                return;
+            }
+            slot = ((slot + 1) & indexMask);
+        }
+        indexFirst[slot] = (position + 1);
+        indexLast[slot] = position;
+        if(++indexCount > ((indexFirst.length >>> 2) * 3) && indexFirst.length < (1 << 30))
+            this.rehashIndex(indexFirst.length << 1);
+    }
+
+    private void rehashIndex(int capacity) {
+        final int[] oldFirst = indexFirst;
+        final int[] oldLast = indexLast;
+        this.allocateIndex(capacity);
+        for(int i = 0; i < oldFirst.length; i++){
+            if(oldFirst[i] == 0)
+                continue;
+            int slot = (indexHash(array[oldFirst[i] - 1]) & indexMask);
+            while(indexFirst[slot] != 0)
+                slot = ((slot + 1) & indexMask);
+            indexFirst[slot] = oldFirst[i];
+            indexLast[slot] = oldLast[i];
+        }
+    }
+
 
     public boolean isEmpty() {
         return (size == 0);
@@ -287,18 +468,21 @@ public class IntList implements Iterable<Integer> {
 
 
     public IntList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, 0);
         size = 0;
         return this;
     }
 
     public IntList fill(int value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public IntList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -306,6 +490,7 @@ public class IntList implements Iterable<Integer> {
     }
 
     public IntList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new int[0];
         }else{
@@ -316,6 +501,43 @@ public class IntList implements Iterable<Integer> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public IntList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final IntList snapshot = new IntList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public IntList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("IntList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+        this.invalidateIndex();
+    }
+
+
     public int get(int i) {
         return array[i];
     }
@@ -329,6 +551,7 @@ public class IntList implements Iterable<Integer> {
     }
 
     public IntList set(int i, int newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -343,25 +566,242 @@ public class IntList implements Iterable<Integer> {
 
 
     public IntList elementAdd(int i, int value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public IntList elementSub(int i, int value) {
+        this.beforeWrite();
         array[i] -= value;
         return this;
     }
 
     public IntList elementMul(int i, int value) {
+        this.beforeWrite();
         array[i] *= value;
         return this;
     }
 
     public IntList elementDiv(int i, int value) {
+        this.beforeWrite();
         array[i] /= value;
         return this;
     }
 
+    public IntList elementAddAll(int from, int to, int value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.add(array, from, to, value);
+        return this;
+    }
+
+    public IntList elementAddAll(int value) {
+        return this.elementAddAll(0, size, value);
+    }
+
+    public IntList elementAddAll(int offset, IntList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.add(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public IntList elementAddAll(IntList list) {
+        return this.elementAddAll(0, list);
+    }
+
+    public IntList elementSubAll(int from, int to, int value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.sub(array, from, to, value);
+        return this;
+    }
+
+    public IntList elementSubAll(int value) {
+        return this.elementSubAll(0, size, value);
+    }
+
+    public IntList elementSubAll(int offset, IntList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.sub(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public IntList elementSubAll(IntList list) {
+        return this.elementSubAll(0, list);
+    }
+
+    public IntList elementMulAll(int from, int to, int value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.mul(array, from, to, value);
+        return this;
+    }
+
+    public IntList elementMulAll(int value) {
+        return this.elementMulAll(0, size, value);
+    }
+
+    public IntList elementMulAll(int offset, IntList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.mul(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public IntList elementMulAll(IntList list) {
+        return this.elementMulAll(0, list);
+    }
+
+    public IntList elementDivAll(int from, int to, int value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.div(array, from, to, value);
+        return this;
+    }
+
+    public IntList elementDivAll(int value) {
+        return this.elementDivAll(0, size, value);
+    }
+
+    public IntList elementDivAll(int offset, IntList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.div(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public IntList elementDivAll(IntList list) {
+        return this.elementDivAll(0, list);
+    }
+
+    public IntList elementFmaAll(int from, int to, int multiplier, int addend) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.fma(array, from, to, multiplier, addend);
+        return this;
+    }
+
+    public IntList elementFmaAll(int multiplier, int addend) {
+        return this.elementFmaAll(0, size, multiplier, addend);
+    }
+
+    public IntList elementClampAll(int from, int to, int min, int max) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.clamp(array, from, to, min, max);
+        return this;
+    }
+
+    public IntList elementClampAll(int min, int max) {
+        return this.elementClampAll(0, size, min, max);
+    }
+
+    private void checkElementRange(int offset, int length) {
+        if(offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for size " + size);
+    }
+
+
+    public IntList sort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.sort(array, from, to);
+        return this;
+    }
+
+    public IntList sort() {
+        return this.sort(0, size);
+    }
+
+    public IntList parallelSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.parallelSort(array, from, to);
+        return this;
+    }
+
+    public IntList parallelSort() {
+        return this.parallelSort(0, size);
+    }
+
+    public IntList radixSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        RadixSort.sort(array, from, to);
+        return this;
+    }
+
+    public IntList radixSort() {
+        return this.radixSort(0, size);
+    }
+
+
+    public long sum(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.sum(array, from, to);
+    }
+
+    public long sum() {
+        return this.sum(0, size);
+    }
+
+    public int min(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.min(array, from, to);
+    }
+
+    public int min() {
+        return this.min(0, size);
+    }
+
+    public int max(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.max(array, from, to);
+    }
+
+    public int max() {
+        return this.max(0, size);
+    }
+
+    public int argMin(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMin(array, from, to);
+    }
+
+    public int argMin() {
+        return this.argMin(0, size);
+    }
+
+    public int argMax(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMax(array, from, to);
+    }
+
+    public int argMax() {
+        return this.argMax(0, size);
+    }
+
+    public double mean(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.mean(array, from, to);
+    }
+
+    public double mean() {
+        return this.mean(0, size);
+    }
+
+    public double variance(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.variance(array, from, to);
+    }
+
+    public double variance() {
+        return this.variance(0, size);
+    }
+
 
     public int[] copyOf(int offset, int newLength) {
         final int[] slice = new int[newLength];
@@ -399,6 +839,92 @@ public class IntList implements Iterable<Integer> {
     }
 
 
+    public IntList writeTo(IntBuffer buffer) {
+        buffer.put(array, 0, size);
+        return this;
+    }
+
+    public IntBuffer toDirectBuffer() {
+        final IntBuffer buffer = ByteBuffer.allocateDirect(size * Integer.BYTES)
+            .order(ByteOrder.nativeOrder()).asIntBuffer();
+        buffer.put(array, 0, size);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
+    public void forEach(IntValueConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+        if(action instanceof IntValueConsumer){
+            this.forEach((IntValueConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(IntIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public IntList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'I', size);
+        final ByteBuffer buffer = ListIO.chunk((long) size * Integer.BYTES, ByteOrder.nativeOrder());
+        try{
+            final IntBuffer view = buffer.asIntBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                view.clear();
+                view.put(array, i, length);
+                buffer.clear().limit(length * Integer.BYTES);
+                ListIO.writeFully(channel, buffer);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        return this;
+    }
+
+    public IntList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static IntList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'I');
+        final int size = ListIO.size(header);
+        final IntList list = new IntList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        final ByteBuffer buffer = ListIO.chunk((long) size * Integer.BYTES, ListIO.order(header));
+        try{
+            final IntBuffer view = buffer.asIntBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                buffer.clear().limit(length * Integer.BYTES);
+                ListIO.readFully(channel, buffer);
+                if(i + length > list.array.length)
+                    list.grow(i + length);
+                view.clear();
+                view.get(list.array, i, length);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static IntList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -411,24 +937,34 @@ public class IntList implements Iterable<Integer> {
         if(object == null || getClass() != object.getClass())
             return false;
         final IntList list = (IntList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Integer.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Integer> iterator() {
-        return new Iterator<>() {
+    public IntIterator iterator() {
+        return new IntIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Integer next() {
+            public int nextInt() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
@@ -0,0 +1,93 @@
+package generaloss.rawlist;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+public class IntListBuilder {
+
+    public static final int PARALLEL_THRESHOLD = (1 << 16);
+
+    private final ThreadLocal<IntList> local;
+    private final ConcurrentLinkedQueue<IntList> shards;
+
+    public IntListBuilder() {
+        this(IntList.DEFAULT_CAPACITY);
+    }
+
+    public IntListBuilder(int shardCapacity) {
+        if(shardCapacity < 0)
+           throw new IllegalArgumentException();
+        this.shards = new ConcurrentLinkedQueue<>();
+        this.local = ThreadLocal.withInitial(() -> {
+            final IntList shard = new IntList(shardCapacity);
+            shards.add(shard);
+            return shard;
+        });
+    }
+
+
+    // the calling thread's shard, safe to fill without synchronization
+    public IntList shard() {
+        return local.get();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int size() {
+        int size = 0;
+        for(IntList shard: shards)
+            size += shard.size();
+        return size;
+    }
+
+
+    public IntListBuilder add(int element) {
+        local.get().add(element);
+        return this;
+    }
+
+    public IntListBuilder add(int... elements) {
+        local.get().add(elements);
+        return this;
+    }
+
+    public IntListBuilder add(IntList list) {
+        local.get().add(list);
+        return this;
+    }
+
+
+    // shards are concatenated in the order their threads first touched the builder.
+    // Call once every producer is done (after join / executor shutdown)
+    public IntList build() {
+        final IntList[] parts = shards.toArray(new IntList[0]);
+        final int[] offsets = new int[parts.length];
+        long total = 0;
+        for(int i = 0; i < parts.length; i++){
+            offsets[i] = (int) total;
+            total += parts[i].size();
+        }
+        if(total > Integer.MAX_VALUE - 8)
+            throw new OutOfMemoryError("Required array length " + total + " is too large");
+        
+        final int[] array = new int[(int) total];
+        if(total >= PARALLEL_THRESHOLD && parts.length > 1){
+            IntStream.range(0, parts.length).parallel().forEach(i ->
+                System.arraycopy(parts[i].array(), 0, array, offsets[i], parts[i].size())
+            );
+        }else{
+            for(int i = 0; i < parts.length; i++)
+                System.arraycopy(parts[i].array(), 0, array, offsets[i], parts[i].size());
+        }
+        return new IntList(array);
+    }
+
+    public IntListBuilder clear() {
+        for(IntList shard: shards)
+            shard.clear();
+        return this;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,295 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class IntObjectMap<V> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+    public static final int MAX_CAPACITY = (1 << 30);
+
+    // linear probing over flat arrays, key 0 marks a free slot so the 0 key is stored aside
+    private int[] keys;
+    private V[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        if(expectedSize < 0)
+           throw new IllegalArgumentException();
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    public IntObjectMap(IntObjectMap<V> map) {
+        this.keys = map.keys.clone();
+        this.values = map.values.clone();
+        this.mask = map.mask;
+        this.threshold = map.threshold;
+        this.size = map.size;
+        this.hasZeroKey = map.hasZeroKey;
+        this.zeroValue = map.zeroValue;
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    // power of two with a load factor of 3/4
+    private static int capacityFor(int expectedSize) {
+        final long minCapacity = Math.max(4L, (expectedSize * 4L + 2) / 3);
+        if(minCapacity > MAX_CAPACITY)
+            throw new OutOfMemoryError("Required capacity exceeds " + MAX_CAPACITY);
+        return (Integer.highestOneBit((int) minCapacity - 1) << 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = (V[]) new Object[capacity];
+        mask = (capacity - 1);
+        threshold = ((capacity >>> 2) * 3);
+    }
+
+    private int slot(int key) {
+        final int h = (key * 0x9E3779B9);
+        return ((h ^ (h >>> 16)) & mask);
+    }
+
+    private void rehash(int newCapacity) {
+        final int[] oldKeys = keys;
+        final V[] oldValues = values;
+        this.allocate(newCapacity);
+        for(int i = 0; i < oldKeys.length; i++){
+            final int key = oldKeys[i];
+            if(key == 0)
+                continue;
+            int slot = this.slot(key);
+            while(keys[slot] != 0)
+                slot = ((slot + 1) & mask);
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    public IntObjectMap<V> ensureCapacity(int expectedSize) {
+        final int capacity = capacityFor(expectedSize);
+        if(capacity > keys.length)
+            this.rehash(capacity);
+        return this;
+    }
+
+    // slot of the key, or -1
+    private int find(int key) {
+        int slot = this.slot(key);
+        while(keys[slot] != 0){
+            if(keys[slot] == key)
+                return slot;
+            slot = ((slot + 1) & mask);
+        }
+        return -1;
+    }
+
+
+    // returns the previous value, or null if there was none
+    public V put(int key, V value) {
+        if(key == 0){
+            final V previous = zeroValue;
+            if(!hasZeroKey){
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        
+        int slot = this.slot(key);
+        while(keys[slot] != 0){
+            if(keys[slot] == key){
+                final V previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = ((slot + 1) & mask);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if(++size > threshold)
+            this.rehash(keys.length << 1);
+        return null;
+    }
+
+    public IntObjectMap<V> putAll(IntObjectMap<V> map) {
+        if(map.hasZeroKey)
+            this.put(0, map.zeroValue);
+        for(int i = 0; i < map.keys.length; i++)
+            if(map.keys[i] != 0)
+                this.put(map.keys[i], map.values[i]);
+        return this;
+    }
+
+
+    public V get(int key) {
+        return this.getOrDefault(key, null);
+    }
+
+    public V getOrDefault(int key, V defaultValue) {
+        if(key == 0)
+            return (hasZeroKey ? zeroValue : defaultValue);
+        final int slot = this.find(key);
+        return (slot == -1 ? defaultValue : values[slot]);
+    }
+
+    public boolean containsKey(int key) {
+        return (key == 0 ? hasZeroKey : this.find(key) != -1);
+    }
+
+    public boolean containsValue(V value) {
+        if(hasZeroKey && Objects.equals(zeroValue, value))
+            return true;
+        for(int i = 0; i < keys.length; i++)
+            if(keys[i] != 0 && Objects.equals(values[i], value))
+                return true;
+        return false;
+    }
+
+
+    // returns the removed value, or null if the key was absent
+    public V remove(int key) {
+        if(key == 0){
+            final V previous = zeroValue;
+            if(hasZeroKey){
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+        
+        final int slot = this.find(key);
+        if(slot == -1)
+            return null;
+        final V previous = values[slot];
+        this.shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    // backward shift deletion: entries after the hole move into it unless that would put them before their home slot
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while(true){
+            slot = ((slot + 1) & mask);
+            final int key = keys[slot];
+            if(key == 0)
+                break;
+            final int home = this.slot(key);
+            if(hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot))
+                continue;
+            keys[hole] = key;
+            values[hole] = values[slot];
+            hole = slot;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+    }
+
+    public IntObjectMap<V> clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+        return this;
+    }
+
+
+    public IntList keys() {
+        final IntList list = new IntList(size);
+        if(hasZeroKey)
+            list.add(0);
+        for(int key: keys)
+            if(key != 0)
+                list.add(key);
+        return list;
+    }
+
+    // in the same order as keys()
+    public List<V> values() {
+        final List<V> list = new ArrayList<>(size);
+        if(hasZeroKey)
+            list.add(zeroValue);
+        for(int i = 0; i < keys.length; i++)
+            if(keys[i] != 0)
+                list.add(values[i]);
+        return list;
+    }
+
+    public void forEach(IntObjectConsumer<? super V> action) {
+        if(hasZeroKey)
+            action.accept(0, zeroValue);
+        for(int i = 0; i < keys.length; i++)
+            if(keys[i] != 0)
+                action.accept(keys[i], values[i]);
+    }
+
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        this.forEach((key, value) -> joiner.add(key + "=" + value));
+        return joiner.toString();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final IntObjectMap<?> map = (IntObjectMap<?>) object;
+        if(size != map.size || hasZeroKey != map.hasZeroKey)
+            return false;
+        if(hasZeroKey && !Objects.equals(zeroValue, map.zeroValue))
+            return false;
+        for(int i = 0; i < keys.length; i++){
+            if(keys[i] == 0)
+                continue;
+            final int slot = map.find(keys[i]);
+            if(slot == -1 || !Objects.equals(values[i], map.values[slot]))
+                return false;
+        }
+        return true;
+    }
+
+    // same as java.util.Map: sum of key hash ^ value hash
+    @Override
+    public int hashCode() {
+        int hash = (hasZeroKey ? Objects.hashCode(zeroValue) : 0);
+        for(int i = 0; i < keys.length; i++)
+            if(keys[i] != 0)
+                hash += (Integer.hashCode(keys[i]) ^ Objects.hashCode(values[i]));
+        return hash;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package generaloss.rawlist;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// stream layout: 12 byte big endian header (magic, version, type, byte order, size), then the live elements in that byte order
+class ListIO {
+
+    static final int MAGIC = 0x524C5354;
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int CHUNK_BYTES = (1 << 16);
+    // upper bound for the capacity allocated up front from the untrusted header size
+    static final int INITIAL_CAPACITY = (1 << 12);
+
+    static void writeHeader(WritableByteChannel channel, byte type, int size) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.put(VERSION);
+        header.put(type);
+        header.put((byte) (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? 0 : 1));
+        header.put((byte) 0);
+        header.putInt(size);
+        header.flip();
+        writeFully(channel, header);
+    }
+
+    // returns the header, the element byte order is read with order(header) and the size with size(header)
+    static ByteBuffer readHeader(ReadableByteChannel channel, byte type) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header);
+        if(header.getInt(0) != MAGIC || header.get(4) != VERSION)
+            throw new IOException("Not a raw list stream");
+        if(header.get(5) != type)
+            throw new IOException("Stream contains '" + (char) header.get(5) + "' elements, expected '" + (char) type + "'");
+        if(header.getInt(8) < 0)
+            throw new IOException("Negative list size: " + header.getInt(8));
+        return header;
+    }
+
+    static ByteOrder order(ByteBuffer header) {
+        return (header.get(6) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static int size(ByteBuffer header) {
+        return header.getInt(8);
+    }
+
+    static ByteBuffer chunk(long bytes, ByteOrder order) {
+        return DirectBuffers.allocate((int) Math.min(CHUNK_BYTES, bytes)).order(order);
+    }
+
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining())
+            if(channel.read(buffer) < 0)
+                throw new EOFException();
+    }
+
+
+    // strings: total payload length (long), then per string an int byte length (-1 for null) and its UTF-8 bytes
+    static void writeStrings(WritableByteChannel channel, String[] array, int size) throws IOException {
+        final byte[][] encoded = new byte[size][];
+        long total = 0;
+        for(int i = 0; i < size; i++){
+            if(array[i] != null){
+                encoded[i] = array[i].getBytes(StandardCharsets.UTF_8);
+                total += encoded[i].length;
+            }
+            total += Integer.BYTES;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_BYTES, Long.BYTES + total)).order(ByteOrder.nativeOrder());
+        buffer.putLong(total);
+        for(int i = 0; i < size; i++){
+            final byte[] bytes = encoded[i];
+            if(buffer.remaining() < Integer.BYTES)
+                flush(channel, buffer);
+            buffer.putInt(bytes == null ? -1 : bytes.length);
+            if(bytes == null)
+                continue;
+
+            if(bytes.length > buffer.remaining())
+                flush(channel, buffer);
+            if(bytes.length <= buffer.remaining()){
+                buffer.put(bytes);
+            }else{
+                writeFully(channel, ByteBuffer.wrap(bytes));
+            }
+        }
+        flush(channel, buffer);
+    }
+
+    static String[] readStrings(ReadableByteChannel channel, ByteOrder order, int size) throws IOException {
+        final ByteBuffer totalBuffer = ByteBuffer.allocate(Long.BYTES).order(order);
+        readFully(channel, totalBuffer);
+        long remaining = totalBuffer.getLong(0);
+        if(remaining < (long) size * Integer.BYTES)
+            throw new IOException("Corrupted string payload length: " + remaining);
+
+        // never reads past the payload, so the channel can be shared with whatever follows
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_BYTES, remaining)).order(order);
+        buffer.limit(0);
+        String[] dst = new String[Math.min(size, INITIAL_CAPACITY)];
+        for(int i = 0; i < size; i++){
+            if(i == dst.length)
+                dst = Arrays.copyOf(dst, (int) Math.min(size, (long) i << 1));
+            remaining = fill(channel, buffer, Integer.BYTES, remaining);
+            final int length = buffer.getInt();
+            if(length == -1){
+                dst[i] = null;
+                continue;
+            }
+            if(length < 0)
+                throw new IOException("Corrupted string length: " + length);
+
+            if(length <= buffer.capacity()){
+                remaining = fill(channel, buffer, length, remaining);
+                dst[i] = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }else{
+                final byte[] bytes = new byte[length];
+                final int buffered = buffer.remaining();
+                if(length - buffered > remaining)
+                    throw new EOFException();
+                buffer.get(bytes, 0, buffered);
+                readFully(channel, ByteBuffer.wrap(bytes, buffered, length - buffered));
+                remaining -= (length - buffered);
+                dst[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return dst;
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    // makes at least length bytes readable, the buffer stays in read mode
+    private static long fill(ReadableByteChannel channel, ByteBuffer buffer, int length, long remaining) throws IOException {
+        if(buffer.remaining() >= length)
+            return remaining;
+
+        buffer.compact();
+        final int count = (int) Math.min(buffer.remaining(), remaining);
+        if(buffer.position() + count < length)
+            throw new EOFException();
+        buffer.limit(buffer.position() + count);
+        readFully(channel, buffer);
+        buffer.flip();
+        return (remaining - count);
+    }
+
+}
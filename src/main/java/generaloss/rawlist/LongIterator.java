@@ -0,0 +1,24 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.LongValueConsumer;
+import java.util.PrimitiveIterator;
+import java.util.function.Consumer;
+
+public interface LongIterator extends PrimitiveIterator.OfLong {
+
+    default void forEachRemaining(LongValueConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextLong());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Long> action) {
+        if(action instanceof LongValueConsumer){
+            this.forEachRemaining((LongValueConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextLong());
+        }
+    }
+
+}
\ No newline at end of file
@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class LongList implements Iterable<Long> {
 
@@ -10,6 +16,19 @@ public class LongList implements Iterable<Long> {
 
     private long[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
+    
+    // opt-in value -> position index: slots hold (first position + 1) and last position, 0 marks a free slot.
+    // Appends are indexed lazily on the next lookup, other mutations drop the index
+    private boolean indexed;
+    private int[] indexFirst;
+    private int[] indexLast;
+    private int indexMask;
+    private int indexCount;
+    private int indexedSize;
 
     public LongList() {
         this(DEFAULT_CAPACITY);
@@ -32,7 +51,7 @@ public class LongList implements Iterable<Long> {
     }
 
     public LongList(LongBuffer buffer) {
-        this.array = new long[buffer.limit()];
+        this.array = new long[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -63,6 +82,22 @@ public class LongList implements Iterable<Long> {
         this.addAll(array, func);
     }
 
+    public <O> LongList(Iterable<O> iterable, ToLongValueFunction<O> func) {
+        this.array = new long[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> LongList(Collection<O> collection, ToLongValueFunction<O> func) {
+        this.array = new long[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> LongList(O[] array, ToLongValueFunction<O> func) {
+        this.array = new long[array.length];
+        this.addAll(array, func);
+    }
+
 
     public long[] array() {
         return array;
@@ -103,6 +138,7 @@ public class LongList implements Iterable<Long> {
 
 
     public LongList add(long element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -112,6 +148,7 @@ public class LongList implements Iterable<Long> {
     }
 
     public LongList add(long... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -121,15 +158,17 @@ public class LongList implements Iterable<Long> {
     }
 
     public LongList add(LongList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public LongList add(int i, long element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -148,6 +187,7 @@ public class LongList implements Iterable<Long> {
     public LongList add(int i, long... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -173,20 +213,34 @@ public class LongList implements Iterable<Long> {
 
 
     public LongList addAll(LongBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i));
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        buffer.get(array, size, length);
+        buffer.position(position);
+        size += length;
         return this;
     }
 
     public LongList addAll(Iterable<Long> iterable) {
+        if(iterable instanceof LongList)
+            return this.add((LongList) iterable);
+        
         for(Long item: iterable)
             this.add(item);
         return this;
     }
 
     public LongList addAll(Collection<Long> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Long item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -208,11 +262,38 @@ public class LongList implements Iterable<Long> {
         return this;
     }
 
+    public <O> LongList addAll(Iterable<O> iterable, ToLongValueFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsLong(object));
+        return this;
+    }
+
+    public <O> LongList addAll(Collection<O> collection, ToLongValueFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsLong(object);
+        return this;
+    }
+
+    public <O> LongList addAll(O[] array, ToLongValueFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsLong(object);
+        return this;
+    }
+
 
     public LongList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -249,33 +330,133 @@ public class LongList implements Iterable<Long> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(long value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(long value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(long element) {
         return (this.indexOf(element) != -1);
     }
 
     public int indexOf(long element) {
+        if(indexed)
+            return this.indexLookup(element, false);
         return this.indexOfRange(element, 0, size);
     }
 
     public int lastIndexOf(long element) {
+        if(indexed)
+            return this.indexLookup(element, true);
         return this.lastIndexOfRange(element, 0, size);
     }
 
     public int indexOfRange(long element, int start, int end) {
-        for(int i = start; i < end; i++)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.indexOf(array, element, start, end);
     }
 
     public int lastIndexOfRange(long element, int start, int end) {
-        for(int i = end - 1; i >= start; i--)
-            if(array[i] == element)
-                return i;
+        return ArrayUtils.lastIndexOf(array, element, start, end);
+    }
+
+
+    public LongList indexed(boolean indexed) {
+        this.indexed = indexed;
+        if(!indexed)
+            this.invalidateIndex();
+        return this;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    private void invalidateIndex() {
+        indexFirst = null;
+        indexLast = null;
+    }
+
+    private static int indexHash(long element) {
+        final long h = (element * 0x9E3779B97F4A7C15L);
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexLookup(long element, boolean last) {
+        this.updateIndex();
+        int slot = (indexHash(element) & indexMask);
+        int first;
+        while((first = indexFirst[slot]) != 0){
+            if(array[first - 1] == element)
+                return (last ? indexLast[slot] : first - 1);
+            slot = ((slot + 1) & indexMask);
+        }
         return -1;
     }
 
+    // builds the index on first use, then catches up with the elements appended since
+    private void updateIndex() {
+        if(indexFirst == null){
+            int capacity = 16;
+            while(capacity < (1 << 30) && capacity * 3L < size * 4L)
+                capacity <<= 1;
+            this.allocateIndex(capacity);
+            indexCount = 0;
+            indexedSize = 0;
+        }
+        for(; indexedSize < size; indexedSize++)
+            this.indexAppend(indexedSize);
+    }
+
+    private void allocateIndex(int capacity) {
+        indexFirst = new int[capacity];
+        indexLast = new int[capacity];
+        indexMask = (capacity - 1);
+    }
+
+    private void indexAppend(int position) {
+        final long element = array[position];
+        int slot = (indexHash(element) & indexMask);
+        int first;
+        while((first = indexFirst[slot]) != 0){
+            if(array[first - 1] == element){
+                indexLast[slot] = position;
+                return;
+            }
+            slot = ((slot + 1) & indexMask);
+        }
+        indexFirst[slot] = (position + 1);
+        indexLast[slot] = position;
+        if(++indexCount > ((indexFirst.length >>> 2) * 3) && indexFirst.length < (1 << 30))
+            this.rehashIndex(indexFirst.length << 1);
+    }
+
+    private void rehashIndex(int capacity) {
+        final int[] oldFirst = indexFirst;
+        final int[] oldLast = indexLast;
+        this.allocateIndex(capacity);
+        for(int i = 0; i < oldFirst.length; i++){
+            if(oldFirst[i] == 0)
+                continue;
+            int slot = (indexHash(array[oldFirst[i] - 1]) & indexMask);
+            while(indexFirst[slot] != 0)
+                slot = ((slot + 1) & indexMask);
+            indexFirst[slot] = oldFirst[i];
+            indexLast[slot] = oldLast[i];
+        }
+    }
+
 
     public boolean isEmpty() {
         return (size == 0);
@@ -287,18 +468,21 @@ public class LongList implements Iterable<Long> {
 
 
     public LongList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, 0L);
         size = 0;
         return this;
     }
 
     public LongList fill(long value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public LongList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -306,6 +490,7 @@ public class LongList implements Iterable<Long> {
     }
 
     public LongList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new long[0];
         }else{
@@ -316,6 +501,43 @@ public class LongList implements Iterable<Long> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public LongList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final LongList snapshot = new LongList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public LongList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("LongList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+        this.invalidateIndex();
+    }
+
+
     public long get(int i) {
         return array[i];
     }
@@ -329,6 +551,7 @@ public class LongList implements Iterable<Long> {
     }
 
     public LongList set(int i, long newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -343,25 +566,242 @@ public class LongList implements Iterable<Long> {
 
 
     public LongList elementAdd(int i, long value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public LongList elementSub(int i, long value) {
+        this.beforeWrite();
         array[i] -= value;
         return this;
     }
 
     public LongList elementMul(int i, long value) {
+        this.beforeWrite();
         array[i] *= value;
         return this;
     }
 
     public LongList elementDiv(int i, long value) {
+        this.beforeWrite();
         array[i] /= value;
         return this;
     }
 
+    public LongList elementAddAll(int from, int to, long value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.add(array, from, to, value);
+        return this;
+    }
+
+    public LongList elementAddAll(long value) {
+        return this.elementAddAll(0, size, value);
+    }
+
+    public LongList elementAddAll(int offset, LongList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.add(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public LongList elementAddAll(LongList list) {
+        return this.elementAddAll(0, list);
+    }
+
+    public LongList elementSubAll(int from, int to, long value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.sub(array, from, to, value);
+        return this;
+    }
+
+    public LongList elementSubAll(long value) {
+        return this.elementSubAll(0, size, value);
+    }
+
+    public LongList elementSubAll(int offset, LongList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.sub(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public LongList elementSubAll(LongList list) {
+        return this.elementSubAll(0, list);
+    }
+
+    public LongList elementMulAll(int from, int to, long value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.mul(array, from, to, value);
+        return this;
+    }
+
+    public LongList elementMulAll(long value) {
+        return this.elementMulAll(0, size, value);
+    }
+
+    public LongList elementMulAll(int offset, LongList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.mul(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public LongList elementMulAll(LongList list) {
+        return this.elementMulAll(0, list);
+    }
+
+    public LongList elementDivAll(int from, int to, long value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.div(array, from, to, value);
+        return this;
+    }
+
+    public LongList elementDivAll(long value) {
+        return this.elementDivAll(0, size, value);
+    }
+
+    public LongList elementDivAll(int offset, LongList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.div(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public LongList elementDivAll(LongList list) {
+        return this.elementDivAll(0, list);
+    }
+
+    public LongList elementFmaAll(int from, int to, long multiplier, long addend) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.fma(array, from, to, multiplier, addend);
+        return this;
+    }
+
+    public LongList elementFmaAll(long multiplier, long addend) {
+        return this.elementFmaAll(0, size, multiplier, addend);
+    }
+
+    public LongList elementClampAll(int from, int to, long min, long max) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.clamp(array, from, to, min, max);
+        return this;
+    }
+
+    public LongList elementClampAll(long min, long max) {
+        return this.elementClampAll(0, size, min, max);
+    }
+
+    private void checkElementRange(int offset, int length) {
+        if(offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for size " + size);
+    }
+
+
+    public LongList sort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.sort(array, from, to);
+        return this;
+    }
+
+    public LongList sort() {
+        return this.sort(0, size);
+    }
+
+    public LongList parallelSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.parallelSort(array, from, to);
+        return this;
+    }
+
+    public LongList parallelSort() {
+        return this.parallelSort(0, size);
+    }
+
+    public LongList radixSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        RadixSort.sort(array, from, to);
+        return this;
+    }
+
+    public LongList radixSort() {
+        return this.radixSort(0, size);
+    }
+
+
+    public long sum(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.sum(array, from, to);
+    }
+
+    public long sum() {
+        return this.sum(0, size);
+    }
+
+    public long min(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.min(array, from, to);
+    }
+
+    public long min() {
+        return this.min(0, size);
+    }
+
+    public long max(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.max(array, from, to);
+    }
+
+    public long max() {
+        return this.max(0, size);
+    }
+
+    public int argMin(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMin(array, from, to);
+    }
+
+    public int argMin() {
+        return this.argMin(0, size);
+    }
+
+    public int argMax(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMax(array, from, to);
+    }
+
+    public int argMax() {
+        return this.argMax(0, size);
+    }
+
+    public double mean(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.mean(array, from, to);
+    }
+
+    public double mean() {
+        return this.mean(0, size);
+    }
+
+    public double variance(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.variance(array, from, to);
+    }
+
+    public double variance() {
+        return this.variance(0, size);
+    }
+
 
     public long[] copyOf(int offset, int newLength) {
         final long[] slice = new long[newLength];
@@ -399,6 +839,92 @@ public class LongList implements Iterable<Long> {
     }
 
 
+    public LongList writeTo(LongBuffer buffer) {
+        buffer.put(array, 0, size);
+        return this;
+    }
+
+    public LongBuffer toDirectBuffer() {
+        final LongBuffer buffer = ByteBuffer.allocateDirect(size * Long.BYTES)
+            .order(ByteOrder.nativeOrder()).asLongBuffer();
+        buffer.put(array, 0, size);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
+    public void forEach(LongValueConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Long> action) {
+        if(action instanceof LongValueConsumer){
+            this.forEach((LongValueConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(LongIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public LongList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'J', size);
+        final ByteBuffer buffer = ListIO.chunk((long) size * Long.BYTES, ByteOrder.nativeOrder());
+        try{
+            final LongBuffer view = buffer.asLongBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                view.clear();
+                view.put(array, i, length);
+                buffer.clear().limit(length * Long.BYTES);
+                ListIO.writeFully(channel, buffer);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        return this;
+    }
+
+    public LongList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static LongList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'J');
+        final int size = ListIO.size(header);
+        final LongList list = new LongList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        final ByteBuffer buffer = ListIO.chunk((long) size * Long.BYTES, ListIO.order(header));
+        try{
+            final LongBuffer view = buffer.asLongBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                buffer.clear().limit(length * Long.BYTES);
+                ListIO.readFully(channel, buffer);
+                if(i + length > list.array.length)
+                    list.grow(i + length);
+                view.clear();
+                view.get(list.array, i, length);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static LongList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -411,24 +937,34 @@ public class LongList implements Iterable<Long> {
         if(object == null || getClass() != object.getClass())
             return false;
         final LongList list = (LongList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Long.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Long> iterator() {
-        return new Iterator<>() {
+    public LongIterator iterator() {
+        return new LongIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Long next() {
+            public long nextLong() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
@@ -0,0 +1,318 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class MappedLongList implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int BYTES = Long.BYTES;
+    // file layout: 64 byte big endian header (magic, version, type, byte order, size), then the elements
+    public static final int HEADER_BYTES = 64;
+    private static final int MAGIC = 0x524C4D50;
+    private static final byte VERSION = 1;
+    private static final byte TYPE = 'J';
+    private static final int SIZE_OFFSET = 8;
+    // a single mapping is limited to 2 GiB, so the elements are mapped in segments
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_SIZE = (1 << SEGMENT_SHIFT);
+    private static final int SEGMENT_MASK = (SEGMENT_SIZE - 1);
+
+    private final FileChannel channel;
+    private MappedByteBuffer header;
+    private final ByteOrder order;
+    private MappedByteBuffer[] mappings;
+    private LongBuffer[] segments;
+    private int capacity;
+    private int size;
+    private boolean closed;
+
+    public MappedLongList(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.mappings = new MappedByteBuffer[0];
+        this.segments = new LongBuffer[0];
+        // the header of an existing file is validated before anything is mapped, so a foreign file is never resized
+        try{
+            final long fileSize = channel.size();
+            final boolean created = (fileSize == 0);
+            if(created){
+                this.order = ByteOrder.nativeOrder();
+            }else{
+                final ByteBuffer storedHeader = readHeader(channel, fileSize);
+                if(storedHeader == null || storedHeader.getInt(0) != MAGIC || storedHeader.get(4) != VERSION || storedHeader.get(5) != TYPE)
+                    throw new IOException("Not a MappedLongList file: " + path);
+                final long storedSize = storedHeader.getLong(SIZE_OFFSET);
+                if(storedSize < 0 || storedSize > Integer.MAX_VALUE || HEADER_BYTES + storedSize * BYTES > fileSize)
+                    throw new IOException("Corrupt MappedLongList file, size " + storedSize + " does not fit in " + fileSize + " bytes: " + path);
+                this.order = (storedHeader.get(6) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+                this.size = (int) storedSize;
+            }
+        
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if(created){
+                header.putInt(0, MAGIC);
+                header.put(4, VERSION);
+                header.put(5, TYPE);
+                header.put(6, (byte) (order == ByteOrder.BIG_ENDIAN ? 0 : 1));
+                header.putLong(SIZE_OFFSET, 0L);
+            }
+            final long stored = ((channel.size() - HEADER_BYTES) / BYTES);
+            this.ensureCapacity((int) Math.min(Integer.MAX_VALUE, Math.max(Math.max(size, stored), DEFAULT_CAPACITY)));
+        }catch(IOException | RuntimeException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    // big endian header of an existing file, null if the file is too short
+    private static ByteBuffer readHeader(FileChannel channel, long fileSize) throws IOException {
+        if(fileSize < HEADER_BYTES)
+            return null;
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while(header.hasRemaining())
+            if(channel.read(header, header.position()) < 0)
+                return null;
+        return header;
+    }
+
+    private void checkOpen() {
+        if(closed)
+            throw new IllegalStateException("MappedLongList is closed");
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public ByteOrder order() {
+        return order;
+    }
+
+    public int lastIndex() {
+        return Math.max(0, (size - 1));
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    // only the last segment is ever remapped, full segments stay mapped as they are
+    private void ensureCapacity(int minCapacity) {
+        if(minCapacity <= capacity)
+            return;
+        if(minCapacity < 0)
+            throw new OutOfMemoryError("Required capacity exceeds " + Integer.MAX_VALUE);
+        
+        final int last = ((minCapacity - 1) >>> SEGMENT_SHIFT);
+        final int newCapacity = (int) Math.min(Math.min((long) (last + 1) << SEGMENT_SHIFT, Integer.MAX_VALUE), ArrayUtils.newLength(capacity, minCapacity - capacity, capacity >> 1));
+        final int oldCount = mappings.length;
+        mappings = Arrays.copyOf(mappings, last + 1);
+        segments = Arrays.copyOf(segments, last + 1);
+        try{
+            for(int i = Math.max(0, oldCount - 1); i <= last; i++){
+                final int length = (i < last ? SEGMENT_SIZE : newCapacity - (i << SEGMENT_SHIFT));
+                final MappedByteBuffer old = mappings[i];
+                if(old != null && old.capacity() == length * BYTES)
+                    continue;
+        
+                final long position = (HEADER_BYTES + (long) (i << SEGMENT_SHIFT) * BYTES);
+                mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) length * BYTES);
+                mappings[i].order(order);
+                segments[i] = mappings[i].asLongBuffer();
+                if(old != null)
+                    DirectBuffers.free(old);
+            }
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        capacity = newCapacity;
+    }
+
+    private LongBuffer segment(int i) {
+        return segments[i >>> SEGMENT_SHIFT];
+    }
+
+    private void setSize(int newSize) {
+        size = newSize;
+        header.putLong(SIZE_OFFSET, newSize);
+    }
+
+
+    public MappedLongList add(long element) {
+        this.checkOpen();
+        if(size == capacity)
+            this.ensureCapacity(size + 1);
+        
+        this.segment(size).put(size & SEGMENT_MASK, element);
+        this.setSize(size + 1);
+        return this;
+    }
+
+    public MappedLongList add(long[] elements, int offset, int length) {
+        this.checkOpen();
+        Objects.checkFromIndexSize(offset, length, elements.length);
+        this.ensureCapacity(size + length);
+        
+        int copied = 0;
+        while(copied < length){
+            final int index = (size + copied);
+            final int count = Math.min(length - copied, SEGMENT_SIZE - (index & SEGMENT_MASK));
+            final LongBuffer segment = this.segment(index);
+            segment.position(index & SEGMENT_MASK);
+            segment.put(elements, offset + copied, count);
+            segment.position(0);
+            copied += count;
+        }
+        this.setSize(size + length);
+        return this;
+    }
+
+    public MappedLongList add(long... elements) {
+        return this.add(elements, 0, elements.length);
+    }
+
+    public MappedLongList add(LongList list) {
+        return this.add(list.array(), 0, list.size());
+    }
+
+
+    public long removeLast() {
+        this.checkOpen();
+        final long value = this.get(size - 1);
+        this.setSize(size - 1);
+        return value;
+    }
+
+    public MappedLongList clear() {
+        this.checkOpen();
+        this.setSize(0);
+        return this;
+    }
+
+
+    public long get(int i) {
+        this.checkOpen();
+        Objects.checkIndex(i, size);
+        return this.segment(i).get(i & SEGMENT_MASK);
+    }
+
+    public long getFirst() {
+        return this.get(0);
+    }
+
+    public long getLast() {
+        return this.get(this.lastIndex());
+    }
+
+    public MappedLongList set(int i, long newValue) {
+        this.checkOpen();
+        Objects.checkIndex(i, size);
+        this.segment(i).put(i & SEGMENT_MASK, newValue);
+        return this;
+    }
+
+
+    public boolean contains(long element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(long element) {
+        this.checkOpen();
+        for(int i = 0; i < size; i++)
+            if(Long.compare(this.segment(i).get(i & SEGMENT_MASK), element) == 0)
+                return i;
+        return -1;
+    }
+
+
+    public MappedLongList copyTo(long[] dst, int offset) {
+        this.checkOpen();
+        for(int i = 0; i < size; i += SEGMENT_SIZE){
+            final LongBuffer segment = this.segment(i);
+            segment.get(dst, offset + i, Math.min(SEGMENT_SIZE, size - i));
+            segment.position(0);
+        }
+        return this;
+    }
+
+    public long[] copyOf() {
+        final long[] array = new long[size];
+        this.copyTo(array, 0);
+        return array;
+    }
+
+    public LongList toList() {
+        return new LongList(this.copyOf());
+    }
+
+
+    public void forEach(LongValueConsumer action) {
+        this.checkOpen();
+        for(int i = 0; i < size; i++)
+            action.accept(this.segment(i).get(i & SEGMENT_MASK));
+    }
+
+    public void forEachIndexed(LongIndexedConsumer action) {
+        this.checkOpen();
+        for(int i = 0; i < size; i++)
+            action.accept(i, this.segment(i).get(i & SEGMENT_MASK));
+    }
+
+
+    // flushes modified pages and the header to the file
+    public MappedLongList force() {
+        this.checkOpen();
+        for(MappedByteBuffer mapping: mappings)
+            mapping.force();
+        header.force();
+        return this;
+    }
+
+    // unmaps the file and truncates the unused capacity
+    @Override
+    public void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+        
+        // the fields are dropped before the memory is freed, so nothing reachable points into it
+        final MappedByteBuffer[] oldMappings = mappings;
+        final MappedByteBuffer oldHeader = header;
+        mappings = new MappedByteBuffer[0];
+        segments = new LongBuffer[0];
+        header = null;
+        capacity = 0;
+        for(MappedByteBuffer mapping: oldMappings)
+            DirectBuffers.free(mapping);
+        DirectBuffers.free(oldHeader);
+        try{
+            channel.truncate(HEADER_BYTES + (long) size * BYTES);
+        }finally{
+            channel.close();
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,464 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.nio.*;
+import java.util.Arrays;
+
+public class OffHeapCharList implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 10;
+    public static final int BYTES = Character.BYTES;
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE;
+    // a direct buffer is limited to 2 GiB, so the elements are stored in segments.
+    // Only the last segment is ever reallocated, memory is freed eagerly only by close()
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_SIZE = (1 << SEGMENT_SHIFT);
+    private static final int SEGMENT_MASK = (SEGMENT_SIZE - 1);
+
+    private ByteBuffer[] buffers;
+    private CharBuffer[] segments;
+    private int capacity;
+    private int size;
+
+    public OffHeapCharList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OffHeapCharList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        this.buffers = new ByteBuffer[0];
+        this.segments = new CharBuffer[0];
+        this.resize(capacity);
+    }
+
+    public OffHeapCharList(char... items) {
+        this(items.length);
+        this.add(items);
+    }
+
+    public OffHeapCharList(CharList list) {
+        this(list.size());
+        this.add(list);
+    }
+
+    public OffHeapCharList(OffHeapCharList list) {
+        this(list.size);
+        this.add(list);
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int lastIndex() {
+        return Math.max(0, (size - 1));
+    }
+
+
+    private CharBuffer segment(int i) {
+        return segments[i >>> SEGMENT_SHIFT];
+    }
+
+    // segments that keep their length are reused, replaced ones are left to the garbage collector
+    private void resize(int newCapacity) {
+        final int count = (int) (((long) newCapacity + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        final int oldCount = buffers.length;
+        buffers = Arrays.copyOf(buffers, count);
+        segments = Arrays.copyOf(segments, count);
+        for(int i = 0; i < count; i++){
+            final int length = Math.min(SEGMENT_SIZE, newCapacity - (i << SEGMENT_SHIFT));
+            final ByteBuffer old = (i < oldCount ? buffers[i] : null);
+            if(old != null && old.capacity() == length * BYTES)
+                continue;
+        
+            final ByteBuffer newBuffer = DirectBuffers.allocate(length * BYTES);
+            if(old != null){
+                final ByteBuffer src = old.duplicate();
+                src.limit(Math.min(old.capacity(), newBuffer.capacity()));
+                newBuffer.put(src);
+                newBuffer.clear();
+            }
+            buffers[i] = newBuffer;
+            segments[i] = newBuffer.asCharBuffer();
+        }
+        capacity = newCapacity;
+    }
+
+    private void grow(int minCapacity) {
+        if(minCapacity < 0)
+            throw new OutOfMemoryError("Required capacity exceeds " + MAX_CAPACITY);
+        
+        if(capacity == 0){
+            this.resize(Math.max(minCapacity, DEFAULT_CAPACITY));
+        }else{
+            this.resize(ArrayUtils.newLength(capacity, minCapacity - capacity, capacity >> 1));
+        }
+    }
+
+    // neither range may cross a segment border
+    private static void copy(OffHeapCharList src, int from, OffHeapCharList dst, int to, int length) {
+        final CharBuffer source = src.segment(from).duplicate();
+        source.limit((from & SEGMENT_MASK) + length).position(from & SEGMENT_MASK);
+        final CharBuffer target = dst.segment(to).duplicate();
+        target.position(to & SEGMENT_MASK);
+        target.put(source);
+    }
+
+    // moves in segment-bounded chunks, back to front when moving right so overlapping ranges are not overwritten
+    private void move(int from, int to, int length) {
+        if(to > from){
+            while(length > 0){
+                final int srcEnd = (from + length);
+                final int dstEnd = (to + length);
+                final int count = Math.min(length, Math.min(((srcEnd - 1) & SEGMENT_MASK) + 1, ((dstEnd - 1) & SEGMENT_MASK) + 1));
+                copy(this, srcEnd - count, this, dstEnd - count, count);
+                length -= count;
+            }
+        }else{
+            for(int done = 0; done < length; ){
+                final int count = chunk(from + done, to + done, length - done);
+                copy(this, from + done, this, to + done, count);
+                done += count;
+            }
+        }
+    }
+
+    private static int chunk(int from, int to, int length) {
+        return Math.min(length, Math.min(SEGMENT_SIZE - (from & SEGMENT_MASK), SEGMENT_SIZE - (to & SEGMENT_MASK)));
+    }
+
+    private void put(int index, char[] src, int offset, int length) {
+        while(length > 0){
+            final int count = Math.min(length, SEGMENT_SIZE - (index & SEGMENT_MASK));
+            final CharBuffer segment = this.segment(index).duplicate();
+            segment.position(index & SEGMENT_MASK);
+            segment.put(src, offset, count);
+            index += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+
+    public OffHeapCharList add(char element) {
+        if(size == capacity)
+            this.grow(size + 1);
+        
+        this.segment(size).put(size & SEGMENT_MASK, element);
+        size++;
+        return this;
+    }
+
+    public OffHeapCharList add(char... elements) {
+        if(size + elements.length > capacity)
+            this.grow(size + elements.length);
+        
+        this.put(size, elements, 0, elements.length);
+        size += elements.length;
+        return this;
+    }
+
+    public OffHeapCharList add(CharList list) {
+        if(size + list.size() > capacity)
+            this.grow(size + list.size());
+        
+        this.put(size, list.array(), 0, list.size());
+        size += list.size();
+        return this;
+    }
+
+    public OffHeapCharList add(OffHeapCharList list) {
+        final int length = list.size;
+        if(size + length > capacity)
+            this.grow(size + length);
+        
+        for(int done = 0; done < length; ){
+            final int count = chunk(done, size + done, length - done);
+            copy(list, done, this, size + done, count);
+            done += count;
+        }
+        size += length;
+        return this;
+    }
+
+    public OffHeapCharList add(int i, char element) {
+        final int minCapacity = (Math.max(size, i) + 1);
+        if(minCapacity > capacity)
+            this.grow(minCapacity);
+        
+        if(size > i)
+            this.move(i, i + 1, size - i);
+        this.segment(i).put(i & SEGMENT_MASK, element);
+        
+        size = minCapacity;
+        return this;
+    }
+
+    public OffHeapCharList add(int i, char... elements) {
+        if(elements.length == 0)
+            return this;
+        
+        final int minCapacity = (Math.max(size, i) + elements.length);
+        if(minCapacity > capacity)
+            this.grow(minCapacity);
+        
+        if(size > i)
+            this.move(i, i + elements.length, size - i);
+        this.put(i, elements, 0, elements.length);
+        
+        size = minCapacity;
+        return this;
+    }
+
+    public OffHeapCharList addFirst(char element) {
+        return this.add(0, element);
+    }
+
+    public OffHeapCharList addFirst(char... elements) {
+        return this.add(0, elements);
+    }
+
+
+    public OffHeapCharList remove(int i, int len) {
+        len = Math.min(len, size - i);
+        if(len <= 0)
+            return this;
+        
+        final int j = (i + len);
+        this.move(j, i, size - j);
+        
+        size -= len;
+        return this;
+    }
+
+    public char remove(int i) {
+        final char val = this.get(i);
+        this.remove(i, 1);
+        return val;
+    }
+
+    public char removeFirst() {
+        return this.remove(0);
+    }
+
+    public char removeLast() {
+        return this.remove(this.lastIndex());
+    }
+
+    public Character removeFirst(char value) {
+        final int index = this.indexOf(value);
+        if(index > -1)
+            return this.remove(index);
+        return null;
+    }
+
+    public Character removeLast(char value) {
+        final int index = this.lastIndexOf(value);
+        if(index > -1)
+            return this.remove(index);
+        return null;
+    }
+
+    public boolean removeFirstOccurrence(char value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(char value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+
+    public boolean contains(char element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(char element) {
+        return this.indexOfRange(element, 0, size);
+    }
+
+    public int lastIndexOf(char element) {
+        return this.lastIndexOfRange(element, 0, size);
+    }
+
+    public int indexOfRange(char element, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(this.segment(i).get(i & SEGMENT_MASK) == element)
+                return i;
+        return -1;
+    }
+
+    public int lastIndexOfRange(char element, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(this.segment(i).get(i & SEGMENT_MASK) == element)
+                return i;
+        return -1;
+    }
+
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    public OffHeapCharList clear() {
+        this.fill((char) 0);
+        size = 0;
+        return this;
+    }
+
+    public OffHeapCharList fill(char value) {
+        for(int i = 0; i < size; i++)
+            this.segment(i).put(i & SEGMENT_MASK, value);
+        return this;
+    }
+
+
+    public OffHeapCharList trim() {
+        if(capacity == size)
+            return this;
+        this.resize(size);
+        return this;
+    }
+
+    public OffHeapCharList capacity(int newCapacity) {
+        if(newCapacity < 0)
+            throw new IllegalArgumentException();
+        this.resize(newCapacity);
+        size = Math.min(size, newCapacity);
+        return this;
+    }
+
+
+    public char get(int i) {
+        return this.segment(i).get(i & SEGMENT_MASK);
+    }
+
+    public char getFirst() {
+        return this.get(0);
+    }
+
+    public char getLast() {
+        return this.get(this.lastIndex());
+    }
+
+    public OffHeapCharList set(int i, char newValue) {
+        this.segment(i).put(i & SEGMENT_MASK, newValue);
+        return this;
+    }
+
+    public OffHeapCharList setFirst(char newValue) {
+        return this.set(0, newValue);
+    }
+
+    public OffHeapCharList setLast(char newValue) {
+        return this.set(this.lastIndex(), newValue);
+    }
+
+
+    public char[] copyOf() {
+        final char[] array = new char[size];
+        for(int i = 0; i < size; i += SEGMENT_SIZE){
+            final CharBuffer segment = this.segment(i).duplicate();
+            segment.get(array, i, Math.min(SEGMENT_SIZE, size - i));
+        }
+        return array;
+    }
+
+    public CharList toList() {
+        return new CharList(this.copyOf());
+    }
+
+    public OffHeapCharList writeTo(CharBuffer dst) {
+        for(int i = 0; i < size; i += SEGMENT_SIZE){
+            final CharBuffer segment = this.segment(i).duplicate();
+            segment.limit(Math.min(SEGMENT_SIZE, size - i));
+            dst.put(segment);
+        }
+        return this;
+    }
+
+    public OffHeapCharList copy() {
+        return new OffHeapCharList(this);
+    }
+
+
+    public void forEach(CharConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(this.segment(i).get(i & SEGMENT_MASK));
+    }
+
+    public void forEachIndexed(CharIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, this.segment(i).get(i & SEGMENT_MASK));
+    }
+
+
+    // frees the memory now, the list stays usable and empty
+    @Override
+    public void close() {
+        final ByteBuffer[] oldBuffers = buffers;
+        buffers = new ByteBuffer[0];
+        segments = new CharBuffer[0];
+        capacity = 0;
+        size = 0;
+        for(ByteBuffer buffer: oldBuffers)
+            DirectBuffers.free(buffer);
+    }
+
+
+    @Override
+    public String toString() {
+        if(size == 0)
+            return "[]";
+        
+        final StringBuilder builder = new StringBuilder("[");
+        for(int i = 0; i < size; i++){
+            if(i != 0)
+                builder.append(", ");
+            builder.append(this.segment(i).get(i & SEGMENT_MASK));
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final OffHeapCharList list = (OffHeapCharList) object;
+        if(size != list.size)
+            return false;
+        for(int i = 0; i < size; i++)
+            if(Character.compare(this.segment(i).get(i & SEGMENT_MASK), list.segment(i).get(i & SEGMENT_MASK)) != 0)
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Character.hashCode(this.segment(i).get(i & SEGMENT_MASK));
+        return hash;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,341 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.*;
+
+// all strings as UTF-8 in one byte pool: element i is bytes[offsets[i], offsets[i + 1]).
+// Strings are only created on get(), searches and comparisons work on the encoded bytes. Null elements are not supported
+public class PackedStringList implements Iterable<String> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private byte[] bytes;
+    private int[] offsets;
+    private int size;
+
+    public PackedStringList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PackedStringList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        // guess 8 bytes per string, computed in long so a large capacity cannot overflow
+        this.bytes = new byte[(int) Math.min((long) capacity * 8, 2147483639)];
+        this.offsets = new int[capacity + 1];
+    }
+
+    public PackedStringList(String... items) {
+        this(items.length);
+        this.add(items);
+    }
+
+    public PackedStringList(StringList list) {
+        this(list.size());
+        this.add(list);
+    }
+
+    public PackedStringList(PackedStringList list) {
+        this.size = list.size;
+        this.bytes = Arrays.copyOf(list.bytes, list.byteSize());
+        this.offsets = Arrays.copyOf(list.offsets, list.size + 1);
+    }
+
+    public PackedStringList(Iterable<?> iterable) {
+        this();
+        this.addAll(iterable);
+    }
+
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int byteSize() {
+        return offsets[size];
+    }
+
+    public int lastIndex() {
+        return Math.max(0, (size - 1));
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    private void ensureCapacity(int count, int byteCount) {
+        if(size + count >= offsets.length)
+            offsets = Arrays.copyOf(offsets, ArrayUtils.newLength(offsets.length, size + count + 1 - offsets.length, offsets.length >> 1));
+        final int byteSize = this.byteSize();
+        if(byteSize + byteCount > bytes.length)
+            bytes = Arrays.copyOf(bytes, ArrayUtils.newLength(bytes.length, byteSize + byteCount - bytes.length, bytes.length >> 1));
+    }
+
+
+    public PackedStringList add(byte[] utf8, int offset, int length) {
+        this.ensureCapacity(1, length);
+        final int start = this.byteSize();
+        System.arraycopy(utf8, offset, bytes, start, length);
+        offsets[++size] = (start + length);
+        return this;
+    }
+
+    public PackedStringList add(byte[] utf8) {
+        return this.add(utf8, 0, utf8.length);
+    }
+
+    public PackedStringList add(String element) {
+        // ASCII is written straight into the pool, anything else goes through the encoder
+        final int length = element.length();
+        this.ensureCapacity(1, length);
+        int position = this.byteSize();
+        for(int j = 0; j < length; j++){
+            final char c = element.charAt(j);
+            if(c >= 0x80)
+                return this.add(element.getBytes(StandardCharsets.UTF_8));
+            bytes[position++] = (byte) c;
+        }
+        offsets[++size] = position;
+        return this;
+    }
+
+    public PackedStringList add(String... elements) {
+        for(String element: elements)
+            this.add(element);
+        return this;
+    }
+
+    public PackedStringList add(StringList list) {
+        for(int i = 0; i < list.size(); i++)
+            this.add(list.get(i));
+        return this;
+    }
+
+    public PackedStringList add(PackedStringList list) {
+        final int byteCount = list.byteSize();
+        this.ensureCapacity(list.size, byteCount);
+        final int start = this.byteSize();
+        System.arraycopy(list.bytes, 0, bytes, start, byteCount);
+        for(int i = 1; i <= list.size; i++)
+            offsets[size + i] = (start + list.offsets[i]);
+        size += list.size;
+        return this;
+    }
+
+    public PackedStringList addAll(Iterable<?> iterable) {
+        for(Object object: iterable)
+            this.add(object.toString());
+        return this;
+    }
+
+
+    public PackedStringList set(int i, String newValue) {
+        Objects.checkIndex(i, size);
+        final byte[] encoded = newValue.getBytes(StandardCharsets.UTF_8);
+        final int start = offsets[i];
+        final int end = offsets[i + 1];
+        final int delta = (encoded.length - (end - start));
+        if(delta > 0)
+            this.ensureCapacity(0, delta);
+
+        final int byteSize = this.byteSize();
+        System.arraycopy(bytes, end, bytes, end + delta, byteSize - end);
+        System.arraycopy(encoded, 0, bytes, start, encoded.length);
+        if(delta != 0)
+            for(int j = i + 1; j <= size; j++)
+                offsets[j] += delta;
+        return this;
+    }
+
+    public PackedStringList remove(int i, int len) {
+        len = Math.min(len, size - i);
+        if(len <= 0)
+            return this;
+
+        final int start = offsets[i];
+        final int end = offsets[i + len];
+        final int byteSize = this.byteSize();
+        System.arraycopy(bytes, end, bytes, start, byteSize - end);
+        for(int j = i + len; j <= size; j++)
+            offsets[j - len] = (offsets[j] - (end - start));
+        size -= len;
+        return this;
+    }
+
+    public String remove(int i) {
+        final String value = this.get(i);
+        this.remove(i, 1);
+        return value;
+    }
+
+    public String removeLast() {
+        final String value = this.get(size - 1);
+        size--;
+        return value;
+    }
+
+    public PackedStringList clear() {
+        size = 0;
+        return this;
+    }
+
+    public PackedStringList trim() {
+        bytes = Arrays.copyOf(bytes, this.byteSize());
+        offsets = Arrays.copyOf(offsets, size + 1);
+        return this;
+    }
+
+
+    public String get(int i) {
+        Objects.checkIndex(i, size);
+        return new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+    }
+
+    public String getFirst() {
+        return this.get(0);
+    }
+
+    public String getLast() {
+        return this.get(size - 1);
+    }
+
+    public byte[] getBytes(int i) {
+        Objects.checkIndex(i, size);
+        return Arrays.copyOfRange(bytes, offsets[i], offsets[i + 1]);
+    }
+
+    public int byteLength(int i) {
+        Objects.checkIndex(i, size);
+        return (offsets[i + 1] - offsets[i]);
+    }
+
+    public int byteOffset(int i) {
+        Objects.checkIndex(i, size);
+        return offsets[i];
+    }
+
+
+    private boolean elementEquals(int i, byte[] utf8, int offset, int length) {
+        final int start = offsets[i];
+        final int end = offsets[i + 1];
+        return ((end - start) == length && Arrays.equals(bytes, start, end, utf8, offset, offset + length));
+    }
+
+    public boolean elementEquals(int i, String value) {
+        Objects.checkIndex(i, size);
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        return this.elementEquals(i, encoded, 0, encoded.length);
+    }
+
+    public boolean contains(String element) {
+        return (this.indexOf(element) != -1);
+    }
+
+    public int indexOf(String element) {
+        final byte[] encoded = element.getBytes(StandardCharsets.UTF_8);
+        return this.indexOf(encoded, 0, encoded.length);
+    }
+
+    public int lastIndexOf(String element) {
+        final byte[] encoded = element.getBytes(StandardCharsets.UTF_8);
+        return this.lastIndexOf(encoded, 0, encoded.length);
+    }
+
+    public int indexOf(byte[] utf8, int offset, int length) {
+        for(int i = 0; i < size; i++)
+            if(this.elementEquals(i, utf8, offset, length))
+                return i;
+        return -1;
+    }
+
+    public int lastIndexOf(byte[] utf8, int offset, int length) {
+        for(int i = size - 1; i >= 0; i--)
+            if(this.elementEquals(i, utf8, offset, length))
+                return i;
+        return -1;
+    }
+
+
+    public String[] copyOf() {
+        final String[] array = new String[size];
+        for(int i = 0; i < size; i++)
+            array[i] = this.get(i);
+        return array;
+    }
+
+    public StringList toStringList() {
+        return new StringList(this.copyOf());
+    }
+
+    public PackedStringList copy() {
+        return new PackedStringList(this);
+    }
+
+
+    @Override
+    public void forEach(Consumer<? super String> action) {
+        for(int i = 0; i < size; i++)
+            action.accept(this.get(i));
+    }
+
+    public void forEachIndexed(IndexedConsumer<String> action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, this.get(i));
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final PackedStringList list = (PackedStringList) object;
+        return (size == list.size
+            && Arrays.equals(offsets, 0, size + 1, list.offsets, 0, size + 1)
+            && Arrays.equals(bytes, 0, this.byteSize(), list.bytes, 0, list.byteSize()));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        final int byteSize = this.byteSize();
+        for(int i = 0; i < byteSize; i++)
+            hash = 31 * hash + bytes[i];
+        return hash;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public String next() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                return get(index++);
+            }
+        };
+    }
+
+}
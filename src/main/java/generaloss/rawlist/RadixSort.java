@@ -0,0 +1,356 @@
+package generaloss.rawlist;
+
+import java.util.Arrays;
+
+public class RadixSort {
+
+    // below this length Arrays.sort wins
+    private static final int MIN_LENGTH = 64;
+
+    private static boolean isTrivial(int[] counts, int offset, int length) {
+        for(int i = offset; i < offset + 256; i++){
+            if(counts[i] == length)
+                return true;
+            if(counts[i] != 0)
+                return false;
+        }
+        return false;
+    }
+
+    private static void toOffsets(int[] counts, int offset) {
+        int sum = 0;
+        for(int i = offset; i < offset + 256; i++){
+            final int count = counts[i];
+            counts[i] = sum;
+            sum += count;
+        }
+    }
+
+    public static void sort(byte[] array, int from, int to) {
+        // counting sort, a single histogram pass
+        final int[] counts = new int[256];
+        for(int i = from; i < to; i++)
+            counts[array[i] + 128]++;
+
+        int i = from;
+        for(int digit = 0; digit < 256; digit++){
+            final int end = (i + counts[digit]);
+            Arrays.fill(array, i, end, (byte) (digit - 128));
+            i = end;
+        }
+    }
+
+    public static void sort(byte[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(short[] array, int from, int to) {
+        final int length = (to - from);
+        if(length < MIN_LENGTH){
+            Arrays.sort(array, from, to);
+            return;
+        }
+
+        final int[] counts = new int[2 * 256];
+        for(int i = from; i < to; i++){
+            final int key = ((array[i] ^ 0x8000) & 0xFFFF);
+            counts[key & 0xFF]++;
+            counts[256 + ((key >>> 8) & 0xFF)]++;
+        }
+
+        short[] src = array;
+        short[] dst = new short[length];
+        int srcFrom = from;
+        int dstFrom = 0;
+        for(int pass = 0; pass < 2; pass++){
+            final int offset = (pass << 8);
+            if(isTrivial(counts, offset, length))
+                continue;
+            toOffsets(counts, offset);
+
+            final int shift = (pass << 3);
+            for(int i = srcFrom; i < srcFrom + length; i++){
+                final short value = src[i];
+                final int key = ((value ^ 0x8000) & 0xFFFF);
+                final int digit = ((key >>> shift) & 0xFF);
+                dst[dstFrom + counts[offset + digit]++] = value;
+            }
+
+            final short[] swap = src;
+            src = dst;
+            dst = swap;
+            final int swapFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = swapFrom;
+        }
+        if(src != array)
+            System.arraycopy(src, srcFrom, array, from, length);
+    }
+
+    public static void sort(short[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(char[] array, int from, int to) {
+        final int length = (to - from);
+        if(length < MIN_LENGTH){
+            Arrays.sort(array, from, to);
+            return;
+        }
+
+        final int[] counts = new int[2 * 256];
+        for(int i = from; i < to; i++){
+            final int key = array[i];
+            counts[key & 0xFF]++;
+            counts[256 + ((key >>> 8) & 0xFF)]++;
+        }
+
+        char[] src = array;
+        char[] dst = new char[length];
+        int srcFrom = from;
+        int dstFrom = 0;
+        for(int pass = 0; pass < 2; pass++){
+            final int offset = (pass << 8);
+            if(isTrivial(counts, offset, length))
+                continue;
+            toOffsets(counts, offset);
+
+            final int shift = (pass << 3);
+            for(int i = srcFrom; i < srcFrom + length; i++){
+                final char value = src[i];
+                final int digit = ((value >>> shift) & 0xFF);
+                dst[dstFrom + counts[offset + digit]++] = value;
+            }
+
+            final char[] swap = src;
+            src = dst;
+            dst = swap;
+            final int swapFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = swapFrom;
+        }
+        if(src != array)
+            System.arraycopy(src, srcFrom, array, from, length);
+    }
+
+    public static void sort(char[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(int[] array, int from, int to) {
+        final int length = (to - from);
+        if(length < MIN_LENGTH){
+            Arrays.sort(array, from, to);
+            return;
+        }
+
+        final int[] counts = new int[4 * 256];
+        for(int i = from; i < to; i++){
+            final int key = (array[i] ^ 0x80000000);
+            counts[key & 0xFF]++;
+            counts[256 + ((key >>> 8) & 0xFF)]++;
+            counts[512 + ((key >>> 16) & 0xFF)]++;
+            counts[768 + ((key >>> 24) & 0xFF)]++;
+        }
+
+        int[] src = array;
+        int[] dst = new int[length];
+        int srcFrom = from;
+        int dstFrom = 0;
+        for(int pass = 0; pass < 4; pass++){
+            final int offset = (pass << 8);
+            if(isTrivial(counts, offset, length))
+                continue;
+            toOffsets(counts, offset);
+
+            final int shift = (pass << 3);
+            for(int i = srcFrom; i < srcFrom + length; i++){
+                final int value = src[i];
+                final int key = (value ^ 0x80000000);
+                final int digit = ((key >>> shift) & 0xFF);
+                dst[dstFrom + counts[offset + digit]++] = value;
+            }
+
+            final int[] swap = src;
+            src = dst;
+            dst = swap;
+            final int swapFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = swapFrom;
+        }
+        if(src != array)
+            System.arraycopy(src, srcFrom, array, from, length);
+    }
+
+    public static void sort(int[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(long[] array, int from, int to) {
+        final int length = (to - from);
+        if(length < MIN_LENGTH){
+            Arrays.sort(array, from, to);
+            return;
+        }
+
+        final int[] counts = new int[8 * 256];
+        for(int i = from; i < to; i++){
+            final long key = (array[i] ^ Long.MIN_VALUE);
+            counts[(int) (key & 0xFF)]++;
+            counts[256 + (int) ((key >>> 8) & 0xFF)]++;
+            counts[512 + (int) ((key >>> 16) & 0xFF)]++;
+            counts[768 + (int) ((key >>> 24) & 0xFF)]++;
+            counts[1024 + (int) ((key >>> 32) & 0xFF)]++;
+            counts[1280 + (int) ((key >>> 40) & 0xFF)]++;
+            counts[1536 + (int) ((key >>> 48) & 0xFF)]++;
+            counts[1792 + (int) ((key >>> 56) & 0xFF)]++;
+        }
+
+        long[] src = array;
+        long[] dst = new long[length];
+        int srcFrom = from;
+        int dstFrom = 0;
+        for(int pass = 0; pass < 8; pass++){
+            final int offset = (pass << 8);
+            if(isTrivial(counts, offset, length))
+                continue;
+            toOffsets(counts, offset);
+
+            final int shift = (pass << 3);
+            for(int i = srcFrom; i < srcFrom + length; i++){
+                final long value = src[i];
+                final long key = (value ^ Long.MIN_VALUE);
+                final int digit = (int) ((key >>> shift) & 0xFF);
+                dst[dstFrom + counts[offset + digit]++] = value;
+            }
+
+            final long[] swap = src;
+            src = dst;
+            dst = swap;
+            final int swapFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = swapFrom;
+        }
+        if(src != array)
+            System.arraycopy(src, srcFrom, array, from, length);
+    }
+
+    public static void sort(long[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(float[] array, int from, int to) {
+        final int length = (to - from);
+        if(length < MIN_LENGTH){
+            Arrays.sort(array, from, to);
+            return;
+        }
+
+        final int[] counts = new int[4 * 256];
+        for(int i = from; i < to; i++){
+            final int key = floatKey(array[i]);
+            counts[key & 0xFF]++;
+            counts[256 + ((key >>> 8) & 0xFF)]++;
+            counts[512 + ((key >>> 16) & 0xFF)]++;
+            counts[768 + ((key >>> 24) & 0xFF)]++;
+        }
+
+        float[] src = array;
+        float[] dst = new float[length];
+        int srcFrom = from;
+        int dstFrom = 0;
+        for(int pass = 0; pass < 4; pass++){
+            final int offset = (pass << 8);
+            if(isTrivial(counts, offset, length))
+                continue;
+            toOffsets(counts, offset);
+
+            final int shift = (pass << 3);
+            for(int i = srcFrom; i < srcFrom + length; i++){
+                final float value = src[i];
+                final int key = floatKey(value);
+                final int digit = ((key >>> shift) & 0xFF);
+                dst[dstFrom + counts[offset + digit]++] = value;
+            }
+
+            final float[] swap = src;
+            src = dst;
+            dst = swap;
+            final int swapFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = swapFrom;
+        }
+        if(src != array)
+            System.arraycopy(src, srcFrom, array, from, length);
+    }
+
+    public static void sort(float[] array) {
+        sort(array, 0, array.length);
+    }
+
+    public static void sort(double[] array, int from, int to) {
+        final int length = (to - from);
+        if(length < MIN_LENGTH){
+            Arrays.sort(array, from, to);
+            return;
+        }
+
+        final int[] counts = new int[8 * 256];
+        for(int i = from; i < to; i++){
+            final long key = doubleKey(array[i]);
+            counts[(int) (key & 0xFF)]++;
+            counts[256 + (int) ((key >>> 8) & 0xFF)]++;
+            counts[512 + (int) ((key >>> 16) & 0xFF)]++;
+            counts[768 + (int) ((key >>> 24) & 0xFF)]++;
+            counts[1024 + (int) ((key >>> 32) & 0xFF)]++;
+            counts[1280 + (int) ((key >>> 40) & 0xFF)]++;
+            counts[1536 + (int) ((key >>> 48) & 0xFF)]++;
+            counts[1792 + (int) ((key >>> 56) & 0xFF)]++;
+        }
+
+        double[] src = array;
+        double[] dst = new double[length];
+        int srcFrom = from;
+        int dstFrom = 0;
+        for(int pass = 0; pass < 8; pass++){
+            final int offset = (pass << 8);
+            if(isTrivial(counts, offset, length))
+                continue;
+            toOffsets(counts, offset);
+
+            final int shift = (pass << 3);
+            for(int i = srcFrom; i < srcFrom + length; i++){
+                final double value = src[i];
+                final long key = doubleKey(value);
+                final int digit = (int) ((key >>> shift) & 0xFF);
+                dst[dstFrom + counts[offset + digit]++] = value;
+            }
+
+            final double[] swap = src;
+            src = dst;
+            dst = swap;
+            final int swapFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = swapFrom;
+        }
+        if(src != array)
+            System.arraycopy(src, srcFrom, array, from, length);
+    }
+
+    public static void sort(double[] array) {
+        sort(array, 0, array.length);
+    }
+
+    // IEEE bits to unsigned order: negatives reversed below positives,
+    // -0 before +0, NaN (canonicalized) after +Infinity like Arrays.sort
+    private static int floatKey(float value) {
+        final int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) | 0x80000000);
+    }
+
+    private static long doubleKey(double value) {
+        final long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+}
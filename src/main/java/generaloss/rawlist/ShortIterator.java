@@ -0,0 +1,31 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.ShortConsumer;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface ShortIterator extends Iterator<Short> {
+
+    short nextShort();
+
+    @Override
+    default Short next() {
+        return this.nextShort();
+    }
+
+    default void forEachRemaining(ShortConsumer action) {
+        while(this.hasNext())
+            action.accept(this.nextShort());
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Short> action) {
+        if(action instanceof ShortConsumer){
+            this.forEachRemaining((ShortConsumer) action);
+        }else{
+            while(this.hasNext())
+                action.accept(this.nextShort());
+        }
+    }
+
+}
\ No newline at end of file
@@ -1,8 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
 import java.nio.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class ShortList implements Iterable<Short> {
 
@@ -10,6 +16,10 @@ public class ShortList implements Iterable<Short> {
 
     private short[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
 
     public ShortList() {
         this(DEFAULT_CAPACITY);
@@ -32,7 +42,7 @@ public class ShortList implements Iterable<Short> {
     }
 
     public ShortList(ShortBuffer buffer) {
-        this.array = new short[buffer.limit()];
+        this.array = new short[buffer.remaining()];
         this.addAll(buffer);
     }
 
@@ -63,6 +73,22 @@ public class ShortList implements Iterable<Short> {
         this.addAll(array, func);
     }
 
+    public <O> ShortList(Iterable<O> iterable, ToShortFunction<O> func) {
+        this.array = new short[1];
+        this.addAll(iterable, func);
+        this.trim();
+    }
+
+    public <O> ShortList(Collection<O> collection, ToShortFunction<O> func) {
+        this.array = new short[collection.size()];
+        this.addAll(collection, func);
+    }
+
+    public <O> ShortList(O[] array, ToShortFunction<O> func) {
+        this.array = new short[array.length];
+        this.addAll(array, func);
+    }
+
 
     public short[] array() {
         return array;
@@ -103,6 +129,7 @@ public class ShortList implements Iterable<Short> {
 
 
     public ShortList add(short element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -112,6 +139,7 @@ public class ShortList implements Iterable<Short> {
     }
 
     public ShortList add(short... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -121,15 +149,17 @@ public class ShortList implements Iterable<Short> {
     }
 
     public ShortList add(ShortList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public ShortList add(int i, short element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -148,6 +178,7 @@ public class ShortList implements Iterable<Short> {
     public ShortList add(int i, short... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -173,20 +204,34 @@ public class ShortList implements Iterable<Short> {
 
 
     public ShortList addAll(ShortBuffer buffer) {
-        for(int i = buffer.position(); i < buffer.limit(); i++)
-            this.add(buffer.get(i));
+        this.checkMutable();
+        final int position = buffer.position();
+        final int length = buffer.remaining();
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        buffer.get(array, size, length);
+        buffer.position(position);
+        size += length;
         return this;
     }
 
     public ShortList addAll(Iterable<Short> iterable) {
+        if(iterable instanceof ShortList)
+            return this.add((ShortList) iterable);
+        
         for(Short item: iterable)
             this.add(item);
         return this;
     }
 
     public ShortList addAll(Collection<Short> collection) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
         for(Short item: collection)
-            this.add(item);
+            array[size++] = item;
         return this;
     }
 
@@ -208,11 +253,38 @@ public class ShortList implements Iterable<Short> {
         return this;
     }
 
+    public <O> ShortList addAll(Iterable<O> iterable, ToShortFunction<O> func) {
+        for(O object: iterable)
+            this.add(func.applyAsShort(object));
+        return this;
+    }
+
+    public <O> ShortList addAll(Collection<O> collection, ToShortFunction<O> func) {
+        this.checkMutable();
+        if(size + collection.size() > array.length)
+            this.grow(size + collection.size());
+        
+        for(O object: collection)
+            array[size++] = func.applyAsShort(object);
+        return this;
+    }
+
+    public <O> ShortList addAll(O[] array, ToShortFunction<O> func) {
+        this.checkMutable();
+        if(size + array.length > this.array.length)
+            this.grow(size + array.length);
+        
+        for(O object: array)
+            this.array[size++] = func.applyAsShort(object);
+        return this;
+    }
+
 
     public ShortList remove(int i, int len) {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -249,6 +321,22 @@ public class ShortList implements Iterable<Short> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(short value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(short value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(short element) {
         return (this.indexOf(element) != -1);
@@ -263,17 +351,11 @@ public class ShortList implements Iterable<Short> {
     }
 
     public int indexOfRange(short element, int start, int end) {
-        for(int i = start; i < end; i++)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.indexOf(array, element, start, end);
     }
 
     public int lastIndexOfRange(short element, int start, int end) {
-        for(int i = end - 1; i >= start; i--)
-            if(array[i] == element)
-                return i;
-        return -1;
+        return ArrayUtils.lastIndexOf(array, element, start, end);
     }
 
 
@@ -287,18 +369,21 @@ public class ShortList implements Iterable<Short> {
 
 
     public ShortList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, (short) 0);
         size = 0;
         return this;
     }
 
     public ShortList fill(short value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public ShortList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -306,6 +391,7 @@ public class ShortList implements Iterable<Short> {
     }
 
     public ShortList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new short[0];
         }else{
@@ -316,6 +402,42 @@ public class ShortList implements Iterable<Short> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public ShortList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final ShortList snapshot = new ShortList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public ShortList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("ShortList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+    }
+
+
     public short get(int i) {
         return array[i];
     }
@@ -329,6 +451,7 @@ public class ShortList implements Iterable<Short> {
     }
 
     public ShortList set(int i, short newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -343,25 +466,242 @@ public class ShortList implements Iterable<Short> {
 
 
     public ShortList elementAdd(int i, short value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public ShortList elementSub(int i, short value) {
+        this.beforeWrite();
         array[i] -= value;
         return this;
     }
 
     public ShortList elementMul(int i, short value) {
+        this.beforeWrite();
         array[i] *= value;
         return this;
     }
 
     public ShortList elementDiv(int i, short value) {
+        this.beforeWrite();
         array[i] /= value;
         return this;
     }
 
+    public ShortList elementAddAll(int from, int to, short value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.add(array, from, to, value);
+        return this;
+    }
+
+    public ShortList elementAddAll(short value) {
+        return this.elementAddAll(0, size, value);
+    }
+
+    public ShortList elementAddAll(int offset, ShortList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.add(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ShortList elementAddAll(ShortList list) {
+        return this.elementAddAll(0, list);
+    }
+
+    public ShortList elementSubAll(int from, int to, short value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.sub(array, from, to, value);
+        return this;
+    }
+
+    public ShortList elementSubAll(short value) {
+        return this.elementSubAll(0, size, value);
+    }
+
+    public ShortList elementSubAll(int offset, ShortList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.sub(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ShortList elementSubAll(ShortList list) {
+        return this.elementSubAll(0, list);
+    }
+
+    public ShortList elementMulAll(int from, int to, short value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.mul(array, from, to, value);
+        return this;
+    }
+
+    public ShortList elementMulAll(short value) {
+        return this.elementMulAll(0, size, value);
+    }
+
+    public ShortList elementMulAll(int offset, ShortList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.mul(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ShortList elementMulAll(ShortList list) {
+        return this.elementMulAll(0, list);
+    }
+
+    public ShortList elementDivAll(int from, int to, short value) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.div(array, from, to, value);
+        return this;
+    }
+
+    public ShortList elementDivAll(short value) {
+        return this.elementDivAll(0, size, value);
+    }
+
+    public ShortList elementDivAll(int offset, ShortList list) {
+        this.checkElementRange(offset, list.size);
+        this.beforeWrite();
+        ArrayMath.div(array, offset, list.array, 0, list.size);
+        return this;
+    }
+
+    public ShortList elementDivAll(ShortList list) {
+        return this.elementDivAll(0, list);
+    }
+
+    public ShortList elementFmaAll(int from, int to, short multiplier, short addend) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.fma(array, from, to, multiplier, addend);
+        return this;
+    }
+
+    public ShortList elementFmaAll(short multiplier, short addend) {
+        return this.elementFmaAll(0, size, multiplier, addend);
+    }
+
+    public ShortList elementClampAll(int from, int to, short min, short max) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        ArrayMath.clamp(array, from, to, min, max);
+        return this;
+    }
+
+    public ShortList elementClampAll(short min, short max) {
+        return this.elementClampAll(0, size, min, max);
+    }
+
+    private void checkElementRange(int offset, int length) {
+        if(offset < 0 || offset + length > size)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for size " + size);
+    }
+
+
+    public ShortList sort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.sort(array, from, to);
+        return this;
+    }
+
+    public ShortList sort() {
+        return this.sort(0, size);
+    }
+
+    public ShortList parallelSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        Arrays.parallelSort(array, from, to);
+        return this;
+    }
+
+    public ShortList parallelSort() {
+        return this.parallelSort(0, size);
+    }
+
+    public ShortList radixSort(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        this.beforeWrite();
+        RadixSort.sort(array, from, to);
+        return this;
+    }
+
+    public ShortList radixSort() {
+        return this.radixSort(0, size);
+    }
+
+
+    public long sum(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.sum(array, from, to);
+    }
+
+    public long sum() {
+        return this.sum(0, size);
+    }
+
+    public short min(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.min(array, from, to);
+    }
+
+    public short min() {
+        return this.min(0, size);
+    }
+
+    public short max(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.max(array, from, to);
+    }
+
+    public short max() {
+        return this.max(0, size);
+    }
+
+    public int argMin(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMin(array, from, to);
+    }
+
+    public int argMin() {
+        return this.argMin(0, size);
+    }
+
+    public int argMax(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.argMax(array, from, to);
+    }
+
+    public int argMax() {
+        return this.argMax(0, size);
+    }
+
+    public double mean(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.mean(array, from, to);
+    }
+
+    public double mean() {
+        return this.mean(0, size);
+    }
+
+    public double variance(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Aggregates.variance(array, from, to);
+    }
+
+    public double variance() {
+        return this.variance(0, size);
+    }
+
 
     public short[] copyOf(int offset, int newLength) {
         final short[] slice = new short[newLength];
@@ -399,6 +739,92 @@ public class ShortList implements Iterable<Short> {
     }
 
 
+    public ShortList writeTo(ShortBuffer buffer) {
+        buffer.put(array, 0, size);
+        return this;
+    }
+
+    public ShortBuffer toDirectBuffer() {
+        final ShortBuffer buffer = ByteBuffer.allocateDirect(size * Short.BYTES)
+            .order(ByteOrder.nativeOrder()).asShortBuffer();
+        buffer.put(array, 0, size);
+        buffer.flip();
+        return buffer;
+    }
+
+
+
+    public void forEach(ShortConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Short> action) {
+        if(action instanceof ShortConsumer){
+            this.forEach((ShortConsumer) action);
+        }else{
+            for(int i = 0; i < size; i++)
+                action.accept(array[i]);
+        }
+    }
+
+    public void forEachIndexed(ShortIndexedConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public ShortList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'S', size);
+        final ByteBuffer buffer = ListIO.chunk((long) size * Short.BYTES, ByteOrder.nativeOrder());
+        try{
+            final ShortBuffer view = buffer.asShortBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                view.clear();
+                view.put(array, i, length);
+                buffer.clear().limit(length * Short.BYTES);
+                ListIO.writeFully(channel, buffer);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        return this;
+    }
+
+    public ShortList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static ShortList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'S');
+        final int size = ListIO.size(header);
+        final ShortList list = new ShortList(Math.min(size, ListIO.INITIAL_CAPACITY));
+        final ByteBuffer buffer = ListIO.chunk((long) size * Short.BYTES, ListIO.order(header));
+        try{
+            final ShortBuffer view = buffer.asShortBuffer();
+            for(int i = 0; i < size; i += view.capacity()){
+                final int length = Math.min(view.capacity(), size - i);
+                buffer.clear().limit(length * Short.BYTES);
+                ListIO.readFully(channel, buffer);
+                if(i + length > list.array.length)
+                    list.grow(i + length);
+                view.clear();
+                view.get(list.array, i, length);
+            }
+        }finally{
+            DirectBuffers.free(buffer);
+        }
+        list.size = size;
+        return list;
+    }
+
+    public static ShortList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -411,24 +837,34 @@ public class ShortList implements Iterable<Short> {
         if(object == null || getClass() != object.getClass())
             return false;
         final ShortList list = (ShortList) object;
-        return (size == list.size && Arrays.equals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Short.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
-    public Iterator<Short> iterator() {
-        return new Iterator<>() {
+    public ShortIterator iterator() {
+        return new ShortIterator() {
             private int index;
             @Override
             public boolean hasNext() {
                 return (index < size);
             }
             @Override
-            public Short next() {
+            public short nextShort() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
@@ -0,0 +1,233 @@
+package generaloss.rawlist;
+
+// Java 9 fallback with plain scalar kernels. The vector dispatcher is in src/main/java17 (META-INF/versions/17)
+// and uses jdk.incubator.vector when the module is present at runtime.
+class Simd {
+
+    static boolean isEnabled(int length) {
+        return false;
+    }
+
+
+    static int indexOf(byte[] array, byte target, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(short[] array, short target, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(int[] array, int target, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(long[] array, long target, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(float[] array, float target, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(double[] array, double target, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(char[] array, char target, int start, int end) {
+        for(int i = start; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+
+    static int lastIndexOf(byte[] array, byte target, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(short[] array, short target, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(int[] array, int target, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(long[] array, long target, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(float[] array, float target, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(double[] array, double target, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(char[] array, char target, int start, int end) {
+        for(int i = end - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+
+    static void add(float[] array, int from, int to, float value) {
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    static void sub(float[] array, int from, int to, float value) {
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    static void mul(float[] array, int from, int to, float value) {
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    static void div(float[] array, int from, int to, float value) {
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    static void add(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    static void sub(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    static void mul(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    static void div(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    static void fma(float[] array, int from, int to, float multiplier, float addend) {
+        for(int i = from; i < to; i++)
+            array[i] = Math.fma(array[i], multiplier, addend);
+    }
+
+    static void clamp(float[] array, int from, int to, float min, float max) {
+        for(int i = from; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+    static void lerp(float[] array, int from, int to, float target, float t) {
+        for(int i = from; i < to; i++)
+            array[i] += (target - array[i]) * t;
+    }
+
+    static void lerp(float[] array, int offset, float[] targets, int targetsOffset, int length, float t) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += (targets[targetsOffset + i] - array[offset + i]) * t;
+    }
+
+
+    static void add(double[] array, int from, int to, double value) {
+        for(int i = from; i < to; i++)
+            array[i] += value;
+    }
+
+    static void sub(double[] array, int from, int to, double value) {
+        for(int i = from; i < to; i++)
+            array[i] -= value;
+    }
+
+    static void mul(double[] array, int from, int to, double value) {
+        for(int i = from; i < to; i++)
+            array[i] *= value;
+    }
+
+    static void div(double[] array, int from, int to, double value) {
+        for(int i = from; i < to; i++)
+            array[i] /= value;
+    }
+
+    static void add(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    static void sub(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    static void mul(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    static void div(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    static void fma(double[] array, int from, int to, double multiplier, double addend) {
+        for(int i = from; i < to; i++)
+            array[i] = Math.fma(array[i], multiplier, addend);
+    }
+
+    static void clamp(double[] array, int from, int to, double min, double max) {
+        for(int i = from; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+    static void lerp(double[] array, int from, int to, double target, double t) {
+        for(int i = from; i < to; i++)
+            array[i] += (target - array[i]) * t;
+    }
+
+    static void lerp(double[] array, int offset, double[] targets, int targetsOffset, int length, double t) {
+        for(int i = 0; i < length; i++)
+            array[offset + i] += (targets[targetsOffset + i] - array[offset + i]) * t;
+    }
+
+}
@@ -0,0 +1,328 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class SortedFloatList implements Iterable<Float> {
+
+    public static final int DEFAULT_CAPACITY = 10;
+
+    // ascending, equal elements keep their insertion order
+    private float[] array;
+    private int size;
+
+    public SortedFloatList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SortedFloatList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        this.array = new float[capacity];
+    }
+
+    public SortedFloatList(float... items) {
+        this.array = items.clone();
+        this.size = items.length;
+        Arrays.sort(array);
+    }
+
+    public SortedFloatList(FloatList list) {
+        this.array = list.copyOf();
+        this.size = array.length;
+        Arrays.sort(array);
+    }
+
+    public SortedFloatList(SortedFloatList list) {
+        this.array = Arrays.copyOf(list.array, list.size);
+        this.size = list.size;
+    }
+
+
+    // read only access, writing to it can break the order
+    public float[] array() {
+        return array;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return array.length;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    private void grow(int minCapacity) {
+        final int oldCapacity = array.length;
+        if(oldCapacity == 0){
+            array = new float[Math.max(minCapacity, DEFAULT_CAPACITY)];
+        }else{
+            final int newCapacity = ArrayUtils.newLength(oldCapacity, minCapacity - oldCapacity, oldCapacity >> 1);
+            array = Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    // index of the first element that is not less than the value
+    private int lowerBound(float value) {
+        int low = 0;
+        int high = size;
+        while(low < high){
+            final int mid = ((low + high) >>> 1);
+            if(Float.compare(array[mid], value) < 0)
+                low = (mid + 1);
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    // index of the first element that is greater than the value
+    private int upperBound(float value) {
+        int low = 0;
+        int high = size;
+        while(low < high){
+            final int mid = ((low + high) >>> 1);
+            if(Float.compare(value, array[mid]) < 0)
+                high = mid;
+            else
+                low = (mid + 1);
+        }
+        return low;
+    }
+
+
+    // inserted after the elements equal to it
+    public SortedFloatList add(float element) {
+        if(size == array.length)
+            this.grow(size + 1);
+        
+        final int i = this.upperBound(element);
+        System.arraycopy(array, i, array, i + 1, size - i);
+        array[i] = element;
+        size++;
+        return this;
+    }
+
+    public SortedFloatList add(float... elements) {
+        final float[] sorted = elements.clone();
+        Arrays.sort(sorted);
+        this.merge(sorted, sorted.length);
+        return this;
+    }
+
+    public SortedFloatList add(FloatList list) {
+        final float[] sorted = list.copyOf();
+        Arrays.sort(sorted);
+        this.merge(sorted, sorted.length);
+        return this;
+    }
+
+    public SortedFloatList add(SortedFloatList list) {
+        this.merge((list == this ? list.copyOf() : list.array), list.size);
+        return this;
+    }
+
+    // merges from the back so every element moves at most once
+    private void merge(float[] sorted, int length) {
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        int i = (size - 1);
+        int j = (length - 1);
+        int k = (size + length - 1);
+        while(j >= 0){
+            if(i >= 0 && Float.compare(sorted[j], array[i]) < 0)
+                array[k--] = array[i--];
+            else
+                array[k--] = sorted[j--];
+        }
+        size += length;
+    }
+
+
+    public SortedFloatList remove(int i, int len) {
+        len = Math.min(len, size - i);
+        if(len <= 0)
+            return this;
+        
+        final int j = (i + len);
+        System.arraycopy(array, j, array, i, (size - j));
+        size -= len;
+        return this;
+    }
+
+    public float remove(int i) {
+        final float value = this.get(i);
+        this.remove(i, 1);
+        return value;
+    }
+
+    public float removeFirst() {
+        return this.remove(0);
+    }
+
+    public float removeLast() {
+        if(size == 0)
+            throw new NoSuchElementException();
+        return array[--size];
+    }
+
+    public boolean removeFirstOccurrence(float value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    // removes the elements less than the value, returns their count
+    public int removeLessThan(float value) {
+        final int count = this.lowerBound(value);
+        this.remove(0, count);
+        return count;
+    }
+
+    public SortedFloatList clear() {
+        size = 0;
+        return this;
+    }
+
+    public SortedFloatList trim() {
+        if(array.length != size)
+            array = Arrays.copyOf(array, size);
+        return this;
+    }
+
+
+    public float get(int i) {
+        if(i >= size)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        return array[i];
+    }
+
+    public float getFirst() {
+        return this.get(0);
+    }
+
+    public float getLast() {
+        return this.get(size - 1);
+    }
+
+
+    public boolean contains(float value) {
+        return (this.indexOf(value) != -1);
+    }
+
+    public int indexOf(float value) {
+        final int index = this.lowerBound(value);
+        return (index < size && Float.compare(array[index], value) == 0 ? index : -1);
+    }
+
+    public int lastIndexOf(float value) {
+        final int index = (this.upperBound(value) - 1);
+        return (index >= 0 && Float.compare(array[index], value) == 0 ? index : -1);
+    }
+
+    public int count(float value) {
+        return (this.upperBound(value) - this.lowerBound(value));
+    }
+
+    // number of elements less than the value
+    public int rank(float value) {
+        return this.lowerBound(value);
+    }
+
+    // index of the greatest element less than or equal to the value, or -1
+    public int floorIndex(float value) {
+        return (this.upperBound(value) - 1);
+    }
+
+    // index of the least element greater than or equal to the value, or -1
+    public int ceilingIndex(float value) {
+        final int index = this.lowerBound(value);
+        return (index < size ? index : -1);
+    }
+
+    public float floor(float value) {
+        final int index = this.floorIndex(value);
+        if(index == -1)
+            throw new NoSuchElementException("No element <= " + value);
+        return array[index];
+    }
+
+    public float ceiling(float value) {
+        final int index = this.ceilingIndex(value);
+        if(index == -1)
+            throw new NoSuchElementException("No element >= " + value);
+        return array[index];
+    }
+
+
+    public float[] copyOf() {
+        return Arrays.copyOf(array, size);
+    }
+
+    public FloatList toList() {
+        return new FloatList(this.copyOf());
+    }
+
+    public SortedFloatList copy() {
+        return new SortedFloatList(this);
+    }
+
+    public void forEach(FloatConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final SortedFloatList list = (SortedFloatList) object;
+        return Arrays.equals(array, 0, size, list.array, 0, list.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Float.hashCode(array[i]);
+        return hash;
+    }
+
+    @Override
+    public FloatIterator iterator() {
+        return new FloatIterator() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public float nextFloat() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                return array[index++];
+            }
+        };
+    }
+
+}
\ No newline at end of file
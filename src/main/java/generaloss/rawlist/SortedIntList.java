@@ -0,0 +1,328 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class SortedIntList implements Iterable<Integer> {
+
+    public static final int DEFAULT_CAPACITY = 10;
+
+    // ascending, equal elements keep their insertion order
+    private int[] array;
+    private int size;
+
+    public SortedIntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SortedIntList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        this.array = new int[capacity];
+    }
+
+    public SortedIntList(int... items) {
+        this.array = items.clone();
+        this.size = items.length;
+        Arrays.sort(array);
+    }
+
+    public SortedIntList(IntList list) {
+        this.array = list.copyOf();
+        this.size = array.length;
+        Arrays.sort(array);
+    }
+
+    public SortedIntList(SortedIntList list) {
+        this.array = Arrays.copyOf(list.array, list.size);
+        this.size = list.size;
+    }
+
+
+    // read only access, writing to it can break the order
+    public int[] array() {
+        return array;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return array.length;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    private void grow(int minCapacity) {
+        final int oldCapacity = array.length;
+        if(oldCapacity == 0){
+            array = new int[Math.max(minCapacity, DEFAULT_CAPACITY)];
+        }else{
+            final int newCapacity = ArrayUtils.newLength(oldCapacity, minCapacity - oldCapacity, oldCapacity >> 1);
+            array = Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    // index of the first element that is not less than the value
+    private int lowerBound(int value) {
+        int low = 0;
+        int high = size;
+        while(low < high){
+            final int mid = ((low + high) >>> 1);
+            if(array[mid] < value)
+                low = (mid + 1);
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    // index of the first element that is greater than the value
+    private int upperBound(int value) {
+        int low = 0;
+        int high = size;
+        while(low < high){
+            final int mid = ((low + high) >>> 1);
+            if(value < array[mid])
+                high = mid;
+            else
+                low = (mid + 1);
+        }
+        return low;
+    }
+
+
+    // inserted after the elements equal to it
+    public SortedIntList add(int element) {
+        if(size == array.length)
+            this.grow(size + 1);
+        
+        final int i = this.upperBound(element);
+        System.arraycopy(array, i, array, i + 1, size - i);
+        array[i] = element;
+        size++;
+        return this;
+    }
+
+    public SortedIntList add(int... elements) {
+        final int[] sorted = elements.clone();
+        Arrays.sort(sorted);
+        this.merge(sorted, sorted.length);
+        return this;
+    }
+
+    public SortedIntList add(IntList list) {
+        final int[] sorted = list.copyOf();
+        Arrays.sort(sorted);
+        this.merge(sorted, sorted.length);
+        return this;
+    }
+
+    public SortedIntList add(SortedIntList list) {
+        this.merge((list == this ? list.copyOf() : list.array), list.size);
+        return this;
+    }
+
+    // merges from the back so every element moves at most once
+    private void merge(int[] sorted, int length) {
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        int i = (size - 1);
+        int j = (length - 1);
+        int k = (size + length - 1);
+        while(j >= 0){
+            if(i >= 0 && sorted[j] < array[i])
+                array[k--] = array[i--];
+            else
+                array[k--] = sorted[j--];
+        }
+        size += length;
+    }
+
+
+    public SortedIntList remove(int i, int len) {
+        len = Math.min(len, size - i);
+        if(len <= 0)
+            return this;
+        
+        final int j = (i + len);
+        System.arraycopy(array, j, array, i, (size - j));
+        size -= len;
+        return this;
+    }
+
+    public int remove(int i) {
+        final int value = this.get(i);
+        this.remove(i, 1);
+        return value;
+    }
+
+    public int removeFirst() {
+        return this.remove(0);
+    }
+
+    public int removeLast() {
+        if(size == 0)
+            throw new NoSuchElementException();
+        return array[--size];
+    }
+
+    public boolean removeFirstOccurrence(int value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    // removes the elements less than the value, returns their count
+    public int removeLessThan(int value) {
+        final int count = this.lowerBound(value);
+        this.remove(0, count);
+        return count;
+    }
+
+    public SortedIntList clear() {
+        size = 0;
+        return this;
+    }
+
+    public SortedIntList trim() {
+        if(array.length != size)
+            array = Arrays.copyOf(array, size);
+        return this;
+    }
+
+
+    public int get(int i) {
+        if(i >= size)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        return array[i];
+    }
+
+    public int getFirst() {
+        return this.get(0);
+    }
+
+    public int getLast() {
+        return this.get(size - 1);
+    }
+
+
+    public boolean contains(int value) {
+        return (this.indexOf(value) != -1);
+    }
+
+    public int indexOf(int value) {
+        final int index = this.lowerBound(value);
+        return (index < size && array[index] == value ? index : -1);
+    }
+
+    public int lastIndexOf(int value) {
+        final int index = (this.upperBound(value) - 1);
+        return (index >= 0 && array[index] == value ? index : -1);
+    }
+
+    public int count(int value) {
+        return (this.upperBound(value) - this.lowerBound(value));
+    }
+
+    // number of elements less than the value
+    public int rank(int value) {
+        return this.lowerBound(value);
+    }
+
+    // index of the greatest element less than or equal to the value, or -1
+    public int floorIndex(int value) {
+        return (this.upperBound(value) - 1);
+    }
+
+    // index of the least element greater than or equal to the value, or -1
+    public int ceilingIndex(int value) {
+        final int index = this.lowerBound(value);
+        return (index < size ? index : -1);
+    }
+
+    public int floor(int value) {
+        final int index = this.floorIndex(value);
+        if(index == -1)
+            throw new NoSuchElementException("No element <= " + value);
+        return array[index];
+    }
+
+    public int ceiling(int value) {
+        final int index = this.ceilingIndex(value);
+        if(index == -1)
+            throw new NoSuchElementException("No element >= " + value);
+        return array[index];
+    }
+
+
+    public int[] copyOf() {
+        return Arrays.copyOf(array, size);
+    }
+
+    public IntList toList() {
+        return new IntList(this.copyOf());
+    }
+
+    public SortedIntList copy() {
+        return new SortedIntList(this);
+    }
+
+    public void forEach(IntValueConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final SortedIntList list = (SortedIntList) object;
+        return Arrays.equals(array, 0, size, list.array, 0, list.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Integer.hashCode(array[i]);
+        return hash;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        return new IntIterator() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public int nextInt() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                return array[index++];
+            }
+        };
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,328 @@
+package generaloss.rawlist;
+
+import generaloss.rawlist.function.*;
+import java.util.*;
+
+public class SortedLongList implements Iterable<Long> {
+
+    public static final int DEFAULT_CAPACITY = 10;
+
+    // ascending, equal elements keep their insertion order
+    private long[] array;
+    private int size;
+
+    public SortedLongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SortedLongList(int capacity) {
+        if(capacity < 0)
+           throw new IllegalArgumentException();
+        this.array = new long[capacity];
+    }
+
+    public SortedLongList(long... items) {
+        this.array = items.clone();
+        this.size = items.length;
+        Arrays.sort(array);
+    }
+
+    public SortedLongList(LongList list) {
+        this.array = list.copyOf();
+        this.size = array.length;
+        Arrays.sort(array);
+    }
+
+    public SortedLongList(SortedLongList list) {
+        this.array = Arrays.copyOf(list.array, list.size);
+        this.size = list.size;
+    }
+
+
+    // read only access, writing to it can break the order
+    public long[] array() {
+        return array;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return array.length;
+    }
+
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    public boolean isNotEmpty() {
+        return (size != 0);
+    }
+
+
+    private void grow(int minCapacity) {
+        final int oldCapacity = array.length;
+        if(oldCapacity == 0){
+            array = new long[Math.max(minCapacity, DEFAULT_CAPACITY)];
+        }else{
+            final int newCapacity = ArrayUtils.newLength(oldCapacity, minCapacity - oldCapacity, oldCapacity >> 1);
+            array = Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    // index of the first element that is not less than the value
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = size;
+        while(low < high){
+            final int mid = ((low + high) >>> 1);
+            if(array[mid] < value)
+                low = (mid + 1);
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    // index of the first element that is greater than the value
+    private int upperBound(long value) {
+        int low = 0;
+        int high = size;
+        while(low < high){
+            final int mid = ((low + high) >>> 1);
+            if(value < array[mid])
+                high = mid;
+            else
+                low = (mid + 1);
+        }
+        return low;
+    }
+
+
+    // inserted after the elements equal to it
+    public SortedLongList add(long element) {
+        if(size == array.length)
+            this.grow(size + 1);
+        
+        final int i = this.upperBound(element);
+        System.arraycopy(array, i, array, i + 1, size - i);
+        array[i] = element;
+        size++;
+        return this;
+    }
+
+    public SortedLongList add(long... elements) {
+        final long[] sorted = elements.clone();
+        Arrays.sort(sorted);
+        this.merge(sorted, sorted.length);
+        return this;
+    }
+
+    public SortedLongList add(LongList list) {
+        final long[] sorted = list.copyOf();
+        Arrays.sort(sorted);
+        this.merge(sorted, sorted.length);
+        return this;
+    }
+
+    public SortedLongList add(SortedLongList list) {
+        this.merge((list == this ? list.copyOf() : list.array), list.size);
+        return this;
+    }
+
+    // merges from the back so every element moves at most once
+    private void merge(long[] sorted, int length) {
+        if(size + length > array.length)
+            this.grow(size + length);
+        
+        int i = (size - 1);
+        int j = (length - 1);
+        int k = (size + length - 1);
+        while(j >= 0){
+            if(i >= 0 && sorted[j] < array[i])
+                array[k--] = array[i--];
+            else
+                array[k--] = sorted[j--];
+        }
+        size += length;
+    }
+
+
+    public SortedLongList remove(int i, int len) {
+        len = Math.min(len, size - i);
+        if(len <= 0)
+            return this;
+        
+        final int j = (i + len);
+        System.arraycopy(array, j, array, i, (size - j));
+        size -= len;
+        return this;
+    }
+
+    public long remove(int i) {
+        final long value = this.get(i);
+        this.remove(i, 1);
+        return value;
+    }
+
+    public long removeFirst() {
+        return this.remove(0);
+    }
+
+    public long removeLast() {
+        if(size == 0)
+            throw new NoSuchElementException();
+        return array[--size];
+    }
+
+    public boolean removeFirstOccurrence(long value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    // removes the elements less than the value, returns their count
+    public int removeLessThan(long value) {
+        final int count = this.lowerBound(value);
+        this.remove(0, count);
+        return count;
+    }
+
+    public SortedLongList clear() {
+        size = 0;
+        return this;
+    }
+
+    public SortedLongList trim() {
+        if(array.length != size)
+            array = Arrays.copyOf(array, size);
+        return this;
+    }
+
+
+    public long get(int i) {
+        if(i >= size)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        return array[i];
+    }
+
+    public long getFirst() {
+        return this.get(0);
+    }
+
+    public long getLast() {
+        return this.get(size - 1);
+    }
+
+
+    public boolean contains(long value) {
+        return (this.indexOf(value) != -1);
+    }
+
+    public int indexOf(long value) {
+        final int index = this.lowerBound(value);
+        return (index < size && array[index] == value ? index : -1);
+    }
+
+    public int lastIndexOf(long value) {
+        final int index = (this.upperBound(value) - 1);
+        return (index >= 0 && array[index] == value ? index : -1);
+    }
+
+    public int count(long value) {
+        return (this.upperBound(value) - this.lowerBound(value));
+    }
+
+    // number of elements less than the value
+    public int rank(long value) {
+        return this.lowerBound(value);
+    }
+
+    // index of the greatest element less than or equal to the value, or -1
+    public int floorIndex(long value) {
+        return (this.upperBound(value) - 1);
+    }
+
+    // index of the least element greater than or equal to the value, or -1
+    public int ceilingIndex(long value) {
+        final int index = this.lowerBound(value);
+        return (index < size ? index : -1);
+    }
+
+    public long floor(long value) {
+        final int index = this.floorIndex(value);
+        if(index == -1)
+            throw new NoSuchElementException("No element <= " + value);
+        return array[index];
+    }
+
+    public long ceiling(long value) {
+        final int index = this.ceilingIndex(value);
+        if(index == -1)
+            throw new NoSuchElementException("No element >= " + value);
+        return array[index];
+    }
+
+
+    public long[] copyOf() {
+        return Arrays.copyOf(array, size);
+    }
+
+    public LongList toList() {
+        return new LongList(this.copyOf());
+    }
+
+    public SortedLongList copy() {
+        return new SortedLongList(this);
+    }
+
+    public void forEach(LongValueConsumer action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.copyOf());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object)
+            return true;
+        if(object == null || getClass() != object.getClass())
+            return false;
+        final SortedLongList list = (SortedLongList) object;
+        return Arrays.equals(array, 0, size, list.array, 0, list.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Long.hashCode(array[i]);
+        return hash;
+    }
+
+    @Override
+    public LongIterator iterator() {
+        return new LongIterator() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return (index < size);
+            }
+            @Override
+            public long nextLong() {
+                if(index >= size)
+                    throw new NoSuchElementException();
+                return array[index++];
+            }
+        };
+    }
+
+}
\ No newline at end of file
@@ -1,7 +1,14 @@
 package generaloss.rawlist;
 
+import generaloss.rawlist.function.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.*;
+import java.nio.ByteBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.*;
 
 public class StringList implements Iterable<String> {
 
@@ -9,6 +16,19 @@ public class StringList implements Iterable<String> {
 
     private String[] array;
     private int size;
+    private boolean frozen;
+    // set while a snapshot shares the array, the next write other than an append copies it
+    private boolean shared;
+    private int cachedHash;
+    
+    // opt-in value -> position index: slots hold (first position + 1) and last position, 0 marks a free slot.
+    // Appends are indexed lazily on the next lookup, other mutations drop the index
+    private boolean indexed;
+    private int[] indexFirst;
+    private int[] indexLast;
+    private int indexMask;
+    private int indexCount;
+    private int indexedSize;
 
     public StringList() {
         this(DEFAULT_CAPACITY);
@@ -97,6 +117,7 @@ public class StringList implements Iterable<String> {
 
 
     public StringList add(String element) {
+        this.checkMutable();
         if(size == array.length)
            this.grow();
         
@@ -106,6 +127,7 @@ public class StringList implements Iterable<String> {
     }
 
     public StringList add(String... elements) {
+        this.checkMutable();
         if(size + elements.length >= array.length)
             this.grow(size + elements.length);
         
@@ -115,15 +137,17 @@ public class StringList implements Iterable<String> {
     }
 
     public StringList add(StringList list) {
-        if(list.size() == list.capacity()){
-            this.add(list.array());
-        }else{
-            this.add(list.arrayTrimmed());
-        }
+        this.checkMutable();
+        if(size + list.size > array.length)
+            this.grow(size + list.size);
+        
+        System.arraycopy(list.array, 0, array, size, list.size);
+        size += list.size;
         return this;
     }
 
     public StringList add(int i, String element) {
+        this.beforeWrite();
         final int minCapacity = Math.max(size, i) + 1;
         if(minCapacity >= array.length)
             this.grow(minCapacity);
@@ -142,6 +166,7 @@ public class StringList implements Iterable<String> {
     public StringList add(int i, String... elements) {
         if(elements.length == 0)
             return this;
+        this.beforeWrite();
         
         final int minCapacity = (Math.max(size, i) + elements.length);
         if(minCapacity >= array.length)
@@ -201,6 +226,7 @@ public class StringList implements Iterable<String> {
         len = Math.min(len, size - i);
         if(len <= 0)
             return this;
+        this.beforeWrite();
         
         final int j = (i + len);
         System.arraycopy(array, j, array, i, (size - j));
@@ -237,16 +263,36 @@ public class StringList implements Iterable<String> {
         return null;
     }
 
+    public boolean removeFirstOccurrence(String value) {
+        final int index = this.indexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
+    public boolean removeLastOccurrence(String value) {
+        final int index = this.lastIndexOf(value);
+        if(index == -1)
+            return false;
+        this.remove(index, 1);
+        return true;
+    }
+
 
     public boolean contains(String element) {
         return (this.indexOf(element) != -1);
     }
 
     public int indexOf(String element) {
+        if(indexed)
+            return this.indexLookup(element, false);
         return this.indexOfRange(element, 0, size);
     }
 
     public int lastIndexOf(String element) {
+        if(indexed)
+            return this.indexLookup(element, true);
         return this.lastIndexOfRange(element, 0, size);
     }
 
@@ -265,6 +311,92 @@ public class StringList implements Iterable<String> {
     }
 
 
+    public StringList indexed(boolean indexed) {
+        this.indexed = indexed;
+        if(!indexed)
+            this.invalidateIndex();
+        return this;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    private void invalidateIndex() {
+        indexFirst = null;
+        indexLast = null;
+    }
+
+    private static int indexHash(String element) {
+        final int h = (Objects.hashCode(element) * 0x9E3779B9);
+        return (h ^ (h >>> 16));
+    }
+
+    private int indexLookup(String element, boolean last) {
+        this.updateIndex();
+        int slot = (indexHash(element) & indexMask);
+        int first;
+        while((first = indexFirst[slot]) != 0){
+            if(Objects.equals(array[first - 1], element))
+                return (last ? indexLast[slot] : first - 1);
+            slot = ((slot + 1) & indexMask);
+        }
+        return -1;
+    }
+
+    // builds the index on first use, then catches up with the elements appended since
+    private void updateIndex() {
+        if(indexFirst == null){
+            int capacity = 16;
+            while(capacity < (1 << 30) && capacity * 3L < size * 4L)
+                capacity <<= 1;
+            this.allocateIndex(capacity);
+            indexCount = 0;
+            indexedSize = 0;
+        }
+        for(; indexedSize < size; indexedSize++)
+            this.indexAppend(indexedSize);
+    }
+
+    private void allocateIndex(int capacity) {
+        indexFirst = new int[capacity];
+        indexLast = new int[capacity];
+        indexMask = (capacity - 1);
+    }
+
+    private void indexAppend(int position) {
+        final String element = array[position];
+        int slot = (indexHash(element) & indexMask);
+        int first;
+        while((first = indexFirst[slot]) != 0){
+            if(Objects.equals(array[first - 1], element)){
+                indexLast[slot] = position;
+                return;
+            }
+            slot = ((slot + 1) & indexMask);
+        }
+        indexFirst[slot] = (position + 1);
+        indexLast[slot] = position;
+        if(++indexCount > ((indexFirst.length >>> 2) * 3) && indexFirst.length < (1 << 30))
+            this.rehashIndex(indexFirst.length << 1);
+    }
+
+    private void rehashIndex(int capacity) {
+        final int[] oldFirst = indexFirst;
+        final int[] oldLast = indexLast;
+        this.allocateIndex(capacity);
+        for(int i = 0; i < oldFirst.length; i++){
+            if(oldFirst[i] == 0)
+                continue;
+            int slot = (indexHash(array[oldFirst[i] - 1]) & indexMask);
+            while(indexFirst[slot] != 0)
+                slot = ((slot + 1) & indexMask);
+            indexFirst[slot] = oldFirst[i];
+            indexLast[slot] = oldLast[i];
+        }
+    }
+
+
     public boolean isEmpty() {
         return (size == 0);
     }
@@ -275,18 +407,21 @@ public class StringList implements Iterable<String> {
 
 
     public StringList clear() {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, null);
         size = 0;
         return this;
     }
 
     public StringList fill(String value) {
+        this.beforeWrite();
         Arrays.fill(array, 0, size, value);
         return this;
     }
 
 
     public StringList trim() {
+        this.checkMutable();
         if(array.length == size)
             return this;
         array = Arrays.copyOf(array, size);
@@ -294,6 +429,7 @@ public class StringList implements Iterable<String> {
     }
 
     public StringList capacity(int newCapacity) {
+        this.beforeWrite();
         if(newCapacity == 0){
             array = new String[0];
         }else{
@@ -304,6 +440,43 @@ public class StringList implements Iterable<String> {
     }
 
 
+    // immutable view sharing the array, this list copies it before its next write other than an append
+    public StringList snapshot() {
+        if(frozen)
+            return this;
+        shared = true;
+        final StringList snapshot = new StringList(0);
+        snapshot.array = array;
+        snapshot.size = size;
+        snapshot.frozen = true;
+        return snapshot;
+    }
+
+    // makes the list permanently read-only, mutators throw UnsupportedOperationException
+    public StringList freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if(frozen)
+            throw new UnsupportedOperationException("StringList is frozen");
+    }
+
+    private void beforeWrite() {
+        this.checkMutable();
+        if(shared){
+            array = array.clone();
+            shared = false;
+        }
+        this.invalidateIndex();
+    }
+
+
     public String get(int i) {
         return array[i];
     }
@@ -317,6 +490,7 @@ public class StringList implements Iterable<String> {
     }
 
     public StringList set(int i, String newValue) {
+        this.beforeWrite();
         array[i] = newValue;
         return this;
     }
@@ -331,46 +505,55 @@ public class StringList implements Iterable<String> {
 
 
     public StringList elementAdd(int i, String value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public StringList elementAdd(int i, char value) {
+        this.beforeWrite();
         array[i] += value;
         return this;
     }
 
     public StringList elementTrim(int i) {
+        this.beforeWrite();
         array[i] = array[i].trim();
         return this;
     }
 
     public StringList elementReplace(int i, char oldChar, char newChar) {
+        this.beforeWrite();
         array[i] = array[i].replace(oldChar, newChar);
         return this;
     }
 
     public StringList elementReplace(int i, CharSequence target, CharSequence replacement) {
+        this.beforeWrite();
         array[i] = array[i].replace(target, replacement);
         return this;
     }
 
     public StringList elementReplaceAll(int i, String regex, String replacement) {
+        this.beforeWrite();
         array[i] = array[i].replaceAll(regex, replacement);
         return this;
     }
 
     public StringList elementReplaceFirst(int i, String regex, String replacement) {
+        this.beforeWrite();
         array[i] = array[i].replaceFirst(regex, replacement);
         return this;
     }
 
     public StringList elementToLowerCase(int i) {
+        this.beforeWrite();
         array[i] = array[i].toLowerCase();
         return this;
     }
 
     public StringList elementToUpperCase(int i) {
+        this.beforeWrite();
         array[i] = array[i].toUpperCase();
         return this;
     }
@@ -412,6 +595,43 @@ public class StringList implements Iterable<String> {
     }
 
 
+
+    @Override
+    public void forEach(Consumer<? super String> action) {
+        for(int i = 0; i < size; i++)
+            action.accept(array[i]);
+    }
+
+    public void forEachIndexed(IndexedConsumer<String> action) {
+        for(int i = 0; i < size; i++)
+            action.accept(i, array[i]);
+    }
+
+
+    public StringList writeTo(WritableByteChannel channel) throws IOException {
+        ListIO.writeHeader(channel, (byte) 'L', size);
+        ListIO.writeStrings(channel, array, size);
+        return this;
+    }
+
+    public StringList writeTo(OutputStream stream) throws IOException {
+        return this.writeTo(Channels.newChannel(stream));
+    }
+
+    public static StringList readFrom(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer header = ListIO.readHeader(channel, (byte) 'L');
+        final int size = ListIO.size(header);
+        final StringList list = new StringList(0);
+        list.array = ListIO.readStrings(channel, ListIO.order(header), size);
+        list.size = size;
+        return list;
+    }
+
+    public static StringList readFrom(InputStream stream) throws IOException {
+        return readFrom(Channels.newChannel(stream));
+    }
+
+
     @Override
     public String toString() {
         return Arrays.toString(this.arrayTrimmed());
@@ -424,17 +644,25 @@ public class StringList implements Iterable<String> {
         if(object == null || getClass() != object.getClass())
             return false;
         final StringList list = (StringList) object;
-        return (size == list.size && Objects.deepEquals(array, list.array));
+        return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));
     }
 
+    // cached once the list is frozen
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(array), size);
+        if(frozen && cachedHash != 0)
+            return cachedHash;
+        int hash = 1;
+        for(int i = 0; i < size; i++)
+            hash = 31 * hash + Objects.hashCode(array[i]);
+        if(frozen)
+            cachedHash = hash;
+        return hash;
     }
 
     @Override
     public Iterator<String> iterator() {
-        return new Iterator<>() {
+        return new Iterator<String>() {
             private int index;
             @Override
             public boolean hasNext() {
@@ -442,6 +670,8 @@ public class StringList implements Iterable<String> {
             }
             @Override
             public String next() {
+                if(index >= size)
+                    throw new NoSuchElementException();
                 return array[index++];
             }
         };
@@ -0,0 +1,102 @@
+package generaloss.rawlist.arrow;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+// Arrow IPC stream framing and the Message.fbs / Schema.fbs ids in use
+class ArrowFormat {
+
+    static final int CONTINUATION = 0xFFFFFFFF;
+    static final short METADATA_V5 = 4;
+
+    // MessageHeader union
+    static final byte HEADER_SCHEMA = 1;
+    static final byte HEADER_DICTIONARY_BATCH = 2;
+    static final byte HEADER_RECORD_BATCH = 3;
+
+    // Type union
+    static final byte TYPE_INT = 2;
+    static final byte TYPE_FLOATING_POINT = 3;
+    static final byte TYPE_UTF8 = 5;
+    static final byte TYPE_BOOL = 6;
+
+    // FloatingPoint.precision
+    static final short PRECISION_SINGLE = 1;
+    static final short PRECISION_DOUBLE = 2;
+
+    // FieldNode and Buffer structs are two longs each
+    static final int STRUCT_BYTES = 16;
+
+    // <continuation> <metadata length> <flatbuffer, padded to 8>, the body follows
+    static void writeMessage(WritableByteChannel channel, byte[] metadata) throws IOException {
+        final ByteBuffer prefix = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        prefix.putInt(CONTINUATION);
+        prefix.putInt(metadata.length);
+        prefix.flip();
+        writeFully(channel, prefix);
+        writeFully(channel, ByteBuffer.wrap(metadata));
+    }
+
+    static void writeEndOfStream(WritableByteChannel channel) throws IOException {
+        final ByteBuffer eos = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        eos.putInt(CONTINUATION);
+        eos.putInt(0);
+        eos.flip();
+        writeFully(channel, eos);
+    }
+
+    // message flatbuffer, or null at the end of the stream
+    static ByteBuffer readMessage(ReadableByteChannel channel) throws IOException {
+        final ByteBuffer prefix = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        if(!readFully(channel, prefix, true))
+            return null;
+
+        int length = prefix.getInt(0);
+        if(length == CONTINUATION){
+            prefix.clear();
+            readFully(channel, prefix, false);
+            length = prefix.getInt(0);
+        }
+        // streams before format 0.15 have no continuation marker
+        if(length == 0)
+            return null;
+        if(length < 0)
+            throw new IOException("Invalid Arrow metadata length: " + length);
+
+        final ByteBuffer metadata = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, metadata, false);
+        return metadata;
+    }
+
+    static ByteBuffer readBody(ReadableByteChannel channel, long length) throws IOException {
+        if(length < 0 || length > Integer.MAX_VALUE - 8)
+            throw new IOException("Unsupported Arrow message body length: " + length);
+        final ByteBuffer body = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, body, false);
+        return body;
+    }
+
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    // returns false if the channel ended before the first byte and endAllowed is set
+    private static boolean readFully(ReadableByteChannel channel, ByteBuffer buffer, boolean endAllowed) throws IOException {
+        final int start = buffer.position();
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer) < 0){
+                if(endAllowed && buffer.position() == start)
+                    return false;
+                throw new EOFException();
+            }
+        }
+        return true;
+    }
+
+}
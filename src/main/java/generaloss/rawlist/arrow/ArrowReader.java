@@ -0,0 +1,216 @@
+package generaloss.rawlist.arrow;
+
+import generaloss.rawlist.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import static generaloss.rawlist.arrow.FlatBufferReader.*;
+
+// reads the first column of an Arrow IPC stream, record batches are appended in order.
+// Compressed bodies, dictionaries and big endian streams are rejected, as are nulls in primitive columns
+public class ArrowReader {
+
+    private interface BatchConsumer {
+        void accept(Batch batch) throws IOException;
+    }
+
+    private static class Batch {
+        final ByteBuffer body;
+        final ByteBuffer metadata;
+        final int buffers;
+        final int length;
+        final int nullCount;
+
+        Batch(ByteBuffer body, ByteBuffer metadata, int buffers, int length, int nullCount) {
+            this.body = body;
+            this.metadata = metadata;
+            this.buffers = buffers;
+            this.length = length;
+            this.nullCount = nullCount;
+        }
+
+        ByteBuffer buffer(int i) throws IOException {
+            if(i >= vectorLength(metadata, buffers))
+                throw new IOException("Arrow record batch has no buffer " + i);
+            final long offset = vectorStructLong(metadata, buffers, ArrowFormat.STRUCT_BYTES, i, 0);
+            final long length = vectorStructLong(metadata, buffers, ArrowFormat.STRUCT_BYTES, i, 8);
+            if(offset < 0 || length < 0 || offset + length > body.capacity())
+                throw new IOException("Arrow buffer " + i + " is out of the message body");
+
+            final ByteBuffer slice = body.duplicate();
+            slice.position((int) offset).limit((int) (offset + length));
+            return slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        ByteBuffer values(int i, int elementBytes) throws IOException {
+            final ByteBuffer buffer = this.buffer(i);
+            if(buffer.remaining() < (long) length * elementBytes)
+                throw new IOException("Arrow buffer " + i + " is shorter than the batch");
+            buffer.limit(length * elementBytes);
+            return buffer;
+        }
+
+        void requireNoNulls(String listName) throws IOException {
+            if(nullCount != 0)
+                throw new IOException(listName + " cannot hold the " + nullCount + " nulls of the Arrow column");
+        }
+    }
+
+
+    public static ByteList readByteList(ReadableByteChannel channel) throws IOException {
+        final ByteList list = new ByteList();
+        read(channel, ArrowFormat.TYPE_INT, 8, batch -> {
+            batch.requireNoNulls("ByteList");
+            list.addAll(batch.values(1, Byte.BYTES));
+        });
+        return list;
+    }
+
+    public static IntList readIntList(ReadableByteChannel channel) throws IOException {
+        final IntList list = new IntList();
+        read(channel, ArrowFormat.TYPE_INT, 32, batch -> {
+            batch.requireNoNulls("IntList");
+            list.addAll(batch.values(1, Integer.BYTES).asIntBuffer());
+        });
+        return list;
+    }
+
+    public static LongList readLongList(ReadableByteChannel channel) throws IOException {
+        final LongList list = new LongList();
+        read(channel, ArrowFormat.TYPE_INT, 64, batch -> {
+            batch.requireNoNulls("LongList");
+            list.addAll(batch.values(1, Long.BYTES).asLongBuffer());
+        });
+        return list;
+    }
+
+    public static FloatList readFloatList(ReadableByteChannel channel) throws IOException {
+        final FloatList list = new FloatList();
+        read(channel, ArrowFormat.TYPE_FLOATING_POINT, ArrowFormat.PRECISION_SINGLE, batch -> {
+            batch.requireNoNulls("FloatList");
+            list.addAll(batch.values(1, Float.BYTES).asFloatBuffer());
+        });
+        return list;
+    }
+
+    public static DoubleList readDoubleList(ReadableByteChannel channel) throws IOException {
+        final DoubleList list = new DoubleList();
+        read(channel, ArrowFormat.TYPE_FLOATING_POINT, ArrowFormat.PRECISION_DOUBLE, batch -> {
+            batch.requireNoNulls("DoubleList");
+            list.addAll(batch.values(1, Double.BYTES).asDoubleBuffer());
+        });
+        return list;
+    }
+
+    public static BoolList readBoolList(ReadableByteChannel channel) throws IOException {
+        final BoolList list = new BoolList();
+        read(channel, ArrowFormat.TYPE_BOOL, 0, batch -> {
+            batch.requireNoNulls("BoolList");
+            final ByteBuffer bits = batch.buffer(1);
+            if(bits.remaining() < ((batch.length + 7) >>> 3))
+                throw new IOException("Arrow bitmap is shorter than the batch");
+            for(int i = 0; i < batch.length; i++)
+                list.add(((bits.get(i >>> 3) >>> (i & 7)) & 1) == 1);
+        });
+        return list;
+    }
+
+    // nulls of the column become null elements
+    public static StringList readStringList(ReadableByteChannel channel) throws IOException {
+        final StringList list = new StringList();
+        read(channel, ArrowFormat.TYPE_UTF8, 0, batch -> {
+            final ByteBuffer validity = (batch.nullCount == 0 ? null : batch.buffer(0));
+            final ByteBuffer offsets = batch.buffer(1);
+            if(offsets.remaining() < (batch.length + 1L) * Integer.BYTES)
+                throw new IOException("Arrow offsets buffer is shorter than the batch");
+            final ByteBuffer data = batch.buffer(2);
+            final byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+
+            for(int i = 0; i < batch.length; i++){
+                if(validity != null && ((validity.get(i >>> 3) >>> (i & 7)) & 1) == 0){
+                    list.add((String) null);
+                    continue;
+                }
+                final int start = offsets.getInt(i * Integer.BYTES);
+                final int end = offsets.getInt((i + 1) * Integer.BYTES);
+                if(start < 0 || end < start || end > bytes.length)
+                    throw new IOException("Invalid Arrow string offsets at " + i);
+                list.add(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            }
+        });
+        return list;
+    }
+
+
+    private static void read(ReadableByteChannel channel, byte typeType, int typeParameter, BatchConsumer consumer) throws IOException {
+        try{
+            readMessages(channel, typeType, typeParameter, consumer);
+        }catch(IndexOutOfBoundsException e){
+            // flatbuffer offsets or buffers pointing outside of the message
+            throw new IOException("Malformed Arrow message", e);
+        }
+    }
+
+    private static void readMessages(ReadableByteChannel channel, byte typeType, int typeParameter, BatchConsumer consumer) throws IOException {
+        final ByteBuffer schemaMessage = ArrowFormat.readMessage(channel);
+        if(schemaMessage == null)
+            throw new IOException("Empty Arrow stream");
+        final int message = root(schemaMessage);
+        if(getByte(schemaMessage, message, 1, (byte) 0) != ArrowFormat.HEADER_SCHEMA)
+            throw new IOException("Arrow stream does not start with a schema");
+        checkSchema(schemaMessage, getOffset(schemaMessage, message, 2), typeType, typeParameter);
+        ArrowFormat.readBody(channel, getLong(schemaMessage, message, 3, 0L));
+
+        ByteBuffer metadata;
+        while((metadata = ArrowFormat.readMessage(channel)) != null){
+            final int root = root(metadata);
+            final byte headerType = getByte(metadata, root, 1, (byte) 0);
+            final ByteBuffer body = ArrowFormat.readBody(channel, getLong(metadata, root, 3, 0L));
+            if(headerType == ArrowFormat.HEADER_DICTIONARY_BATCH)
+                throw new IOException("Dictionary encoded Arrow columns are not supported");
+            if(headerType != ArrowFormat.HEADER_RECORD_BATCH)
+                continue;
+
+            final int batch = getOffset(metadata, root, 2);
+            if(getOffset(metadata, batch, 3) != 0)
+                throw new IOException("Compressed Arrow record batches are not supported");
+            final int nodes = getOffset(metadata, batch, 1);
+            final int buffers = getOffset(metadata, batch, 2);
+            if(nodes == 0 || buffers == 0 || vectorLength(metadata, nodes) == 0)
+                throw new IOException("Arrow record batch has no column");
+
+            final long length = vectorStructLong(metadata, nodes, ArrowFormat.STRUCT_BYTES, 0, 0);
+            final long nullCount = vectorStructLong(metadata, nodes, ArrowFormat.STRUCT_BYTES, 0, 8);
+            if(length < 0 || length > Integer.MAX_VALUE || nullCount < 0 || nullCount > length)
+                throw new IOException("Invalid Arrow field node: length " + length + ", null count " + nullCount);
+            consumer.accept(new Batch(body, metadata, buffers, (int) length, (int) nullCount));
+        }
+    }
+
+    private static void checkSchema(ByteBuffer metadata, int schema, byte typeType, int typeParameter) throws IOException {
+        if(getShort(metadata, schema, 0, (short) 0) != 0)
+            throw new IOException("Big endian Arrow streams are not supported");
+        final int fields = getOffset(metadata, schema, 1);
+        if(fields == 0 || vectorLength(metadata, fields) == 0)
+            throw new IOException("Arrow schema has no fields");
+
+        final int field = vectorTable(metadata, fields, 0);
+        if(getOffset(metadata, field, 4) != 0)
+            throw new IOException("Dictionary encoded Arrow columns are not supported");
+        final byte actualType = getByte(metadata, field, 2, (byte) 0);
+        final int type = getOffset(metadata, field, 3);
+        boolean matches = (actualType == typeType);
+        if(matches && typeType == ArrowFormat.TYPE_INT)
+            matches = (getInt(metadata, type, 0, 0) == typeParameter && getByte(metadata, type, 1, (byte) 0) == 1);
+        if(matches && typeType == ArrowFormat.TYPE_FLOATING_POINT)
+            matches = (getShort(metadata, type, 0, (short) 0) == typeParameter);
+        if(!matches)
+            throw new IOException("Arrow column type " + actualType + " does not match the requested list");
+    }
+
+}
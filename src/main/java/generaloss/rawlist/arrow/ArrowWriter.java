@@ -0,0 +1,278 @@
+package generaloss.rawlist.arrow;
+
+import generaloss.rawlist.*;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// writes a list as a single column Arrow IPC stream: schema message, one record batch, end of stream marker.
+// Data is little endian, buffers are padded to 8 bytes
+public class ArrowWriter {
+
+    private static final int CHUNK_BYTES = (1 << 16);
+
+    public static void write(WritableByteChannel channel, String name, ByteList list) throws IOException {
+        final int size = list.size();
+        writeSchema(channel, name, false, ArrowFormat.TYPE_INT, new int[]{ 4, 1 }, new long[]{ 8, 1 });
+        writeRecordBatch(channel, size, 0, 0, size);
+        final Body body = new Body(channel);
+        body.bytes(list.array(), size);
+        body.finish();
+    }
+
+    public static void write(WritableByteChannel channel, String name, IntList list) throws IOException {
+        final int size = list.size();
+        writeSchema(channel, name, false, ArrowFormat.TYPE_INT, new int[]{ 4, 1 }, new long[]{ 32, 1 });
+        writeRecordBatch(channel, size, 0, 0, (long) size * Integer.BYTES);
+        final Body body = new Body(channel);
+        body.ints(list.array(), size);
+        body.finish();
+    }
+
+    public static void write(WritableByteChannel channel, String name, LongList list) throws IOException {
+        final int size = list.size();
+        writeSchema(channel, name, false, ArrowFormat.TYPE_INT, new int[]{ 4, 1 }, new long[]{ 64, 1 });
+        writeRecordBatch(channel, size, 0, 0, (long) size * Long.BYTES);
+        final Body body = new Body(channel);
+        body.longs(list.array(), size);
+        body.finish();
+    }
+
+    public static void write(WritableByteChannel channel, String name, FloatList list) throws IOException {
+        final int size = list.size();
+        writeSchema(channel, name, false, ArrowFormat.TYPE_FLOATING_POINT, new int[]{ 2 }, new long[]{ ArrowFormat.PRECISION_SINGLE });
+        writeRecordBatch(channel, size, 0, 0, (long) size * Float.BYTES);
+        final Body body = new Body(channel);
+        body.floats(list.array(), size);
+        body.finish();
+    }
+
+    public static void write(WritableByteChannel channel, String name, DoubleList list) throws IOException {
+        final int size = list.size();
+        writeSchema(channel, name, false, ArrowFormat.TYPE_FLOATING_POINT, new int[]{ 2 }, new long[]{ ArrowFormat.PRECISION_DOUBLE });
+        writeRecordBatch(channel, size, 0, 0, (long) size * Double.BYTES);
+        final Body body = new Body(channel);
+        body.doubles(list.array(), size);
+        body.finish();
+    }
+
+    // values as a bit-packed bitmap, least significant bit first
+    public static void write(WritableByteChannel channel, String name, BoolList list) throws IOException {
+        final int size = list.size();
+        writeSchema(channel, name, false, ArrowFormat.TYPE_BOOL, new int[0], new long[0]);
+        writeRecordBatch(channel, size, 0, 0, (size + 7) >>> 3);
+        final Body body = new Body(channel);
+        final boolean[] array = list.array();
+        for(int i = 0; i < size; i += 8){
+            int bits = 0;
+            for(int j = 0; j < 8 && i + j < size; j++)
+                if(array[i + j])
+                    bits |= (1 << j);
+            body.put((byte) bits);
+        }
+        body.finish();
+    }
+
+    // null elements are written as nulls in the validity bitmap
+    public static void write(WritableByteChannel channel, String name, StringList list) throws IOException {
+        final int size = list.size();
+        final String[] array = list.array();
+        final byte[][] encoded = new byte[size][];
+        long dataBytes = 0;
+        int nullCount = 0;
+        for(int i = 0; i < size; i++){
+            if(array[i] == null){
+                nullCount++;
+                continue;
+            }
+            encoded[i] = array[i].getBytes(StandardCharsets.UTF_8);
+            dataBytes += encoded[i].length;
+        }
+        if(dataBytes > Integer.MAX_VALUE)
+            throw new IOException("String data of " + dataBytes + " bytes exceeds the 32 bit offsets of the Arrow Utf8 type");
+
+        writeSchema(channel, name, true, ArrowFormat.TYPE_UTF8, new int[0], new long[0]);
+        writeRecordBatch(channel, size, nullCount, (nullCount == 0 ? 0 : (size + 7) >>> 3), (size + 1L) * Integer.BYTES, dataBytes);
+        final Body body = new Body(channel);
+        if(nullCount != 0){
+            for(int i = 0; i < size; i += 8){
+                int bits = 0;
+                for(int j = 0; j < 8 && i + j < size; j++)
+                    if(encoded[i + j] != null)
+                        bits |= (1 << j);
+                body.put((byte) bits);
+            }
+            body.pad();
+        }
+        int offset = 0;
+        body.putInt(offset);
+        for(int i = 0; i < size; i++){
+            if(encoded[i] != null)
+                offset += encoded[i].length;
+            body.putInt(offset);
+        }
+        body.pad();
+        for(int i = 0; i < size; i++)
+            if(encoded[i] != null)
+                body.bytes(encoded[i], encoded[i].length);
+        body.finish();
+    }
+
+
+    private static void writeSchema(WritableByteChannel channel, String name, boolean nullable, byte typeType, int[] typeSizes, long[] typeValues) throws IOException {
+        final FlatBufferWriter fb = new FlatBufferWriter();
+        final int root = fb.offset();
+
+        // Message { version, header_type, header, bodyLength }
+        final FlatBufferWriter.Table message = fb.table(new int[]{ 2, 1, 4, 8 }, new long[]{ ArrowFormat.METADATA_V5, ArrowFormat.HEADER_SCHEMA, 0, 0 });
+        fb.patch(root, message.position);
+
+        // Schema { endianness (little), fields }
+        final FlatBufferWriter.Table schema = fb.table(new int[]{ 2, 4 }, new long[]{ 0, 0 });
+        fb.patch(message.fields[2], schema.position);
+        final int fields = fb.offsetVector(1);
+        fb.patch(schema.fields[1], fields);
+
+        // Field { name, nullable, type_type, type, dictionary (absent), children }
+        final FlatBufferWriter.Table field = fb.table(new int[]{ 4, 1, 1, 4, 0, 4 }, new long[]{ 0, (nullable ? 1 : 0), typeType, 0, 0, 0 });
+        fb.patch(fields + 4, field.position);
+        fb.patch(field.fields[0], fb.string(name));
+        fb.patch(field.fields[3], fb.table(typeSizes, typeValues).position);
+        fb.patch(field.fields[5], fb.offsetVector(0));
+
+        ArrowFormat.writeMessage(channel, fb.finish());
+    }
+
+    private static void writeRecordBatch(WritableByteChannel channel, int length, int nullCount, long... bufferLengths) throws IOException {
+        final long[] buffers = new long[bufferLengths.length * 2];
+        long bodyLength = 0;
+        for(int i = 0; i < bufferLengths.length; i++){
+            buffers[i * 2] = bodyLength;
+            buffers[i * 2 + 1] = bufferLengths[i];
+            bodyLength += ((bufferLengths[i] + 7) & ~7L);
+        }
+
+        final FlatBufferWriter fb = new FlatBufferWriter();
+        final int root = fb.offset();
+
+        final FlatBufferWriter.Table message = fb.table(new int[]{ 2, 1, 4, 8 }, new long[]{ ArrowFormat.METADATA_V5, ArrowFormat.HEADER_RECORD_BATCH, 0, bodyLength });
+        fb.patch(root, message.position);
+
+        // RecordBatch { length, nodes, buffers }
+        final FlatBufferWriter.Table batch = fb.table(new int[]{ 8, 4, 4 }, new long[]{ length, 0, 0 });
+        fb.patch(message.fields[2], batch.position);
+        fb.patch(batch.fields[1], fb.longStructVector(1, length, nullCount));
+        fb.patch(batch.fields[2], fb.longStructVector(bufferLengths.length, buffers));
+
+        ArrowFormat.writeMessage(channel, fb.finish());
+    }
+
+
+    // buffered little endian body output, bulk arrays go through typed views of the chunk
+    private static class Body {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        Body(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        private void require(int bytes) throws IOException {
+            if(buffer.remaining() < bytes)
+                this.flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            ArrowFormat.writeFully(channel, buffer);
+            buffer.clear();
+        }
+
+        void put(byte value) throws IOException {
+            this.require(1);
+            buffer.put(value);
+            written++;
+        }
+
+        void putInt(int value) throws IOException {
+            this.require(Integer.BYTES);
+            buffer.putInt(value);
+            written += Integer.BYTES;
+        }
+
+        void bytes(byte[] array, int length) throws IOException {
+            for(int i = 0; i < length; ){
+                this.require(1);
+                final int count = Math.min(buffer.remaining(), length - i);
+                buffer.put(array, i, count);
+                i += count;
+            }
+            written += length;
+        }
+
+        void ints(int[] array, int length) throws IOException {
+            for(int i = 0; i < length; ){
+                this.require(Integer.BYTES);
+                final IntBuffer view = buffer.asIntBuffer();
+                final int count = Math.min(view.remaining(), length - i);
+                view.put(array, i, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                i += count;
+            }
+            written += (long) length * Integer.BYTES;
+        }
+
+        void longs(long[] array, int length) throws IOException {
+            for(int i = 0; i < length; ){
+                this.require(Long.BYTES);
+                final LongBuffer view = buffer.asLongBuffer();
+                final int count = Math.min(view.remaining(), length - i);
+                view.put(array, i, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+                i += count;
+            }
+            written += (long) length * Long.BYTES;
+        }
+
+        void floats(float[] array, int length) throws IOException {
+            for(int i = 0; i < length; ){
+                this.require(Float.BYTES);
+                final FloatBuffer view = buffer.asFloatBuffer();
+                final int count = Math.min(view.remaining(), length - i);
+                view.put(array, i, count);
+                buffer.position(buffer.position() + count * Float.BYTES);
+                i += count;
+            }
+            written += (long) length * Float.BYTES;
+        }
+
+        void doubles(double[] array, int length) throws IOException {
+            for(int i = 0; i < length; ){
+                this.require(Double.BYTES);
+                final DoubleBuffer view = buffer.asDoubleBuffer();
+                final int count = Math.min(view.remaining(), length - i);
+                view.put(array, i, count);
+                buffer.position(buffer.position() + count * Double.BYTES);
+                i += count;
+            }
+            written += (long) length * Double.BYTES;
+        }
+
+        void pad() throws IOException {
+            while((written & 7) != 0)
+                this.put((byte) 0);
+        }
+
+        void finish() throws IOException {
+            this.pad();
+            this.flush();
+            ArrowFormat.writeEndOfStream(channel);
+        }
+
+    }
+
+}
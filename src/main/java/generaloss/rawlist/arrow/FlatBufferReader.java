@@ -0,0 +1,62 @@
+package generaloss.rawlist.arrow;
+
+import java.nio.ByteBuffer;
+
+// accessors over a little endian flatbuffer, tables are addressed by absolute position
+class FlatBufferReader {
+
+    static int root(ByteBuffer buffer) {
+        return buffer.getInt(0);
+    }
+
+    // absolute position of a table field, 0 if absent
+    static int field(ByteBuffer buffer, int table, int slot) {
+        final int vtable = (table - buffer.getInt(table));
+        final int vtableSize = (buffer.getShort(vtable) & 0xFFFF);
+        final int entry = (4 + slot * 2);
+        if(entry >= vtableSize)
+            return 0;
+        final int offset = (buffer.getShort(vtable + entry) & 0xFFFF);
+        return (offset == 0 ? 0 : table + offset);
+    }
+
+    static long getLong(ByteBuffer buffer, int table, int slot, long defaultValue) {
+        final int field = field(buffer, table, slot);
+        return (field == 0 ? defaultValue : buffer.getLong(field));
+    }
+
+    static int getInt(ByteBuffer buffer, int table, int slot, int defaultValue) {
+        final int field = field(buffer, table, slot);
+        return (field == 0 ? defaultValue : buffer.getInt(field));
+    }
+
+    static short getShort(ByteBuffer buffer, int table, int slot, short defaultValue) {
+        final int field = field(buffer, table, slot);
+        return (field == 0 ? defaultValue : buffer.getShort(field));
+    }
+
+    static byte getByte(ByteBuffer buffer, int table, int slot, byte defaultValue) {
+        final int field = field(buffer, table, slot);
+        return (field == 0 ? defaultValue : buffer.get(field));
+    }
+
+    // follows an offset field to its table / vector / string, 0 if absent
+    static int getOffset(ByteBuffer buffer, int table, int slot) {
+        final int field = field(buffer, table, slot);
+        return (field == 0 ? 0 : field + buffer.getInt(field));
+    }
+
+    static int vectorLength(ByteBuffer buffer, int vector) {
+        return buffer.getInt(vector);
+    }
+
+    static int vectorTable(ByteBuffer buffer, int vector, int i) {
+        final int element = (vector + 4 + i * 4);
+        return (element + buffer.getInt(element));
+    }
+
+    static long vectorStructLong(ByteBuffer buffer, int vector, int structSize, int i, int fieldOffset) {
+        return buffer.getLong(vector + 4 + i * structSize + fieldOffset);
+    }
+
+}
@@ -0,0 +1,149 @@
+package generaloss.rawlist.arrow;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// forward-only flatbuffer writer: parents are written before their children and offset fields
+// are patched once the child position is known, so every uoffset points forward as the format requires
+class FlatBufferWriter {
+
+    static class Table {
+        final int position;
+        // absolute position of each field, -1 if absent
+        final int[] fields;
+
+        Table(int position, int[] fields) {
+            this.position = position;
+            this.fields = fields;
+        }
+    }
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+    int position() {
+        return buffer.position();
+    }
+
+    private void ensure(int bytes) {
+        if(buffer.remaining() >= bytes)
+            return;
+        final ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+    }
+
+    // pads until (position + extra) is a multiple of alignment
+    private void align(int alignment, int extra) {
+        ensure(alignment);
+        while((buffer.position() + extra) % alignment != 0)
+            buffer.put((byte) 0);
+    }
+
+
+    int offset() {
+        align(4, 0);
+        ensure(4);
+        final int position = buffer.position();
+        buffer.putInt(0);
+        return position;
+    }
+
+    void patch(int field, int target) {
+        buffer.putInt(field, target - field);
+    }
+
+    // sizes[slot] is the field width in bytes (0 if absent), offset fields are 4 byte wide and written as 0 until patched
+    Table table(int[] sizes, long[] values) {
+        final int slots = sizes.length;
+
+        // fields are laid out widest first, so each one is naturally aligned
+        final int[] fieldOffsets = new int[slots];
+        int inlineSize = 4;
+        boolean hasLong = false;
+        for(int size = 8; size >= 1; size >>= 1){
+            for(int slot = 0; slot < slots; slot++){
+                if(sizes[slot] != size)
+                    continue;
+                fieldOffsets[slot] = inlineSize;
+                inlineSize += size;
+                hasLong |= (size == 8);
+            }
+        }
+
+        align(2, 0);
+        ensure(4 + slots * 2);
+        final int vtable = buffer.position();
+        buffer.putShort((short) (4 + slots * 2));
+        buffer.putShort((short) inlineSize);
+        for(int slot = 0; slot < slots; slot++)
+            buffer.putShort((short) fieldOffsets[slot]);
+
+        // soffset at table start, the first field right after it must be 8 byte aligned if there are longs
+        align(hasLong ? 8 : 4, hasLong ? 4 : 0);
+        ensure(inlineSize);
+        final int table = buffer.position();
+        buffer.putInt(table - vtable);
+        for(int size = 8; size >= 1; size >>= 1){
+            for(int slot = 0; slot < slots; slot++){
+                if(sizes[slot] != size)
+                    continue;
+                if(size == 8)
+                    buffer.putLong(values[slot]);
+                else if(size == 4)
+                    buffer.putInt((int) values[slot]);
+                else if(size == 2)
+                    buffer.putShort((short) values[slot]);
+                else
+                    buffer.put((byte) values[slot]);
+            }
+        }
+
+        final int[] fields = new int[slots];
+        for(int slot = 0; slot < slots; slot++)
+            fields[slot] = (sizes[slot] == 0 ? -1 : table + fieldOffsets[slot]);
+        return new Table(table, fields);
+    }
+
+    // vector of structs made of longs (FieldNode, Buffer)
+    int longStructVector(int count, long... longs) {
+        align(8, 4);
+        ensure(4 + longs.length * 8);
+        final int position = buffer.position();
+        buffer.putInt(count);
+        for(long value: longs)
+            buffer.putLong(value);
+        return position;
+    }
+
+    // vector of offsets, element i is patched at position + 4 + i * 4
+    int offsetVector(int count) {
+        align(4, 0);
+        ensure(4 + count * 4);
+        final int position = buffer.position();
+        buffer.putInt(count);
+        for(int i = 0; i < count; i++)
+            buffer.putInt(0);
+        return position;
+    }
+
+    int string(String string) {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        align(4, 0);
+        ensure(4 + bytes.length + 1);
+        final int position = buffer.position();
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        buffer.put((byte) 0);
+        return position;
+    }
+
+    // padded to 8 bytes so the message body that follows stays aligned
+    byte[] finish() {
+        align(8, 0);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+}
@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface BoolConsumer extends Consumer<Boolean> {
+
+    void accept(boolean value);
+
+    @Override
+    default void accept(Boolean value) {
+        this.accept(value.booleanValue());
+    }
+
+}
\ No newline at end of file
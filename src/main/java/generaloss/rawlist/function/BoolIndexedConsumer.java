@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface BoolIndexedConsumer {
+
+    void accept(int index, boolean value);
+
+}
\ No newline at end of file
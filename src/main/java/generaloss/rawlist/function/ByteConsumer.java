@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface ByteConsumer extends Consumer<Byte> {
+
+    void accept(byte value);
+
+    @Override
+    default void accept(Byte value) {
+        this.accept(value.byteValue());
+    }
+
+}
\ No newline at end of file
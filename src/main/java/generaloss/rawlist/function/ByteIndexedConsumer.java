@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface ByteIndexedConsumer {
+
+    void accept(int index, byte value);
+
+}
\ No newline at end of file
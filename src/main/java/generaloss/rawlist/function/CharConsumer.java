@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface CharConsumer extends Consumer<Character> {
+
+    void accept(char value);
+
+    @Override
+    default void accept(Character value) {
+        this.accept(value.charValue());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface CharIndexedConsumer {
+
+    void accept(int index, char value);
+
+}
\ No newline at end of file
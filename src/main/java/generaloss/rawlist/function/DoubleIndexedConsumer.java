@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface DoubleIndexedConsumer {
+
+    void accept(int index, double value);
+
+}
\ No newline at end of file
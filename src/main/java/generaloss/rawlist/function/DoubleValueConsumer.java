@@ -0,0 +1,16 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface DoubleValueConsumer extends Consumer<Double>, java.util.function.DoubleConsumer {
+
+    @Override
+    void accept(double value);
+
+    @Override
+    default void accept(Double value) {
+        this.accept(value.doubleValue());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface FloatConsumer extends Consumer<Float> {
+
+    void accept(float value);
+
+    @Override
+    default void accept(Float value) {
+        this.accept(value.floatValue());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface FloatIndexedConsumer {
+
+    void accept(int index, float value);
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface IndexedConsumer<T> {
+
+    void accept(int index, T value);
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface IntIndexedConsumer {
+
+    void accept(int index, int value);
+
+}
\ No newline at end of file
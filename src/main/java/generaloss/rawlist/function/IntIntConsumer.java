@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface IntIntConsumer {
+
+    void accept(int key, int value);
+
+}
\ No newline at end of file
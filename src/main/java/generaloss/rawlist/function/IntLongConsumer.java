@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface IntLongConsumer {
+
+    void accept(int key, long value);
+
+}
\ No newline at end of file
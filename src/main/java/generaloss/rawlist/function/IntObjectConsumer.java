@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface IntObjectConsumer<V> {
+
+    void accept(int key, V value);
+
+}
\ No newline at end of file
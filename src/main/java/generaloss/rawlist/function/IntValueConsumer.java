@@ -0,0 +1,16 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface IntValueConsumer extends Consumer<Integer>, java.util.function.IntConsumer {
+
+    @Override
+    void accept(int value);
+
+    @Override
+    default void accept(Integer value) {
+        this.accept(value.intValue());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface LongIndexedConsumer {
+
+    void accept(int index, long value);
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface LongIntConsumer {
+
+    void accept(long key, int value);
+
+}
\ No newline at end of file
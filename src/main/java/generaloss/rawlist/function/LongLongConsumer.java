@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface LongLongConsumer {
+
+    void accept(long key, long value);
+
+}
\ No newline at end of file
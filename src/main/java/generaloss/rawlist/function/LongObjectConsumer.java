@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface LongObjectConsumer<V> {
+
+    void accept(long key, V value);
+
+}
\ No newline at end of file
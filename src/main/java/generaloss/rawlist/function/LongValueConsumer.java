@@ -0,0 +1,16 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface LongValueConsumer extends Consumer<Long>, java.util.function.LongConsumer {
+
+    @Override
+    void accept(long value);
+
+    @Override
+    default void accept(Long value) {
+        this.accept(value.longValue());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface ShortConsumer extends Consumer<Short> {
+
+    void accept(short value);
+
+    @Override
+    default void accept(Short value) {
+        this.accept(value.shortValue());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package generaloss.rawlist.function;
+
+@FunctionalInterface
+public interface ShortIndexedConsumer {
+
+    void accept(int index, short value);
+
+}
\ No newline at end of file
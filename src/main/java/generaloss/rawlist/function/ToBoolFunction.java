@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToBoolFunction<T> extends Function<T, Boolean> {
+
+    boolean applyAsBool(T value);
+
+    @Override
+    default Boolean apply(T value) {
+        return this.applyAsBool(value);
+    }
+
+}
\ No newline at end of file
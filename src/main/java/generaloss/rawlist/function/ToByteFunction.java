@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToByteFunction<T> extends Function<T, Byte> {
+
+    byte applyAsByte(T value);
+
+    @Override
+    default Byte apply(T value) {
+        return this.applyAsByte(value);
+    }
+
+}
\ No newline at end of file
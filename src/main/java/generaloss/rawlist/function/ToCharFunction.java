@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToCharFunction<T> extends Function<T, Character> {
+
+    char applyAsChar(T value);
+
+    @Override
+    default Character apply(T value) {
+        return this.applyAsChar(value);
+    }
+
+}
\ No newline at end of file
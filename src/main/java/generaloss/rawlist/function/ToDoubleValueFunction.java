@@ -0,0 +1,16 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToDoubleValueFunction<T> extends Function<T, Double>, java.util.function.ToDoubleFunction<T> {
+
+    @Override
+    double applyAsDouble(T value);
+
+    @Override
+    default Double apply(T value) {
+        return this.applyAsDouble(value);
+    }
+
+}
\ No newline at end of file
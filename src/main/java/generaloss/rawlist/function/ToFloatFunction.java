@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToFloatFunction<T> extends Function<T, Float> {
+
+    float applyAsFloat(T value);
+
+    @Override
+    default Float apply(T value) {
+        return this.applyAsFloat(value);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToIntValueFunction<T> extends Function<T, Integer>, java.util.function.ToIntFunction<T> {
+
+    @Override
+    int applyAsInt(T value);
+
+    @Override
+    default Integer apply(T value) {
+        return this.applyAsInt(value);
+    }
+
+}
\ No newline at end of file
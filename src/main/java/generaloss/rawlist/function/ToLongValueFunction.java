@@ -0,0 +1,16 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToLongValueFunction<T> extends Function<T, Long>, java.util.function.ToLongFunction<T> {
+
+    @Override
+    long applyAsLong(T value);
+
+    @Override
+    default Long apply(T value) {
+        return this.applyAsLong(value);
+    }
+
+}
\ No newline at end of file
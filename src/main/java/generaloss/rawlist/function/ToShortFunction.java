@@ -0,0 +1,15 @@
+package generaloss.rawlist.function;
+
+import java.util.function.Function;
+
+@FunctionalInterface
+public interface ToShortFunction<T> extends Function<T, Short> {
+
+    short applyAsShort(T value);
+
+    @Override
+    default Short apply(T value) {
+        return this.applyAsShort(value);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package generaloss.rawlist;
+
+// Java 17+ dispatcher, SimdKernels is only touched when jdk.incubator.vector is resolved
+// (--add-modules jdk.incubator.vector), so the class never fails to link without it.
+class Simd {
+
+    private static final int MIN_LENGTH = 64;
+
+    private static final boolean ENABLED = detect();
+
+    private static boolean detect() {
+        if(Boolean.getBoolean("rawlist.simd.disabled"))
+            return false;
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return false;
+        try{
+            return SimdKernels.isAccelerated();
+        }catch(LinkageError e){
+            return false;
+        }
+    }
+
+    static boolean isEnabled(int length) {
+        return (ENABLED && length >= MIN_LENGTH);
+    }
+
+
+    static int indexOf(byte[] array, byte target, int start, int end) {
+        return SimdKernels.indexOf(array, target, start, end);
+    }
+
+    static int indexOf(short[] array, short target, int start, int end) {
+        return SimdKernels.indexOf(array, target, start, end);
+    }
+
+    static int indexOf(int[] array, int target, int start, int end) {
+        return SimdKernels.indexOf(array, target, start, end);
+    }
+
+    static int indexOf(long[] array, long target, int start, int end) {
+        return SimdKernels.indexOf(array, target, start, end);
+    }
+
+    static int indexOf(float[] array, float target, int start, int end) {
+        return SimdKernels.indexOf(array, target, start, end);
+    }
+
+    static int indexOf(double[] array, double target, int start, int end) {
+        return SimdKernels.indexOf(array, target, start, end);
+    }
+
+    static int indexOf(char[] array, char target, int start, int end) {
+        return SimdKernels.indexOf(array, target, start, end);
+    }
+
+
+    static int lastIndexOf(byte[] array, byte target, int start, int end) {
+        return SimdKernels.lastIndexOf(array, target, start, end);
+    }
+
+    static int lastIndexOf(short[] array, short target, int start, int end) {
+        return SimdKernels.lastIndexOf(array, target, start, end);
+    }
+
+    static int lastIndexOf(int[] array, int target, int start, int end) {
+        return SimdKernels.lastIndexOf(array, target, start, end);
+    }
+
+    static int lastIndexOf(long[] array, long target, int start, int end) {
+        return SimdKernels.lastIndexOf(array, target, start, end);
+    }
+
+    static int lastIndexOf(float[] array, float target, int start, int end) {
+        return SimdKernels.lastIndexOf(array, target, start, end);
+    }
+
+    static int lastIndexOf(double[] array, double target, int start, int end) {
+        return SimdKernels.lastIndexOf(array, target, start, end);
+    }
+
+    static int lastIndexOf(char[] array, char target, int start, int end) {
+        return SimdKernels.lastIndexOf(array, target, start, end);
+    }
+
+
+    static void add(float[] array, int from, int to, float value) {
+        SimdKernels.add(array, from, to, value);
+    }
+
+    static void sub(float[] array, int from, int to, float value) {
+        SimdKernels.sub(array, from, to, value);
+    }
+
+    static void mul(float[] array, int from, int to, float value) {
+        SimdKernels.mul(array, from, to, value);
+    }
+
+    static void div(float[] array, int from, int to, float value) {
+        SimdKernels.div(array, from, to, value);
+    }
+
+    static void add(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        SimdKernels.add(array, offset, values, valuesOffset, length);
+    }
+
+    static void sub(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        SimdKernels.sub(array, offset, values, valuesOffset, length);
+    }
+
+    static void mul(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        SimdKernels.mul(array, offset, values, valuesOffset, length);
+    }
+
+    static void div(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        SimdKernels.div(array, offset, values, valuesOffset, length);
+    }
+
+    static void fma(float[] array, int from, int to, float multiplier, float addend) {
+        SimdKernels.fma(array, from, to, multiplier, addend);
+    }
+
+    static void clamp(float[] array, int from, int to, float min, float max) {
+        SimdKernels.clamp(array, from, to, min, max);
+    }
+
+    static void lerp(float[] array, int from, int to, float target, float t) {
+        SimdKernels.lerp(array, from, to, target, t);
+    }
+
+    static void lerp(float[] array, int offset, float[] targets, int targetsOffset, int length, float t) {
+        SimdKernels.lerp(array, offset, targets, targetsOffset, length, t);
+    }
+
+
+    static void add(double[] array, int from, int to, double value) {
+        SimdKernels.add(array, from, to, value);
+    }
+
+    static void sub(double[] array, int from, int to, double value) {
+        SimdKernels.sub(array, from, to, value);
+    }
+
+    static void mul(double[] array, int from, int to, double value) {
+        SimdKernels.mul(array, from, to, value);
+    }
+
+    static void div(double[] array, int from, int to, double value) {
+        SimdKernels.div(array, from, to, value);
+    }
+
+    static void add(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        SimdKernels.add(array, offset, values, valuesOffset, length);
+    }
+
+    static void sub(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        SimdKernels.sub(array, offset, values, valuesOffset, length);
+    }
+
+    static void mul(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        SimdKernels.mul(array, offset, values, valuesOffset, length);
+    }
+
+    static void div(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        SimdKernels.div(array, offset, values, valuesOffset, length);
+    }
+
+    static void fma(double[] array, int from, int to, double multiplier, double addend) {
+        SimdKernels.fma(array, from, to, multiplier, addend);
+    }
+
+    static void clamp(double[] array, int from, int to, double min, double max) {
+        SimdKernels.clamp(array, from, to, min, max);
+    }
+
+    static void lerp(double[] array, int from, int to, double target, double t) {
+        SimdKernels.lerp(array, from, to, target, t);
+    }
+
+    static void lerp(double[] array, int offset, double[] targets, int targetsOffset, int length, double t) {
+        SimdKernels.lerp(array, offset, targets, targetsOffset, length, t);
+    }
+
+}
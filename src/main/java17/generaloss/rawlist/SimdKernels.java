@@ -0,0 +1,451 @@
+package generaloss.rawlist;
+
+import jdk.incubator.vector.*;
+
+class SimdKernels {
+
+    private static final VectorSpecies<Byte> BYTE = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORT = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOAT = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+
+    static boolean isAccelerated() {
+        // narrower shapes run on the pure java fallback which is slower than a scalar loop
+        return (INT.vectorBitSize() >= 128);
+    }
+
+
+    static int indexOf(byte[] array, byte target, int start, int end) {
+        final int bound = (start + BYTE.loopBound(end - start));
+        int i = start;
+        for(; i < bound; i += BYTE.length()){
+            final VectorMask<Byte> mask = ByteVector.fromArray(BYTE, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.firstTrue());
+        }
+        for(; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(byte[] array, byte target, int start, int end) {
+        final int bound = (end - BYTE.loopBound(end - start));
+        int i = end;
+        while(i > bound){
+            i -= BYTE.length();
+            final VectorMask<Byte> mask = ByteVector.fromArray(BYTE, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.lastTrue());
+        }
+        for(i = bound - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(short[] array, short target, int start, int end) {
+        final int bound = (start + SHORT.loopBound(end - start));
+        int i = start;
+        for(; i < bound; i += SHORT.length()){
+            final VectorMask<Short> mask = ShortVector.fromArray(SHORT, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.firstTrue());
+        }
+        for(; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(short[] array, short target, int start, int end) {
+        final int bound = (end - SHORT.loopBound(end - start));
+        int i = end;
+        while(i > bound){
+            i -= SHORT.length();
+            final VectorMask<Short> mask = ShortVector.fromArray(SHORT, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.lastTrue());
+        }
+        for(i = bound - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(int[] array, int target, int start, int end) {
+        final int bound = (start + INT.loopBound(end - start));
+        int i = start;
+        for(; i < bound; i += INT.length()){
+            final VectorMask<Integer> mask = IntVector.fromArray(INT, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.firstTrue());
+        }
+        for(; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(int[] array, int target, int start, int end) {
+        final int bound = (end - INT.loopBound(end - start));
+        int i = end;
+        while(i > bound){
+            i -= INT.length();
+            final VectorMask<Integer> mask = IntVector.fromArray(INT, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.lastTrue());
+        }
+        for(i = bound - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(long[] array, long target, int start, int end) {
+        final int bound = (start + LONG.loopBound(end - start));
+        int i = start;
+        for(; i < bound; i += LONG.length()){
+            final VectorMask<Long> mask = LongVector.fromArray(LONG, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.firstTrue());
+        }
+        for(; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(long[] array, long target, int start, int end) {
+        final int bound = (end - LONG.loopBound(end - start));
+        int i = end;
+        while(i > bound){
+            i -= LONG.length();
+            final VectorMask<Long> mask = LongVector.fromArray(LONG, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.lastTrue());
+        }
+        for(i = bound - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(float[] array, float target, int start, int end) {
+        final int bound = (start + FLOAT.loopBound(end - start));
+        int i = start;
+        for(; i < bound; i += FLOAT.length()){
+            final VectorMask<Float> mask = FloatVector.fromArray(FLOAT, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.firstTrue());
+        }
+        for(; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(float[] array, float target, int start, int end) {
+        final int bound = (end - FLOAT.loopBound(end - start));
+        int i = end;
+        while(i > bound){
+            i -= FLOAT.length();
+            final VectorMask<Float> mask = FloatVector.fromArray(FLOAT, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.lastTrue());
+        }
+        for(i = bound - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(double[] array, double target, int start, int end) {
+        final int bound = (start + DOUBLE.loopBound(end - start));
+        int i = start;
+        for(; i < bound; i += DOUBLE.length()){
+            final VectorMask<Double> mask = DoubleVector.fromArray(DOUBLE, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.firstTrue());
+        }
+        for(; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(double[] array, double target, int start, int end) {
+        final int bound = (end - DOUBLE.loopBound(end - start));
+        int i = end;
+        while(i > bound){
+            i -= DOUBLE.length();
+            final VectorMask<Double> mask = DoubleVector.fromArray(DOUBLE, array, i).eq(target);
+            if(mask.anyTrue())
+                return (i + mask.lastTrue());
+        }
+        for(i = bound - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int indexOf(char[] array, char target, int start, int end) {
+        final int bound = (start + SHORT.loopBound(end - start));
+        int i = start;
+        for(; i < bound; i += SHORT.length()){
+            final VectorMask<Short> mask = ShortVector.fromCharArray(SHORT, array, i).eq((short) target);
+            if(mask.anyTrue())
+                return (i + mask.firstTrue());
+        }
+        for(; i < end; i++)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+    static int lastIndexOf(char[] array, char target, int start, int end) {
+        final int bound = (end - SHORT.loopBound(end - start));
+        int i = end;
+        while(i > bound){
+            i -= SHORT.length();
+            final VectorMask<Short> mask = ShortVector.fromCharArray(SHORT, array, i).eq((short) target);
+            if(mask.anyTrue())
+                return (i + mask.lastTrue());
+        }
+        for(i = bound - 1; i >= start; i--)
+            if(array[i] == target)
+                return i;
+        return -1;
+    }
+
+
+    static void add(float[] array, int from, int to, float value) {
+        final int bound = (from + FLOAT.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, i).add(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] += value;
+    }
+
+    static void sub(float[] array, int from, int to, float value) {
+        final int bound = (from + FLOAT.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, i).sub(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] -= value;
+    }
+
+    static void mul(float[] array, int from, int to, float value) {
+        final int bound = (from + FLOAT.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, i).mul(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] *= value;
+    }
+
+    static void div(float[] array, int from, int to, float value) {
+        final int bound = (from + FLOAT.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, i).div(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] /= value;
+    }
+
+    static void add(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, offset + i).add(FloatVector.fromArray(FLOAT, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    static void sub(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, offset + i).sub(FloatVector.fromArray(FLOAT, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    static void mul(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, offset + i).mul(FloatVector.fromArray(FLOAT, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    static void div(float[] array, int offset, float[] values, int valuesOffset, int length) {
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, offset + i).div(FloatVector.fromArray(FLOAT, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    static void fma(float[] array, int from, int to, float multiplier, float addend) {
+        final int bound = (from + FLOAT.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, i).fma(multiplier, addend).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] = Math.fma(array[i], multiplier, addend);
+    }
+
+    static void clamp(float[] array, int from, int to, float min, float max) {
+        final int bound = (from + FLOAT.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += FLOAT.length())
+            FloatVector.fromArray(FLOAT, array, i).min(max).max(min).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+    static void lerp(float[] array, int from, int to, float target, float t) {
+        final FloatVector targetVector = FloatVector.broadcast(FLOAT, target);
+        final int bound = (from + FLOAT.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += FLOAT.length()){
+            final FloatVector vector = FloatVector.fromArray(FLOAT, array, i);
+            vector.add(targetVector.sub(vector).mul(t)).intoArray(array, i);
+        }
+        for(; i < to; i++)
+            array[i] += (target - array[i]) * t;
+    }
+
+    static void lerp(float[] array, int offset, float[] targets, int targetsOffset, int length, float t) {
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += FLOAT.length()){
+            final FloatVector vector = FloatVector.fromArray(FLOAT, array, offset + i);
+            vector.add(FloatVector.fromArray(FLOAT, targets, targetsOffset + i).sub(vector).mul(t)).intoArray(array, offset + i);
+        }
+        for(; i < length; i++)
+            array[offset + i] += (targets[targetsOffset + i] - array[offset + i]) * t;
+    }
+
+
+    static void add(double[] array, int from, int to, double value) {
+        final int bound = (from + DOUBLE.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, i).add(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] += value;
+    }
+
+    static void sub(double[] array, int from, int to, double value) {
+        final int bound = (from + DOUBLE.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, i).sub(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] -= value;
+    }
+
+    static void mul(double[] array, int from, int to, double value) {
+        final int bound = (from + DOUBLE.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, i).mul(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] *= value;
+    }
+
+    static void div(double[] array, int from, int to, double value) {
+        final int bound = (from + DOUBLE.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, i).div(value).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] /= value;
+    }
+
+    static void add(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, offset + i).add(DoubleVector.fromArray(DOUBLE, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] += values[valuesOffset + i];
+    }
+
+    static void sub(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, offset + i).sub(DoubleVector.fromArray(DOUBLE, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] -= values[valuesOffset + i];
+    }
+
+    static void mul(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, offset + i).mul(DoubleVector.fromArray(DOUBLE, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] *= values[valuesOffset + i];
+    }
+
+    static void div(double[] array, int offset, double[] values, int valuesOffset, int length) {
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, offset + i).div(DoubleVector.fromArray(DOUBLE, values, valuesOffset + i)).intoArray(array, offset + i);
+        for(; i < length; i++)
+            array[offset + i] /= values[valuesOffset + i];
+    }
+
+    static void fma(double[] array, int from, int to, double multiplier, double addend) {
+        final int bound = (from + DOUBLE.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, i).fma(multiplier, addend).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] = Math.fma(array[i], multiplier, addend);
+    }
+
+    static void clamp(double[] array, int from, int to, double min, double max) {
+        final int bound = (from + DOUBLE.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += DOUBLE.length())
+            DoubleVector.fromArray(DOUBLE, array, i).min(max).max(min).intoArray(array, i);
+        for(; i < to; i++)
+            array[i] = Math.max(min, Math.min(max, array[i]));
+    }
+
+    static void lerp(double[] array, int from, int to, double target, double t) {
+        final DoubleVector targetVector = DoubleVector.broadcast(DOUBLE, target);
+        final int bound = (from + DOUBLE.loopBound(to - from));
+        int i = from;
+        for(; i < bound; i += DOUBLE.length()){
+            final DoubleVector vector = DoubleVector.fromArray(DOUBLE, array, i);
+            vector.add(targetVector.sub(vector).mul(t)).intoArray(array, i);
+        }
+        for(; i < to; i++)
+            array[i] += (target - array[i]) * t;
+    }
+
+    static void lerp(double[] array, int offset, double[] targets, int targetsOffset, int length, double t) {
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += DOUBLE.length()){
+            final DoubleVector vector = DoubleVector.fromArray(DOUBLE, array, offset + i);
+            vector.add(DoubleVector.fromArray(DOUBLE, targets, targetsOffset + i).sub(vector).mul(t)).intoArray(array, offset + i);
+        }
+        for(; i < length; i++)
+            array[offset + i] += (targets[targetsOffset + i] - array[offset + i]) * t;
+    }
+
+}
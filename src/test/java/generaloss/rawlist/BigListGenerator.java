@@ -0,0 +1,428 @@
+package generaloss.rawlist;
+
+public class BigListGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.*");
+
+        // fields
+        w.addField("public static final int DEFAULT_CAPACITY = 10;");
+        w.addField("// every segment but the last one is full sized");
+        w.addField("public static final int SEGMENT_SHIFT = 20;");
+        w.addField("public static final int SEGMENT_SIZE = (1 << SEGMENT_SHIFT);");
+        w.addField("public static final int SEGMENT_MASK = (SEGMENT_SIZE - 1);");
+        w.addField("public static final long MAX_CAPACITY = ((long) (Integer.MAX_VALUE - 8) << SEGMENT_SHIFT);\n");
+        w.addField("private " + datatype + "[][] segments;");
+        w.addField("private long capacity;");
+        w.addField("private long size;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(DEFAULT_CAPACITY);"
+        );
+        w.addConstructor("(long capacity)",
+            "if(capacity < 0 || capacity > MAX_CAPACITY)",
+            "   throw new IllegalArgumentException();",
+            "this.segments = new " + datatype + "[1][];",
+            "this.ensureCapacity(capacity);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this(list.size());",
+            "this.add(list);"
+        );
+        w.addConstructor("(" + classname + " list)",
+            "this(list.size);",
+            "this.add(list);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public long size()",
+            "return size;"
+        );
+        w.addMethod("public long capacity()",
+            "return capacity;"
+        );
+        w.addMethod("public long lastIndex()",
+            "return Math.max(0L, (size - 1L));"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0L);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0L);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("private void ensureCapacity(long minCapacity)",
+            "if(minCapacity <= capacity)",
+            "    return;",
+            "if(minCapacity > MAX_CAPACITY)",
+            "    throw new OutOfMemoryError(\"Required capacity \" + minCapacity + \" exceeds \" + MAX_CAPACITY);",
+            "",
+            "final int last = (int) ((minCapacity - 1) >>> SEGMENT_SHIFT);",
+            "if(last >= segments.length)",
+            "    segments = Arrays.copyOf(segments, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(last + 1L, segments.length + (segments.length >> 1) + 1L)));",
+            "",
+            "// only the old last segment and the new ones can be short",
+            "for(int i = (capacity == 0 ? 0 : (int) ((capacity - 1) >>> SEGMENT_SHIFT)); i <= last; i++){",
+            "    final " + datatype + "[] segment = segments[i];",
+            "    final int length = (segment == null ? 0 : segment.length);",
+            "    final int required = (i < last ? SEGMENT_SIZE : (int) (minCapacity - ((long) i << SEGMENT_SHIFT)));",
+            "    if(length >= required)",
+            "        continue;",
+            "",
+            "    final int newLength = (i < last ? SEGMENT_SIZE : Math.min(SEGMENT_SIZE, Math.max(Math.max(required, DEFAULT_CAPACITY), length + (length >> 1))));",
+            "    segments[i] = (segment == null ? new " + datatype + "[newLength] : Arrays.copyOf(segment, newLength));",
+            "}",
+            "capacity = (((long) last << SEGMENT_SHIFT) + segments[last].length);"
+        );
+        w.addMethod("private void checkIndex(long i)",
+            "if(i < 0 || i >= size)",
+            "    throw new IndexOutOfBoundsException(\"Index \" + i + \" out of bounds for size \" + size);"
+        );
+        w.addMethod("private void checkRange(long from, long to)",
+            "if(from < 0 || from > to || to > size)",
+            "    throw new IndexOutOfBoundsException(\"Range [\" + from + \", \" + to + \") out of bounds for size \" + size);"
+        );
+        w.addMethod("private " + datatype + "[] segment(long i)",
+            "return segments[(int) (i >>> SEGMENT_SHIFT)];"
+        );
+        w.addAnnotatedMethod("// handles overlapping ranges when both lists are the same",
+            "private static void move(" + classname + " src, long srcIndex, " + classname + " dst, long dstIndex, long length)",
+            "if(src == dst && dstIndex > srcIndex){",
+            "    long remaining = length;",
+            "    while(remaining > 0){",
+            "        final long srcEnd = (srcIndex + remaining);",
+            "        final long dstEnd = (dstIndex + remaining);",
+            "        final int srcLength = ((int) (srcEnd - 1) & SEGMENT_MASK) + 1;",
+            "        final int dstLength = ((int) (dstEnd - 1) & SEGMENT_MASK) + 1;",
+            "        final int count = (int) Math.min(remaining, Math.min(srcLength, dstLength));",
+            "        System.arraycopy(src.segment(srcEnd - 1), srcLength - count, dst.segment(dstEnd - 1), dstLength - count, count);",
+            "        remaining -= count;",
+            "    }",
+            "}else{",
+            "    long copied = 0;",
+            "    while(copied < length){",
+            "        final int srcOffset = ((int) (srcIndex + copied) & SEGMENT_MASK);",
+            "        final int dstOffset = ((int) (dstIndex + copied) & SEGMENT_MASK);",
+            "        final int count = (int) Math.min(length - copied, SEGMENT_SIZE - Math.max(srcOffset, dstOffset));",
+            "        System.arraycopy(src.segment(srcIndex + copied), srcOffset, dst.segment(dstIndex + copied), dstOffset, count);",
+            "        copied += count;",
+            "    }",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "if(size == capacity)",
+            "    this.ensureCapacity(size + 1);",
+            "",
+            "this.segment(size)[(int) size & SEGMENT_MASK] = element;",
+            "size++;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "[] elements, int offset, int length)",
+            "Objects.checkFromIndexSize(offset, length, elements.length);",
+            "this.ensureCapacity(size + length);",
+            "this.copyIn(size, elements, offset, length);",
+            "size += length;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "return this.add(elements, 0, elements.length);"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "return this.add(list.array(), 0, list.size());"
+        );
+        w.addMethod("public " + classname + " add(" + classname + " list)",
+            "final long length = list.size;",
+            "this.ensureCapacity(size + length);",
+            "size += length;",
+            "move(list, 0, this, size - length, length);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(long i, " + datatype + "... elements)",
+            "if(i < 0 || i > size)",
+            "    throw new IndexOutOfBoundsException(\"Index \" + i + \" out of bounds for size \" + size);",
+            "this.ensureCapacity(size + elements.length);",
+            "move(this, i, this, i + elements.length, size - i);",
+            "size += elements.length;",
+            "return this.set(i, elements, 0, elements.length);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " remove(long i, long len)",
+            "len = Math.min(len, size - i);",
+            "if(len <= 0)",
+            "    return this;",
+            "",
+            "move(this, i + len, this, i, size - i - len);",
+            "size -= len;",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + " remove(long i)",
+            "final " + datatype + " value = this.get(i);",
+            "this.remove(i, 1);",
+            "return value;"
+        );
+        w.addMethod("public " + datatype + " removeLast()",
+            "final " + datatype + " value = this.get(size - 1);",
+            "size--;",
+            "return value;"
+        );
+        w.addMethod("public " + classname + " clear()",
+            "size = 0;",
+            "return this;"
+        );
+        w.addAnnotatedMethod("// drops unused segments and shrinks the last one",
+            "public " + classname + " trim()",
+            "if(size == capacity)",
+            "    return this;",
+            "",
+            "final int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);",
+            "segments = Arrays.copyOf(segments, Math.max(1, count));",
+            "if(count == 0){",
+            "    segments[0] = null;",
+            "    capacity = 0;",
+            "}else{",
+            "    final int lastLength = ((int) (size - 1) & SEGMENT_MASK) + 1;",
+            "    segments[count - 1] = Arrays.copyOf(segments[count - 1], lastLength);",
+            "    capacity = size;",
+            "}",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(long i)",
+            "this.checkIndex(i);",
+            "return this.segment(i)[(int) i & SEGMENT_MASK];"
+        );
+        w.addMethod("public " + datatype + " getFirst()",
+            "return this.get(0);"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "return this.get(this.lastIndex());"
+        );
+        w.addMethod("public " + classname + " set(long i, " + datatype + " newValue)",
+            "this.checkIndex(i);",
+            "this.segment(i)[(int) i & SEGMENT_MASK] = newValue;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " set(long i, " + datatype + "[] values, int offset, int length)",
+            "this.checkRange(i, i + length);",
+            "this.copyIn(i, values, offset, length);",
+            "return this;"
+        );
+        w.addMethod("private void copyIn(long i, " + datatype + "[] values, int offset, int length)",
+            "int copied = 0;",
+            "while(copied < length){",
+            "    final long index = (i + copied);",
+            "    final int segmentOffset = ((int) index & SEGMENT_MASK);",
+            "    final int count = Math.min(length - copied, SEGMENT_SIZE - segmentOffset);",
+            "    System.arraycopy(values, offset + copied, this.segment(index), segmentOffset, count);",
+            "    copied += count;",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " fill(long from, long to, " + datatype + " value)",
+            "this.checkRange(from, to);",
+            "while(from < to){",
+            "    final int segmentOffset = ((int) from & SEGMENT_MASK);",
+            "    final int count = (int) Math.min(to - from, SEGMENT_SIZE - segmentOffset);",
+            "    Arrays.fill(this.segment(from), segmentOffset, segmentOffset + count, value);",
+            "    from += count;",
+            "}",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " fill(" + datatype + " value)",
+            "return this.fill(0, size, value);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (this.indexOf(element) != -1);"
+        );
+        w.addMethod("public long indexOf(" + datatype + " element)",
+            "return this.indexOfRange(element, 0, size);"
+        );
+        w.addMethod("public long lastIndexOf(" + datatype + " element)",
+            "return this.lastIndexOfRange(element, 0, size);"
+        );
+        w.addMethod("public long indexOfRange(" + datatype + " element, long start, long end)",
+            "this.checkRange(start, end);",
+            "while(start < end){",
+            "    final int segmentOffset = ((int) start & SEGMENT_MASK);",
+            "    final int count = (int) Math.min(end - start, SEGMENT_SIZE - segmentOffset);",
+            "    final int found = ArrayUtils.indexOf(this.segment(start), element, segmentOffset, segmentOffset + count);",
+            "    if(found != -1)",
+            "        return (start - segmentOffset + found);",
+            "    start += count;",
+            "}",
+            "return -1;"
+        );
+        w.addMethod("public long lastIndexOfRange(" + datatype + " element, long start, long end)",
+            "this.checkRange(start, end);",
+            "while(end > start){",
+            "    final int segmentEnd = ((int) (end - 1) & SEGMENT_MASK) + 1;",
+            "    final int count = (int) Math.min(end - start, segmentEnd);",
+            "    final int found = ArrayUtils.lastIndexOf(this.segment(end - 1), element, segmentEnd - count, segmentEnd);",
+            "    if(found != -1)",
+            "        return (end - segmentEnd + found);",
+            "    end -= count;",
+            "}",
+            "return -1;"
+        );
+        w.addAnnotatedMethod("// same contract as Arrays.binarySearch, the range has to be sorted",
+            "public long binarySearch(long from, long to, " + datatype + " key)",
+            "this.checkRange(from, to);",
+            "long low = from;",
+            "long high = (to - 1);",
+            "while(low <= high){",
+            "    final long middle = ((low + high) >>> 1);",
+            "    final int compare = " + datatypeWrapper + ".compare(this.segment(middle)[(int) middle & SEGMENT_MASK], key);",
+            "    if(compare < 0){",
+            "        low = (middle + 1);",
+            "    }else if(compare > 0){",
+            "        high = (middle - 1);",
+            "    }else{",
+            "        return middle;",
+            "    }",
+            "}",
+            "return -(low + 1);"
+        );
+        w.addMethod("public long binarySearch(" + datatype + " key)",
+            "return this.binarySearch(0, size, key);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " copyTo(long from, " + datatype + "[] dst, int offset, int length)",
+            "this.checkRange(from, from + length);",
+            "int copied = 0;",
+            "while(copied < length){",
+            "    final long index = (from + copied);",
+            "    final int segmentOffset = ((int) index & SEGMENT_MASK);",
+            "    final int count = Math.min(length - copied, SEGMENT_SIZE - segmentOffset);",
+            "    System.arraycopy(this.segment(index), segmentOffset, dst, offset + copied, count);",
+            "    copied += count;",
+            "}",
+            "return this;"
+        );
+        w.addAnnotatedMethod("// dst grows when the copy runs past its size",
+            "public " + classname + " copyTo(long from, " + classname + " dst, long dstIndex, long length)",
+            "this.checkRange(from, from + length);",
+            "if(dstIndex < 0 || dstIndex > dst.size)",
+            "    throw new IndexOutOfBoundsException(\"Index \" + dstIndex + \" out of bounds for size \" + dst.size);",
+            "dst.ensureCapacity(dstIndex + length);",
+            "dst.size = Math.max(dst.size, dstIndex + length);",
+            "move(this, from, dst, dstIndex, length);",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + "[] copyOf(long from, int length)",
+            "final " + datatype + "[] array = new " + datatype + "[length];",
+            "this.copyTo(from, array, 0, length);",
+            "return array;"
+        );
+        w.addMethod("public " + listClassname + " toList(long from, int length)",
+            "return new " + listClassname + "(this.copyOf(from, length));"
+        );
+        w.addMethod("public " + classname + " copy()",
+            "return new " + classname + "(this);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "for(long i = 0; i < size; i += SEGMENT_SIZE){",
+            "    final " + datatype + "[] segment = this.segment(i);",
+            "    final int length = (int) Math.min(SEGMENT_SIZE, size - i);",
+            "    for(int j = 0; j < length; j++)",
+            "        action.accept(segment[j]);",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "if(size == 0)",
+            "    return \"[]\";",
+            "",
+            "final StringBuilder builder = new StringBuilder(\"[\");",
+            "for(long i = 0; i < size; i++){",
+            "    if(i != 0)",
+            "        builder.append(\", \");",
+            "    builder.append(this.segment(i)[(int) i & SEGMENT_MASK]);",
+            "}",
+            "return builder.append(']').toString();"
+        );
+        w.addAnnotatedMethod("@Override", "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + " list = (" + classname + ") object;",
+            "if(size != list.size)",
+            "    return false;",
+            "for(long i = 0; i < size; i += SEGMENT_SIZE){",
+            "    final int length = (int) Math.min(SEGMENT_SIZE, size - i);",
+            "    if(!Arrays.equals(this.segment(i), 0, length, list.segment(i), 0, length))",
+            "        return false;",
+            "}",
+            "return true;"
+        );
+        w.addAnnotatedMethod("@Override", "public int hashCode()",
+            "int hash = 1;",
+            "for(long i = 0; i < size; i++)",
+            "    hash = 31 * hash + " + datatypeWrapper + ".hashCode(this.segment(i)[(int) i & SEGMENT_MASK]);",
+            "return hash;"
+        );
+        w.addAnnotatedMethod("@Override", "public " + datatypeName + "Iterator iterator()",
+            "return new " + datatypeName + "Iterator() {",
+            "    private long index;",
+            "    @Override",
+            "    public boolean hasNext() {",
+            "        return (index < size);",
+            "    }",
+            "    @Override",
+            "    public " + datatype + " next" + datatypeName + "() {",
+            "        if(index >= size)",
+            "            throw new NoSuchElementException();",
+            "        final long i = index++;",
+            "        return segment(i)[(int) i & SEGMENT_MASK];",
+            "    }",
+            "};"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -0,0 +1,289 @@
+package generaloss.rawlist;
+
+public class ChunkedListGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.*");
+
+        // fields
+        w.addField("// growing allocates one more chunk, existing elements are never copied");
+        w.addField("public static final int CHUNK_SHIFT = 12;");
+        w.addField("public static final int CHUNK_SIZE = (1 << CHUNK_SHIFT);");
+        w.addField("public static final int CHUNK_MASK = (CHUNK_SIZE - 1);\n");
+        w.addField("private " + datatype + "[][] chunks;");
+        w.addField("private int chunkCount;");
+        w.addField("private int size;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(CHUNK_SIZE);"
+        );
+        w.addConstructor("(int capacity)",
+            "if(capacity < 0)",
+            "   throw new IllegalArgumentException();",
+            "this.chunks = new " + datatype + "[Math.max(1, chunksFor(capacity))][];",
+            "this.ensureCapacity(capacity);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this(list.size());",
+            "this.add(list);"
+        );
+        w.addConstructor("(" + classname + " list)",
+            "this(list.size);",
+            "this.add(list);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public int capacity()",
+            "return (chunkCount << CHUNK_SHIFT);"
+        );
+        w.addMethod("public int chunkCount()",
+            "return chunkCount;"
+        );
+        w.addMethod("public int lastIndex()",
+            "return Math.max(0, (size - 1));"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("private static int chunksFor(int capacity)",
+            "return (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);"
+        );
+        w.addMethod("private void ensureCapacity(int minCapacity)",
+            "if(minCapacity < 0)",
+            "    throw new OutOfMemoryError(\"Required capacity exceeds \" + Integer.MAX_VALUE);",
+            "",
+            "final int required = chunksFor(minCapacity);",
+            "if(required <= chunkCount)",
+            "    return;",
+            "if(required > chunks.length)",
+            "    chunks = Arrays.copyOf(chunks, Math.max(required, chunks.length + (chunks.length >> 1) + 1));",
+            "for(int i = chunkCount; i < required; i++)",
+            "    if(chunks[i] == null)",
+            "        chunks[i] = new " + datatype + "[CHUNK_SIZE];",
+            "chunkCount = required;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "if(size == (chunkCount << CHUNK_SHIFT))",
+            "    this.ensureCapacity(size + 1);",
+            "",
+            "chunks[size >>> CHUNK_SHIFT][size & CHUNK_MASK] = element;",
+            "size++;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "[] elements, int offset, int length)",
+            "Objects.checkFromIndexSize(offset, length, elements.length);",
+            "this.ensureCapacity(size + length);",
+            "",
+            "int copied = 0;",
+            "while(copied < length){",
+            "    final int index = (size + copied);",
+            "    final int count = Math.min(length - copied, CHUNK_SIZE - (index & CHUNK_MASK));",
+            "    System.arraycopy(elements, offset + copied, chunks[index >>> CHUNK_SHIFT], index & CHUNK_MASK, count);",
+            "    copied += count;",
+            "}",
+            "size += length;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "return this.add(elements, 0, elements.length);"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "return this.add(list.array(), 0, list.size());"
+        );
+        w.addMethod("public " + classname + " add(" + classname + " list)",
+            "final int length = list.size;",
+            "this.ensureCapacity(size + length);",
+            "for(int i = 0; i < length; i += CHUNK_SIZE)",
+            "    this.add(list.chunks[i >>> CHUNK_SHIFT], 0, Math.min(CHUNK_SIZE, length - i));",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " removeLast()",
+            "final " + datatype + " value = this.get(size - 1);",
+            "size--;",
+            "return value;"
+        );
+        w.addMethod("public " + classname + " removeLast(int length)",
+            "size -= Math.min(Math.max(0, length), size);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " clear()",
+            "size = 0;",
+            "return this;"
+        );
+        w.addAnnotatedMethod("// releases chunks past the last used one",
+            "public " + classname + " trim()",
+            "final int required = chunksFor(size);",
+            "for(int i = required; i < chunks.length; i++)",
+            "    chunks[i] = null;",
+            "chunkCount = required;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " fill(" + datatype + " value)",
+            "for(int i = 0; i < size; i += CHUNK_SIZE)",
+            "    Arrays.fill(chunks[i >>> CHUNK_SHIFT], 0, Math.min(CHUNK_SIZE, size - i), value);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(int i)",
+            "Objects.checkIndex(i, size);",
+            "return chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK];"
+        );
+        w.addMethod("public " + datatype + " getFirst()",
+            "return this.get(0);"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "return this.get(this.lastIndex());"
+        );
+        w.addMethod("public " + classname + " set(int i, " + datatype + " newValue)",
+            "Objects.checkIndex(i, size);",
+            "chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK] = newValue;",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (this.indexOf(element) != -1);"
+        );
+        w.addMethod("public int indexOf(" + datatype + " element)",
+            "for(int i = 0; i < size; i += CHUNK_SIZE){",
+            "    final int found = ArrayUtils.indexOf(chunks[i >>> CHUNK_SHIFT], element, 0, Math.min(CHUNK_SIZE, size - i));",
+            "    if(found != -1)",
+            "        return (i + found);",
+            "}",
+            "return -1;"
+        );
+        w.addMethod("public int lastIndexOf(" + datatype + " element)",
+            "for(int i = ((size - 1) & ~CHUNK_MASK); i >= 0; i -= CHUNK_SIZE){",
+            "    final int found = ArrayUtils.lastIndexOf(chunks[i >>> CHUNK_SHIFT], element, 0, Math.min(CHUNK_SIZE, size - i));",
+            "    if(found != -1)",
+            "        return (i + found);",
+            "}",
+            "return -1;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " copyTo(" + datatype + "[] dst, int offset)",
+            "for(int i = 0; i < size; i += CHUNK_SIZE)",
+            "    System.arraycopy(chunks[i >>> CHUNK_SHIFT], 0, dst, offset + i, Math.min(CHUNK_SIZE, size - i));",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "final " + datatype + "[] array = new " + datatype + "[size];",
+            "this.copyTo(array, 0);",
+            "return array;"
+        );
+        w.addAnnotatedMethod("// flattens into a single exactly sized array",
+            "public " + listClassname + " compact()",
+            "return new " + listClassname + "(this.copyOf());"
+        );
+        w.addMethod("public " + classname + " copy()",
+            "return new " + classname + "(this);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "for(int i = 0; i < size; i += CHUNK_SIZE){",
+            "    final " + datatype + "[] chunk = chunks[i >>> CHUNK_SHIFT];",
+            "    final int length = Math.min(CHUNK_SIZE, size - i);",
+            "    for(int j = 0; j < length; j++)",
+            "        action.accept(chunk[j]);",
+            "}"
+        );
+        w.addMethod("public void forEachIndexed(" + datatypeName + "IndexedConsumer action)",
+            "for(int i = 0; i < size; i += CHUNK_SIZE){",
+            "    final " + datatype + "[] chunk = chunks[i >>> CHUNK_SHIFT];",
+            "    final int length = Math.min(CHUNK_SIZE, size - i);",
+            "    for(int j = 0; j < length; j++)",
+            "        action.accept(i + j, chunk[j]);",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "return Arrays.toString(this.copyOf());"
+        );
+        w.addAnnotatedMethod("@Override", "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + " list = (" + classname + ") object;",
+            "if(size != list.size)",
+            "    return false;",
+            "for(int i = 0; i < size; i += CHUNK_SIZE){",
+            "    final int length = Math.min(CHUNK_SIZE, size - i);",
+            "    if(!Arrays.equals(chunks[i >>> CHUNK_SHIFT], 0, length, list.chunks[i >>> CHUNK_SHIFT], 0, length))",
+            "        return false;",
+            "}",
+            "return true;"
+        );
+        w.addAnnotatedMethod("@Override", "public int hashCode()",
+            "int hash = 1;",
+            "for(int i = 0; i < size; i++)",
+            "    hash = 31 * hash + " + datatypeWrapper + ".hashCode(chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK]);",
+            "return hash;"
+        );
+        w.addAnnotatedMethod("@Override", "public " + datatypeName + "Iterator iterator()",
+            "return new " + datatypeName + "Iterator() {",
+            "    private int index;",
+            "    @Override",
+            "    public boolean hasNext() {",
+            "        return (index < size);",
+            "    }",
+            "    @Override",
+            "    public " + datatype + " next" + datatypeName + "() {",
+            "        if(index >= size)",
+            "            throw new NoSuchElementException();",
+            "        final int i = index++;",
+            "        return chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK];",
+            "    }",
+            "};"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -11,6 +11,8 @@ public class ClassWriter {
     private static final String TAB = "    ";
 
     private final String packagе, name, generics, header;
+    private String kind;
+    private final List<String> annotations;
     private final List<String> imports;
     private final List<Method> constructors;
     private final List<Method> methods;
@@ -21,6 +23,8 @@ public class ClassWriter {
         this.name = name;
         this.generics = generics;
         this.header = header;
+        this.kind = "class";
+        this.annotations = new ArrayList<>();
         this.imports = new ArrayList<>();
         this.constructors = new ArrayList<>();
         this.methods = new ArrayList<>();
@@ -28,6 +32,16 @@ public class ClassWriter {
     }
 
 
+    public ClassWriter asInterface() {
+        this.kind = "interface";
+        return this;
+    }
+
+    public ClassWriter addClassAnnotation(String annotation) {
+        this.annotations.add(annotation);
+        return this;
+    }
+
     public ClassWriter addImport(String importName) {
         this.imports.add(importName);
         return this;
@@ -58,6 +72,16 @@ public class ClassWriter {
         return this;
     }
 
+    public ClassWriter addAbstractMethod(String header) {
+        this.methods.add(new Method(null, header, (String[]) null));
+        return this;
+    }
+
+    public ClassWriter addAnnotatedAbstractMethod(String annotation, String header) {
+        this.methods.add(new Method(annotation, header, (String[]) null));
+        return this;
+    }
+
     public ClassWriter addMethodSplitter() {
         this.methods.add(null);
         return this;
@@ -78,8 +102,9 @@ public class ClassWriter {
             builder.append("\n");
         }
         // class
-
-        builder.append("public class " + name);
+        for(String annotation: annotations)
+            builder.append(annotation + "\n");
+        builder.append("public " + kind + " " + name);
         if(!generics.isEmpty()) builder.append(generics);
         if(!header.isEmpty()) builder.append(" " + header);
         builder.append(" {\n\n");
@@ -109,10 +134,16 @@ public class ClassWriter {
             if(method != null){
                 if(method.annotation != null)
                     builder.append(TAB + method.annotation + "\n");
-                builder.append(TAB + method.header + " {\n");
-                for(String line: method.lines)
-                    builder.append(TAB + TAB + line + "\n");
-                builder.append(TAB + "}\n");
+                if(method.lines == null){
+                    builder.append(TAB + method.header + ";\n");
+                }else{
+                    builder.append(TAB + method.header + " {\n");
+                    // null lines are skipped, generators use them for lines only some classes need
+                    for(String line: method.lines)
+                        if(line != null)
+                            builder.append(TAB + TAB + line + "\n");
+                    builder.append(TAB + "}\n");
+                }
             }
             builder.append("\n");
         }
@@ -127,7 +158,7 @@ public class ClassWriter {
 
         try {
             final File file = new File(path + "/" + name + ".java");
-            file.mkdirs();
+            file.getParentFile().mkdirs();
             file.createNewFile();
 
             final PrintStream printStream = new PrintStream(file);
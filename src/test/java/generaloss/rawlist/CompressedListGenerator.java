@@ -0,0 +1,285 @@
+package generaloss.rawlist;
+
+public class CompressedListGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+        final boolean isLong = datatype.equals("long");
+        final String signShift = (isLong ? "63" : "31");
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.*");
+
+        // fields
+        w.addField("// elements are stored in blocks: the first value of a block, then the deltas to the previous value,");
+        w.addField("// each zigzag encoded as a varint. The directory holds the byte offset of every block");
+        w.addField("public static final int BLOCK_SHIFT = 7;");
+        w.addField("public static final int BLOCK_SIZE = (1 << BLOCK_SHIFT);");
+        w.addField("private static final int BLOCK_MASK = (BLOCK_SIZE - 1);");
+        w.addField("// decoded blocks, direct-mapped by block index");
+        w.addField("private static final int CACHE_SIZE = 8;\n");
+        w.addField("private byte[] data;");
+        w.addField("private int dataSize;");
+        w.addField("private int[] blockOffsets;");
+        w.addField("private int size;");
+        w.addField("private " + datatype + " last;\n");
+        w.addField("private final " + datatype + "[][] cache = new " + datatype + "[CACHE_SIZE][];");
+        w.addField("private final int[] cacheBlocks = new int[CACHE_SIZE];");
+
+        // constructors
+        w.addConstructor("()",
+            "this.data = new byte[64];",
+            "this.blockOffsets = new int[4];",
+            "Arrays.fill(cacheBlocks, -1);"
+        );
+        w.addConstructor("(" + datatype + "... items)",
+            "this();",
+            "this.add(items);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this();",
+            "this.add(list);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+        w.addMethod("public int blockCount()",
+            "return ((size + BLOCK_MASK) >>> BLOCK_SHIFT);"
+        );
+        w.addAnnotatedMethod("// encoded bytes plus the block directory",
+            "public long compressedBytes()",
+            "return (dataSize + (long) this.blockCount() * Integer.BYTES);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "final int indexInBlock = (size & BLOCK_MASK);",
+            "final int block = (size >>> BLOCK_SHIFT);",
+            "if(indexInBlock == 0){",
+            "    if(block == blockOffsets.length)",
+            "        blockOffsets = Arrays.copyOf(blockOffsets, ArrayUtils.newLength(block, 1, block));",
+            "    blockOffsets[block] = dataSize;",
+            "    last = 0;",
+            "}",
+            "if(dataSize + " + (isLong ? "10" : "5") + " > data.length)",
+            "    data = Arrays.copyOf(data, ArrayUtils.newLength(data.length, " + (isLong ? "10" : "5") + ", data.length >> 1));",
+            "",
+            datatype + " value = ((element - last) << 1) ^ ((element - last) >> " + signShift + ");",
+            "while((value & ~0x7F) != 0){",
+            "    data[dataSize++] = (byte) ((value & 0x7F) | 0x80);",
+            "    value >>>= 7;",
+            "}",
+            "data[dataSize++] = (byte) value;",
+            "",
+            "last = element;",
+            "size++;",
+            "if(cacheBlocks[block & (CACHE_SIZE - 1)] == block)",
+            "    cacheBlocks[block & (CACHE_SIZE - 1)] = -1;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "[] elements, int offset, int length)",
+            "for(int i = 0; i < length; i++)",
+            "    this.add(elements[offset + i]);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "return this.add(elements, 0, elements.length);"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "return this.add(list.array(), 0, list.size());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " clear()",
+            "dataSize = 0;",
+            "size = 0;",
+            "Arrays.fill(cacheBlocks, -1);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " trim()",
+            "data = Arrays.copyOf(data, dataSize);",
+            "blockOffsets = Arrays.copyOf(blockOffsets, this.blockCount());",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// decodes count values of a block into dst",
+            "private void decodeBlock(int block, " + datatype + "[] dst, int count)",
+            "int position = blockOffsets[block];",
+            datatype + " value = 0;",
+            "for(int k = 0; k < count; k++){",
+            "    " + datatype + " raw = 0;",
+            "    int shift = 0;",
+            "    byte b;",
+            "    do{",
+            "        b = data[position++];",
+            "        raw |= (" + (isLong ? "(long) " : "") + "(b & 0x7F) << shift);",
+            "        shift += 7;",
+            "    }while(b < 0);",
+            "    value += ((raw >>> 1) ^ -(raw & 1));",
+            "    dst[k] = value;",
+            "}"
+        );
+        w.addMethod("private int blockLength(int block)",
+            "return Math.min(BLOCK_SIZE, size - (block << BLOCK_SHIFT));"
+        );
+        w.addAnnotatedMethod("// the cache makes reads mutate state, concurrent readers need external synchronization",
+            "private " + datatype + "[] cachedBlock(int block)",
+            "final int slot = (block & (CACHE_SIZE - 1));",
+            "if(cacheBlocks[slot] != block){",
+            "    if(cache[slot] == null)",
+            "        cache[slot] = new " + datatype + "[BLOCK_SIZE];",
+            "    this.decodeBlock(block, cache[slot], this.blockLength(block));",
+            "    cacheBlocks[slot] = block;",
+            "}",
+            "return cache[slot];"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(int i)",
+            "Objects.checkIndex(i, size);",
+            "return this.cachedBlock(i >>> BLOCK_SHIFT)[i & BLOCK_MASK];"
+        );
+        w.addMethod("public " + datatype + " getFirst()",
+            "return this.get(0);"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "Objects.checkIndex(0, size);",
+            "return last;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (this.indexOf(element) != -1);"
+        );
+        w.addMethod("public int indexOf(" + datatype + " element)",
+            "final " + datatype + "[] values = new " + datatype + "[BLOCK_SIZE];",
+            "final int blockCount = this.blockCount();",
+            "for(int block = 0; block < blockCount; block++){",
+            "    final int length = this.blockLength(block);",
+            "    this.decodeBlock(block, values, length);",
+            "    final int index = ArrayUtils.indexOf(values, element, 0, length);",
+            "    if(index != -1)",
+            "        return ((block << BLOCK_SHIFT) + index);",
+            "}",
+            "return -1;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " copyTo(" + datatype + "[] dst, int offset)",
+            "final " + datatype + "[] values = new " + datatype + "[BLOCK_SIZE];",
+            "final int blockCount = this.blockCount();",
+            "for(int block = 0; block < blockCount; block++){",
+            "    final int length = this.blockLength(block);",
+            "    this.decodeBlock(block, values, length);",
+            "    System.arraycopy(values, 0, dst, offset + (block << BLOCK_SHIFT), length);",
+            "}",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "final " + datatype + "[] array = new " + datatype + "[size];",
+            "this.copyTo(array, 0);",
+            "return array;"
+        );
+        w.addMethod("public " + listClassname + " toList()",
+            "return new " + listClassname + "(this.copyOf());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "final " + datatype + "[] values = new " + datatype + "[BLOCK_SIZE];",
+            "final int blockCount = this.blockCount();",
+            "for(int block = 0; block < blockCount; block++){",
+            "    final int length = this.blockLength(block);",
+            "    this.decodeBlock(block, values, length);",
+            "    for(int i = 0; i < length; i++)",
+            "        action.accept(values[i]);",
+            "}"
+        );
+        w.addMethod("public void forEachIndexed(" + datatypeName + "IndexedConsumer action)",
+            "final " + datatype + "[] values = new " + datatype + "[BLOCK_SIZE];",
+            "final int blockCount = this.blockCount();",
+            "for(int block = 0; block < blockCount; block++){",
+            "    final int length = this.blockLength(block);",
+            "    this.decodeBlock(block, values, length);",
+            "    for(int i = 0; i < length; i++)",
+            "        action.accept((block << BLOCK_SHIFT) + i, values[i]);",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "return Arrays.toString(this.copyOf());"
+        );
+        w.addAnnotatedMethod("// the encoding is deterministic, equal contents give equal bytes\n    @Override",
+            "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + " list = (" + classname + ") object;",
+            "return (size == list.size && Arrays.equals(data, 0, dataSize, list.data, 0, list.dataSize));"
+        );
+        w.addAnnotatedMethod("@Override", "public int hashCode()",
+            "int hash = size;",
+            "for(int i = 0; i < dataSize; i++)",
+            "    hash = 31 * hash + data[i];",
+            "return hash;"
+        );
+        w.addAnnotatedMethod("@Override", "public " + datatypeName + "Iterator iterator()",
+            "return new " + datatypeName + "Iterator() {",
+            "    private final " + datatype + "[] values = new " + datatype + "[BLOCK_SIZE];",
+            "    private int index;",
+            "    @Override",
+            "    public boolean hasNext() {",
+            "        return (index < size);",
+            "    }",
+            "    @Override",
+            "    public " + datatype + " next" + datatypeName + "() {",
+            "        if(index >= size)",
+            "            throw new NoSuchElementException();",
+            "        if((index & BLOCK_MASK) == 0)",
+            "            decodeBlock(index >>> BLOCK_SHIFT, values, blockLength(index >>> BLOCK_SHIFT));",
+            "        return values[index++ & BLOCK_MASK];",
+            "    }",
+            "};"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -0,0 +1,301 @@
+package generaloss.rawlist;
+
+public class ConcurrentListGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.lang.invoke.MethodHandles");
+        w.addImport("java.lang.invoke.VarHandle");
+        w.addImport("java.util.*");
+        w.addImport("java.util.concurrent.atomic.AtomicInteger");
+        w.addImport("java.util.concurrent.atomic.AtomicReferenceArray");
+
+        // fields
+        w.addField("// bucket b holds (FIRST_BUCKET_SIZE << b) elements, buckets are never copied");
+        w.addField("private static final int FIRST_BUCKET_SHIFT = 6;");
+        w.addField("private static final int FIRST_BUCKET_SIZE = (1 << FIRST_BUCKET_SHIFT);");
+        w.addField("private static final int BUCKETS = (32 - FIRST_BUCKET_SHIFT);");
+        w.addField("public static final int MAX_CAPACITY = (Integer.MAX_VALUE - FIRST_BUCKET_SIZE);\n");
+        w.addField("private static final VarHandle READY = MethodHandles.arrayElementVarHandle(long[].class);\n");
+        w.addField("private final AtomicReferenceArray<" + datatype + "[]> buckets;");
+        w.addField("private final AtomicReferenceArray<long[]> readyBits;");
+        w.addField("// slots handed out to writers");
+        w.addField("private final AtomicInteger reserved;");
+        w.addField("// every slot below this index is written and visible to readers");
+        w.addField("private final AtomicInteger published;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(FIRST_BUCKET_SIZE);"
+        );
+        w.addConstructor("(int capacity)",
+            "if(capacity < 0 || capacity > MAX_CAPACITY)",
+            "   throw new IllegalArgumentException();",
+            "this.buckets = new AtomicReferenceArray<>(BUCKETS);",
+            "this.readyBits = new AtomicReferenceArray<>(BUCKETS);",
+            "this.reserved = new AtomicInteger();",
+            "this.published = new AtomicInteger();",
+            "",
+            "// presize so that producers do not race on bucket allocation",
+            "if(capacity > 0){",
+            "    final int lastBucket = bucketOf(capacity - 1 + FIRST_BUCKET_SIZE);",
+            "    for(int i = 0; i <= lastBucket; i++)",
+            "        this.bucket(i);",
+            "}"
+        );
+        w.addConstructor("(" + datatype + "... items)",
+            "this(items.length);",
+            "this.add(items);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this(list.size());",
+            "this.add(list);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public int size()",
+            "return published.get();"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (this.size() == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (this.size() != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("private static int bucketOf(int position)",
+            "return (31 - Integer.numberOfLeadingZeros(position) - FIRST_BUCKET_SHIFT);"
+        );
+        w.addMethod("private static int offsetOf(int position, int bucket)",
+            "return (position - (FIRST_BUCKET_SIZE << bucket));"
+        );
+        w.addMethod("private " + datatype + "[] bucket(int bucket)",
+            "final " + datatype + "[] values = buckets.get(bucket);",
+            "if(values != null)",
+            "    return values;",
+            "",
+            "final int length = (FIRST_BUCKET_SIZE << bucket);",
+            "readyBits.compareAndSet(bucket, null, new long[length >>> 6]);",
+            "buckets.compareAndSet(bucket, null, new " + datatype + "[length]);",
+            "return buckets.get(bucket);"
+        );
+        w.addMethod("private int reserve(int count)",
+            "while(true){",
+            "    final int index = reserved.get();",
+            "    if(count > MAX_CAPACITY - index)",
+            "        throw new OutOfMemoryError(\"Required capacity \" + ((long) index + count) + \" exceeds \" + MAX_CAPACITY);",
+            "    if(reserved.compareAndSet(index, index + count))",
+            "        return index;",
+            "}"
+        );
+        w.addMethod("private void markReady(int from, int to)",
+            "while(from < to){",
+            "    final int position = (from + FIRST_BUCKET_SIZE);",
+            "    final int bucket = bucketOf(position);",
+            "    final int offset = offsetOf(position, bucket);",
+            "    final int count = Math.min(to - from, Math.min(64 - (offset & 63), (FIRST_BUCKET_SIZE << bucket) - offset));",
+            "    final long mask = ((count == 64 ? -1L : (1L << count) - 1L) << offset);",
+            "    READY.getAndBitwiseOr(readyBits.get(bucket), offset >>> 6, mask);",
+            "    from += count;",
+            "}"
+        );
+        w.addMethod("private int readyFrom(int index)",
+            "while(true){",
+            "    final int position = (index + FIRST_BUCKET_SIZE);",
+            "    final int bucket = bucketOf(position);",
+            "    final long[] ready = readyBits.get(bucket);",
+            "    if(ready == null)",
+            "        return index;",
+            "",
+            "    final int offset = offsetOf(position, bucket);",
+            "    final long word = (long) READY.getVolatile(ready, offset >>> 6);",
+            "    final long notReady = (~word & (-1L << offset));",
+            "    if(notReady != 0)",
+            "        return (index + Long.numberOfTrailingZeros(notReady) - (offset & 63));",
+            "    index += (64 - (offset & 63));",
+            "}"
+        );
+        w.addAnnotatedMethod("// advances the published prefix over every contiguous ready slot. A writer that stops at a slot\n    // still being written leaves the rest to that slot's writer, which is guaranteed to see our bits",
+            "private void publish()",
+            "int index = published.get();",
+            "while(true){",
+            "    final int ready = this.readyFrom(index);",
+            "    if(ready == index)",
+            "        return;",
+            "    if(published.compareAndSet(index, ready)){",
+            "        index = ready;",
+            "    }else{",
+            "        index = published.get();",
+            "    }",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "final int index = this.reserve(1);",
+            "final int position = (index + FIRST_BUCKET_SIZE);",
+            "final int bucket = bucketOf(position);",
+            "final int offset = offsetOf(position, bucket);",
+            "this.bucket(bucket)[offset] = element;",
+            "READY.getAndBitwiseOr(readyBits.get(bucket), offset >>> 6, 1L << offset);",
+            "this.publish();",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "return this.add(elements, 0, elements.length);"
+        );
+        w.addAnnotatedMethod("// arguments are checked before reserving, a reserved slot that is never marked ready blocks publishing",
+            "public " + classname + " add(" + datatype + "[] elements, int offset, int length)",
+            "Objects.checkFromIndexSize(offset, length, elements.length);",
+            "if(length == 0)",
+            "    return this;",
+            "",
+            "final int index = this.reserve(length);",
+            "int copied = 0;",
+            "while(copied < length){",
+            "    final int position = (index + copied + FIRST_BUCKET_SIZE);",
+            "    final int bucket = bucketOf(position);",
+            "    final int bucketOffset = offsetOf(position, bucket);",
+            "    final int count = Math.min(length - copied, (FIRST_BUCKET_SIZE << bucket) - bucketOffset);",
+            "    System.arraycopy(elements, offset + copied, this.bucket(bucket), bucketOffset, count);",
+            "    copied += count;",
+            "}",
+            "this.markReady(index, index + length);",
+            "this.publish();",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "return this.add(list.array(), 0, list.size());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(int i)",
+            "Objects.checkIndex(i, published.get());",
+            "final int position = (i + FIRST_BUCKET_SIZE);",
+            "final int bucket = bucketOf(position);",
+            "return buckets.get(bucket)[offsetOf(position, bucket)];"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "return this.get(this.size() - 1);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (this.indexOf(element) != -1);"
+        );
+        w.addMethod("public int indexOf(" + datatype + " element)",
+            "final int size = published.get();",
+            "int index = 0;",
+            "for(int bucket = 0; index < size; bucket++){",
+            "    final " + datatype + "[] values = buckets.get(bucket);",
+            "    final int length = Math.min(values.length, size - index);",
+            "    final int found = ArrayUtils.indexOf(values, element, 0, length);",
+            "    if(found != -1)",
+            "        return (index + found);",
+            "    index += length;",
+            "}",
+            "return -1;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// copies the first length published elements",
+            "private void copyTo(" + datatype + "[] dst, int length)",
+            "int copied = 0;",
+            "for(int bucket = 0; copied < length; bucket++){",
+            "    final " + datatype + "[] values = buckets.get(bucket);",
+            "    final int count = Math.min(values.length, length - copied);",
+            "    System.arraycopy(values, 0, dst, copied, count);",
+            "    copied += count;",
+            "}"
+        );
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "final " + datatype + "[] array = new " + datatype + "[published.get()];",
+            "this.copyTo(array, array.length);",
+            "return array;"
+        );
+        w.addMethod("public " + listClassname + " toList()",
+            "return new " + listClassname + "(this.copyOf());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "final int size = published.get();",
+            "int index = 0;",
+            "for(int bucket = 0; index < size; bucket++){",
+            "    final " + datatype + "[] values = buckets.get(bucket);",
+            "    final int length = Math.min(values.length, size - index);",
+            "    for(int i = 0; i < length; i++)",
+            "        action.accept(values[i]);",
+            "    index += length;",
+            "}"
+        );
+        w.addMethod("public void forEachIndexed(" + datatypeName + "IndexedConsumer action)",
+            "final int size = published.get();",
+            "int index = 0;",
+            "for(int bucket = 0; index < size; bucket++){",
+            "    final " + datatype + "[] values = buckets.get(bucket);",
+            "    final int length = Math.min(values.length, size - index);",
+            "    for(int i = 0; i < length; i++)",
+            "        action.accept(index + i, values[i]);",
+            "    index += length;",
+            "}"
+        );
+        w.addAnnotatedMethod("@Override", "public " + datatypeName + "Iterator iterator()",
+            "final int size = published.get();",
+            "return new " + datatypeName + "Iterator() {",
+            "    private int index, bucket, offset;",
+            "    private " + datatype + "[] values = (size == 0 ? null : buckets.get(0));",
+            "    @Override",
+            "    public boolean hasNext() {",
+            "        return (index < size);",
+            "    }",
+            "    @Override",
+            "    public " + datatype + " next" + datatypeName + "() {",
+            "        if(index >= size)",
+            "            throw new NoSuchElementException();",
+            "        if(offset == values.length){",
+            "            values = buckets.get(++bucket);",
+            "            offset = 0;",
+            "        }",
+            "        index++;",
+            "        return values[offset++];",
+            "    }",
+            "};"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "return Arrays.toString(this.copyOf());"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -0,0 +1,283 @@
+package generaloss.rawlist;
+
+public class DequeGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+        final String bufferClass = ListGenerator.PRIMITIVE_BUFFER_MAP.get(datatype);
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.*");
+        w.addImport("java.nio." + bufferClass);
+
+        // fields
+        w.addField("public static final int DEFAULT_CAPACITY = 16;");
+        w.addField("public static final int MAX_CAPACITY = (1 << 30);\n");
+        w.addField("// ring buffer, the capacity is always a power of two so wrapping is a mask");
+        w.addField("private " + datatype + "[] array;");
+        w.addField("private int head;");
+        w.addField("private int size;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(DEFAULT_CAPACITY);"
+        );
+        w.addConstructor("(int capacity)",
+            "if(capacity < 0 || capacity > MAX_CAPACITY)",
+            "   throw new IllegalArgumentException();",
+            "this.array = new " + datatype + "[capacityFor(capacity)];"
+        );
+        w.addConstructor("(" + datatype + "... items)",
+            "this(items.length);",
+            "this.addLast(items);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this(list.size());",
+            "this.addLast(list);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public int capacity()",
+            "return array.length;"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("private static int capacityFor(int capacity)",
+            "return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);"
+        );
+        w.addMethod("private void grow(int minCapacity)",
+            "if(minCapacity < 0 || minCapacity > MAX_CAPACITY)",
+            "    throw new OutOfMemoryError(\"Required capacity \" + minCapacity + \" exceeds \" + MAX_CAPACITY);",
+            "",
+            "final " + datatype + "[] newArray = new " + datatype + "[capacityFor(minCapacity)];",
+            "this.copyTo(newArray, 0);",
+            "array = newArray;",
+            "head = 0;"
+        );
+        w.addMethod("private int index(int i)",
+            "return ((head + i) & (array.length - 1));"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " addFirst(" + datatype + " element)",
+            "if(size == array.length)",
+            "    this.grow(size + 1);",
+            "",
+            "head = ((head - 1) & (array.length - 1));",
+            "array[head] = element;",
+            "size++;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " addLast(" + datatype + " element)",
+            "if(size == array.length)",
+            "    this.grow(size + 1);",
+            "",
+            "array[this.index(size)] = element;",
+            "size++;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "return this.addLast(element);"
+        );
+        w.addMethod("public " + classname + " addLast(" + datatype + "[] elements, int offset, int length)",
+            "if(size + length > array.length)",
+            "    this.grow(size + length);",
+            "",
+            "final int start = this.index(size);",
+            "final int first = Math.min(length, array.length - start);",
+            "System.arraycopy(elements, offset, array, start, first);",
+            "System.arraycopy(elements, offset + first, array, 0, length - first);",
+            "size += length;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " addLast(" + datatype + "... elements)",
+            "return this.addLast(elements, 0, elements.length);"
+        );
+        w.addMethod("public " + classname + " addLast(" + listClassname + " list)",
+            "return this.addLast(list.array(), 0, list.size());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " removeFirst()",
+            "if(size == 0)",
+            "    throw new NoSuchElementException();",
+            "",
+            "final " + datatype + " value = array[head];",
+            "head = ((head + 1) & (array.length - 1));",
+            "size--;",
+            "return value;"
+        );
+        w.addMethod("public " + datatype + " removeLast()",
+            "if(size == 0)",
+            "    throw new NoSuchElementException();",
+            "",
+            "size--;",
+            "return array[this.index(size)];"
+        );
+        w.addMethod("public " + classname + " removeFirst(int length)",
+            "length = Math.min(Math.max(0, length), size);",
+            "head = this.index(length);",
+            "size -= length;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " removeLast(int length)",
+            "size -= Math.min(Math.max(0, length), size);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " clear()",
+            "head = 0;",
+            "size = 0;",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(int i)",
+            "Objects.checkIndex(i, size);",
+            "return array[this.index(i)];"
+        );
+        w.addMethod("public " + datatype + " getFirst()",
+            "if(size == 0)",
+            "    throw new NoSuchElementException();",
+            "return array[head];"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "if(size == 0)",
+            "    throw new NoSuchElementException();",
+            "return array[this.index(size - 1)];"
+        );
+        w.addMethod("public " + classname + " set(int i, " + datatype + " newValue)",
+            "Objects.checkIndex(i, size);",
+            "array[this.index(i)] = newValue;",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (this.indexOf(element) != -1);"
+        );
+        w.addMethod("public int indexOf(" + datatype + " element)",
+            "final int first = Math.min(size, array.length - head);",
+            "final int index = ArrayUtils.indexOf(array, element, head, head + first);",
+            "if(index != -1)",
+            "    return (index - head);",
+            "final int wrapped = ArrayUtils.indexOf(array, element, 0, size - first);",
+            "return (wrapped == -1 ? -1 : first + wrapped);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// moves up to length elements from the front onto the end of the list",
+            "public int drainTo(" + listClassname + " list, int length)",
+            "length = Math.min(Math.max(0, length), size);",
+            "final int first = Math.min(length, array.length - head);",
+            "list.addAll(" + bufferClass + ".wrap(array, head, first));",
+            "if(first < length)",
+            "    list.addAll(" + bufferClass + ".wrap(array, 0, length - first));",
+            "this.removeFirst(length);",
+            "return length;"
+        );
+        w.addMethod("public int drainTo(" + listClassname + " list)",
+            "return this.drainTo(list, size);"
+        );
+        w.addMethod("public " + classname + " copyTo(" + datatype + "[] dst, int offset)",
+            "final int first = Math.min(size, array.length - head);",
+            "System.arraycopy(array, head, dst, offset, first);",
+            "System.arraycopy(array, 0, dst, offset + first, size - first);",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "final " + datatype + "[] copy = new " + datatype + "[size];",
+            "this.copyTo(copy, 0);",
+            "return copy;"
+        );
+        w.addMethod("public " + listClassname + " toList()",
+            "return new " + listClassname + "(this.copyOf());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(array[this.index(i)]);"
+        );
+        w.addMethod("public void forEachIndexed(" + datatypeName + "IndexedConsumer action)",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(i, array[this.index(i)]);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "return Arrays.toString(this.copyOf());"
+        );
+        w.addAnnotatedMethod("@Override", "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + " deque = (" + classname + ") object;",
+            "if(size != deque.size)",
+            "    return false;",
+            "for(int i = 0; i < size; i++)",
+            "    if(" + datatypeWrapper + ".compare(array[this.index(i)], deque.array[deque.index(i)]) != 0)",
+            "        return false;",
+            "return true;"
+        );
+        w.addAnnotatedMethod("@Override", "public int hashCode()",
+            "int hash = 1;",
+            "for(int i = 0; i < size; i++)",
+            "    hash = 31 * hash + " + datatypeWrapper + ".hashCode(array[this.index(i)]);",
+            "return hash;"
+        );
+        w.addAnnotatedMethod("@Override", "public " + datatypeName + "Iterator iterator()",
+            "return new " + datatypeName + "Iterator() {",
+            "    private int index;",
+            "    @Override",
+            "    public boolean hasNext() {",
+            "        return (index < size);",
+            "    }",
+            "    @Override",
+            "    public " + datatype + " next" + datatypeName + "() {",
+            "        if(index >= size)",
+            "            throw new NoSuchElementException();",
+            "        return array[index(index++)];",
+            "    }",
+            "};"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -0,0 +1,343 @@
+package generaloss.rawlist;
+
+public class HashMapGenerator {
+
+    // valueType "V" generates a map with generic values
+    public static void newClass(String classname, String keyType, String valueType) {
+        final boolean isGeneric = valueType.equals("V");
+        final boolean isLongKey = keyType.equals("long");
+        final String keyName = ListGenerator.PRIMITIVE_NAME_MAP.get(keyType);
+        final String keyWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(keyType);
+        final String valueName = (isGeneric ? "Object" : ListGenerator.PRIMITIVE_NAME_MAP.get(valueType));
+        final String valueWrapper = (isGeneric ? "V" : ListGenerator.PRIMITIVE_WRAPPER_MAP.get(valueType));
+        final String keyList = (keyName + "List");
+        final String valueList = (isGeneric ? "List<V>" : valueName + "List");
+        final String consumer = (keyName + valueName + "Consumer" + (isGeneric ? "<? super V>" : ""));
+        final String noValue = (isGeneric ? "null" : "0");
+        final String self = (classname + (isGeneric ? "<V>" : ""));
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, (isGeneric ? "<V>" : ""), "");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.*");
+
+        // fields
+        w.addField("public static final int DEFAULT_CAPACITY = 16;");
+        w.addField("public static final int MAX_CAPACITY = (1 << 30);\n");
+        w.addField("// linear probing over flat arrays, key 0 marks a free slot so the 0 key is stored aside");
+        w.addField("private " + keyType + "[] keys;");
+        w.addField("private " + valueType + "[] values;");
+        w.addField("private int mask;");
+        w.addField("private int threshold;");
+        w.addField("private int size;");
+        w.addField("private boolean hasZeroKey;");
+        w.addField("private " + valueType + " zeroValue;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(DEFAULT_CAPACITY);"
+        );
+        w.addConstructor("(int expectedSize)",
+            "if(expectedSize < 0)",
+            "   throw new IllegalArgumentException();",
+            "this.allocate(capacityFor(expectedSize));"
+        );
+        w.addConstructor("(" + self + " map)",
+            "this.keys = map.keys.clone();",
+            "this.values = map.values.clone();",
+            "this.mask = map.mask;",
+            "this.threshold = map.threshold;",
+            "this.size = map.size;",
+            "this.hasZeroKey = map.hasZeroKey;",
+            "this.zeroValue = map.zeroValue;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public int capacity()",
+            "return keys.length;"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// power of two with a load factor of 3/4",
+            "private static int capacityFor(int expectedSize)",
+            "final long minCapacity = Math.max(4L, (expectedSize * 4L + 2) / 3);",
+            "if(minCapacity > MAX_CAPACITY)",
+            "    throw new OutOfMemoryError(\"Required capacity exceeds \" + MAX_CAPACITY);",
+            "return (Integer.highestOneBit((int) minCapacity - 1) << 1);"
+        );
+        if(isGeneric){
+            w.addAnnotatedMethod("@SuppressWarnings(\"unchecked\")", "private void allocate(int capacity)",
+                "keys = new " + keyType + "[capacity];",
+                "values = (V[]) new Object[capacity];",
+                "mask = (capacity - 1);",
+                "threshold = ((capacity >>> 2) * 3);"
+            );
+        }else{
+            w.addMethod("private void allocate(int capacity)",
+                "keys = new " + keyType + "[capacity];",
+                "values = new " + valueType + "[capacity];",
+                "mask = (capacity - 1);",
+                "threshold = ((capacity >>> 2) * 3);"
+            );
+        }
+        w.addMethod("private int slot(" + keyType + " key)",
+            (isLongKey ? "final long h = (key * 0x9E3779B97F4A7C15L);" : "final int h = (key * 0x9E3779B9);"),
+            (isLongKey ? "return ((int) (h ^ (h >>> 32)) & mask);" : "return ((h ^ (h >>> 16)) & mask);")
+        );
+        w.addMethod("private void rehash(int newCapacity)",
+            "final " + keyType + "[] oldKeys = keys;",
+            "final " + valueType + "[] oldValues = values;",
+            "this.allocate(newCapacity);",
+            "for(int i = 0; i < oldKeys.length; i++){",
+            "    final " + keyType + " key = oldKeys[i];",
+            "    if(key == 0)",
+            "        continue;",
+            "    int slot = this.slot(key);",
+            "    while(keys[slot] != 0)",
+            "        slot = ((slot + 1) & mask);",
+            "    keys[slot] = key;",
+            "    values[slot] = oldValues[i];",
+            "}"
+        );
+        w.addMethod("public " + self + " ensureCapacity(int expectedSize)",
+            "final int capacity = capacityFor(expectedSize);",
+            "if(capacity > keys.length)",
+            "    this.rehash(capacity);",
+            "return this;"
+        );
+        w.addAnnotatedMethod("// slot of the key, or -1",
+            "private int find(" + keyType + " key)",
+            "int slot = this.slot(key);",
+            "while(keys[slot] != 0){",
+            "    if(keys[slot] == key)",
+            "        return slot;",
+            "    slot = ((slot + 1) & mask);",
+            "}",
+            "return -1;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// returns the previous value, or " + noValue + " if there was none",
+            "public " + valueType + " put(" + keyType + " key, " + valueType + " value)",
+            "if(key == 0){",
+            "    final " + valueType + " previous = zeroValue;",
+            "    if(!hasZeroKey){",
+            "        hasZeroKey = true;",
+            "        size++;",
+            "    }",
+            "    zeroValue = value;",
+            "    return previous;",
+            "}",
+            "",
+            "int slot = this.slot(key);",
+            "while(keys[slot] != 0){",
+            "    if(keys[slot] == key){",
+            "        final " + valueType + " previous = values[slot];",
+            "        values[slot] = value;",
+            "        return previous;",
+            "    }",
+            "    slot = ((slot + 1) & mask);",
+            "}",
+            "keys[slot] = key;",
+            "values[slot] = value;",
+            "if(++size > threshold)",
+            "    this.rehash(keys.length << 1);",
+            "return " + noValue + ";"
+        );
+        w.addMethod("public " + self + " putAll(" + self + " map)",
+            "if(map.hasZeroKey)",
+            "    this.put(0, map.zeroValue);",
+            "for(int i = 0; i < map.keys.length; i++)",
+            "    if(map.keys[i] != 0)",
+            "        this.put(map.keys[i], map.values[i]);",
+            "return this;"
+        );
+        if(!isGeneric){
+            w.addAnnotatedMethod("// adds delta to the value of the key (absent counts as 0), returns the new value",
+                "public " + valueType + " addTo(" + keyType + " key, " + valueType + " delta)",
+                "if(key == 0){",
+                "    if(!hasZeroKey){",
+                "        hasZeroKey = true;",
+                "        size++;",
+                "    }",
+                "    return (zeroValue += delta);",
+                "}",
+                "",
+                "int slot = this.slot(key);",
+                "while(keys[slot] != 0){",
+                "    if(keys[slot] == key)",
+                "        return (values[slot] += delta);",
+                "    slot = ((slot + 1) & mask);",
+                "}",
+                "keys[slot] = key;",
+                "values[slot] = delta;",
+                "if(++size > threshold)",
+                "    this.rehash(keys.length << 1);",
+                "return delta;"
+            );
+        }
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + valueType + " get(" + keyType + " key)",
+            "return this.getOrDefault(key, " + noValue + ");"
+        );
+        w.addMethod("public " + valueType + " getOrDefault(" + keyType + " key, " + valueType + " defaultValue)",
+            "if(key == 0)",
+            "    return (hasZeroKey ? zeroValue : defaultValue);",
+            "final int slot = this.find(key);",
+            "return (slot == -1 ? defaultValue : values[slot]);"
+        );
+        w.addMethod("public boolean containsKey(" + keyType + " key)",
+            "return (key == 0 ? hasZeroKey : this.find(key) != -1);"
+        );
+        w.addMethod("public boolean containsValue(" + valueType + " value)",
+            "if(hasZeroKey && " + (isGeneric ? "Objects.equals(zeroValue, value)" : "zeroValue == value") + ")",
+            "    return true;",
+            "for(int i = 0; i < keys.length; i++)",
+            "    if(keys[i] != 0 && " + (isGeneric ? "Objects.equals(values[i], value)" : "values[i] == value") + ")",
+            "        return true;",
+            "return false;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// returns the removed value, or " + noValue + " if the key was absent",
+            "public " + valueType + " remove(" + keyType + " key)",
+            "if(key == 0){",
+            "    final " + valueType + " previous = zeroValue;",
+            "    if(hasZeroKey){",
+            "        hasZeroKey = false;",
+            "        zeroValue = " + noValue + ";",
+            "        size--;",
+            "    }",
+            "    return previous;",
+            "}",
+            "",
+            "final int slot = this.find(key);",
+            "if(slot == -1)",
+            "    return " + noValue + ";",
+            "final " + valueType + " previous = values[slot];",
+            "this.shiftBack(slot);",
+            "size--;",
+            "return previous;"
+        );
+        w.addAnnotatedMethod("// backward shift deletion: entries after the hole move into it unless that would put them before their home slot",
+            "private void shiftBack(int hole)",
+            "int slot = hole;",
+            "while(true){",
+            "    slot = ((slot + 1) & mask);",
+            "    final " + keyType + " key = keys[slot];",
+            "    if(key == 0)",
+            "        break;",
+            "    final int home = this.slot(key);",
+            "    if(hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot))",
+            "        continue;",
+            "    keys[hole] = key;",
+            "    values[hole] = values[slot];",
+            "    hole = slot;",
+            "}",
+            "keys[hole] = 0;",
+            "values[hole] = " + noValue + ";"
+        );
+        w.addMethod("public " + self + " clear()",
+            "Arrays.fill(keys, 0);",
+            (isGeneric ? "Arrays.fill(values, null);" : "Arrays.fill(values, 0);"),
+            "hasZeroKey = false;",
+            "zeroValue = " + noValue + ";",
+            "size = 0;",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + keyList + " keys()",
+            "final " + keyList + " list = new " + keyList + "(size);",
+            "if(hasZeroKey)",
+            "    list.add(0);",
+            "for(" + keyType + " key: keys)",
+            "    if(key != 0)",
+            "        list.add(key);",
+            "return list;"
+        );
+        w.addAnnotatedMethod("// in the same order as keys()",
+            "public " + valueList + " values()",
+            "final " + valueList + " list = new " + (isGeneric ? "ArrayList<>" : valueList) + "(size);",
+            "if(hasZeroKey)",
+            "    list.add(zeroValue);",
+            "for(int i = 0; i < keys.length; i++)",
+            "    if(keys[i] != 0)",
+            "        list.add(values[i]);",
+            "return list;"
+        );
+        w.addMethod("public void forEach(" + consumer + " action)",
+            "if(hasZeroKey)",
+            "    action.accept(0, zeroValue);",
+            "for(int i = 0; i < keys.length; i++)",
+            "    if(keys[i] != 0)",
+            "        action.accept(keys[i], values[i]);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "final StringJoiner joiner = new StringJoiner(\", \", \"{\", \"}\");",
+            "this.forEach((key, value) -> joiner.add(key + \"=\" + value));",
+            "return joiner.toString();"
+        );
+        w.addAnnotatedMethod("@Override", "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + (isGeneric ? "<?>" : "") + " map = (" + classname + (isGeneric ? "<?>" : "") + ") object;",
+            "if(size != map.size || hasZeroKey != map.hasZeroKey)",
+            "    return false;",
+            "if(hasZeroKey && " + (isGeneric ? "!Objects.equals(zeroValue, map.zeroValue)" : "zeroValue != map.zeroValue") + ")",
+            "    return false;",
+            "for(int i = 0; i < keys.length; i++){",
+            "    if(keys[i] == 0)",
+            "        continue;",
+            "    final int slot = map.find(keys[i]);",
+            "    if(slot == -1 || " + (isGeneric ? "!Objects.equals(values[i], map.values[slot])" : "values[i] != map.values[slot]") + ")",
+            "        return false;",
+            "}",
+            "return true;"
+        );
+        w.addAnnotatedMethod("// same as java.util.Map: sum of key hash ^ value hash\n    @Override",
+            "public int hashCode()",
+            "int hash = (hasZeroKey ? " + (isGeneric ? "Objects.hashCode(zeroValue)" : valueWrapper + ".hashCode(zeroValue)") + " : 0);",
+            "for(int i = 0; i < keys.length; i++)",
+            "    if(keys[i] != 0)",
+            "        hash += (" + keyWrapper + ".hashCode(keys[i]) ^ " + (isGeneric ? "Objects.hashCode(values[i])" : valueWrapper + ".hashCode(values[i])") + ");",
+            "return hash;"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
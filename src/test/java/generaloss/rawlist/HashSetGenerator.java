@@ -0,0 +1,289 @@
+package generaloss.rawlist;
+
+public class HashSetGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final boolean isLong = datatype.equals("long");
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.*");
+
+        // fields
+        w.addField("public static final int DEFAULT_CAPACITY = 16;");
+        w.addField("public static final int MAX_CAPACITY = (1 << 30);\n");
+        w.addField("// linear probing over a flat array, 0 marks a free slot so the 0 element is stored aside");
+        w.addField("private " + datatype + "[] keys;");
+        w.addField("private int mask;");
+        w.addField("private int threshold;");
+        w.addField("private int size;");
+        w.addField("private boolean hasZero;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(DEFAULT_CAPACITY);"
+        );
+        w.addConstructor("(int expectedSize)",
+            "if(expectedSize < 0)",
+            "   throw new IllegalArgumentException();",
+            "this.allocate(capacityFor(expectedSize));"
+        );
+        w.addConstructor("(" + datatype + "... items)",
+            "this(items.length);",
+            "this.addAll(items);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this(list.size());",
+            "this.addAll(list);"
+        );
+        w.addConstructor("(" + classname + " set)",
+            "this.keys = set.keys.clone();",
+            "this.mask = set.mask;",
+            "this.threshold = set.threshold;",
+            "this.size = set.size;",
+            "this.hasZero = set.hasZero;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public int capacity()",
+            "return keys.length;"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// power of two with a load factor of 3/4",
+            "private static int capacityFor(int expectedSize)",
+            "final long minCapacity = Math.max(4L, (expectedSize * 4L + 2) / 3);",
+            "if(minCapacity > MAX_CAPACITY)",
+            "    throw new OutOfMemoryError(\"Required capacity exceeds \" + MAX_CAPACITY);",
+            "return (Integer.highestOneBit((int) minCapacity - 1) << 1);"
+        );
+        w.addMethod("private void allocate(int capacity)",
+            "keys = new " + datatype + "[capacity];",
+            "mask = (capacity - 1);",
+            "threshold = ((capacity >>> 2) * 3);"
+        );
+        w.addMethod("private int slot(" + datatype + " key)",
+            (isLong ? "final long h = (key * 0x9E3779B97F4A7C15L);" : "final int h = (key * 0x9E3779B9);"),
+            (isLong ? "return ((int) (h ^ (h >>> 32)) & mask);" : "return ((h ^ (h >>> 16)) & mask);")
+        );
+        w.addMethod("private void rehash(int newCapacity)",
+            "final " + datatype + "[] oldKeys = keys;",
+            "this.allocate(newCapacity);",
+            "for(" + datatype + " key: oldKeys){",
+            "    if(key == 0)",
+            "        continue;",
+            "    int slot = this.slot(key);",
+            "    while(keys[slot] != 0)",
+            "        slot = ((slot + 1) & mask);",
+            "    keys[slot] = key;",
+            "}"
+        );
+        w.addMethod("public " + classname + " ensureCapacity(int expectedSize)",
+            "final int capacity = capacityFor(expectedSize);",
+            "if(capacity > keys.length)",
+            "    this.rehash(capacity);",
+            "return this;"
+        );
+        w.addAnnotatedMethod("// slot of the key, or -1",
+            "private int find(" + datatype + " key)",
+            "int slot = this.slot(key);",
+            "while(keys[slot] != 0){",
+            "    if(keys[slot] == key)",
+            "        return slot;",
+            "    slot = ((slot + 1) & mask);",
+            "}",
+            "return -1;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// returns false if the element was already present",
+            "public boolean add(" + datatype + " element)",
+            "if(element == 0){",
+            "    if(hasZero)",
+            "        return false;",
+            "    hasZero = true;",
+            "    size++;",
+            "    return true;",
+            "}",
+            "",
+            "int slot = this.slot(element);",
+            "while(keys[slot] != 0){",
+            "    if(keys[slot] == element)",
+            "        return false;",
+            "    slot = ((slot + 1) & mask);",
+            "}",
+            "keys[slot] = element;",
+            "if(++size > threshold)",
+            "    this.rehash(keys.length << 1);",
+            "return true;"
+        );
+        w.addMethod("public " + classname + " addAll(" + datatype + "... elements)",
+            "for(" + datatype + " element: elements)",
+            "    this.add(element);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " addAll(" + listClassname + " list)",
+            "final " + datatype + "[] array = list.array();",
+            "for(int i = 0; i < list.size(); i++)",
+            "    this.add(array[i]);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " addAll(" + classname + " set)",
+            "if(set.hasZero)",
+            "    this.add(0);",
+            "for(" + datatype + " key: set.keys)",
+            "    if(key != 0)",
+            "        this.add(key);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (element == 0 ? hasZero : this.find(element) != -1);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// returns false if the element was absent",
+            "public boolean remove(" + datatype + " element)",
+            "if(element == 0){",
+            "    if(!hasZero)",
+            "        return false;",
+            "    hasZero = false;",
+            "    size--;",
+            "    return true;",
+            "}",
+            "",
+            "final int slot = this.find(element);",
+            "if(slot == -1)",
+            "    return false;",
+            "this.shiftBack(slot);",
+            "size--;",
+            "return true;"
+        );
+        w.addAnnotatedMethod("// backward shift deletion: entries after the hole move into it unless that would put them before their home slot",
+            "private void shiftBack(int hole)",
+            "int slot = hole;",
+            "while(true){",
+            "    slot = ((slot + 1) & mask);",
+            "    final " + datatype + " key = keys[slot];",
+            "    if(key == 0)",
+            "        break;",
+            "    final int home = this.slot(key);",
+            "    if(hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot))",
+            "        continue;",
+            "    keys[hole] = key;",
+            "    hole = slot;",
+            "}",
+            "keys[hole] = 0;"
+        );
+        w.addMethod("public " + classname + " clear()",
+            "Arrays.fill(keys, 0);",
+            "hasZero = false;",
+            "size = 0;",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + listClassname + " toList()",
+            "final " + listClassname + " list = new " + listClassname + "(size);",
+            "if(hasZero)",
+            "    list.add(0);",
+            "for(" + datatype + " key: keys)",
+            "    if(key != 0)",
+            "        list.add(key);",
+            "return list;"
+        );
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "return this.toList().array();"
+        );
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "if(hasZero)",
+            "    action.accept(0);",
+            "for(" + datatype + " key: keys)",
+            "    if(key != 0)",
+            "        action.accept(key);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "return Arrays.toString(this.copyOf());"
+        );
+        w.addAnnotatedMethod("@Override", "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + " set = (" + classname + ") object;",
+            "if(size != set.size || hasZero != set.hasZero)",
+            "    return false;",
+            "for(" + datatype + " key: keys)",
+            "    if(key != 0 && set.find(key) == -1)",
+            "        return false;",
+            "return true;"
+        );
+        w.addAnnotatedMethod("// same as java.util.Set: sum of the element hashes\n    @Override",
+            "public int hashCode()",
+            "int hash = 0;",
+            "for(" + datatype + " key: keys)",
+            "    hash += " + datatypeWrapper + ".hashCode(key);",
+            "return hash;"
+        );
+        w.addAnnotatedMethod("@Override", "public " + datatypeName + "Iterator iterator()",
+            "return new " + datatypeName + "Iterator() {",
+            "    // -1 stands for the zero element",
+            "    private int slot = (hasZero ? -1 : advance(0));",
+            "    private int advance(int from) {",
+            "        while(from < keys.length && keys[from] == 0)",
+            "            from++;",
+            "        return from;",
+            "    }",
+            "    @Override",
+            "    public boolean hasNext() {",
+            "        return (slot < keys.length);",
+            "    }",
+            "    @Override",
+            "    public " + datatype + " next" + datatypeName + "() {",
+            "        if(slot >= keys.length)",
+            "            throw new NoSuchElementException();",
+            "        final " + datatype + " key = (slot == -1 ? 0 : keys[slot]);",
+            "        slot = advance(slot + 1);",
+            "        return key;",
+            "    }",
+            "};"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -0,0 +1,140 @@
+package generaloss.rawlist;
+
+public class InterfaceGenerator {
+
+    public static void main(String[] args) {
+        for(String datatype: new String[]{"byte", "short", "int", "long", "float", "double", "boolean", "char"}){
+            newConsumer(datatype);
+            newIndexedConsumer(datatype);
+            newToFunction(datatype);
+        }
+        newGenericIndexedConsumer();
+
+        for(String datatype: new String[]{"byte", "short", "int", "long", "float", "double", "boolean", "char"})
+            newIterator(datatype);
+
+        for(String keyType: new String[]{"int", "long"})
+            for(String valueType: new String[]{"int", "long", "V"})
+                newEntryConsumer(keyType, valueType);
+    }
+
+    public static final String FUNCTION_PACKAGE = "generaloss.rawlist.function";
+    public static final String FUNCTION_SAVEPATH = "src/main/java/generaloss/rawlist/function/";
+
+    public static void newConsumer(String datatype) {
+        final String name = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final boolean hasJavaConsumer = ListGenerator.JAVA_PRIMITIVE_FUNCTIONS.contains(datatype);
+
+        final String classname = ListGenerator.consumerName(datatype);
+        final String header = ("extends Consumer<" + datatypeWrapper + ">" + (hasJavaConsumer ? ", java.util.function." + name + "Consumer" : ""));
+
+        final ClassWriter w = new ClassWriter(FUNCTION_PACKAGE, classname, "", header).asInterface();
+        w.addClassAnnotation("@FunctionalInterface");
+        w.addImport("java.util.function.Consumer");
+
+        if(hasJavaConsumer){
+            w.addAnnotatedAbstractMethod("@Override", "void accept(" + datatype + " value)");
+        }else{
+            w.addAbstractMethod("void accept(" + datatype + " value)");
+        }
+        w.addAnnotatedMethod("@Override", "default void accept(" + datatypeWrapper + " value)",
+            "this.accept(value." + datatype + "Value());"
+        );
+
+        w.write(FUNCTION_SAVEPATH);
+    }
+
+    public static void newToFunction(String datatype) {
+        final String name = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final boolean hasJavaFunction = ListGenerator.JAVA_PRIMITIVE_FUNCTIONS.contains(datatype);
+
+        final String classname = ListGenerator.toFunctionName(datatype);
+        final String header = ("extends Function<T, " + datatypeWrapper + ">" + (hasJavaFunction ? ", java.util.function.To" + name + "Function<T>" : ""));
+
+        final ClassWriter w = new ClassWriter(FUNCTION_PACKAGE, classname, "<T>", header).asInterface();
+        w.addClassAnnotation("@FunctionalInterface");
+        w.addImport("java.util.function.Function");
+
+        if(hasJavaFunction){
+            w.addAnnotatedAbstractMethod("@Override", datatype + " applyAs" + name + "(T value)");
+        }else{
+            w.addAbstractMethod(datatype + " applyAs" + name + "(T value)");
+        }
+        w.addAnnotatedMethod("@Override", "default " + datatypeWrapper + " apply(T value)",
+            "return this.applyAs" + name + "(value);"
+        );
+
+        w.write(FUNCTION_SAVEPATH);
+    }
+
+    public static void newIndexedConsumer(String datatype) {
+        final String name = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+
+        final ClassWriter w = new ClassWriter(FUNCTION_PACKAGE, name + "IndexedConsumer", "", "").asInterface();
+        w.addClassAnnotation("@FunctionalInterface");
+
+        w.addAbstractMethod("void accept(int index, " + datatype + " value)");
+
+        w.write(FUNCTION_SAVEPATH);
+    }
+
+    public static void newGenericIndexedConsumer() {
+        final ClassWriter w = new ClassWriter(FUNCTION_PACKAGE, "IndexedConsumer", "<T>", "").asInterface();
+        w.addClassAnnotation("@FunctionalInterface");
+
+        w.addAbstractMethod("void accept(int index, T value)");
+
+        w.write(FUNCTION_SAVEPATH);
+    }
+
+    // "V" as value type gives a generic consumer
+    public static void newEntryConsumer(String keyType, String valueType) {
+        final boolean isGeneric = valueType.equals("V");
+        final String name = (ListGenerator.PRIMITIVE_NAME_MAP.get(keyType) + (isGeneric ? "Object" : ListGenerator.PRIMITIVE_NAME_MAP.get(valueType)));
+
+        final ClassWriter w = new ClassWriter(FUNCTION_PACKAGE, name + "Consumer", (isGeneric ? "<V>" : ""), "").asInterface();
+        w.addClassAnnotation("@FunctionalInterface");
+
+        w.addAbstractMethod("void accept(" + keyType + " key, " + valueType + " value)");
+
+        w.write(FUNCTION_SAVEPATH);
+    }
+
+    public static void newIterator(String datatype) {
+        final String name = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final boolean hasJavaIterator = ListGenerator.JAVA_PRIMITIVE_FUNCTIONS.contains(datatype);
+        final String consumer = ListGenerator.consumerName(datatype);
+        final String next = ("next" + name);
+
+        final String header = (hasJavaIterator ? "extends PrimitiveIterator.Of" + name : "extends Iterator<" + datatypeWrapper + ">");
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", name + "Iterator", "", header).asInterface();
+        w.addImport(FUNCTION_PACKAGE + "." + consumer);
+        w.addImport(hasJavaIterator ? "java.util.PrimitiveIterator" : "java.util.Iterator");
+        w.addImport("java.util.function.Consumer");
+        if(!hasJavaIterator){
+            w.addAbstractMethod(datatype + " " + next + "()");
+            w.addAnnotatedMethod("@Override", "default " + datatypeWrapper + " next()",
+                "return this." + next + "();"
+            );
+        }
+        // more specific than both java overloads, so lambdas are not ambiguous
+        w.addMethod("default void forEachRemaining(" + consumer + " action)",
+            "while(this.hasNext())",
+            "    action.accept(this." + next + "());"
+        );
+        w.addAnnotatedMethod("@Override", "default void forEachRemaining(Consumer<? super " + datatypeWrapper + "> action)",
+            "if(action instanceof " + consumer + "){",
+            "    this.forEachRemaining((" + consumer + ") action);",
+            "}else{",
+            "    while(this.hasNext())",
+            "        action.accept(this." + next + "());",
+            "}"
+        );
+
+        w.write("src/main/java/generaloss/rawlist/");
+    }
+
+}
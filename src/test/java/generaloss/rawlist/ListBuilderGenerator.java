@@ -0,0 +1,104 @@
+package generaloss.rawlist;
+
+public class ListBuilderGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "");
+
+        // imports
+        w.addImport("java.util.concurrent.ConcurrentLinkedQueue");
+        w.addImport("java.util.stream.IntStream");
+
+        // fields
+        w.addField("public static final int PARALLEL_THRESHOLD = (1 << 16);\n");
+        w.addField("private final ThreadLocal<" + listClassname + "> local;");
+        w.addField("private final ConcurrentLinkedQueue<" + listClassname + "> shards;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(" + listClassname + ".DEFAULT_CAPACITY);"
+        );
+        w.addConstructor("(int shardCapacity)",
+            "if(shardCapacity < 0)",
+            "   throw new IllegalArgumentException();",
+            "this.shards = new ConcurrentLinkedQueue<>();",
+            "this.local = ThreadLocal.withInitial(() -> {",
+            "    final " + listClassname + " shard = new " + listClassname + "(shardCapacity);",
+            "    shards.add(shard);",
+            "    return shard;",
+            "});"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// the calling thread's shard, safe to fill without synchronization",
+            "public " + listClassname + " shard()",
+            "return local.get();"
+        );
+        w.addMethod("public int shardCount()",
+            "return shards.size();"
+        );
+        w.addMethod("public int size()",
+            "int size = 0;",
+            "for(" + listClassname + " shard: shards)",
+            "    size += shard.size();",
+            "return size;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "local.get().add(element);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "local.get().add(elements);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "local.get().add(list);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// shards are concatenated in the order their threads first touched the builder.\n    // Call once every producer is done (after join / executor shutdown)",
+            "public " + listClassname + " build()",
+            "final " + listClassname + "[] parts = shards.toArray(new " + listClassname + "[0]);",
+            "final int[] offsets = new int[parts.length];",
+            "long total = 0;",
+            "for(int i = 0; i < parts.length; i++){",
+            "    offsets[i] = (int) total;",
+            "    total += parts[i].size();",
+            "}",
+            "if(total > Integer.MAX_VALUE - 8)",
+            "    throw new OutOfMemoryError(\"Required array length \" + total + \" is too large\");",
+            "",
+            "final " + datatype + "[] array = new " + datatype + "[(int) total];",
+            "if(total >= PARALLEL_THRESHOLD && parts.length > 1){",
+            "    IntStream.range(0, parts.length).parallel().forEach(i ->",
+            "        System.arraycopy(parts[i].array(), 0, array, offsets[i], parts[i].size())",
+            "    );",
+            "}else{",
+            "    for(int i = 0; i < parts.length; i++)",
+            "        System.arraycopy(parts[i].array(), 0, array, offsets[i], parts[i].size());",
+            "}",
+            "return new " + listClassname + "(array);"
+        );
+        w.addMethod("public " + classname + " clear()",
+            "for(" + listClassname + " shard: shards)",
+            "    shard.clear();",
+            "return this;"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
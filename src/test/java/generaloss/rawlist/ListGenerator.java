@@ -1,11 +1,14 @@
 package generaloss.rawlist;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ListGenerator {
 
     public static void main(String[] args) {
+        InterfaceGenerator.main(args);
+
         newClass("ByteList", "byte", "10", "(byte) 0");
         newClass("ShortList", "short", "10", "(short) 0");
         newClass("IntList", "int", "10", "0");
@@ -15,6 +18,76 @@ public class ListGenerator {
         newClass("BoolList", "boolean", "10", "false");
         newClass("CharList", "char", "10", "(char) 0");
         newClass("StringList", "String", "3", "null");
+
+        OffHeapListGenerator.newClass("OffHeapByteList", "byte", "ByteList", "(byte) 0");
+        OffHeapListGenerator.newClass("OffHeapShortList", "short", "ShortList", "(short) 0");
+        OffHeapListGenerator.newClass("OffHeapIntList", "int", "IntList", "0");
+        OffHeapListGenerator.newClass("OffHeapLongList", "long", "LongList", "0L");
+        OffHeapListGenerator.newClass("OffHeapFloatList", "float", "FloatList", "0F");
+        OffHeapListGenerator.newClass("OffHeapDoubleList", "double", "DoubleList", "0D");
+        OffHeapListGenerator.newClass("OffHeapCharList", "char", "CharList", "(char) 0");
+
+        ConcurrentListGenerator.newClass("ConcurrentIntList", "int", "IntList");
+        ConcurrentListGenerator.newClass("ConcurrentLongList", "long", "LongList");
+        ConcurrentListGenerator.newClass("ConcurrentFloatList", "float", "FloatList");
+        ConcurrentListGenerator.newClass("ConcurrentDoubleList", "double", "DoubleList");
+
+        ListBuilderGenerator.newClass("ByteListBuilder", "byte", "ByteList");
+        ListBuilderGenerator.newClass("ShortListBuilder", "short", "ShortList");
+        ListBuilderGenerator.newClass("IntListBuilder", "int", "IntList");
+        ListBuilderGenerator.newClass("LongListBuilder", "long", "LongList");
+        ListBuilderGenerator.newClass("FloatListBuilder", "float", "FloatList");
+        ListBuilderGenerator.newClass("DoubleListBuilder", "double", "DoubleList");
+        ListBuilderGenerator.newClass("BoolListBuilder", "boolean", "BoolList");
+        ListBuilderGenerator.newClass("CharListBuilder", "char", "CharList");
+        ListBuilderGenerator.newClass("StringListBuilder", "String", "StringList");
+
+        ChunkedListGenerator.newClass("ChunkedByteList", "byte", "ByteList");
+        ChunkedListGenerator.newClass("ChunkedShortList", "short", "ShortList");
+        ChunkedListGenerator.newClass("ChunkedIntList", "int", "IntList");
+        ChunkedListGenerator.newClass("ChunkedLongList", "long", "LongList");
+        ChunkedListGenerator.newClass("ChunkedFloatList", "float", "FloatList");
+        ChunkedListGenerator.newClass("ChunkedDoubleList", "double", "DoubleList");
+        ChunkedListGenerator.newClass("ChunkedCharList", "char", "CharList");
+
+        BigListGenerator.newClass("BigByteList", "byte", "ByteList");
+        BigListGenerator.newClass("BigShortList", "short", "ShortList");
+        BigListGenerator.newClass("BigIntList", "int", "IntList");
+        BigListGenerator.newClass("BigLongList", "long", "LongList");
+        BigListGenerator.newClass("BigFloatList", "float", "FloatList");
+        BigListGenerator.newClass("BigDoubleList", "double", "DoubleList");
+        BigListGenerator.newClass("BigCharList", "char", "CharList");
+
+        DequeGenerator.newClass("ByteDeque", "byte", "ByteList");
+        DequeGenerator.newClass("ShortDeque", "short", "ShortList");
+        DequeGenerator.newClass("IntDeque", "int", "IntList");
+        DequeGenerator.newClass("LongDeque", "long", "LongList");
+        DequeGenerator.newClass("FloatDeque", "float", "FloatList");
+        DequeGenerator.newClass("DoubleDeque", "double", "DoubleList");
+        DequeGenerator.newClass("CharDeque", "char", "CharList");
+
+        MappedListGenerator.newClass("MappedIntList", "int", "IntList");
+        MappedListGenerator.newClass("MappedLongList", "long", "LongList");
+        MappedListGenerator.newClass("MappedFloatList", "float", "FloatList");
+        MappedListGenerator.newClass("MappedDoubleList", "double", "DoubleList");
+
+        CompressedListGenerator.newClass("CompressedIntList", "int", "IntList");
+        CompressedListGenerator.newClass("CompressedLongList", "long", "LongList");
+
+        HashSetGenerator.newClass("IntHashSet", "int", "IntList");
+        HashSetGenerator.newClass("LongHashSet", "long", "LongList");
+
+        HashMapGenerator.newClass("IntIntMap", "int", "int");
+        HashMapGenerator.newClass("IntLongMap", "int", "long");
+        HashMapGenerator.newClass("LongIntMap", "long", "int");
+        HashMapGenerator.newClass("LongLongMap", "long", "long");
+        HashMapGenerator.newClass("IntObjectMap", "int", "V");
+        HashMapGenerator.newClass("LongObjectMap", "long", "V");
+
+        SortedListGenerator.newClass("SortedIntList", "int", "IntList");
+        SortedListGenerator.newClass("SortedLongList", "long", "LongList");
+        SortedListGenerator.newClass("SortedFloatList", "float", "FloatList");
+        SortedListGenerator.newClass("SortedDoubleList", "double", "DoubleList");
     }
 
     public static final String[] NUMBER_PRIMITIVES = {"int", "long", "double", "byte", "char", "short", "float"};
@@ -30,6 +103,43 @@ public class ListGenerator {
         this.put("char", "CharBuffer");
     }};
 
+    public static final Map<String, String> PRIMITIVE_NAME_MAP = new HashMap<>() {{
+        this.put("int", "Int");
+        this.put("long", "Long");
+        this.put("double", "Double");
+        this.put("boolean", "Bool");
+        this.put("byte", "Byte");
+        this.put("char", "Char");
+        this.put("short", "Short");
+        this.put("float", "Float");
+        this.put("String", "String");
+    }};
+
+    // element type tags of the binary formats (JVM descriptor letters, 'L' for String)
+    public static final Map<String, Character> TYPE_CODE_MAP = new HashMap<>() {{
+        this.put("byte", 'B');
+        this.put("short", 'S');
+        this.put("int", 'I');
+        this.put("long", 'J');
+        this.put("float", 'F');
+        this.put("double", 'D');
+        this.put("boolean", 'Z');
+        this.put("char", 'C');
+        this.put("String", 'L');
+    }};
+
+    // primitives with java.util.function / PrimitiveIterator counterparts
+    public static final List<String> JAVA_PRIMITIVE_FUNCTIONS = List.of("int", "long", "double");
+
+    // these also extend their java.util.function counterparts, a suffix keeps them apart from those simple names
+    public static String consumerName(String datatype) {
+        return (PRIMITIVE_NAME_MAP.get(datatype) + (JAVA_PRIMITIVE_FUNCTIONS.contains(datatype) ? "ValueConsumer" : "Consumer"));
+    }
+
+    public static String toFunctionName(String datatype) {
+        return ("To" + PRIMITIVE_NAME_MAP.get(datatype) + (JAVA_PRIMITIVE_FUNCTIONS.contains(datatype) ? "ValueFunction" : "Function"));
+    }
+
     public static final Map<String, String> PRIMITIVE_WRAPPER_MAP = new HashMap<>() {{
         this.put("int", "Integer");
         this.put("long", "Long");
@@ -54,8 +164,17 @@ public class ListGenerator {
         final boolean isChar = datatype.equals("char");
 
         final boolean hasBufferOps = (bufferClass != null);
+        final boolean hasIndex = (datatype.equals("int") || datatype.equals("long") || isString);
         
         final String datatypeWrapper = PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = PRIMITIVE_NAME_MAP.get(datatype);
+
+        final String iteratorClass = (isString ? "Iterator<String>" : datatypeName + "Iterator");
+        final String iteratorNext = (isString ? "next" : "next" + datatypeName);
+        final String consumerClass = (isString ? "Consumer<? super String>" : consumerName(datatype));
+        final String toFunctionClass = (isString ? null : toFunctionName(datatype) + "<O>");
+        final String toFunctionApply = ("applyAs" + datatypeName);
+        final String indexedConsumerClass = (isString ? "IndexedConsumer<String>" : datatypeName + "IndexedConsumer");
 
         // create class
         final String savepath = "src/main/java/generaloss/rawlist/";
@@ -63,14 +182,36 @@ public class ListGenerator {
         final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
 
         // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.function.Consumer");
         w.addImport("java.util.function.Function");
         w.addImport("java.util.*");
         if(hasBufferOps) w.addImport("java.nio.*");
+        else w.addImport("java.nio.ByteBuffer");
+        w.addImport("java.io.IOException");
+        w.addImport("java.io.InputStream");
+        w.addImport("java.io.OutputStream");
+        w.addImport("java.nio.channels.*");
 
         // fields
         w.addField("public static final int DEFAULT_CAPACITY = " + defaultCapacity + ";\n");
         w.addField("private " + datatype + "[] array;");
         w.addField("private int size;");
+        w.addField("private boolean frozen;");
+        w.addField("// set while a snapshot shares the array, the next write other than an append copies it");
+        w.addField("private boolean shared;");
+        w.addField("private int cachedHash;");
+        if(hasIndex){
+            w.addField("");
+            w.addField("// opt-in value -> position index: slots hold (first position + 1) and last position, 0 marks a free slot.");
+            w.addField("// Appends are indexed lazily on the next lookup, other mutations drop the index");
+            w.addField("private boolean indexed;");
+            w.addField("private int[] indexFirst;");
+            w.addField("private int[] indexLast;");
+            w.addField("private int indexMask;");
+            w.addField("private int indexCount;");
+            w.addField("private int indexedSize;");
+        }
 
         // constructors
         w.addConstructor("()",
@@ -96,7 +237,7 @@ public class ListGenerator {
         );
         if(hasBufferOps){
             w.addConstructor("(" + bufferClass + " buffer)",
-                "this.array = new " + datatype + "[buffer.limit()];",
+                "this.array = new " + datatype + "[buffer.remaining()];",
                 "this.addAll(buffer);"
             );
         }
@@ -134,6 +275,21 @@ public class ListGenerator {
             "this.array = new " + datatype + "[array.length];",
             "this.addAll(array, func);"
         );
+        if(!isString){
+            w.addGenericsConstructor("<O>", "(Iterable<O> iterable, " + toFunctionClass + " func)",
+                "this.array = new " + datatype + "[1];",
+                "this.addAll(iterable, func);",
+                "this.trim();"
+            );
+            w.addGenericsConstructor("<O>", "(Collection<O> collection, " + toFunctionClass + " func)",
+                "this.array = new " + datatype + "[collection.size()];",
+                "this.addAll(collection, func);"
+            );
+            w.addGenericsConstructor("<O>", "(O[] array, " + toFunctionClass + " func)",
+                "this.array = new " + datatype + "[array.length];",
+                "this.addAll(array, func);"
+            );
+        }
 
         //
         w.addMethodSplitter();
@@ -177,6 +333,7 @@ public class ListGenerator {
         w.addMethodSplitter();
 
         w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "this.checkMutable();",
             "if(size == array.length)",
             "   this.grow();",
             "",
@@ -185,6 +342,7 @@ public class ListGenerator {
             "return this;"
         );
         w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "this.checkMutable();",
             "if(size + elements.length >= array.length)",
             "    this.grow(size + elements.length);",
             "",
@@ -200,14 +358,16 @@ public class ListGenerator {
             );
         }
         w.addMethod("public " + classname + " add(" + classname + " list)",
-            "if(list.size() == list.capacity()){",
-            "    this.add(list.array());",
-            "}else{",
-            "    this.add(list.arrayTrimmed());",
-            "}",
+            "this.checkMutable();",
+            "if(size + list.size > array.length)",
+            "    this.grow(size + list.size);",
+            "",
+            "System.arraycopy(list.array, 0, array, size, list.size);",
+            "size += list.size;",
             "return this;"
         );
         w.addMethod("public " + classname + " add(int i, " + datatype + " element)",
+            "this.beforeWrite();",
             "final int minCapacity = Math.max(size, i) + 1;",
             "if(minCapacity >= array.length)",
             "    this.grow(minCapacity);",
@@ -225,6 +385,7 @@ public class ListGenerator {
         w.addMethod("public " + classname + " add(int i, " + datatype + "... elements)",
             "if(elements.length == 0)",
             "    return this;",
+            "this.beforeWrite();",
             "",
             "final int minCapacity = (Math.max(size, i) + elements.length);",
             "if(minCapacity >= array.length)",
@@ -259,14 +420,28 @@ public class ListGenerator {
         if(hasBufferOps){
             if(isBool){
                 w.addMethod("public " + classname + " addAll(" + bufferClass + " buffer)",
-                    "for(int i = buffer.position(); i < buffer.limit(); i++)",
-                    "    this.add(buffer.get(i) == 1);",
+                    "this.checkMutable();",
+                    "final int position = buffer.position();",
+                    "final int length = buffer.remaining();",
+                    "if(size + length > array.length)",
+                    "    this.grow(size + length);",
+                    "",
+                    "for(int i = 0; i < length; i++)",
+                    "    array[size + i] = (buffer.get(position + i) == 1);",
+                    "size += length;",
                     "return this;"
                 );
             }else{
                 w.addMethod("public " + classname + " addAll(" + bufferClass + " buffer)",
-                    "for(int i = buffer.position(); i < buffer.limit(); i++)",
-                    "    this.add(buffer.get(i));",
+                    "this.checkMutable();",
+                    "final int position = buffer.position();",
+                    "final int length = buffer.remaining();",
+                    "if(size + length > array.length)",
+                    "    this.grow(size + length);",
+                    "",
+                    "buffer.get(array, size, length);",
+                    "buffer.position(position);",
+                    "size += length;",
                     "return this;"
                 );
             }
@@ -284,13 +459,20 @@ public class ListGenerator {
             );
         }else{
             w.addMethod("public " + classname + " addAll(Iterable<" + datatypeWrapper + "> iterable)",
+                "if(iterable instanceof " + classname + ")",
+                "    return this.add((" + classname + ") iterable);",
+                "",
                 "for(" + datatypeWrapper + " item: iterable)",
                 "    this.add(item);",
                 "return this;"
             );
             w.addMethod("public " + classname + " addAll(Collection<" + datatypeWrapper + "> collection)",
+                "this.checkMutable();",
+                "if(size + collection.size() > array.length)",
+                "    this.grow(size + collection.size());",
+                "",
                 "for(" + datatypeWrapper + " item: collection)",
-                "    this.add(item);",
+                "    array[size++] = item;",
                 "return this;"
             );
         }
@@ -309,6 +491,31 @@ public class ListGenerator {
             "    this.add(func.apply(object));",
             "return this;"
         );
+        if(!isString){
+            w.addMethod("public <O> " + classname + " addAll(Iterable<O> iterable, " + toFunctionClass + " func)",
+                "for(O object: iterable)",
+                "    this.add(func." + toFunctionApply + "(object));",
+                "return this;"
+            );
+            w.addMethod("public <O> " + classname + " addAll(Collection<O> collection, " + toFunctionClass + " func)",
+                "this.checkMutable();",
+                "if(size + collection.size() > array.length)",
+                "    this.grow(size + collection.size());",
+                "",
+                "for(O object: collection)",
+                "    array[size++] = func." + toFunctionApply + "(object);",
+                "return this;"
+            );
+            w.addMethod("public <O> " + classname + " addAll(O[] array, " + toFunctionClass + " func)",
+                "this.checkMutable();",
+                "if(size + array.length > this.array.length)",
+                "    this.grow(size + array.length);",
+                "",
+                "for(O object: array)",
+                "    this.array[size++] = func." + toFunctionApply + "(object);",
+                "return this;"
+            );
+        }
 
         //
         w.addMethodSplitter();
@@ -317,6 +524,7 @@ public class ListGenerator {
             "len = Math.min(len, size - i);",
             "if(len <= 0)",
             "    return this;",
+            "this.beforeWrite();",
             "",
             "final int j = (i + len);",
             "System.arraycopy(array, j, array, i, (size - j));",
@@ -347,6 +555,20 @@ public class ListGenerator {
             "    return this.remove(index);",
             "return null;"
         );
+        w.addMethod("public boolean removeFirstOccurrence(" + datatype + " value)",
+            "final int index = this.indexOf(value);",
+            "if(index == -1)",
+            "    return false;",
+            "this.remove(index, 1);",
+            "return true;"
+        );
+        w.addMethod("public boolean removeLastOccurrence(" + datatype + " value)",
+            "final int index = this.lastIndexOf(value);",
+            "if(index == -1)",
+            "    return false;",
+            "this.remove(index, 1);",
+            "return true;"
+        );
 
         //
         w.addMethodSplitter();
@@ -355,23 +577,120 @@ public class ListGenerator {
             "return (this.indexOf(element) != -1);"
         );
         w.addMethod("public int indexOf(" + datatype + " element)",
+            (hasIndex ? "if(indexed)" : null),
+            (hasIndex ? "    return this.indexLookup(element, false);" : null),
             "return this.indexOfRange(element, 0, size);"
         );
         w.addMethod("public int lastIndexOf(" + datatype + " element)",
+            (hasIndex ? "if(indexed)" : null),
+            (hasIndex ? "    return this.indexLookup(element, true);" : null),
             "return this.lastIndexOfRange(element, 0, size);"
         );
-        w.addMethod("public int indexOfRange(" + datatype + " element, int start, int end)",
-            "for(int i = start; i < end; i++)",
-            "    if(array[i]" + (isPrimitive ? " == " : ".equals(") + "element" + (isPrimitive ? "" : ")") + ")",
-            "        return i;",
-            "return -1;"
-        );
-        w.addMethod("public int lastIndexOfRange(" + datatype + " element, int start, int end)",
-            "for(int i = end - 1; i >= start; i--)",
-            "    if(array[i]" + (isPrimitive ? " == " : ".equals(") + "element" + (isPrimitive ? "" : ")") + ")",
-            "        return i;",
-            "return -1;"
-        );
+        if(isNumber){
+            w.addMethod("public int indexOfRange(" + datatype + " element, int start, int end)",
+                "return ArrayUtils.indexOf(array, element, start, end);"
+            );
+            w.addMethod("public int lastIndexOfRange(" + datatype + " element, int start, int end)",
+                "return ArrayUtils.lastIndexOf(array, element, start, end);"
+            );
+        }else{
+            w.addMethod("public int indexOfRange(" + datatype + " element, int start, int end)",
+                "for(int i = start; i < end; i++)",
+                "    if(array[i]" + (isPrimitive ? " == " : ".equals(") + "element" + (isPrimitive ? "" : ")") + ")",
+                "        return i;",
+                "return -1;"
+            );
+            w.addMethod("public int lastIndexOfRange(" + datatype + " element, int start, int end)",
+                "for(int i = end - 1; i >= start; i--)",
+                "    if(array[i]" + (isPrimitive ? " == " : ".equals(") + "element" + (isPrimitive ? "" : ")") + ")",
+                "        return i;",
+                "return -1;"
+            );
+        }
+
+        if(hasIndex){
+            final String slotEquals = (isString ? "Objects.equals(array[first - 1], element)" : "array[first - 1] == element");
+
+            //
+            w.addMethodSplitter();
+
+            w.addMethod("public " + classname + " indexed(boolean indexed)",
+                "this.indexed = indexed;",
+                "if(!indexed)",
+                "    this.invalidateIndex();",
+                "return this;"
+            );
+            w.addMethod("public boolean isIndexed()",
+                "return indexed;"
+            );
+            w.addMethod("private void invalidateIndex()",
+                "indexFirst = null;",
+                "indexLast = null;"
+            );
+            w.addMethod("private static int indexHash(" + datatype + " element)",
+                (datatype.equals("long") ? "final long h = (element * 0x9E3779B97F4A7C15L);" : "final int h = (" + (isString ? "Objects.hashCode(element)" : "element") + " * 0x9E3779B9);"),
+                (datatype.equals("long") ? "return (int) (h ^ (h >>> 32));" : "return (h ^ (h >>> 16));")
+            );
+            w.addMethod("private int indexLookup(" + datatype + " element, boolean last)",
+                "this.updateIndex();",
+                "int slot = (indexHash(element) & indexMask);",
+                "int first;",
+                "while((first = indexFirst[slot]) != 0){",
+                "    if(" + slotEquals + ")",
+                "        return (last ? indexLast[slot] : first - 1);",
+                "    slot = ((slot + 1) & indexMask);",
+                "}",
+                "return -1;"
+            );
+            w.addAnnotatedMethod("// builds the index on first use, then catches up with the elements appended since",
+                "private void updateIndex()",
+                "if(indexFirst == null){",
+                "    int capacity = 16;",
+                "    while(capacity < (1 << 30) && capacity * 3L < size * 4L)",
+                "        capacity <<= 1;",
+                "    this.allocateIndex(capacity);",
+                "    indexCount = 0;",
+                "    indexedSize = 0;",
+                "}",
+                "for(; indexedSize < size; indexedSize++)",
+                "    this.indexAppend(indexedSize);"
+            );
+            w.addMethod("private void allocateIndex(int capacity)",
+                "indexFirst = new int[capacity];",
+                "indexLast = new int[capacity];",
+                "indexMask = (capacity - 1);"
+            );
+            w.addMethod("private void indexAppend(int position)",
+                "final " + datatype + " element = array[position];",
+                "int slot = (indexHash(element) & indexMask);",
+                "int first;",
+                "while((first = indexFirst[slot]) != 0){",
+                "    if(" + slotEquals + "){",
+                "        indexLast[slot] = position;",
+                "        return;",
+                "    }",
+                "    slot = ((slot + 1) & indexMask);",
+                "}",
+                "indexFirst[slot] = (position + 1);",
+                "indexLast[slot] = position;",
+                "if(++indexCount > ((indexFirst.length >>> 2) * 3) && indexFirst.length < (1 << 30))",
+                "    this.rehashIndex(indexFirst.length << 1);"
+            );
+            w.addMethod("private void rehashIndex(int capacity)",
+                "final int[] oldFirst = indexFirst;",
+                "final int[] oldLast = indexLast;",
+                "this.allocateIndex(capacity);",
+                "for(int i = 0; i < oldFirst.length; i++){",
+                "    if(oldFirst[i] == 0)",
+                "        continue;",
+                "    int slot = (indexHash(array[oldFirst[i] - 1]) & indexMask);",
+                "    while(indexFirst[slot] != 0)",
+                "        slot = ((slot + 1) & indexMask);",
+                "    indexFirst[slot] = oldFirst[i];",
+                "    indexLast[slot] = oldLast[i];",
+                "}"
+            );
+        }
 
         //
         w.addMethodSplitter();
@@ -387,11 +706,13 @@ public class ListGenerator {
         w.addMethodSplitter();
 
         w.addMethod("public " + classname + " clear()",
+            "this.beforeWrite();",
             "Arrays.fill(array, 0, size, " + clearValue + ");",
             "size = 0;",
             "return this;"
         );
         w.addMethod("public " + classname + " fill(" + datatype + " value)",
+            "this.beforeWrite();",
             "Arrays.fill(array, 0, size, value);",
             "return this;"
         );
@@ -400,12 +721,14 @@ public class ListGenerator {
         w.addMethodSplitter();
 
         w.addMethod("public " + classname + " trim()",
+            "this.checkMutable();",
             "if(array.length == size)",
             "    return this;",
             "array = Arrays.copyOf(array, size);",
             "return this;"
         );
         w.addMethod("public " + classname + " capacity(int newCapacity)",
+            "this.beforeWrite();",
             "if(newCapacity == 0){",
             "    array = new " + datatype + "[0];",
             "}else{",
@@ -418,6 +741,41 @@ public class ListGenerator {
         //
         w.addMethodSplitter();
 
+        w.addAnnotatedMethod("// immutable view sharing the array, this list copies it before its next write other than an append",
+            "public " + classname + " snapshot()",
+            "if(frozen)",
+            "    return this;",
+            "shared = true;",
+            "final " + classname + " snapshot = new " + classname + "(0);",
+            "snapshot.array = array;",
+            "snapshot.size = size;",
+            "snapshot.frozen = true;",
+            "return snapshot;"
+        );
+        w.addAnnotatedMethod("// makes the list permanently read-only, mutators throw UnsupportedOperationException",
+            "public " + classname + " freeze()",
+            "frozen = true;",
+            "return this;"
+        );
+        w.addMethod("public boolean isFrozen()",
+            "return frozen;"
+        );
+        w.addMethod("private void checkMutable()",
+            "if(frozen)",
+            "    throw new UnsupportedOperationException(\"" + classname + " is frozen\");"
+        );
+        w.addMethod("private void beforeWrite()",
+            "this.checkMutable();",
+            "if(shared){",
+            "    array = array.clone();",
+            "    shared = false;",
+            "}",
+            (hasIndex ? "this.invalidateIndex();" : null)
+        );
+
+        //
+        w.addMethodSplitter();
+
         w.addMethod("public " + datatype + " get(int i)",
             "return array[i];"
         );
@@ -428,6 +786,7 @@ public class ListGenerator {
             "return this.get(this.lastIndex());"
         );
         w.addMethod("public " + classname + " set(int i, " + datatype + " newValue)",
+            "this.beforeWrite();",
             "array[i] = newValue;",
             "return this;"
         );
@@ -443,56 +802,133 @@ public class ListGenerator {
 
         if(isNumber){
             w.addMethod("public " + classname + " elementAdd(int i, " + datatype + " value)",
+                "this.beforeWrite();",
                 "array[i] += value;",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementSub(int i, " + datatype + " value)",
+                "this.beforeWrite();",
                 "array[i] -= value;",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementMul(int i, " + datatype + " value)",
+                "this.beforeWrite();",
                 "array[i] *= value;",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementDiv(int i, " + datatype + " value)",
+                "this.beforeWrite();",
                 "array[i] /= value;",
                 "return this;"
             );
+
+            for(String operation: new String[]{ "Add", "Sub", "Mul", "Div" }){
+                final String kernel = operation.toLowerCase();
+                w.addMethod("public " + classname + " element" + operation + "All(int from, int to, " + datatype + " value)",
+                    "Objects.checkFromToIndex(from, to, size);",
+                    "this.beforeWrite();",
+                    "ArrayMath." + kernel + "(array, from, to, value);",
+                    "return this;"
+                );
+                w.addMethod("public " + classname + " element" + operation + "All(" + datatype + " value)",
+                    "return this.element" + operation + "All(0, size, value);"
+                );
+                w.addMethod("public " + classname + " element" + operation + "All(int offset, " + classname + " list)",
+                    "this.checkElementRange(offset, list.size);",
+                    "this.beforeWrite();",
+                    "ArrayMath." + kernel + "(array, offset, list.array, 0, list.size);",
+                    "return this;"
+                );
+                w.addMethod("public " + classname + " element" + operation + "All(" + classname + " list)",
+                    "return this.element" + operation + "All(0, list);"
+                );
+            }
+            w.addMethod("public " + classname + " elementFmaAll(int from, int to, " + datatype + " multiplier, " + datatype + " addend)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "this.beforeWrite();",
+                "ArrayMath.fma(array, from, to, multiplier, addend);",
+                "return this;"
+            );
+            w.addMethod("public " + classname + " elementFmaAll(" + datatype + " multiplier, " + datatype + " addend)",
+                "return this.elementFmaAll(0, size, multiplier, addend);"
+            );
+            w.addMethod("public " + classname + " elementClampAll(int from, int to, " + datatype + " min, " + datatype + " max)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "this.beforeWrite();",
+                "ArrayMath.clamp(array, from, to, min, max);",
+                "return this;"
+            );
+            w.addMethod("public " + classname + " elementClampAll(" + datatype + " min, " + datatype + " max)",
+                "return this.elementClampAll(0, size, min, max);"
+            );
+            if(datatype.equals("float") || datatype.equals("double")){
+                w.addMethod("public " + classname + " elementLerpAll(int from, int to, " + datatype + " target, " + datatype + " t)",
+                    "Objects.checkFromToIndex(from, to, size);",
+                    "this.beforeWrite();",
+                    "ArrayMath.lerp(array, from, to, target, t);",
+                    "return this;"
+                );
+                w.addMethod("public " + classname + " elementLerpAll(" + datatype + " target, " + datatype + " t)",
+                    "return this.elementLerpAll(0, size, target, t);"
+                );
+                w.addMethod("public " + classname + " elementLerpAll(int offset, " + classname + " targets, " + datatype + " t)",
+                    "this.checkElementRange(offset, targets.size);",
+                    "this.beforeWrite();",
+                    "ArrayMath.lerp(array, offset, targets.array, 0, targets.size, t);",
+                    "return this;"
+                );
+                w.addMethod("public " + classname + " elementLerpAll(" + classname + " targets, " + datatype + " t)",
+                    "return this.elementLerpAll(0, targets, t);"
+                );
+            }
+            w.addMethod("private void checkElementRange(int offset, int length)",
+                "if(offset < 0 || offset + length > size)",
+                "    throw new IndexOutOfBoundsException(\"Range [\" + offset + \", \" + (offset + length) + \") out of bounds for size \" + size);"
+            );
         }
         if(isString){
             w.addMethod("public " + classname + " elementAdd(int i, String value)",
+                "this.beforeWrite();",
                 "array[i] += value;",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementAdd(int i, char value)",
-                    "array[i] += value;",
-                    "return this;"
+                "this.beforeWrite();",
+                "array[i] += value;",
+                "return this;"
             );
             w.addMethod("public " + classname + " elementTrim(int i)",
+                "this.beforeWrite();",
                 "array[i] = array[i].trim();",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementReplace(int i, char oldChar, char newChar)",
+                "this.beforeWrite();",
                 "array[i] = array[i].replace(oldChar, newChar);",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementReplace(int i, CharSequence target, CharSequence replacement)",
+                "this.beforeWrite();",
                 "array[i] = array[i].replace(target, replacement);",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementReplaceAll(int i, String regex, String replacement)",
+                "this.beforeWrite();",
                 "array[i] = array[i].replaceAll(regex, replacement);",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementReplaceFirst(int i, String regex, String replacement)",
+                "this.beforeWrite();",
                 "array[i] = array[i].replaceFirst(regex, replacement);",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementToLowerCase(int i)",
+                "this.beforeWrite();",
                 "array[i] = array[i].toLowerCase();",
                 "return this;"
             );
             w.addMethod("public " + classname + " elementToUpperCase(int i)",
+                "this.beforeWrite();",
                 "array[i] = array[i].toUpperCase();",
                 "return this;"
             );
@@ -501,6 +937,95 @@ public class ListGenerator {
         //
         w.addMethodSplitter();
 
+        if(isNumber){
+            w.addMethod("public " + classname + " sort(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "this.beforeWrite();",
+                "Arrays.sort(array, from, to);",
+                "return this;"
+            );
+            w.addMethod("public " + classname + " sort()",
+                "return this.sort(0, size);"
+            );
+            w.addMethod("public " + classname + " parallelSort(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "this.beforeWrite();",
+                "Arrays.parallelSort(array, from, to);",
+                "return this;"
+            );
+            w.addMethod("public " + classname + " parallelSort()",
+                "return this.parallelSort(0, size);"
+            );
+            w.addMethod("public " + classname + " radixSort(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "this.beforeWrite();",
+                "RadixSort.sort(array, from, to);",
+                "return this;"
+            );
+            w.addMethod("public " + classname + " radixSort()",
+                "return this.radixSort(0, size);"
+            );
+
+            w.addMethodSplitter();
+        }
+
+        if(isNumber && !isChar){
+            final boolean isFloating = (datatype.equals("float") || datatype.equals("double"));
+            final String sumType = (isFloating ? "double" : "long");
+
+            w.addMethod("public " + sumType + " sum(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "return Aggregates.sum(array, from, to);"
+            );
+            w.addMethod("public " + sumType + " sum()",
+                "return this.sum(0, size);"
+            );
+            w.addMethod("public " + datatype + " min(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "return Aggregates.min(array, from, to);"
+            );
+            w.addMethod("public " + datatype + " min()",
+                "return this.min(0, size);"
+            );
+            w.addMethod("public " + datatype + " max(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "return Aggregates.max(array, from, to);"
+            );
+            w.addMethod("public " + datatype + " max()",
+                "return this.max(0, size);"
+            );
+            w.addMethod("public int argMin(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "return Aggregates.argMin(array, from, to);"
+            );
+            w.addMethod("public int argMin()",
+                "return this.argMin(0, size);"
+            );
+            w.addMethod("public int argMax(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "return Aggregates.argMax(array, from, to);"
+            );
+            w.addMethod("public int argMax()",
+                "return this.argMax(0, size);"
+            );
+            w.addMethod("public double mean(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "return Aggregates.mean(array, from, to);"
+            );
+            w.addMethod("public double mean()",
+                "return this.mean(0, size);"
+            );
+            w.addMethod("public double variance(int from, int to)",
+                "Objects.checkFromToIndex(from, to, size);",
+                "return Aggregates.variance(array, from, to);"
+            );
+            w.addMethod("public double variance()",
+                "return this.variance(0, size);"
+            );
+
+            w.addMethodSplitter();
+        }
+
         w.addMethod("public " + datatype + "[] copyOf(int offset, int newLength)",
             "final " + datatype + "[] slice = new " + datatype + "[newLength];",
             "System.arraycopy(array, offset, slice, 0, newLength);",
@@ -532,6 +1057,40 @@ public class ListGenerator {
         //
         w.addMethodSplitter();
 
+        if(hasBufferOps){
+            if(isBool){
+                w.addMethod("public " + classname + " writeTo(" + bufferClass + " buffer)",
+                    "for(int i = 0; i < size; i++)",
+                    "    buffer.put((byte) (array[i] ? 1 : 0));",
+                    "return this;"
+                );
+                w.addMethod("public " + bufferClass + " toDirectBuffer()",
+                    "final " + bufferClass + " buffer = ByteBuffer.allocateDirect(size);",
+                    "this.writeTo(buffer);",
+                    "buffer.flip();",
+                    "return buffer;"
+                );
+            }else{
+                w.addMethod("public " + classname + " writeTo(" + bufferClass + " buffer)",
+                    "buffer.put(array, 0, size);",
+                    "return this;"
+                );
+                final String view = (bufferClass.equals("ByteBuffer") ? "" : ".as" + bufferClass + "()");
+                w.addMethod("public " + bufferClass + " toDirectBuffer()",
+                    "final " + bufferClass + " buffer = ByteBuffer.allocateDirect(size * " + datatypeWrapper + ".BYTES)",
+                    "    .order(ByteOrder.nativeOrder())" + view + ";",
+                    "buffer.put(array, 0, size);",
+                    "buffer.flip();",
+                    "return buffer;"
+                );
+            }
+
+            w.addMethodSplitter();
+        }
+
+        //
+        w.addMethodSplitter();
+
         if(isChar){
 
             w.addMethod("public String getStringOf()",
@@ -549,7 +1108,163 @@ public class ListGenerator {
             w.addMethodSplitter();
         }
 
+        if(isString){
+            w.addAnnotatedMethod("@Override", "public void forEach(" + consumerClass + " action)",
+                "for(int i = 0; i < size; i++)",
+                "    action.accept(array[i]);"
+            );
+        }else{
+            w.addMethod("public void forEach(" + consumerClass + " action)",
+                "for(int i = 0; i < size; i++)",
+                "    action.accept(array[i]);"
+            );
+            w.addAnnotatedMethod("@Override", "public void forEach(Consumer<? super " + datatypeWrapper + "> action)",
+                "if(action instanceof " + consumerClass + "){",
+                "    this.forEach((" + consumerClass + ") action);",
+                "}else{",
+                "    for(int i = 0; i < size; i++)",
+                "        action.accept(array[i]);",
+                "}"
+            );
+        }
+
+        w.addMethod("public void forEachIndexed(" + indexedConsumerClass + " action)",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(i, array[i]);"
+        );
         //
+        w.addMethodSplitter();
+
+        final String typeCode = ("(byte) '" + TYPE_CODE_MAP.get(datatype) + "'");
+        final String elementBytes = (isBool ? "1" : datatypeWrapper + ".BYTES");
+        if(isString){
+            w.addMethod("public " + classname + " writeTo(WritableByteChannel channel) throws IOException",
+                "ListIO.writeHeader(channel, " + typeCode + ", size);",
+                "ListIO.writeStrings(channel, array, size);",
+                "return this;"
+            );
+        }else if(datatype.equals("byte")){
+            w.addMethod("public " + classname + " writeTo(WritableByteChannel channel) throws IOException",
+                "ListIO.writeHeader(channel, " + typeCode + ", size);",
+                "ListIO.writeFully(channel, ByteBuffer.wrap(array, 0, size));",
+                "return this;"
+            );
+        }else if(isBool){
+            w.addMethod("public " + classname + " writeTo(WritableByteChannel channel) throws IOException",
+                "ListIO.writeHeader(channel, " + typeCode + ", size);",
+                "final ByteBuffer buffer = ListIO.chunk(size, ByteOrder.nativeOrder());",
+                "try{",
+                "    for(int i = 0; i < size; i += buffer.capacity()){",
+                "        final int length = Math.min(buffer.capacity(), size - i);",
+                "        buffer.clear();",
+                "        for(int j = 0; j < length; j++)",
+                "            buffer.put((byte) (array[i + j] ? 1 : 0));",
+                "        buffer.flip();",
+                "        ListIO.writeFully(channel, buffer);",
+                "    }",
+                "}finally{",
+                "    DirectBuffers.free(buffer);",
+                "}",
+                "return this;"
+            );
+        }else{
+            w.addMethod("public " + classname + " writeTo(WritableByteChannel channel) throws IOException",
+                "ListIO.writeHeader(channel, " + typeCode + ", size);",
+                "final ByteBuffer buffer = ListIO.chunk((long) size * " + elementBytes + ", ByteOrder.nativeOrder());",
+                "try{",
+                "    final " + bufferClass + " view = buffer.as" + bufferClass + "();",
+                "    for(int i = 0; i < size; i += view.capacity()){",
+                "        final int length = Math.min(view.capacity(), size - i);",
+                "        view.clear();",
+                "        view.put(array, i, length);",
+                "        buffer.clear().limit(length * " + elementBytes + ");",
+                "        ListIO.writeFully(channel, buffer);",
+                "    }",
+                "}finally{",
+                "    DirectBuffers.free(buffer);",
+                "}",
+                "return this;"
+            );
+        }
+        w.addMethod("public " + classname + " writeTo(OutputStream stream) throws IOException",
+            "return this.writeTo(Channels.newChannel(stream));"
+        );
+
+        final String[] readHeader = {
+            "final ByteBuffer header = ListIO.readHeader(channel, " + typeCode + ");",
+            "final int size = ListIO.size(header);",
+            // the size comes from the stream, the list grows as the elements arrive instead of trusting it
+            "final " + classname + " list = new " + classname + "(Math.min(size, ListIO.INITIAL_CAPACITY));"
+        };
+        if(isString){
+            w.addMethod("public static " + classname + " readFrom(ReadableByteChannel channel) throws IOException",
+                readHeader[0], readHeader[1],
+                "final " + classname + " list = new " + classname + "(0);",
+                "list.array = ListIO.readStrings(channel, ListIO.order(header), size);",
+                "list.size = size;",
+                "return list;"
+            );
+        }else if(datatype.equals("byte")){
+            w.addMethod("public static " + classname + " readFrom(ReadableByteChannel channel) throws IOException",
+                readHeader[0], readHeader[1], readHeader[2],
+                "for(int i = 0; i < size; i += ListIO.CHUNK_BYTES){",
+                "    final int length = Math.min(ListIO.CHUNK_BYTES, size - i);",
+                "    if(i + length > list.array.length)",
+                "        list.grow(i + length);",
+                "    ListIO.readFully(channel, ByteBuffer.wrap(list.array, i, length));",
+                "}",
+                "list.size = size;",
+                "return list;"
+            );
+        }else if(isBool){
+            w.addMethod("public static " + classname + " readFrom(ReadableByteChannel channel) throws IOException",
+                readHeader[0], readHeader[1], readHeader[2],
+                "final ByteBuffer buffer = ListIO.chunk(size, ListIO.order(header));",
+                "try{",
+                "    for(int i = 0; i < size; i += buffer.capacity()){",
+                "        final int length = Math.min(buffer.capacity(), size - i);",
+                "        buffer.clear().limit(length);",
+                "        ListIO.readFully(channel, buffer);",
+                "        if(i + length > list.array.length)",
+                "            list.grow(i + length);",
+                "        for(int j = 0; j < length; j++)",
+                "            list.array[i + j] = (buffer.get(j) == 1);",
+                "    }",
+                "}finally{",
+                "    DirectBuffers.free(buffer);",
+                "}",
+                "list.size = size;",
+                "return list;"
+            );
+        }else{
+            w.addMethod("public static " + classname + " readFrom(ReadableByteChannel channel) throws IOException",
+                readHeader[0], readHeader[1], readHeader[2],
+                "final ByteBuffer buffer = ListIO.chunk((long) size * " + elementBytes + ", ListIO.order(header));",
+                "try{",
+                "    final " + bufferClass + " view = buffer.as" + bufferClass + "();",
+                "    for(int i = 0; i < size; i += view.capacity()){",
+                "        final int length = Math.min(view.capacity(), size - i);",
+                "        buffer.clear().limit(length * " + elementBytes + ");",
+                "        ListIO.readFully(channel, buffer);",
+                "        if(i + length > list.array.length)",
+                "            list.grow(i + length);",
+                "        view.clear();",
+                "        view.get(list.array, i, length);",
+                "    }",
+                "}finally{",
+                "    DirectBuffers.free(buffer);",
+                "}",
+                "list.size = size;",
+                "return list;"
+            );
+        }
+        w.addMethod("public static " + classname + " readFrom(InputStream stream) throws IOException",
+            "return readFrom(Channels.newChannel(stream));"
+        );
+
+        //
+        w.addMethodSplitter();
+
         w.addAnnotatedMethod("@Override", "public String toString()",
             "return Arrays.toString(this.arrayTrimmed());"
         );
@@ -559,20 +1274,30 @@ public class ListGenerator {
             "if(object == null || getClass() != object.getClass())",
             "    return false;",
             "final " + classname + " list = (" + classname + ") object;",
-            "return (size == list.size && " + (isPrimitive ? "Arrays.equals" : "Objects.deepEquals") + "(array, list.array));"
+            "return (size == list.size && Arrays.equals(array, 0, size, list.array, 0, size));"
         );
-        w.addAnnotatedMethod("@Override", "public int hashCode()",
-            "return Objects.hash(Arrays.hashCode(array), size);"
+        w.addAnnotatedMethod("// cached once the list is frozen\n    @Override",
+            "public int hashCode()",
+            "if(frozen && cachedHash != 0)",
+            "    return cachedHash;",
+            "int hash = 1;",
+            "for(int i = 0; i < size; i++)",
+            "    hash = 31 * hash + " + (isPrimitive ? datatypeWrapper + ".hashCode" : "Objects.hashCode") + "(array[i]);",
+            "if(frozen)",
+            "    cachedHash = hash;",
+            "return hash;"
         );
-        w.addAnnotatedMethod("@Override", "public Iterator<" + datatypeWrapper + "> iterator()",
-            "return new Iterator<>() {",
+        w.addAnnotatedMethod("@Override", "public " + iteratorClass + " iterator()",
+            "return new " + iteratorClass + "() {",
             "    private int index;",
             "    @Override",
             "    public boolean hasNext() {",
             "        return (index < size);",
             "    }",
             "    @Override",
-            "    public " + datatypeWrapper + " next() {",
+            "    public " + datatype + " " + iteratorNext + "() {",
+            "        if(index >= size)",
+            "            throw new NoSuchElementException();",
             "        return array[index++];",
             "    }",
             "};"
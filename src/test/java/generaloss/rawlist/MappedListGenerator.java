@@ -0,0 +1,334 @@
+package generaloss.rawlist;
+
+public class MappedListGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final String bufferClass = ListGenerator.PRIMITIVE_BUFFER_MAP.get(datatype);
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements AutoCloseable");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.io.IOException");
+        w.addImport("java.io.UncheckedIOException");
+        w.addImport("java.nio.*");
+        w.addImport("java.nio.channels.FileChannel");
+        w.addImport("java.nio.file.Path");
+        w.addImport("java.nio.file.StandardOpenOption");
+        w.addImport("java.util.*");
+
+        // fields
+        w.addField("public static final int DEFAULT_CAPACITY = 1024;");
+        w.addField("public static final int BYTES = " + datatypeWrapper + ".BYTES;");
+        w.addField("// file layout: 64 byte big endian header (magic, version, type, byte order, size), then the elements");
+        w.addField("public static final int HEADER_BYTES = 64;");
+        w.addField("private static final int MAGIC = 0x524C4D50;");
+        w.addField("private static final byte VERSION = 1;");
+        w.addField("private static final byte TYPE = '" + ListGenerator.TYPE_CODE_MAP.get(datatype) + "';");
+        w.addField("private static final int SIZE_OFFSET = 8;");
+        w.addField("// a single mapping is limited to 2 GiB, so the elements are mapped in segments");
+        w.addField("private static final int SEGMENT_SHIFT = 26;");
+        w.addField("private static final int SEGMENT_SIZE = (1 << SEGMENT_SHIFT);");
+        w.addField("private static final int SEGMENT_MASK = (SEGMENT_SIZE - 1);\n");
+        w.addField("private final FileChannel channel;");
+        w.addField("private MappedByteBuffer header;");
+        w.addField("private final ByteOrder order;");
+        w.addField("private MappedByteBuffer[] mappings;");
+        w.addField("private " + bufferClass + "[] segments;");
+        w.addField("private int capacity;");
+        w.addField("private int size;");
+        w.addField("private boolean closed;");
+
+        // constructors
+        w.addConstructor("(Path path) throws IOException",
+            "this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);",
+            "this.mappings = new MappedByteBuffer[0];",
+            "this.segments = new " + bufferClass + "[0];",
+            "// the header of an existing file is validated before anything is mapped, so a foreign file is never resized",
+            "try{",
+            "    final long fileSize = channel.size();",
+            "    final boolean created = (fileSize == 0);",
+            "    if(created){",
+            "        this.order = ByteOrder.nativeOrder();",
+            "    }else{",
+            "        final ByteBuffer storedHeader = readHeader(channel, fileSize);",
+            "        if(storedHeader == null || storedHeader.getInt(0) != MAGIC || storedHeader.get(4) != VERSION || storedHeader.get(5) != TYPE)",
+            "            throw new IOException(\"Not a " + classname + " file: \" + path);",
+            "        final long storedSize = storedHeader.getLong(SIZE_OFFSET);",
+            "        if(storedSize < 0 || storedSize > Integer.MAX_VALUE || HEADER_BYTES + storedSize * BYTES > fileSize)",
+            "            throw new IOException(\"Corrupt " + classname + " file, size \" + storedSize + \" does not fit in \" + fileSize + \" bytes: \" + path);",
+            "        this.order = (storedHeader.get(6) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);",
+            "        this.size = (int) storedSize;",
+            "    }",
+            "",
+            "    this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);",
+            "    if(created){",
+            "        header.putInt(0, MAGIC);",
+            "        header.put(4, VERSION);",
+            "        header.put(5, TYPE);",
+            "        header.put(6, (byte) (order == ByteOrder.BIG_ENDIAN ? 0 : 1));",
+            "        header.putLong(SIZE_OFFSET, 0L);",
+            "    }",
+            "    final long stored = ((channel.size() - HEADER_BYTES) / BYTES);",
+            "    this.ensureCapacity((int) Math.min(Integer.MAX_VALUE, Math.max(Math.max(size, stored), DEFAULT_CAPACITY)));",
+            "}catch(IOException | RuntimeException e){",
+            "    channel.close();",
+            "    throw e;",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// big endian header of an existing file, null if the file is too short",
+            "private static ByteBuffer readHeader(FileChannel channel, long fileSize) throws IOException",
+            "if(fileSize < HEADER_BYTES)",
+            "    return null;",
+            "final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);",
+            "while(header.hasRemaining())",
+            "    if(channel.read(header, header.position()) < 0)",
+            "        return null;",
+            "return header;"
+        );
+        w.addMethod("private void checkOpen()",
+            "if(closed)",
+            "    throw new IllegalStateException(\"" + classname + " is closed\");"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public int capacity()",
+            "return capacity;"
+        );
+        w.addMethod("public ByteOrder order()",
+            "return order;"
+        );
+        w.addMethod("public int lastIndex()",
+            "return Math.max(0, (size - 1));"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// only the last segment is ever remapped, full segments stay mapped as they are",
+            "private void ensureCapacity(int minCapacity)",
+            "if(minCapacity <= capacity)",
+            "    return;",
+            "if(minCapacity < 0)",
+            "    throw new OutOfMemoryError(\"Required capacity exceeds \" + Integer.MAX_VALUE);",
+            "",
+            "final int last = ((minCapacity - 1) >>> SEGMENT_SHIFT);",
+            "final int newCapacity = (int) Math.min(Math.min((long) (last + 1) << SEGMENT_SHIFT, Integer.MAX_VALUE), ArrayUtils.newLength(capacity, minCapacity - capacity, capacity >> 1));",
+            "final int oldCount = mappings.length;",
+            "mappings = Arrays.copyOf(mappings, last + 1);",
+            "segments = Arrays.copyOf(segments, last + 1);",
+            "try{",
+            "    for(int i = Math.max(0, oldCount - 1); i <= last; i++){",
+            "        final int length = (i < last ? SEGMENT_SIZE : newCapacity - (i << SEGMENT_SHIFT));",
+            "        final MappedByteBuffer old = mappings[i];",
+            "        if(old != null && old.capacity() == length * BYTES)",
+            "            continue;",
+            "",
+            "        final long position = (HEADER_BYTES + (long) (i << SEGMENT_SHIFT) * BYTES);",
+            "        mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) length * BYTES);",
+            "        mappings[i].order(order);",
+            "        segments[i] = mappings[i].as" + bufferClass + "();",
+            "        if(old != null)",
+            "            DirectBuffers.free(old);",
+            "    }",
+            "}catch(IOException e){",
+            "    throw new UncheckedIOException(e);",
+            "}",
+            "capacity = newCapacity;"
+        );
+        w.addMethod("private " + bufferClass + " segment(int i)",
+            "return segments[i >>> SEGMENT_SHIFT];"
+        );
+        w.addMethod("private void setSize(int newSize)",
+            "size = newSize;",
+            "header.putLong(SIZE_OFFSET, newSize);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "this.checkOpen();",
+            "if(size == capacity)",
+            "    this.ensureCapacity(size + 1);",
+            "",
+            "this.segment(size).put(size & SEGMENT_MASK, element);",
+            "this.setSize(size + 1);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "[] elements, int offset, int length)",
+            "this.checkOpen();",
+            "Objects.checkFromIndexSize(offset, length, elements.length);",
+            "this.ensureCapacity(size + length);",
+            "",
+            "int copied = 0;",
+            "while(copied < length){",
+            "    final int index = (size + copied);",
+            "    final int count = Math.min(length - copied, SEGMENT_SIZE - (index & SEGMENT_MASK));",
+            "    final " + bufferClass + " segment = this.segment(index);",
+            "    segment.position(index & SEGMENT_MASK);",
+            "    segment.put(elements, offset + copied, count);",
+            "    segment.position(0);",
+            "    copied += count;",
+            "}",
+            "this.setSize(size + length);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "return this.add(elements, 0, elements.length);"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "return this.add(list.array(), 0, list.size());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " removeLast()",
+            "this.checkOpen();",
+            "final " + datatype + " value = this.get(size - 1);",
+            "this.setSize(size - 1);",
+            "return value;"
+        );
+        w.addMethod("public " + classname + " clear()",
+            "this.checkOpen();",
+            "this.setSize(0);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(int i)",
+            "this.checkOpen();",
+            "Objects.checkIndex(i, size);",
+            "return this.segment(i).get(i & SEGMENT_MASK);"
+        );
+        w.addMethod("public " + datatype + " getFirst()",
+            "return this.get(0);"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "return this.get(this.lastIndex());"
+        );
+        w.addMethod("public " + classname + " set(int i, " + datatype + " newValue)",
+            "this.checkOpen();",
+            "Objects.checkIndex(i, size);",
+            "this.segment(i).put(i & SEGMENT_MASK, newValue);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (this.indexOf(element) != -1);"
+        );
+        w.addMethod("public int indexOf(" + datatype + " element)",
+            "this.checkOpen();",
+            "for(int i = 0; i < size; i++)",
+            "    if(" + datatypeWrapper + ".compare(this.segment(i).get(i & SEGMENT_MASK), element) == 0)",
+            "        return i;",
+            "return -1;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " copyTo(" + datatype + "[] dst, int offset)",
+            "this.checkOpen();",
+            "for(int i = 0; i < size; i += SEGMENT_SIZE){",
+            "    final " + bufferClass + " segment = this.segment(i);",
+            "    segment.get(dst, offset + i, Math.min(SEGMENT_SIZE, size - i));",
+            "    segment.position(0);",
+            "}",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "final " + datatype + "[] array = new " + datatype + "[size];",
+            "this.copyTo(array, 0);",
+            "return array;"
+        );
+        w.addMethod("public " + listClassname + " toList()",
+            "return new " + listClassname + "(this.copyOf());"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "this.checkOpen();",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(this.segment(i).get(i & SEGMENT_MASK));"
+        );
+        w.addMethod("public void forEachIndexed(" + datatypeName + "IndexedConsumer action)",
+            "this.checkOpen();",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(i, this.segment(i).get(i & SEGMENT_MASK));"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// flushes modified pages and the header to the file",
+            "public " + classname + " force()",
+            "this.checkOpen();",
+            "for(MappedByteBuffer mapping: mappings)",
+            "    mapping.force();",
+            "header.force();",
+            "return this;"
+        );
+        w.addAnnotatedMethod("// unmaps the file and truncates the unused capacity\n    @Override",
+            "public void close() throws IOException",
+            "if(closed)",
+            "    return;",
+            "closed = true;",
+            "",
+            "// the fields are dropped before the memory is freed, so nothing reachable points into it",
+            "final MappedByteBuffer[] oldMappings = mappings;",
+            "final MappedByteBuffer oldHeader = header;",
+            "mappings = new MappedByteBuffer[0];",
+            "segments = new " + bufferClass + "[0];",
+            "header = null;",
+            "capacity = 0;",
+            "for(MappedByteBuffer mapping: oldMappings)",
+            "    DirectBuffers.free(mapping);",
+            "DirectBuffers.free(oldHeader);",
+            "try{",
+            "    channel.truncate(HEADER_BYTES + (long) size * BYTES);",
+            "}finally{",
+            "    channel.close();",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "return Arrays.toString(this.copyOf());"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -0,0 +1,464 @@
+package generaloss.rawlist;
+
+public class OffHeapListGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname, String clearValue) {
+        final String bufferClass = ListGenerator.PRIMITIVE_BUFFER_MAP.get(datatype);
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+        final boolean isByte = datatype.equals("byte");
+        final String asView = (isByte ? "" : ".as" + bufferClass + "()");
+        final String bytes = (isByte ? "" : " * BYTES");
+        final String element = "this.segment(i).get(i & SEGMENT_MASK)";
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements AutoCloseable");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.nio.*");
+        w.addImport("java.util.Arrays");
+
+        // fields
+        w.addField("public static final int DEFAULT_CAPACITY = 10;");
+        w.addField("public static final int BYTES = " + datatypeWrapper + ".BYTES;");
+        w.addField("public static final int MAX_CAPACITY = Integer.MAX_VALUE;");
+        w.addField("// a direct buffer is limited to 2 GiB, so the elements are stored in segments.");
+        w.addField("// Only the last segment is ever reallocated, memory is freed eagerly only by close()");
+        w.addField("private static final int SEGMENT_SHIFT = 26;");
+        w.addField("private static final int SEGMENT_SIZE = (1 << SEGMENT_SHIFT);");
+        w.addField("private static final int SEGMENT_MASK = (SEGMENT_SIZE - 1);\n");
+        w.addField("private ByteBuffer[] buffers;");
+        w.addField("private " + bufferClass + "[] segments;");
+        w.addField("private int capacity;");
+        w.addField("private int size;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(DEFAULT_CAPACITY);"
+        );
+        w.addConstructor("(int capacity)",
+            "if(capacity < 0)",
+            "   throw new IllegalArgumentException();",
+            "this.buffers = new ByteBuffer[0];",
+            "this.segments = new " + bufferClass + "[0];",
+            "this.resize(capacity);"
+        );
+        w.addConstructor("(" + datatype + "... items)",
+            "this(items.length);",
+            "this.add(items);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this(list.size());",
+            "this.add(list);"
+        );
+        w.addConstructor("(" + classname + " list)",
+            "this(list.size);",
+            "this.add(list);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        // methods
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public int capacity()",
+            "return capacity;"
+        );
+        w.addMethod("public int lastIndex()",
+            "return Math.max(0, (size - 1));"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("private " + bufferClass + " segment(int i)",
+            "return segments[i >>> SEGMENT_SHIFT];"
+        );
+        w.addAnnotatedMethod("// segments that keep their length are reused, replaced ones are left to the garbage collector",
+            "private void resize(int newCapacity)",
+            "final int count = (int) (((long) newCapacity + SEGMENT_MASK) >>> SEGMENT_SHIFT);",
+            "final int oldCount = buffers.length;",
+            "buffers = Arrays.copyOf(buffers, count);",
+            "segments = Arrays.copyOf(segments, count);",
+            "for(int i = 0; i < count; i++){",
+            "    final int length = Math.min(SEGMENT_SIZE, newCapacity - (i << SEGMENT_SHIFT));",
+            "    final ByteBuffer old = (i < oldCount ? buffers[i] : null);",
+            "    if(old != null && old.capacity() == length" + bytes + ")",
+            "        continue;",
+            "",
+            "    final ByteBuffer newBuffer = DirectBuffers.allocate(length" + bytes + ");",
+            "    if(old != null){",
+            "        final ByteBuffer src = old.duplicate();",
+            "        src.limit(Math.min(old.capacity(), newBuffer.capacity()));",
+            "        newBuffer.put(src);",
+            "        newBuffer.clear();",
+            "    }",
+            "    buffers[i] = newBuffer;",
+            "    segments[i] = newBuffer" + asView + ";",
+            "}",
+            "capacity = newCapacity;"
+        );
+        w.addMethod("private void grow(int minCapacity)",
+            "if(minCapacity < 0)",
+            "    throw new OutOfMemoryError(\"Required capacity exceeds \" + MAX_CAPACITY);",
+            "",
+            "if(capacity == 0){",
+            "    this.resize(Math.max(minCapacity, DEFAULT_CAPACITY));",
+            "}else{",
+            "    this.resize(ArrayUtils.newLength(capacity, minCapacity - capacity, capacity >> 1));",
+            "}"
+        );
+        w.addAnnotatedMethod("// neither range may cross a segment border",
+            "private static void copy(" + classname + " src, int from, " + classname + " dst, int to, int length)",
+            "final " + bufferClass + " source = src.segment(from).duplicate();",
+            "source.limit((from & SEGMENT_MASK) + length).position(from & SEGMENT_MASK);",
+            "final " + bufferClass + " target = dst.segment(to).duplicate();",
+            "target.position(to & SEGMENT_MASK);",
+            "target.put(source);"
+        );
+        w.addAnnotatedMethod("// moves in segment-bounded chunks, back to front when moving right so overlapping ranges are not overwritten",
+            "private void move(int from, int to, int length)",
+            "if(to > from){",
+            "    while(length > 0){",
+            "        final int srcEnd = (from + length);",
+            "        final int dstEnd = (to + length);",
+            "        final int count = Math.min(length, Math.min(((srcEnd - 1) & SEGMENT_MASK) + 1, ((dstEnd - 1) & SEGMENT_MASK) + 1));",
+            "        copy(this, srcEnd - count, this, dstEnd - count, count);",
+            "        length -= count;",
+            "    }",
+            "}else{",
+            "    for(int done = 0; done < length; ){",
+            "        final int count = chunk(from + done, to + done, length - done);",
+            "        copy(this, from + done, this, to + done, count);",
+            "        done += count;",
+            "    }",
+            "}"
+        );
+        w.addMethod("private static int chunk(int from, int to, int length)",
+            "return Math.min(length, Math.min(SEGMENT_SIZE - (from & SEGMENT_MASK), SEGMENT_SIZE - (to & SEGMENT_MASK)));"
+        );
+        w.addMethod("private void put(int index, " + datatype + "[] src, int offset, int length)",
+            "while(length > 0){",
+            "    final int count = Math.min(length, SEGMENT_SIZE - (index & SEGMENT_MASK));",
+            "    final " + bufferClass + " segment = this.segment(index).duplicate();",
+            "    segment.position(index & SEGMENT_MASK);",
+            "    segment.put(src, offset, count);",
+            "    index += count;",
+            "    offset += count;",
+            "    length -= count;",
+            "}"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " add(" + datatype + " element)",
+            "if(size == capacity)",
+            "    this.grow(size + 1);",
+            "",
+            "this.segment(size).put(size & SEGMENT_MASK, element);",
+            "size++;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "if(size + elements.length > capacity)",
+            "    this.grow(size + elements.length);",
+            "",
+            "this.put(size, elements, 0, elements.length);",
+            "size += elements.length;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "if(size + list.size() > capacity)",
+            "    this.grow(size + list.size());",
+            "",
+            "this.put(size, list.array(), 0, list.size());",
+            "size += list.size();",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + classname + " list)",
+            "final int length = list.size;",
+            "if(size + length > capacity)",
+            "    this.grow(size + length);",
+            "",
+            "for(int done = 0; done < length; ){",
+            "    final int count = chunk(done, size + done, length - done);",
+            "    copy(list, done, this, size + done, count);",
+            "    done += count;",
+            "}",
+            "size += length;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(int i, " + datatype + " element)",
+            "final int minCapacity = (Math.max(size, i) + 1);",
+            "if(minCapacity > capacity)",
+            "    this.grow(minCapacity);",
+            "",
+            "if(size > i)",
+            "    this.move(i, i + 1, size - i);",
+            "this.segment(i).put(i & SEGMENT_MASK, element);",
+            "",
+            "size = minCapacity;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(int i, " + datatype + "... elements)",
+            "if(elements.length == 0)",
+            "    return this;",
+            "",
+            "final int minCapacity = (Math.max(size, i) + elements.length);",
+            "if(minCapacity > capacity)",
+            "    this.grow(minCapacity);",
+            "",
+            "if(size > i)",
+            "    this.move(i, i + elements.length, size - i);",
+            "this.put(i, elements, 0, elements.length);",
+            "",
+            "size = minCapacity;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " addFirst(" + datatype + " element)",
+            "return this.add(0, element);"
+        );
+        w.addMethod("public " + classname + " addFirst(" + datatype + "... elements)",
+            "return this.add(0, elements);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " remove(int i, int len)",
+            "len = Math.min(len, size - i);",
+            "if(len <= 0)",
+            "    return this;",
+            "",
+            "final int j = (i + len);",
+            "this.move(j, i, size - j);",
+            "",
+            "size -= len;",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + " remove(int i)",
+            "final " + datatype + " val = this.get(i);",
+            "this.remove(i, 1);",
+            "return val;"
+        );
+        w.addMethod("public " + datatype + " removeFirst()",
+            "return this.remove(0);"
+        );
+        w.addMethod("public " + datatype + " removeLast()",
+            "return this.remove(this.lastIndex());"
+        );
+        w.addMethod("public " + datatypeWrapper + " removeFirst(" + datatype + " value)",
+            "final int index = this.indexOf(value);",
+            "if(index > -1)",
+            "    return this.remove(index);",
+            "return null;"
+        );
+        w.addMethod("public " + datatypeWrapper + " removeLast(" + datatype + " value)",
+            "final int index = this.lastIndexOf(value);",
+            "if(index > -1)",
+            "    return this.remove(index);",
+            "return null;"
+        );
+        w.addMethod("public boolean removeFirstOccurrence(" + datatype + " value)",
+            "final int index = this.indexOf(value);",
+            "if(index == -1)",
+            "    return false;",
+            "this.remove(index, 1);",
+            "return true;"
+        );
+        w.addMethod("public boolean removeLastOccurrence(" + datatype + " value)",
+            "final int index = this.lastIndexOf(value);",
+            "if(index == -1)",
+            "    return false;",
+            "this.remove(index, 1);",
+            "return true;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " element)",
+            "return (this.indexOf(element) != -1);"
+        );
+        w.addMethod("public int indexOf(" + datatype + " element)",
+            "return this.indexOfRange(element, 0, size);"
+        );
+        w.addMethod("public int lastIndexOf(" + datatype + " element)",
+            "return this.lastIndexOfRange(element, 0, size);"
+        );
+        w.addMethod("public int indexOfRange(" + datatype + " element, int start, int end)",
+            "for(int i = start; i < end; i++)",
+            "    if(" + element + " == element)",
+            "        return i;",
+            "return -1;"
+        );
+        w.addMethod("public int lastIndexOfRange(" + datatype + " element, int start, int end)",
+            "for(int i = end - 1; i >= start; i--)",
+            "    if(" + element + " == element)",
+            "        return i;",
+            "return -1;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " clear()",
+            "this.fill(" + clearValue + ");",
+            "size = 0;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " fill(" + datatype + " value)",
+            "for(int i = 0; i < size; i++)",
+            "    this.segment(i).put(i & SEGMENT_MASK, value);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " trim()",
+            "if(capacity == size)",
+            "    return this;",
+            "this.resize(size);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " capacity(int newCapacity)",
+            "if(newCapacity < 0)",
+            "    throw new IllegalArgumentException();",
+            "this.resize(newCapacity);",
+            "size = Math.min(size, newCapacity);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(int i)",
+            "return " + element + ";"
+        );
+        w.addMethod("public " + datatype + " getFirst()",
+            "return this.get(0);"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "return this.get(this.lastIndex());"
+        );
+        w.addMethod("public " + classname + " set(int i, " + datatype + " newValue)",
+            "this.segment(i).put(i & SEGMENT_MASK, newValue);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " setFirst(" + datatype + " newValue)",
+            "return this.set(0, newValue);"
+        );
+        w.addMethod("public " + classname + " setLast(" + datatype + " newValue)",
+            "return this.set(this.lastIndex(), newValue);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "final " + datatype + "[] array = new " + datatype + "[size];",
+            "for(int i = 0; i < size; i += SEGMENT_SIZE){",
+            "    final " + bufferClass + " segment = this.segment(i).duplicate();",
+            "    segment.get(array, i, Math.min(SEGMENT_SIZE, size - i));",
+            "}",
+            "return array;"
+        );
+        w.addMethod("public " + listClassname + " toList()",
+            "return new " + listClassname + "(this.copyOf());"
+        );
+        w.addMethod("public " + classname + " writeTo(" + bufferClass + " dst)",
+            "for(int i = 0; i < size; i += SEGMENT_SIZE){",
+            "    final " + bufferClass + " segment = this.segment(i).duplicate();",
+            "    segment.limit(Math.min(SEGMENT_SIZE, size - i));",
+            "    dst.put(segment);",
+            "}",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " copy()",
+            "return new " + classname + "(this);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(" + element + ");"
+        );
+        w.addMethod("public void forEachIndexed(" + datatypeName + "IndexedConsumer action)",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(i, " + element + ");"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// frees the memory now, the list stays usable and empty\n    @Override",
+            "public void close()",
+            "final ByteBuffer[] oldBuffers = buffers;",
+            "buffers = new ByteBuffer[0];",
+            "segments = new " + bufferClass + "[0];",
+            "capacity = 0;",
+            "size = 0;",
+            "for(ByteBuffer buffer: oldBuffers)",
+            "    DirectBuffers.free(buffer);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "if(size == 0)",
+            "    return \"[]\";",
+            "",
+            "final StringBuilder builder = new StringBuilder(\"[\");",
+            "for(int i = 0; i < size; i++){",
+            "    if(i != 0)",
+            "        builder.append(\", \");",
+            "    builder.append(" + element + ");",
+            "}",
+            "return builder.append(']').toString();"
+        );
+        w.addAnnotatedMethod("@Override", "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + " list = (" + classname + ") object;",
+            "if(size != list.size)",
+            "    return false;",
+            "for(int i = 0; i < size; i++)",
+            "    if(" + datatypeWrapper + ".compare(" + element + ", list." + element.substring(5) + ") != 0)",
+            "        return false;",
+            "return true;"
+        );
+        w.addAnnotatedMethod("@Override", "public int hashCode()",
+            "int hash = 1;",
+            "for(int i = 0; i < size; i++)",
+            "    hash = 31 * hash + " + datatypeWrapper + ".hashCode(" + element + ");",
+            "return hash;"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -0,0 +1,325 @@
+package generaloss.rawlist;
+
+public class SortedListGenerator {
+
+    public static void newClass(String classname, String datatype, String listClassname) {
+        final String datatypeWrapper = ListGenerator.PRIMITIVE_WRAPPER_MAP.get(datatype);
+        final String datatypeName = ListGenerator.PRIMITIVE_NAME_MAP.get(datatype);
+        final boolean isFloating = (datatype.equals("float") || datatype.equals("double"));
+
+        // floating point values are ordered like Arrays.sort: -0.0 before 0.0, NaN last
+        final String lessValueElement = (isFloating ? datatypeWrapper + ".compare(value, array[mid]) < 0" : "value < array[mid]");
+        final String lessElementValue = (isFloating ? datatypeWrapper + ".compare(array[mid], value) < 0" : "array[mid] < value");
+        final String lessMerge = (isFloating ? datatypeWrapper + ".compare(sorted[j], array[i]) < 0" : "sorted[j] < array[i]");
+        final String equalsAt = (isFloating ? datatypeWrapper + ".compare(array[index], value) == 0" : "array[index] == value");
+
+        // create class
+        final String savepath = "src/main/java/generaloss/rawlist/";
+
+        final ClassWriter w = new ClassWriter("generaloss.rawlist", classname, "", "implements Iterable<" + datatypeWrapper + ">");
+
+        // imports
+        w.addImport("generaloss.rawlist.function.*");
+        w.addImport("java.util.*");
+
+        // fields
+        w.addField("public static final int DEFAULT_CAPACITY = 10;\n");
+        w.addField("// ascending, equal elements keep their insertion order");
+        w.addField("private " + datatype + "[] array;");
+        w.addField("private int size;");
+
+        // constructors
+        w.addConstructor("()",
+            "this(DEFAULT_CAPACITY);"
+        );
+        w.addConstructor("(int capacity)",
+            "if(capacity < 0)",
+            "   throw new IllegalArgumentException();",
+            "this.array = new " + datatype + "[capacity];"
+        );
+        w.addConstructor("(" + datatype + "... items)",
+            "this.array = items.clone();",
+            "this.size = items.length;",
+            "Arrays.sort(array);"
+        );
+        w.addConstructor("(" + listClassname + " list)",
+            "this.array = list.copyOf();",
+            "this.size = array.length;",
+            "Arrays.sort(array);"
+        );
+        w.addConstructor("(" + classname + " list)",
+            "this.array = Arrays.copyOf(list.array, list.size);",
+            "this.size = list.size;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// read only access, writing to it can break the order",
+            "public " + datatype + "[] array()",
+            "return array;"
+        );
+        w.addMethod("public int size()",
+            "return size;"
+        );
+        w.addMethod("public int capacity()",
+            "return array.length;"
+        );
+        w.addMethod("public boolean isEmpty()",
+            "return (size == 0);"
+        );
+        w.addMethod("public boolean isNotEmpty()",
+            "return (size != 0);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("private void grow(int minCapacity)",
+            "final int oldCapacity = array.length;",
+            "if(oldCapacity == 0){",
+            "    array = new " + datatype + "[Math.max(minCapacity, DEFAULT_CAPACITY)];",
+            "}else{",
+            "    final int newCapacity = ArrayUtils.newLength(oldCapacity, minCapacity - oldCapacity, oldCapacity >> 1);",
+            "    array = Arrays.copyOf(array, newCapacity);",
+            "}"
+        );
+        w.addAnnotatedMethod("// index of the first element that is not less than the value",
+            "private int lowerBound(" + datatype + " value)",
+            "int low = 0;",
+            "int high = size;",
+            "while(low < high){",
+            "    final int mid = ((low + high) >>> 1);",
+            "    if(" + lessElementValue + ")",
+            "        low = (mid + 1);",
+            "    else",
+            "        high = mid;",
+            "}",
+            "return low;"
+        );
+        w.addAnnotatedMethod("// index of the first element that is greater than the value",
+            "private int upperBound(" + datatype + " value)",
+            "int low = 0;",
+            "int high = size;",
+            "while(low < high){",
+            "    final int mid = ((low + high) >>> 1);",
+            "    if(" + lessValueElement + ")",
+            "        high = mid;",
+            "    else",
+            "        low = (mid + 1);",
+            "}",
+            "return low;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("// inserted after the elements equal to it",
+            "public " + classname + " add(" + datatype + " element)",
+            "if(size == array.length)",
+            "    this.grow(size + 1);",
+            "",
+            "final int i = this.upperBound(element);",
+            "System.arraycopy(array, i, array, i + 1, size - i);",
+            "array[i] = element;",
+            "size++;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + datatype + "... elements)",
+            "final " + datatype + "[] sorted = elements.clone();",
+            "Arrays.sort(sorted);",
+            "this.merge(sorted, sorted.length);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + listClassname + " list)",
+            "final " + datatype + "[] sorted = list.copyOf();",
+            "Arrays.sort(sorted);",
+            "this.merge(sorted, sorted.length);",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " add(" + classname + " list)",
+            "this.merge((list == this ? list.copyOf() : list.array), list.size);",
+            "return this;"
+        );
+        w.addAnnotatedMethod("// merges from the back so every element moves at most once",
+            "private void merge(" + datatype + "[] sorted, int length)",
+            "if(size + length > array.length)",
+            "    this.grow(size + length);",
+            "",
+            "int i = (size - 1);",
+            "int j = (length - 1);",
+            "int k = (size + length - 1);",
+            "while(j >= 0){",
+            "    if(i >= 0 && " + lessMerge + ")",
+            "        array[k--] = array[i--];",
+            "    else",
+            "        array[k--] = sorted[j--];",
+            "}",
+            "size += length;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + classname + " remove(int i, int len)",
+            "len = Math.min(len, size - i);",
+            "if(len <= 0)",
+            "    return this;",
+            "",
+            "final int j = (i + len);",
+            "System.arraycopy(array, j, array, i, (size - j));",
+            "size -= len;",
+            "return this;"
+        );
+        w.addMethod("public " + datatype + " remove(int i)",
+            "final " + datatype + " value = this.get(i);",
+            "this.remove(i, 1);",
+            "return value;"
+        );
+        w.addMethod("public " + datatype + " removeFirst()",
+            "return this.remove(0);"
+        );
+        w.addMethod("public " + datatype + " removeLast()",
+            "if(size == 0)",
+            "    throw new NoSuchElementException();",
+            "return array[--size];"
+        );
+        w.addMethod("public boolean removeFirstOccurrence(" + datatype + " value)",
+            "final int index = this.indexOf(value);",
+            "if(index == -1)",
+            "    return false;",
+            "this.remove(index, 1);",
+            "return true;"
+        );
+        w.addAnnotatedMethod("// removes the elements less than the value, returns their count",
+            "public int removeLessThan(" + datatype + " value)",
+            "final int count = this.lowerBound(value);",
+            "this.remove(0, count);",
+            "return count;"
+        );
+        w.addMethod("public " + classname + " clear()",
+            "size = 0;",
+            "return this;"
+        );
+        w.addMethod("public " + classname + " trim()",
+            "if(array.length != size)",
+            "    array = Arrays.copyOf(array, size);",
+            "return this;"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + " get(int i)",
+            "if(i >= size)",
+            "    throw new IndexOutOfBoundsException(\"Index \" + i + \" out of bounds for size \" + size);",
+            "return array[i];"
+        );
+        w.addMethod("public " + datatype + " getFirst()",
+            "return this.get(0);"
+        );
+        w.addMethod("public " + datatype + " getLast()",
+            "return this.get(size - 1);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public boolean contains(" + datatype + " value)",
+            "return (this.indexOf(value) != -1);"
+        );
+        w.addMethod("public int indexOf(" + datatype + " value)",
+            "final int index = this.lowerBound(value);",
+            "return (index < size && " + equalsAt + " ? index : -1);"
+        );
+        w.addMethod("public int lastIndexOf(" + datatype + " value)",
+            "final int index = (this.upperBound(value) - 1);",
+            "return (index >= 0 && " + equalsAt + " ? index : -1);"
+        );
+        w.addMethod("public int count(" + datatype + " value)",
+            "return (this.upperBound(value) - this.lowerBound(value));"
+        );
+        w.addAnnotatedMethod("// number of elements less than the value",
+            "public int rank(" + datatype + " value)",
+            "return this.lowerBound(value);"
+        );
+        w.addAnnotatedMethod("// index of the greatest element less than or equal to the value, or -1",
+            "public int floorIndex(" + datatype + " value)",
+            "return (this.upperBound(value) - 1);"
+        );
+        w.addAnnotatedMethod("// index of the least element greater than or equal to the value, or -1",
+            "public int ceilingIndex(" + datatype + " value)",
+            "final int index = this.lowerBound(value);",
+            "return (index < size ? index : -1);"
+        );
+        w.addMethod("public " + datatype + " floor(" + datatype + " value)",
+            "final int index = this.floorIndex(value);",
+            "if(index == -1)",
+            "    throw new NoSuchElementException(\"No element <= \" + value);",
+            "return array[index];"
+        );
+        w.addMethod("public " + datatype + " ceiling(" + datatype + " value)",
+            "final int index = this.ceilingIndex(value);",
+            "if(index == -1)",
+            "    throw new NoSuchElementException(\"No element >= \" + value);",
+            "return array[index];"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addMethod("public " + datatype + "[] copyOf()",
+            "return Arrays.copyOf(array, size);"
+        );
+        w.addMethod("public " + listClassname + " toList()",
+            "return new " + listClassname + "(this.copyOf());"
+        );
+        w.addMethod("public " + classname + " copy()",
+            "return new " + classname + "(this);"
+        );
+        w.addMethod("public void forEach(" + ListGenerator.consumerName(datatype) + " action)",
+            "for(int i = 0; i < size; i++)",
+            "    action.accept(array[i]);"
+        );
+
+        //
+        w.addMethodSplitter();
+
+        w.addAnnotatedMethod("@Override", "public String toString()",
+            "return Arrays.toString(this.copyOf());"
+        );
+        w.addAnnotatedMethod("@Override", "public boolean equals(Object object)",
+            "if(this == object)",
+            "    return true;",
+            "if(object == null || getClass() != object.getClass())",
+            "    return false;",
+            "final " + classname + " list = (" + classname + ") object;",
+            "return Arrays.equals(array, 0, size, list.array, 0, list.size);"
+        );
+        w.addAnnotatedMethod("@Override", "public int hashCode()",
+            "int hash = 1;",
+            "for(int i = 0; i < size; i++)",
+            "    hash = 31 * hash + " + datatypeWrapper + ".hashCode(array[i]);",
+            "return hash;"
+        );
+        w.addAnnotatedMethod("@Override", "public " + datatypeName + "Iterator iterator()",
+            "return new " + datatypeName + "Iterator() {",
+            "    private int index;",
+            "    @Override",
+            "    public boolean hasNext() {",
+            "        return (index < size);",
+            "    }",
+            "    @Override",
+            "    public " + datatype + " next" + datatypeName + "() {",
+            "        if(index >= size)",
+            "            throw new NoSuchElementException();",
+            "        return array[index++];",
+            "    }",
+            "};"
+        );
+
+        // write
+        w.write(savepath);
+    }
+
+}
@@ -1,9 +1,28 @@
 package generaloss.rawlist;
 
+import com.sun.management.ThreadMXBean;
+import generaloss.rawlist.arrow.ArrowReader;
+import generaloss.rawlist.arrow.ArrowWriter;
+import generaloss.rawlist.function.IntValueConsumer;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class UnitTests {
 
@@ -168,4 +187,1089 @@ public class UnitTests {
         Assert.assertEquals("pineapple", list.getStringOfRange(0, 9));
     }
 
+    @Test
+    public void int_indexOfRange() {
+        final IntList list = new IntList(1000);
+        for(int i = 0; i < 1000; i++)
+            list.add(i % 100);
+
+        Assert.assertEquals(42, list.indexOf(42));
+        Assert.assertEquals(942, list.lastIndexOf(42));
+        Assert.assertEquals(142, list.indexOfRange(42, 43, 1000));
+        Assert.assertEquals(842, list.lastIndexOfRange(42, 0, 942));
+        Assert.assertEquals(-1, list.indexOfRange(42, 43, 142));
+        Assert.assertEquals(-1, list.indexOf(100));
+    }
+
+    @Test
+    public void float_indexOfSignedZero() {
+        final FloatList list = new FloatList(1F, Float.NaN, -0F);
+
+        // same semantics as (==): NaN is never found, -0 equals +0
+        Assert.assertEquals(-1, list.indexOf(Float.NaN));
+        Assert.assertEquals(2, list.indexOf(0F));
+    }
+
+    @Test
+    public void float_bufferImportExport() {
+        final FloatBuffer source = FloatBuffer.wrap(new float[]{0F, 1F, 2F, 3F, 4F});
+        source.position(1);
+
+        // import only the remaining elements, the buffer position stays untouched
+        final FloatList list = new FloatList(1F);
+        list.addAll(source);
+        Assert.assertEquals(5, list.size());
+        Assert.assertEquals(4F, list.getLast(), 0F);
+        Assert.assertEquals(1, source.position());
+
+        // export only 'size' elements, in native order
+        list.capacity(32);
+        final FloatBuffer direct = list.toDirectBuffer();
+        Assert.assertTrue(direct.isDirect());
+        Assert.assertEquals(ByteOrder.nativeOrder(), direct.order());
+        Assert.assertEquals(5, direct.remaining());
+        Assert.assertEquals(1F, direct.get(1), 0F);
+
+        final FloatBuffer target = FloatBuffer.allocate(8);
+        list.writeTo(target);
+        Assert.assertEquals(5, target.position());
+    }
+
+    @Test
+    public void bool_bufferImportExport() {
+        final BoolList list = new BoolList(true, false, true);
+        final ByteBuffer buffer = list.toDirectBuffer();
+        Assert.assertEquals(3, buffer.remaining());
+
+        Assert.assertEquals(list, new BoolList(buffer));
+    }
+
+    @Test
+    public void offHeapInt_addRemove() {
+        try(final OffHeapIntList list = new OffHeapIntList(2)){
+            for(int i = 0; i < 100; i++)
+                list.add(i);
+            Assert.assertEquals(100, list.size());
+            final IntBuffer written = IntBuffer.allocate(100);
+            list.writeTo(written);
+            Assert.assertEquals(99, written.get(99));
+
+            // overlapping shifts in both directions
+            list.add(10, new int[]{-1, -2, -3});
+            Assert.assertEquals(103, list.size());
+            Assert.assertEquals(-1, list.get(10));
+            Assert.assertEquals(10, list.get(13));
+            Assert.assertEquals(99, list.getLast());
+
+            list.remove(5, 10);
+            Assert.assertEquals(93, list.size());
+            Assert.assertEquals(4, list.get(4));
+            Assert.assertEquals(12, list.get(5));
+            Assert.assertEquals(-1, list.indexOf(-2));
+            Assert.assertEquals(92, list.lastIndexOf(99));
+
+            list.close();
+            Assert.assertTrue(list.isEmpty());
+            Assert.assertEquals(0, list.capacity());
+        }
+    }
+
+    @Test
+    public void offHeapFloat_toList() {
+        final FloatList heap = new FloatList(1F, 2F, Float.NaN);
+        try(final OffHeapFloatList list = new OffHeapFloatList(heap)){
+            Assert.assertEquals(heap, list.toList());
+            Assert.assertEquals(list, list.copy());
+            Assert.assertEquals("[1.0, 2.0, NaN]", list.toString());
+        }
+    }
+
+    @Test
+    public void float_primitiveIteration() {
+        final FloatList list = new FloatList(1F, 2F, 3F);
+
+        final FloatIterator iterator = list.iterator();
+        Assert.assertEquals(1F, iterator.nextFloat(), 0F);
+        Assert.assertEquals(2F, iterator.nextFloat(), 0F);
+        Assert.assertEquals(3F, iterator.nextFloat(), 0F);
+        Assert.assertFalse(iterator.hasNext());
+
+        final float[] sum = new float[1];
+        list.forEach((float value) -> sum[0] += value);
+        Assert.assertEquals(6F, sum[0], 0F);
+
+        final StringBuilder builder = new StringBuilder();
+        list.forEachIndexed((index, value) -> builder.append(index).append('=').append(value).append(' '));
+        Assert.assertEquals("0=1.0 1=2.0 2=3.0 ", builder.toString());
+    }
+
+    @Test
+    public void int_forEachAllocationFree() {
+        final IntList list = new IntList(100_000);
+        for(int i = 0; i < 100_000; i++)
+            list.add(i + 1000);
+
+        final long[] sum = new long[1];
+        final IntValueConsumer action = (value) -> sum[0] += value;
+
+        // warm up (class loading allocates)
+        list.forEach(action);
+        list.iterator().forEachRemaining(action);
+
+        // values are outside the Integer cache, boxing would allocate megabytes (the bound covers the mxbean call itself)
+        final long allocated = allocatedBytes();
+        list.forEach(action);
+        list.iterator().forEachRemaining(action);
+        Assert.assertTrue(allocatedBytes() - allocated < 4096);
+    }
+
+    @Test
+    public void list_implicitLambdas() {
+        // implicitly typed lambdas pick the primitive overloads, java.util.function consumers are accepted too
+        final long[] sum = new long[1];
+        final IntList ints = new IntList(List.of("a", "bb", "ccc"), s -> s.length());
+        ints.forEach(value -> sum[0] += value);
+        ints.iterator().forEachRemaining(value -> sum[0] += value);
+        new LongList(1L, 2L).forEach(value -> sum[0] += value);
+        new DoubleList(3D).iterator().forEachRemaining(value -> sum[0] += (long) value);
+        final java.util.function.IntConsumer jdkConsumer = (value -> sum[0] += value);
+        ints.iterator().forEachRemaining(jdkConsumer);
+        Assert.assertEquals(24L, sum[0]);
+
+        // boxed mapping functions are still accepted
+        final java.util.function.Function<String, Integer> length = String::length;
+        Assert.assertEquals(ints, new IntList(List.of("a", "bb", "ccc"), length));
+        Assert.assertEquals(ints, new IntList().addAll(new String[]{ "a", "bb", "ccc" }, String::length));
+    }
+
+    private static long allocatedBytes() {
+        final ThreadMXBean bean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void float_primitiveMapping() {
+        final List<String> strings = List.of("1.5", "2.5", "3");
+
+        // implicit lambdas resolve to ToFloatFunction, no boxing
+        final FloatList list = new FloatList(strings, Float::parseFloat);
+        list.addAll(strings.toArray(new String[0]), (string) -> string.length());
+        list.addAll(new FloatList(7F));
+
+        Assert.assertEquals(new FloatList(1.5F, 2.5F, 3F, 3F, 3F, 1F, 7F), list);
+    }
+
+    @Test
+    public void int_removeOccurrence() {
+        final IntList list = new IntList(1, 2, 3, 2, 1);
+
+        Assert.assertTrue(list.removeFirstOccurrence(2));
+        Assert.assertTrue(list.removeLastOccurrence(1));
+        Assert.assertFalse(list.removeFirstOccurrence(5));
+        Assert.assertEquals(new IntList(1, 3, 2), list);
+    }
+
+    @Test
+    public void radixSort_matchesArraysSort() {
+        final Random random = new Random(7);
+        final int length = 5000;
+
+        final IntList ints = new IntList();
+        final LongList longs = new LongList();
+        final ShortList shorts = new ShortList();
+        final ByteList bytes = new ByteList();
+        final CharList chars = new CharList();
+        final FloatList floats = new FloatList();
+        final DoubleList doubles = new DoubleList();
+        for(int i = 0; i < length; i++){
+            ints.add(random.nextInt());
+            longs.add(random.nextLong());
+            shorts.add((short) random.nextInt());
+            bytes.add((byte) random.nextInt());
+            chars.add((char) random.nextInt());
+            floats.add((float) random.nextGaussian());
+            doubles.add(random.nextGaussian() * 1e300);
+        }
+        // sign and NaN ordering
+        floats.add(Float.NaN, -0F, 0F, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, Float.intBitsToFloat(0xFFC00000));
+        doubles.add(Double.NaN, -0D, 0D, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+        Assert.assertEquals(ints.copy().sort(), ints.copy().radixSort());
+        Assert.assertEquals(longs.copy().sort(), longs.copy().radixSort());
+        Assert.assertEquals(shorts.copy().sort(), shorts.copy().radixSort());
+        Assert.assertEquals(bytes.copy().sort(), bytes.copy().radixSort());
+        Assert.assertEquals(chars.copy().sort(), chars.copy().radixSort());
+        Assert.assertEquals(floats.copy().sort(), floats.copy().radixSort());
+        Assert.assertEquals(doubles.copy().sort(), doubles.copy().parallelSort());
+        Assert.assertEquals(doubles.copy().sort(), doubles.copy().radixSort());
+
+        // sub range only
+        Assert.assertEquals(ints.copy().sort(100, 4000), ints.copy().radixSort(100, 4000));
+
+        // the range is checked against the size, stale capacity slots are never sorted in
+        final IntList spare = new IntList(16).add(new int[]{ 3, 1, 2 });
+        try{
+            spare.sort(0, 8);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        try{
+            spare.radixSort(2, 1);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        try{
+            spare.parallelSort(0, 4);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        Assert.assertEquals(new IntList().add(new int[]{ 3, 1, 2 }), spare);
+    }
+
+    @Test
+    public void int_aggregates() {
+        final IntList list = new IntList();
+        list.add(new int[]{ Integer.MAX_VALUE, Integer.MAX_VALUE, -3, 7, -3 });
+
+        Assert.assertEquals(2L * Integer.MAX_VALUE + 1, list.sum());
+        Assert.assertEquals(-3, list.min());
+        Assert.assertEquals(Integer.MAX_VALUE, list.max());
+        Assert.assertEquals(2, list.argMin());
+        Assert.assertEquals(0, list.argMax());
+        Assert.assertEquals(3, list.argMax(2, 5));
+        Assert.assertEquals(2D, list.mean(2, 4), 0D);
+        Assert.assertEquals(25D, list.variance(2, 4), 0D);
+
+        Assert.assertEquals(-1, list.argMin(3, 3));
+        try{
+            list.min(3, 3);
+            Assert.fail();
+        }catch(NoSuchElementException ignored){ }
+        try{
+            list.mean(3, 3);
+            Assert.fail();
+        }catch(NoSuchElementException ignored){ }
+        try{
+            new DoubleList().variance();
+            Assert.fail();
+        }catch(NoSuchElementException ignored){ }
+        // ranges past the size never read stale capacity slots
+        try{
+            list.sum(0, 6);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        try{
+            list.argMax(4, 3);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        try{
+            new LongList().add(Long.MAX_VALUE, 1L).sum();
+            Assert.fail();
+        }catch(ArithmeticException ignored){ }
+    }
+
+    @Test
+    public void double_compensatedSum() {
+        final DoubleList list = new DoubleList();
+        for(int i = 0; i < 10000; i++)
+            list.add(1e16, 1D, -1e16);
+
+        Assert.assertEquals(10000D, list.sum(), 0D);
+        Assert.assertEquals(1D / 3D, list.mean(), 1e-12);
+
+        final FloatList floats = new FloatList();
+        for(int i = 0; i < 1000000; i++)
+            floats.add(0.1F);
+        Assert.assertEquals(1000000 * (double) 0.1F, floats.sum(), 1e-6);
+        Assert.assertEquals(0D, floats.variance(), 0D);
+
+        // the partial sums keep their error terms when merged
+        final DoubleList parallel = new DoubleList();
+        parallel.add(1e16);
+        for(int i = 1; i < 8192; i++)
+            parallel.add(1D);
+        parallel.add(-1e16);
+        for(int i = 1; i < 8192; i++)
+            parallel.add(1D);
+        Aggregates.setParallelThreshold(1);
+        try{
+            Assert.assertEquals(16382D, parallel.sum(), 0D);
+        }finally{
+            Aggregates.setParallelThreshold(Aggregates.DEFAULT_PARALLEL_THRESHOLD);
+        }
+    }
+
+    @Test
+    public void float_elementArithmetic() {
+        final FloatList list = new FloatList();
+        final FloatList expected = new FloatList();
+        final FloatList velocities = new FloatList();
+        for(int i = 0; i < 1000; i++){
+            list.add(i);
+            velocities.add(i * 0.5F);
+            expected.add(Math.max(0F, Math.min(500F, Math.fma(i + i * 0.5F, 2F, -1F))));
+        }
+
+        list.elementAddAll(velocities).elementFmaAll(2F, -1F).elementClampAll(0F, 500F);
+        Assert.assertEquals(expected, list);
+
+        list.elementLerpAll(100F, 0.5F);
+        Assert.assertEquals((expected.get(999) + 100F) * 0.5F, list.get(999), 1e-4F);
+
+        list.elementMulAll(10, 20, 0F);
+        Assert.assertEquals(0F, list.get(15), 0F);
+        Assert.assertTrue(list.get(20) > 0F);
+
+        try{
+            list.elementSubAll(1, velocities);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+    }
+
+    @Test
+    public void int_elementArithmetic() {
+        final IntList list = new IntList().add(new int[]{ 1, 2, 3, 4 });
+        list.elementMulAll(3).elementSubAll(2, new IntList().add(1, 1)).elementClampAll(0, 8);
+        Assert.assertEquals(new IntList().add(new int[]{ 3, 6, 8, 8 }), list);
+
+        // the range is checked against the size, not the capacity
+        try{
+            list.elementAddAll(2, 6, 1);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        try{
+            list.elementClampAll(3, 2, 0, 1);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        Assert.assertEquals(new IntList().add(new int[]{ 3, 6, 8, 8 }), list);
+    }
+
+    @Test
+    public void bit_matchesBoolList() {
+        final Random random = new Random(10);
+        final BitList bits = new BitList();
+        final BoolList bools = new BoolList();
+        for(int step = 0; step < 5000; step++){
+            final int op = random.nextInt(6);
+            final boolean value = random.nextBoolean();
+            if(op == 0 && bools.size() > 0){
+                final int i = random.nextInt(bools.size());
+                final int len = random.nextInt(130);
+                bits.remove(i, len);
+                bools.remove(i, len);
+            }else if(op == 1){
+                final int i = random.nextInt(bools.size() + 1);
+                final boolean[] values = new boolean[random.nextInt(150)];
+                for(int j = 0; j < values.length; j++)
+                    values[j] = random.nextBoolean();
+                bits.add(i, values);
+                bools.add(i, values);
+            }else if(op == 2 && bools.size() > 0){
+                final int i = random.nextInt(bools.size());
+                bits.set(i, value);
+                bools.set(i, value);
+            }else{
+                bits.add(value);
+                bools.add(value);
+            }
+        }
+        Assert.assertEquals(bools, bits.toBoolList());
+        Assert.assertEquals(bits, new BitList(bools));
+        Assert.assertEquals(bools.indexOf(false), bits.nextClearBit(0));
+        Assert.assertEquals(bools.lastIndexOf(true), bits.previousSetBit(bits.lastIndex()));
+        Assert.assertEquals(bools.indexOfRange(true, 700, 900), bits.indexOfRange(true, 700, 900));
+
+        int cardinality = 0;
+        for(int i = 0; i < bools.size(); i++)
+            if(bools.get(i))
+                cardinality++;
+        Assert.assertEquals(cardinality, bits.cardinality());
+    }
+
+    @Test
+    public void bit_wordOperations() {
+        final BitList a = new BitList();
+        final BitList b = new BitList();
+        for(int i = 0; i < 200; i++){
+            a.add(i % 2 == 0);
+            b.add(i % 3 == 0);
+        }
+        b.remove(150, 50);
+
+        final BitList and = a.copy().and(b);
+        final BitList or = a.copy().or(b);
+        final BitList xor = a.copy().xor(b);
+        final BitList andNot = a.copy().andNot(b);
+        for(int i = 0; i < 200; i++){
+            final boolean x = a.get(i);
+            final boolean y = (i < 150 && b.get(i));
+            Assert.assertEquals(x && y, and.get(i));
+            Assert.assertEquals(x || y, or.get(i));
+            Assert.assertEquals(x ^ y, xor.get(i));
+            Assert.assertEquals(x && !y, andNot.get(i));
+        }
+        Assert.assertEquals(200, or.size());
+        Assert.assertEquals(100, a.cardinality());
+        Assert.assertEquals(100, a.copy().not().cardinality());
+        Assert.assertEquals(-1, a.fill(false).nextSetBit(0));
+    }
+
+    @Test
+    public void concurrentInt_multiProducer() throws InterruptedException {
+        final ConcurrentIntList list = new ConcurrentIntList();
+        final int producers = 8;
+        final int perProducer = 20000;
+
+        final AtomicInteger unwrittenReads = new AtomicInteger();
+        final Thread[] threads = new Thread[producers];
+        for(int p = 0; p < producers; p++){
+            final int base = (p * perProducer + 1);
+            threads[p] = new Thread(() -> {
+                for(int i = 0; i < perProducer; i++){
+                    if(i % 100 == 0){
+                        list.add(new int[]{ base + i, base + i + 1, base + i + 2 });
+                        i += 2;
+                    }else{
+                        list.add(base + i);
+                    }
+                    // readers only ever see fully written elements, unwritten slots hold 0
+                    final int size = list.size();
+                    if(size > 0 && list.get(size - 1) == 0)
+                        unwrittenReads.incrementAndGet();
+                }
+            });
+        }
+        for(Thread thread: threads)
+            thread.start();
+        for(Thread thread: threads)
+            thread.join();
+
+        Assert.assertEquals(0, unwrittenReads.get());
+        Assert.assertEquals(producers * perProducer, list.size());
+        final IntList sorted = list.toList().sort();
+        for(int i = 0; i < sorted.size(); i++)
+            Assert.assertEquals(i + 1, sorted.get(i));
+
+        int count = 0;
+        for(int value: list)
+            count++;
+        Assert.assertEquals(list.size(), count);
+        Assert.assertEquals(-1, list.indexOf(0));
+        Assert.assertTrue(list.contains(producers * perProducer));
+
+        // a rejected add reserves nothing, publishing keeps going
+        final ConcurrentIntList checked = new ConcurrentIntList().add(1);
+        try{
+            checked.add(new int[]{ 1, 2 }, 1, 5);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        checked.add(2).add(3);
+        Assert.assertEquals(3, checked.size());
+    }
+
+    @Test
+    public void floatBuilder_mergesShards() throws InterruptedException {
+        final FloatListBuilder builder = new FloatListBuilder();
+        final Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            final int shard = t;
+            threads[t] = new Thread(() -> {
+                final FloatList local = builder.shard();
+                for(int i = 0; i < 50000; i++)
+                    local.add(shard * 50000 + i);
+            });
+        }
+        for(Thread thread: threads)
+            thread.start();
+        for(Thread thread: threads)
+            thread.join();
+
+        Assert.assertEquals(4, builder.shardCount());
+        final FloatList list = builder.build();
+        Assert.assertEquals(200000, list.size());
+        Assert.assertEquals(200000, list.capacity());
+
+        list.sort();
+        for(int i = 0; i < list.size(); i++)
+            Assert.assertEquals(i, list.get(i), 0F);
+
+        Assert.assertEquals(0, builder.clear().build().size());
+    }
+
+    @Test
+    public void chunkedLong_growsWithoutCopy() {
+        final ChunkedLongList list = new ChunkedLongList(0);
+        final LongList expected = new LongList();
+        for(long i = 0; i < 10000; i++){
+            list.add(i * 3);
+            expected.add(i * 3);
+        }
+        list.add(expected);
+        expected.add(expected.copyOf());
+
+        Assert.assertEquals(expected.size(), list.size());
+        Assert.assertEquals(expected, list.compact());
+        Assert.assertEquals(9999L * 3, list.get(9999));
+        Assert.assertEquals(expected.size() - 1, list.lastIndexOf(9999L * 3));
+        Assert.assertEquals(3, list.indexOf(9));
+        Assert.assertEquals(list, list.copy());
+
+        final int chunks = list.chunkCount();
+        list.removeLast(ChunkedLongList.CHUNK_SIZE * 2).trim();
+        Assert.assertEquals(chunks - 2, list.chunkCount());
+
+        final int size = list.size();
+        try{
+            list.add(new long[]{ 1L, 2L }, 1, 2);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        try{
+            list.add(new long[]{ 1L, 2L }, 0, -1);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        Assert.assertEquals(size, list.size());
+        Assert.assertEquals(chunks - 2, list.chunkCount());
+    }
+
+    @Test
+    public void bigInt_crossesSegments() {
+        final int segment = BigIntList.SEGMENT_SIZE;
+        final BigIntList list = new BigIntList();
+        final int[] values = new int[segment + 100];
+        for(int i = 0; i < values.length; i++)
+            values[i] = i;
+        list.add(values).add(values);
+
+        Assert.assertEquals(2L * values.length, list.size());
+        Assert.assertEquals(99, list.get(values.length + 99L));
+        Assert.assertEquals(values.length + 5L, list.indexOfRange(5, 10L, list.size()));
+        Assert.assertEquals(values.length + 5L, list.lastIndexOf(5));
+        Assert.assertEquals(segment + 7L, list.binarySearch(0, values.length, segment + 7));
+
+        // insert and remove shift the tail across segment boundaries
+        list.add(segment - 1L, -1, -2);
+        Assert.assertEquals(-2, list.get(segment));
+        Assert.assertEquals(segment - 1, list.get(segment + 1L));
+        list.remove(segment - 1L, 2);
+        Assert.assertArrayEquals(list.copyOf(segment - 2L, 4), new int[]{ segment - 2, segment - 1, segment, segment + 1 });
+
+        list.fill(10L, list.size() - 10, 0);
+        Assert.assertEquals(0, list.get(segment));
+        Assert.assertEquals(list, list.copy());
+
+        final BigIntList tail = new BigIntList(0);
+        list.copyTo(list.size() - 20, tail, 0, 20);
+        Assert.assertEquals(20L, tail.size());
+        Assert.assertEquals(values.length - 1, tail.getLast());
+        Assert.assertEquals(20L, tail.trim().capacity());
+
+        // bad bulk-add arguments are rejected before the list grows
+        try{
+            tail.add(values, values.length - 1, 2);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        try{
+            tail.add(values, 0, -1);
+            Assert.fail();
+        }catch(IndexOutOfBoundsException ignored){ }
+        Assert.assertEquals(20L, tail.size());
+        Assert.assertEquals(20L, tail.capacity());
+    }
+
+    @Test
+    public void gapChar_matchesStringBuilder() {
+        final Random random = new Random(15);
+        final GapCharList text = new GapCharList(0);
+        final StringBuilder expected = new StringBuilder();
+        int cursor = 0;
+        for(int step = 0; step < 20000; step++){
+            final int op = random.nextInt(10);
+            if(op < 6){
+                final char c = (char) ('a' + random.nextInt(26));
+                text.add(cursor, c);
+                expected.insert(cursor, c);
+                cursor++;
+            }else if(op < 8 && cursor > 0){
+                text.remove(cursor - 1, 1);
+                expected.deleteCharAt(cursor - 1);
+                cursor--;
+            }else if(op == 8){
+                text.add(cursor, "line\n");
+                expected.insert(cursor, "line\n");
+            }else{
+                cursor = random.nextInt(expected.length() + 1);
+            }
+        }
+        Assert.assertEquals(expected.toString(), text.getStringOf());
+        Assert.assertEquals(expected.length(), text.length());
+        Assert.assertEquals(expected.indexOf("line"), text.indexOf("line"));
+        Assert.assertEquals(expected.indexOf("ab", 500), text.indexOf("ab", 500));
+        Assert.assertEquals(expected.lastIndexOf("x"), text.lastIndexOf('x'));
+        Assert.assertEquals(expected.substring(100, 3000), text.getStringOfRange(100, 3000));
+        Assert.assertTrue(expected.toString().contentEquals(text));
+        Assert.assertEquals(text, text.copy());
+        Assert.assertEquals(expected.toString(), text.trim().toString());
+    }
+
+    @Test
+    public void intDeque_ringOperations() {
+        final IntDeque deque = new IntDeque(4);
+        final java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        final Random random = new Random(16);
+        for(int step = 0; step < 10000; step++){
+            final int value = random.nextInt();
+            final int op = random.nextInt(4);
+            if(op == 0){
+                deque.addFirst(value);
+                expected.addFirst(value);
+            }else if(op == 1){
+                deque.addLast(value);
+                expected.addLast(value);
+            }else if(expected.isEmpty()){
+                continue;
+            }else if(op == 2){
+                Assert.assertEquals((int) expected.removeFirst(), deque.removeFirst());
+            }else{
+                Assert.assertEquals((int) expected.removeLast(), deque.removeLast());
+            }
+        }
+        Assert.assertEquals(expected.size(), deque.size());
+        Assert.assertEquals(new IntList(expected), deque.toList());
+        Assert.assertEquals((int) expected.peekLast(), deque.get(deque.size() - 1));
+
+        // breadth-first style work queue
+        final IntList drained = new IntList();
+        final IntDeque queue = new IntDeque(new int[]{ 1, 2, 3 });
+        queue.removeFirst();
+        queue.addLast(new int[]{ 4, 5, 6, 7, 8 });
+        Assert.assertEquals(3, queue.drainTo(drained, 3));
+        Assert.assertEquals(new IntList().add(new int[]{ 2, 3, 4 }), drained);
+        Assert.assertEquals(2, queue.indexOf(7));
+        Assert.assertEquals(4, queue.drainTo(drained));
+        Assert.assertTrue(queue.isEmpty());
+
+        try{
+            queue.removeFirst();
+            Assert.fail();
+        }catch(NoSuchElementException ignored){ }
+    }
+
+    @Test
+    public void mapped_reopen() throws IOException {
+        final Path path = Files.createTempFile("rawlist", ".bin");
+        Files.delete(path);
+        try{
+            // grows past the initial mapping several times
+            try(MappedLongList list = new MappedLongList(path)){
+                for(int i = 0; i < 5000; i++)
+                    list.add(i * 3L);
+                list.set(10, -1L);
+            }
+
+            try(MappedLongList list = new MappedLongList(path)){
+                Assert.assertEquals(5000, list.size());
+                Assert.assertEquals(-1L, list.get(10));
+                Assert.assertEquals(4999 * 3L, list.getLast());
+                Assert.assertEquals(100, list.indexOf(300L));
+                list.add(new long[]{ 7L, 8L });
+                Assert.assertEquals(8L, list.removeLast());
+            }
+            Assert.assertEquals(MappedLongList.HEADER_BYTES + 5001L * Long.BYTES, Files.size(path));
+
+            try(MappedLongList list = new MappedLongList(path)){
+                Assert.assertEquals(5001, list.size());
+                Assert.assertEquals(7L, list.getLast());
+
+                // a negative length must not shrink the persisted size
+                try{
+                    list.add(new long[]{ 1L }, 0, -1);
+                    Assert.fail();
+                }catch(IndexOutOfBoundsException ignored){ }
+                Assert.assertEquals(5001, list.size());
+            }
+            Assert.assertEquals(MappedLongList.HEADER_BYTES + 5001L * Long.BYTES, Files.size(path));
+
+            // type is checked from the header, a rejected file is left untouched
+            try{
+                new MappedIntList(path);
+                Assert.fail();
+            }catch(IOException ignored){ }
+            Assert.assertEquals(MappedLongList.HEADER_BYTES + 5001L * Long.BYTES, Files.size(path));
+
+            Files.write(path, new byte[]{ 1, 2, 3 });
+            try{
+                new MappedLongList(path);
+                Assert.fail();
+            }catch(IOException ignored){ }
+            Assert.assertEquals(3L, Files.size(path));
+
+            Files.delete(path);
+            final MappedLongList closed = new MappedLongList(path);
+            closed.add(1L);
+            closed.close();
+            try{
+                closed.clear();
+                Assert.fail();
+            }catch(IllegalStateException ignored){ }
+        }finally{
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void list_writeReadStream() throws IOException {
+        final IntList ints = new IntList();
+        for(int i = 0; i < 100_000; i++)
+            ints.add(i * 31);
+        ints.add(-1).removeLast();
+
+        final StringList strings = new StringList("a", null, "", "привет", String.valueOf(new char[100_000]).replace('\0', 'x'));
+        final BoolList bools = new BoolList(true, false, true);
+        final ByteList bytes = new ByteList((byte) 1, (byte) -2);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ints.writeTo(out);
+        // header and only the live elements
+        Assert.assertEquals(12 + 100_000 * Integer.BYTES, out.size());
+        strings.writeTo(out);
+        bools.writeTo(out);
+        bytes.writeTo(out);
+        new DoubleList().writeTo(out);
+
+        // lists read back one after another from the same stream
+        final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        Assert.assertEquals(ints, IntList.readFrom(in));
+        Assert.assertEquals(strings, StringList.readFrom(in));
+        Assert.assertEquals(bools, BoolList.readFrom(in));
+        Assert.assertEquals(bytes, ByteList.readFrom(in));
+        Assert.assertTrue(DoubleList.readFrom(in).isEmpty());
+        Assert.assertEquals(0, in.available());
+
+        try{
+            LongList.readFrom(new ByteArrayInputStream(out.toByteArray()));
+            Assert.fail();
+        }catch(IOException ignored){ }
+
+        // a forged size is not allocated up front, the truncated stream fails instead
+        final byte[] forged = Arrays.copyOf(out.toByteArray(), 12 + 4 * Integer.BYTES);
+        ByteBuffer.wrap(forged).putInt(8, Integer.MAX_VALUE);
+        try{
+            IntList.readFrom(new ByteArrayInputStream(forged));
+            Assert.fail();
+        }catch(IOException ignored){ }
+        forged[5] = (byte) 'B';
+        try{
+            ByteList.readFrom(new ByteArrayInputStream(forged));
+            Assert.fail();
+        }catch(IOException ignored){ }
+    }
+
+    @Test
+    public void compressed_randomAccess() {
+        // sorted ids with small gaps, plus a few extreme values
+        final Random random = new Random(19);
+        final LongList ids = new LongList();
+        long id = 1_000_000L;
+        for(int i = 0; i < 10_000; i++)
+            ids.add(id += random.nextInt(50));
+        ids.add(Long.MIN_VALUE, Long.MAX_VALUE, -5L);
+
+        final CompressedLongList compressed = new CompressedLongList(ids);
+        Assert.assertEquals(ids.size(), compressed.size());
+        Assert.assertTrue(compressed.compressedBytes() * 4 < ids.size() * (long) Long.BYTES);
+
+        for(int i = 0; i < 1000; i++){
+            final int index = random.nextInt(ids.size());
+            Assert.assertEquals(ids.get(index), compressed.get(index));
+        }
+        Assert.assertEquals(ids, compressed.toList());
+        Assert.assertEquals(-5L, compressed.getLast());
+        Assert.assertEquals(ids.indexOf(Long.MAX_VALUE), compressed.indexOf(Long.MAX_VALUE));
+
+        // appends into a cached block are visible
+        final CompressedIntList ints = new CompressedIntList(3, -7, Integer.MIN_VALUE);
+        Assert.assertEquals(-7, ints.get(1));
+        ints.add(Integer.MAX_VALUE);
+        Assert.assertEquals(Integer.MAX_VALUE, ints.get(3));
+        Assert.assertEquals(new IntList(3, -7, Integer.MIN_VALUE, Integer.MAX_VALUE), ints.toList());
+    }
+
+    @Test
+    public void packedString_bytePool() {
+        final PackedStringList list = new PackedStringList("alpha", "", "привет", "beta");
+        list.add(new StringList("gamma", "alpha"));
+        Assert.assertEquals(6, list.size());
+        Assert.assertEquals("привет", list.get(2));
+        Assert.assertEquals(12, list.byteLength(2));
+        Assert.assertEquals(0, list.indexOf("alpha"));
+        Assert.assertEquals(5, list.lastIndexOf("alpha"));
+        Assert.assertEquals(2, list.indexOf("привет"));
+        Assert.assertEquals(1, list.indexOf(""));
+        Assert.assertEquals(-1, list.indexOf("alph"));
+
+        // resizing an element in the middle shifts the pool
+        list.set(2, "x");
+        list.set(0, "alpha-alpha");
+        list.remove(1);
+        Assert.assertEquals(new StringList("alpha-alpha", "x", "beta", "gamma", "alpha"), list.toStringList());
+        Assert.assertTrue(list.elementEquals(2, "beta"));
+        Assert.assertEquals(new PackedStringList(list.toStringList()), list);
+        Assert.assertEquals(new PackedStringList(list.toStringList()).hashCode(), list.hashCode());
+    }
+
+    @Test
+    public void arrow_streamRoundTrip() throws IOException {
+        final IntList ints = new IntList(1, -2, 3, Integer.MAX_VALUE, 5);
+        final BoolList bools = new BoolList(true, false, false, true, true, true, false, true, true);
+        final StringList strings = new StringList("a", null, "", "привет");
+        final DoubleList doubles = new DoubleList(0.5, -1.25, Double.NaN);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowWriter.write(Channels.newChannel(out), "ints", ints);
+        // continuation marker, metadata length is a multiple of 8
+        final ByteBuffer stream = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(-1, stream.getInt(0));
+        Assert.assertEquals(0, stream.getInt(4) % 8);
+        Assert.assertEquals(ints, ArrowReader.readIntList(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))));
+
+        out.reset();
+        ArrowWriter.write(Channels.newChannel(out), "bools", bools);
+        Assert.assertEquals(bools, ArrowReader.readBoolList(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))));
+
+        out.reset();
+        ArrowWriter.write(Channels.newChannel(out), "strings", strings);
+        Assert.assertEquals(strings, ArrowReader.readStringList(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))));
+
+        out.reset();
+        ArrowWriter.write(Channels.newChannel(out), "doubles", doubles);
+        Assert.assertEquals(doubles, ArrowReader.readDoubleList(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))));
+
+        // column type is checked against the requested list
+        try{
+            ArrowReader.readFloatList(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+            Assert.fail();
+        }catch(IOException ignored){ }
+    }
+
+    @Test
+    public void arrow_goldenStream() throws IOException {
+        // int32 column "x" = [1, 2, 3], nullable without nulls. Assembled by hand from Message.fbs / Schema.fbs
+        // (metadata V5) in the layout of the reference flatbuffers builders: vtables before their tables,
+        // default fields omitted, trimmed vtables, an empty validity buffer.
+        // Not produced by pyarrow / arrow-java: this pins our own encoding, interop is unverified
+        final byte[] golden = hex(""
+        // schema message
+        + "ffffffff8000000014000000000000000a000b0008000a00040000000c000000"
+        + "1000000004000100080008000000040008000000040000000100000014000000"
+        + "10001200040010001100080000000c0010000000100000001c00000024000000"
+        + "0102000001000000780000000800090004000800080000002000000001000000"
+        + "0000000000000000"
+        // record batch message
+        + "ffffffff9800000018000000000000000c001700140016001000080000000000"
+        + "1000000000000000100000000000000018000000040003000a00180008001000"
+        + "1400000000000000100000000000000003000000000000000c00000020000000"
+        + "0000000001000000030000000000000000000000000000000000000002000000"
+        + "0000000000000000000000000000000000000000000000000c00000000000000"
+        // body: 1, 2, 3 and padding
+        + "01000000020000000300000000000000"
+        // end of stream
+        + "ffffffff00000000"
+        );
+        Assert.assertEquals(new IntList(1, 2, 3), ArrowReader.readIntList(Channels.newChannel(new ByteArrayInputStream(golden))));
+
+        // an offset pointing outside of the metadata is reported as an IOException
+        final byte[] malformed = golden.clone();
+        ByteBuffer.wrap(malformed).order(ByteOrder.LITTLE_ENDIAN).putInt(8, 0x7FFFFFF0);
+        try{
+            ArrowReader.readIntList(Channels.newChannel(new ByteArrayInputStream(malformed)));
+            Assert.fail();
+        }catch(IOException ignored){ }
+    }
+
+    private static byte[] hex(String string) {
+        final byte[] bytes = new byte[string.length() / 2];
+        for(int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) Integer.parseInt(string.substring(i * 2, i * 2 + 2), 16);
+        return bytes;
+    }
+
+    @Test
+    public void hashMap_againstJavaMap() {
+        final Random random = new Random(22);
+        final IntIntMap map = new IntIntMap();
+        final java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+        for(int i = 0; i < 50_000; i++){
+            // small key range so puts, overwrites and removals collide
+            final int key = random.nextInt(2000) - 1000;
+            if(random.nextInt(3) == 0){
+                Assert.assertEquals(expected.getOrDefault(key, 0).intValue(), map.remove(key));
+                expected.remove(key);
+            }else{
+                Assert.assertEquals(expected.getOrDefault(key, 0).intValue(), map.put(key, i));
+                expected.put(key, i);
+            }
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        for(int key = -1000; key < 1000; key++){
+            Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+            Assert.assertEquals(expected.getOrDefault(key, -1).intValue(), map.getOrDefault(key, -1));
+        }
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        Assert.assertEquals(new IntIntMap(map), map);
+
+        final IntList keys = map.keys();
+        final IntList values = map.values();
+        for(int i = 0; i < keys.size(); i++)
+            Assert.assertEquals(map.get(keys.get(i)), values.get(i));
+
+        final LongIntMap counts = new LongIntMap();
+        for(long id: new long[]{ 5L, 0L, 5L, Long.MIN_VALUE, 5L })
+            counts.addTo(id, 1);
+        Assert.assertEquals(3, counts.get(5L));
+        Assert.assertEquals(1, counts.get(0L));
+        Assert.assertEquals(3, counts.size());
+
+        final IntObjectMap<String> names = new IntObjectMap<>();
+        names.put(1, "one");
+        names.put(0, "zero");
+        Assert.assertEquals("one", names.get(1));
+        Assert.assertNull(names.get(2));
+        Assert.assertEquals("zero", names.remove(0));
+    }
+
+    @Test
+    public void hashSet_addRemove() {
+        final LongHashSet set = new LongHashSet(new LongList(3L, 0L, -7L, 3L));
+        Assert.assertEquals(3, set.size());
+        Assert.assertFalse(set.add(-7L));
+        Assert.assertTrue(set.contains(0L));
+        Assert.assertTrue(set.remove(0L));
+        Assert.assertFalse(set.contains(0L));
+
+        final IntHashSet ints = new IntHashSet();
+        for(int i = 0; i < 10_000; i++)
+            ints.add(i * 16);
+        for(int i = 0; i < 10_000; i += 2)
+            ints.remove(i * 16);
+        Assert.assertEquals(5000, ints.size());
+        for(int i = 0; i < 10_000; i++)
+            Assert.assertEquals((i & 1) == 1, ints.contains(i * 16));
+
+        final AtomicInteger count = new AtomicInteger();
+        ints.forEach(value -> count.incrementAndGet());
+        Assert.assertEquals(5000, count.get());
+        Assert.assertEquals(new IntHashSet(ints.toList()), ints);
+    }
+
+    @Test
+    public void int_indexedLookup() {
+        final IntList list = new IntList().indexed(true);
+        for(int i = 0; i < 1000; i++)
+            list.add(i % 300);
+
+        Assert.assertTrue(list.contains(299));
+        Assert.assertFalse(list.contains(300));
+        Assert.assertEquals(5, list.indexOf(5));
+        Assert.assertEquals(905, list.lastIndexOf(5));
+
+        list.add(300);
+        Assert.assertEquals(1000, list.indexOf(300));
+        list.set(5, 7);
+        Assert.assertEquals(305, list.indexOf(5));
+        list.remove(0, 300);
+        Assert.assertEquals(7, list.indexOf(7));
+        list.clear();
+        Assert.assertEquals(-1, list.indexOf(7));
+
+        final StringList strings = new StringList("a", "b", "a").indexed(true);
+        Assert.assertEquals(2, strings.lastIndexOf("a"));
+        strings.elementToUpperCase(0);
+        Assert.assertEquals(2, strings.indexOf("a"));
+    }
+
+    @Test
+    public void sorted_insertAndSearch() {
+        final Random random = new Random(7);
+        final SortedLongList list = new SortedLongList();
+        final LongList expected = new LongList();
+        for(int i = 0; i < 500; i++){
+            final long value = random.nextInt(200);
+            list.add(value);
+            expected.add(value);
+        }
+        final long[] batch = { 150L, -5L, 999L, 42L };
+        list.add(batch);
+        expected.add(batch);
+        expected.sort();
+        Assert.assertArrayEquals(expected.copyOf(), list.copyOf());
+
+        Assert.assertTrue(list.contains(999L));
+        Assert.assertEquals(expected.indexOf(42L), list.indexOf(42L));
+        Assert.assertEquals(expected.lastIndexOf(42L), list.lastIndexOf(42L));
+        Assert.assertEquals(1, list.rank(0L));
+        Assert.assertEquals(999L, list.ceiling(201L));
+        Assert.assertEquals(-5L, list.floor(-1L));
+        Assert.assertEquals(-1, list.floorIndex(-6L));
+
+        Assert.assertEquals(list.rank(100L), list.removeLessThan(100L));
+        Assert.assertTrue(list.getFirst() >= 100L);
+
+        final SortedFloatList floats = new SortedFloatList(3F, Float.NaN, -0F, 0F, 1F);
+        Assert.assertArrayEquals(new float[]{ -0F, 0F, 1F, 3F, Float.NaN }, floats.copyOf(), 0F);
+        Assert.assertEquals(4, floats.indexOf(Float.NaN));
+    }
+
+    @Test
+    public void list_snapshotAndFreeze() {
+        final IntList list = new IntList(8).add(new int[]{ 1, 2, 3 });
+        final IntList snapshot = list.snapshot();
+        Assert.assertSame(list.array(), snapshot.array());
+
+        list.add(4);
+        Assert.assertSame(list.array(), snapshot.array());
+        list.set(0, 10);
+        Assert.assertNotSame(list.array(), snapshot.array());
+        Assert.assertArrayEquals(new int[]{ 1, 2, 3 }, snapshot.copyOf());
+        Assert.assertArrayEquals(new int[]{ 10, 2, 3, 4 }, list.copyOf());
+
+        try{
+            snapshot.add(5);
+            Assert.fail();
+        }catch(UnsupportedOperationException ignored){ }
+
+        final StringList frozen = new StringList("a", "b").freeze();
+        Assert.assertSame(frozen, frozen.snapshot());
+        Assert.assertEquals(new StringList("a", "b").hashCode(), frozen.hashCode());
+        try{
+            frozen.clear();
+            Assert.fail();
+        }catch(UnsupportedOperationException ignored){ }
+        Assert.assertEquals(2, frozen.size());
+        try{
+            frozen.trim();
+            Assert.fail();
+        }catch(UnsupportedOperationException ignored){ }
+    }
+
+    @Test
+    public void float_snapshotElementOps() {
+        final FloatList floats = new FloatList(1F, 2F, 3F);
+        final FloatList floatSnapshot = floats.snapshot();
+        floats.elementLerpAll(10F, 0.5F);
+        floats.elementLerpAll(new FloatList(0F, 0F, 0F), 0.5F);
+        Assert.assertArrayEquals(new float[]{ 1F, 2F, 3F }, floatSnapshot.copyOf(), 0F);
+        try{
+            floatSnapshot.elementLerpAll(10F, 0.5F);
+            Assert.fail();
+        }catch(UnsupportedOperationException ignored){ }
+
+        final DoubleList doubles = new DoubleList(1D, 2D).freeze();
+        try{
+            doubles.elementLerpAll(new DoubleList(10D, 10D), 1D);
+            Assert.fail();
+        }catch(UnsupportedOperationException ignored){ }
+        try{
+            doubles.elementMulAll(2D);
+            Assert.fail();
+        }catch(UnsupportedOperationException ignored){ }
+        Assert.assertArrayEquals(new double[]{ 1D, 2D }, doubles.copyOf(), 0D);
+    }
+
 }